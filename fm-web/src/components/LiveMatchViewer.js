@@ -50,19 +50,16 @@ const LiveMatchViewer = () => {
             onConnect: () => {
                 setIsConnected(true);
 
-                // Subscribe to match updates
+                // Subscribe to match updates, each frame carries the events played since the previous one
                 stompClient.current.subscribe('/topic/match/' + matchId, (message) => {
-                    const update = JSON.parse(message.body);
+                    const { events: newEvents, ...update } = JSON.parse(message.body);
                     setMatchSession(prev => ({
                         ...prev,
                         ...update
                     }));
-                });
-
-                // Subscribe to match events
-                stompClient.current.subscribe('/topic/match/' + matchId + '/events', (message) => {
-                    const event = JSON.parse(message.body);
-                    setEvents(prev => [...prev, event]);
+                    if (newEvents && newEvents.length > 0) {
+                        setEvents(prev => [...prev, ...newEvents]);
+                    }
                 });
             },
             onDisconnect: () => {
@@ -0,0 +1,266 @@
+package com.lollito.fm.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.lollito.fm.dto.StaffBonusesDTO;
+import com.lollito.fm.mapper.ClubMapperImpl;
+import com.lollito.fm.model.Club;
+import com.lollito.fm.model.Formation;
+import com.lollito.fm.model.Match;
+import com.lollito.fm.model.MatchPlayerStats;
+import com.lollito.fm.model.Module;
+import com.lollito.fm.model.Player;
+import com.lollito.fm.model.PlayerRole;
+import com.lollito.fm.model.Ranking;
+import com.lollito.fm.model.Round;
+import com.lollito.fm.model.Season;
+import com.lollito.fm.model.Stadium;
+import com.lollito.fm.model.Team;
+import com.lollito.fm.repository.rest.MatchRepository;
+import com.lollito.fm.repository.rest.PlayerRepository;
+import com.lollito.fm.repository.rest.RankingRepository;
+import com.lollito.fm.service.FormationService;
+import com.lollito.fm.service.InjuryService;
+import com.lollito.fm.service.ManagerProgressionService;
+import com.lollito.fm.service.MentalityService;
+import com.lollito.fm.service.ModuleService;
+import com.lollito.fm.service.PlayerHistoryService;
+import com.lollito.fm.service.PlayerService;
+import com.lollito.fm.service.PlayerStateBuffer;
+import com.lollito.fm.service.RankingService;
+import com.lollito.fm.service.StandingsEngine;
+import com.lollito.fm.service.SimulationMatchService;
+import com.lollito.fm.service.StadiumService;
+import com.lollito.fm.service.StaffService;
+import com.lollito.fm.utils.RandomUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * In-memory clubs and services for the benchmarks.
+ *
+ * The services under measure are the real ones; repositories and the
+ * collaborators that only write to the database are replaced by stubs, so no
+ * Spring context or database is involved.
+ */
+final class Fixtures {
+
+	/** Squad of each generated club: 3 goalkeepers and 5 players for each other role. */
+	static final int SQUAD_SIZE = 28;
+
+	private Fixtures() {
+	}
+
+	/** Mock that does not record invocations, so it neither grows nor slows down over a run. */
+	static <T> T stub(Class<T> type) {
+		return mock(type, withSettings().stubOnly());
+	}
+
+	static List<Module> modules() {
+		List<Module> modules = new ArrayList<>();
+		modules.add(new Module("4-4-2", 2, 2, 4, 0, 2));
+		modules.add(new Module("4-3-3", 2, 2, 3, 0, 3));
+		modules.add(new Module("4-3-3 offensive", 2, 2, 0, 3, 3));
+		modules.add(new Module("3-5-2", 3, 0, 5, 0, 2));
+		modules.add(new Module("5-3-2", 3, 2, 3, 0, 2));
+		modules.add(new Module("5-4-1", 3, 2, 4, 0, 1));
+		modules.add(new Module("4-5-1", 2, 2, 5, 0, 1));
+		return modules;
+	}
+
+	static List<Club> clubs(int count, long seed) {
+		SplittableRandom random = new SplittableRandom(seed);
+		List<Club> clubs = new ArrayList<>(count);
+		long playerId = 1;
+		for (int c = 0; c < count; c++) {
+			Club club = new Club();
+			club.setId((long) c + 1);
+			club.setName("Club " + (c + 1));
+			Stadium stadium = new Stadium();
+			stadium.setCapacity(20000);
+			club.setStadium(stadium);
+
+			Team team = new Team();
+			for (int i = 0; i < SQUAD_SIZE; i++) {
+				team.getPlayers().add(player(playerId++, role(i), random));
+			}
+			team.setFormation(new Formation());
+			club.setTeam(team);
+			clubs.add(club);
+		}
+		return clubs;
+	}
+
+	private static PlayerRole role(int index) {
+		if (index < 3) return PlayerRole.GOALKEEPER;
+		return PlayerRole.values()[1 + (index - 3) % 5];
+	}
+
+	private static Player player(long id, PlayerRole role, SplittableRandom random) {
+		Player player = new Player();
+		player.setId(id);
+		player.setName("Name" + id);
+		player.setSurname("Surname" + id);
+		player.setRole(role);
+		player.setStamina(skill(random));
+		player.setPlaymaking(skill(random));
+		player.setScoring(skill(random));
+		player.setWinger(skill(random));
+		player.setGoalkeeping(skill(random));
+		player.setPassing(skill(random));
+		player.setDefending(skill(random));
+		player.setSetPieces(skill(random));
+		return player;
+	}
+
+	private static double skill(SplittableRandom random) {
+		return 40 + random.nextDouble() * 50;
+	}
+
+	static void restoreCondition(Club club) {
+		for (Player player : club.getTeam().getPlayers()) {
+			player.setCondition(100.0);
+		}
+	}
+
+	/** Round robin of one round: club i hosts club count-1-i. */
+	static List<Match> round(List<Club> clubs, Season season) {
+		Round round = new Round();
+		round.setNumber(1);
+		round.setSeason(season);
+		List<Match> matches = new ArrayList<>();
+		for (int i = 0; i < clubs.size() / 2; i++) {
+			Match match = new Match(clubs.get(i), clubs.get(clubs.size() - 1 - i), false);
+			match.setRound(round);
+			matches.add(match);
+		}
+		return matches;
+	}
+
+	static List<Ranking> rankings(List<Club> clubs, Season season) {
+		List<Ranking> rankings = new ArrayList<>();
+		for (Club club : clubs) {
+			Ranking ranking = new Ranking();
+			ranking.setId(season.getId() * 1000 + club.getId());
+			ranking.setClub(club);
+			ranking.setSeason(season);
+			rankings.add(ranking);
+		}
+		return rankings;
+	}
+
+	static PlayerService playerService() {
+		PlayerRepository playerRepository = stub(PlayerRepository.class);
+		// Off, as by default, the buffer saves right away
+		PlayerStateBuffer playerStateBuffer = new PlayerStateBuffer();
+		ReflectionTestUtils.setField(playerStateBuffer, "playerRepository", playerRepository);
+		ReflectionTestUtils.setField(playerStateBuffer, "enabled", false);
+		PlayerService playerService = new PlayerService();
+		ReflectionTestUtils.setField(playerService, "playerRepository", playerRepository);
+		ReflectionTestUtils.setField(playerService, "playerStateBuffer", playerStateBuffer);
+		ReflectionTestUtils.setField(playerService, "eventPublisher", (ApplicationEventPublisher) event -> {
+		});
+		return playerService;
+	}
+
+	static FormationService formationService(PlayerService playerService) {
+		List<Module> modules = modules();
+		ModuleService moduleService = new ModuleService() {
+			@Override
+			public Module randomModule() {
+				return RandomUtils.randomValueFromList(modules);
+			}
+		};
+
+		FormationService formationService = new FormationService();
+		ReflectionTestUtils.setField(formationService, "moduleService", moduleService);
+		ReflectionTestUtils.setField(formationService, "playerService", playerService);
+		ReflectionTestUtils.setField(formationService, "mentalityService", new MentalityService());
+		return formationService;
+	}
+
+	/** Repository serving the given standings, through a plain proxy instead of a mock. */
+	static RankingRepository rankingRepository(Map<Season, List<Ranking>> rankings) {
+		return (RankingRepository) Proxy.newProxyInstance(RankingRepository.class.getClassLoader(),
+				new Class<?>[] { RankingRepository.class }, (proxy, method, args) -> switch (method.getName()) {
+					case "findBySeason" -> rankings.getOrDefault(args[0], List.of());
+					case "findAllById" -> rankings.values().stream().flatMap(List::stream)
+							.filter(ranking -> ((Collection<?>) args[0]).contains(ranking.getId())).toList();
+					case "saveAll" -> new ArrayList<>((Collection<?>) args[0]);
+					default -> throw new UnsupportedOperationException(method.getName());
+				});
+	}
+
+	static RankingService rankingService(RankingRepository rankingRepository) {
+		StandingsEngine standingsEngine = new StandingsEngine();
+		ReflectionTestUtils.setField(standingsEngine, "rankingRepository", rankingRepository);
+		ReflectionTestUtils.setField(standingsEngine, "clubMapper", new ClubMapperImpl());
+		ReflectionTestUtils.setField(standingsEngine, "maxAgeSeconds", 3600L);
+		RankingService rankingService = new RankingService();
+		ReflectionTestUtils.setField(rankingService, "rankingLineRepository", rankingRepository);
+		ReflectionTestUtils.setField(rankingService, "standingsEngine", standingsEngine);
+		return rankingService;
+	}
+
+	/**
+	 * Collaborators called once per player or per formation are plain
+	 * overrides rather than mocks: Mockito walks the stack on every invocation.
+	 */
+	static SimulationMatchService simulationMatchService() {
+		return simulationMatchService(stub(RankingService.class));
+	}
+
+	static SimulationMatchService simulationMatchService(RankingService rankingService) {
+		PlayerService playerService = playerService();
+		InjuryService injuryService = new InjuryService() {
+			@Override
+			public boolean checkForInjury(Player player, Double matchIntensity, Double injuryReduction) {
+				return false;
+			}
+		};
+		StaffService staffService = new StaffService() {
+			@Override
+			public StaffBonusesDTO calculateClubStaffBonuses(Club club) {
+				return new StaffBonusesDTO();
+			}
+		};
+		PlayerHistoryService playerHistoryService = new PlayerHistoryService() {
+			@Override
+			public void updateMatchStatistics(Player player, MatchPlayerStats matchStats) {
+			}
+
+			@Override
+			public void updateMatchStatisticsBatch(List<MatchPlayerStats> allMatchStats) {
+			}
+		};
+
+		SimulationMatchService service = new SimulationMatchService();
+		ReflectionTestUtils.setField(service, "formationService", formationService(playerService));
+		ReflectionTestUtils.setField(service, "playerService", playerService);
+		ReflectionTestUtils.setField(service, "matchRepository", stub(MatchRepository.class));
+		ReflectionTestUtils.setField(service, "rankingService", rankingService);
+		ReflectionTestUtils.setField(service, "stadiumService", new StadiumService());
+		ReflectionTestUtils.setField(service, "playerHistoryService", playerHistoryService);
+		ReflectionTestUtils.setField(service, "injuryService", injuryService);
+		ReflectionTestUtils.setField(service, "managerProgressionService", stub(ManagerProgressionService.class));
+		ReflectionTestUtils.setField(service, "staffService", staffService);
+		// Match finished events would go to the outbox after commit; nothing listens here
+		ReflectionTestUtils.setField(service, "eventPublisher", (ApplicationEventPublisher) event -> {
+		});
+		ReflectionTestUtils.setField(service, "simulationPool", ForkJoinPool.commonPool());
+		ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+		return service;
+	}
+}
@@ -0,0 +1,60 @@
+package com.lollito.fm.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lollito.fm.model.Formation;
+import com.lollito.fm.model.Player;
+import com.lollito.fm.service.FormationService;
+import com.lollito.fm.service.PlayerService;
+
+/**
+ * Line-up selection and the team averages read by the engine, on a full squad.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormationBenchmark {
+
+	private PlayerService playerService;
+	private FormationService formationService;
+	private List<Player> squad;
+	private List<Player> lineup;
+
+	@Setup
+	public void setUp() {
+		playerService = Fixtures.playerService();
+		formationService = Fixtures.formationService(playerService);
+		squad = Fixtures.clubs(1, 42L).get(0).getTeam().getPlayers();
+		lineup = formationService.createFormation(squad, null).getPlayers();
+	}
+
+	@Benchmark
+	public Formation createFormation() {
+		return formationService.createFormation(squad, null);
+	}
+
+	@Benchmark
+	public int offenceAverage() {
+		return playerService.getOffenceAverage(lineup);
+	}
+
+	@Benchmark
+	public int defenceAverage() {
+		return playerService.getDefenceAverage(lineup);
+	}
+}
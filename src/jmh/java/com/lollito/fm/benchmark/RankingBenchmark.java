@@ -0,0 +1,69 @@
+package com.lollito.fm.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lollito.fm.model.Club;
+import com.lollito.fm.model.Match;
+import com.lollito.fm.model.Ranking;
+import com.lollito.fm.model.Season;
+import com.lollito.fm.service.RankingService;
+
+/**
+ * Standings update after a server round spanning several leagues.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RankingBenchmark {
+
+	@Param({ "1", "10" })
+	private int leagues;
+
+	private RankingService rankingService;
+	private List<Match> matches;
+
+	@Setup
+	public void setUp() {
+		Map<Season, List<Ranking>> rankings = new HashMap<>();
+		SplittableRandom random = new SplittableRandom(42L);
+		matches = new ArrayList<>();
+		for (int l = 0; l < leagues; l++) {
+			Season season = new Season();
+			season.setId((long) l + 1);
+			List<Club> clubs = Fixtures.clubs(20, l);
+			rankings.put(season, Fixtures.rankings(clubs, season));
+			for (Match match : Fixtures.round(clubs, season)) {
+				match.setHomeScore(random.nextInt(5));
+				match.setAwayScore(random.nextInt(5));
+				matches.add(match);
+			}
+		}
+		rankingService = Fixtures.rankingService(Fixtures.rankingRepository(rankings));
+	}
+
+	@Benchmark
+	public List<Match> updateAll() {
+		rankingService.updateAll(matches);
+		return matches;
+	}
+}
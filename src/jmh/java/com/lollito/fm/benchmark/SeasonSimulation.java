@@ -0,0 +1,279 @@
+package com.lollito.fm.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.lollito.fm.model.Club;
+import com.lollito.fm.model.Country;
+import com.lollito.fm.model.League;
+import com.lollito.fm.model.Match;
+import com.lollito.fm.model.Player;
+import com.lollito.fm.model.Ranking;
+import com.lollito.fm.model.Round;
+import com.lollito.fm.model.Season;
+import com.lollito.fm.model.Server;
+import com.lollito.fm.repository.rest.LeagueRepository;
+import com.lollito.fm.repository.rest.RankingRepository;
+import com.lollito.fm.repository.rest.SeasonRepository;
+import com.lollito.fm.repository.rest.ServerRepository;
+import com.lollito.fm.service.AchievementService;
+import com.lollito.fm.service.ClubService;
+import com.lollito.fm.service.CountryService;
+import com.lollito.fm.service.NameService;
+import com.lollito.fm.service.PlayerService;
+import com.lollito.fm.service.RankingService;
+import com.lollito.fm.service.SeasonService;
+import com.lollito.fm.service.ServerService;
+import com.lollito.fm.service.SimulationMatchService;
+import com.lollito.fm.service.TeamService;
+import com.lollito.fm.service.UserService;
+import com.lollito.fm.utils.NameGenerator;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Headless simulation of whole seasons, to size hardware and tune the engine
+ * without running the application against a database.
+ *
+ * The server is built by {@link ServerService#create(String)} and every round
+ * goes through {@link SimulationMatchService#simulate(List)} as
+ * {@link ServerService#next()} does, with the rounds of all leagues in one
+ * batch. Repositories are stubs: the standings are served from the seasons in
+ * memory and ids are assigned here, as the database would. Injuries are not
+ * rolled and skills do not change between rounds.
+ *
+ * Usage: {@code SeasonSimulation [leagues] [seasons]}, 20 leagues and 1 season
+ * by default.
+ */
+public class SeasonSimulation {
+
+	private final List<Country> countries = new ArrayList<>();
+	private final PlayerService playerService = Fixtures.playerService();
+	private final SeasonService seasonService = new SeasonService();
+	private final ServerService serverService = new ServerService();
+	private final SimulationMatchService simulationMatchService;
+
+	private final Map<Long, Ranking> rankings = new HashMap<>();
+
+	private long sequence;
+
+	private long matches;
+	private long goals;
+	private long homeGoals;
+	private long homeWins;
+	private long draws;
+	private long awayWins;
+	private final long[] goalsPerMatch = new long[11];
+	private long simulationNanos;
+
+	public SeasonSimulation(int leagues) throws Exception {
+		for (int l = 0; l < leagues; l++) {
+			countries.add(new Country("Country " + (l + 1), true));
+		}
+
+		NameService nameService = new NameService();
+		ReflectionTestUtils.setField(nameService, "nameGenerator", new NameGenerator("/name/custom.txt"));
+		TeamService teamService = new TeamService();
+		ReflectionTestUtils.setField(teamService, "playerService", playerService);
+		ReflectionTestUtils.setField(teamService, "nameService", nameService);
+		ClubService clubService = new ClubService();
+		ReflectionTestUtils.setField(clubService, "teamService", teamService);
+		ReflectionTestUtils.setField(clubService, "nameService", nameService);
+
+		RankingService rankingService = Fixtures.rankingService(rankingRepository(rankings));
+		ReflectionTestUtils.setField(seasonService, "seasonRepository", Fixtures.stub(SeasonRepository.class));
+		ReflectionTestUtils.setField(seasonService, "rankingService", rankingService);
+		ReflectionTestUtils.setField(seasonService, "achievementService", Fixtures.stub(AchievementService.class));
+
+		CountryService countryService = Fixtures.stub(CountryService.class);
+		when(countryService.findByCreateLeague(true)).thenReturn(countries);
+		ServerRepository serverRepository = Fixtures.stub(ServerRepository.class);
+		when(serverRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		ReflectionTestUtils.setField(serverService, "serverRepository", serverRepository);
+		ReflectionTestUtils.setField(serverService, "countryService", countryService);
+		ReflectionTestUtils.setField(serverService, "userService", Fixtures.stub(UserService.class));
+		ReflectionTestUtils.setField(serverService, "clubService", clubService);
+		ReflectionTestUtils.setField(serverService, "seasonService", seasonService);
+		// The leagues are saved league by league in one transaction; all of it is a no-op here
+		ReflectionTestUtils.setField(serverService, "transactionManager", Fixtures.stub(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(serverService, "leagueRepository", Fixtures.stub(LeagueRepository.class));
+		ReflectionTestUtils.setField(serverService, "entityManager", Fixtures.stub(EntityManager.class));
+		ReflectionTestUtils.setField(serverService, "simulationPool", ForkJoinPool.commonPool());
+
+		simulationMatchService = Fixtures.simulationMatchService(rankingService);
+	}
+
+	/** Standings read from the season in memory; saving them is a no-op. */
+	private static RankingRepository rankingRepository(Map<Long, Ranking> rankings) {
+		return (RankingRepository) Proxy.newProxyInstance(RankingRepository.class.getClassLoader(),
+				new Class<?>[] { RankingRepository.class }, (proxy, method, args) -> switch (method.getName()) {
+					case "findBySeason" -> ((Season) args[0]).getRankingLines();
+					case "findAllById" -> ((Collection<?>) args[0]).stream().map(rankings::get).toList();
+					case "saveAll" -> new ArrayList<>((Collection<?>) args[0]);
+					default -> throw new UnsupportedOperationException(method.getName());
+				});
+	}
+
+	public static void main(String[] args) throws Exception {
+		((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+		int leagues = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+		int seasons = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+
+		SeasonSimulation simulation = new SeasonSimulation(leagues);
+		long start = System.nanoTime();
+		Server server = simulation.serverService.create("headless");
+		simulation.identify(server);
+		long created = System.nanoTime();
+		System.out.printf("Server: %d leagues, %d clubs, %d players in %d ms, %d MB heap after GC%n",
+				leagues, simulation.clubs(server).size(), simulation.players(server).size(),
+				(created - start) / 1_000_000, usedHeapAfterGc() / (1024 * 1024));
+
+		for (int s = 1; s <= seasons; s++) {
+			long seasonStart = System.nanoTime();
+			simulation.playSeason(server);
+			System.out.printf("Season %d: %d ms, %d MB heap after GC%n",
+					s, (System.nanoTime() - seasonStart) / 1_000_000, usedHeapAfterGc() / (1024 * 1024));
+		}
+		simulation.report(ForkJoinPool.commonPool().getParallelism());
+	}
+
+	/** Plays every round of the current seasons, then starts the next ones as {@link ServerService#next()} does. */
+	void playSeason(Server server) {
+		int rounds = server.getLeagues().get(0).getCurrentSeason().getRounds().size();
+		for (int r = 0; r < rounds; r++) {
+			List<Match> round = new ArrayList<>();
+			for (League league : server.getLeagues()) {
+				round.addAll(league.getCurrentSeason().getRounds().get(r).getMatches());
+			}
+			long start = System.nanoTime();
+			simulationMatchService.simulate(round);
+			simulationNanos += System.nanoTime() - start;
+			round.forEach(this::record);
+			recover(players(server));
+		}
+
+		LocalDateTime startDate = server.getCurrentDate().plusMinutes(10);
+		for (League league : server.getLeagues()) {
+			league.addSeasonHistory(league.getCurrentSeason());
+			league.setCurrentSeason(seasonService.create(league, startDate));
+			identify(league.getCurrentSeason());
+		}
+	}
+
+	/** Condition recovered on a day without matches, as in {@link ServerService#next()}. */
+	private void recover(List<Player> players) {
+		for (Player player : players) {
+			double increment = -((10 * player.getStamina()) / 99) + (1000 / 99);
+			player.incrementCondition(increment);
+		}
+	}
+
+	private void record(Match match) {
+		int home = match.getHomeScore();
+		int away = match.getAwayScore();
+		matches++;
+		goals += home + away;
+		homeGoals += home;
+		goalsPerMatch[Math.min(home + away, goalsPerMatch.length - 1)]++;
+		if (home > away) {
+			homeWins++;
+		} else if (home == away) {
+			draws++;
+		} else {
+			awayWins++;
+		}
+	}
+
+	private void report(int parallelism) {
+		double seconds = simulationNanos / 1e9;
+		System.out.printf("Matches: %d in %.2f s of simulation, %.0f matches/s on %d threads%n",
+				matches, seconds, matches / seconds, parallelism);
+		System.out.printf("Goals: %.2f per match (home %.2f, away %.2f)%n",
+				(double) goals / matches, (double) homeGoals / matches, (double) (goals - homeGoals) / matches);
+		System.out.printf("Results: home wins %.1f%%, draws %.1f%%, away wins %.1f%%%n",
+				percent(homeWins), percent(draws), percent(awayWins));
+		StringBuilder distribution = new StringBuilder("Goals per match:");
+		for (int g = 0; g < goalsPerMatch.length; g++) {
+			distribution.append(String.format(" %s%s=%.1f%%", g, g == goalsPerMatch.length - 1 ? "+" : "", percent(goalsPerMatch[g])));
+		}
+		System.out.println(distribution);
+
+		long peak = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+		long collections = 0;
+		long collectionMillis = 0;
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			collections += Math.max(0, collector.getCollectionCount());
+			collectionMillis += Math.max(0, collector.getCollectionTime());
+		}
+		System.out.printf("Memory: peak heap %d MB, max heap %d MB, %d collections in %d ms%n",
+				peak / (1024 * 1024), Runtime.getRuntime().maxMemory() / (1024 * 1024), collections, collectionMillis);
+	}
+
+	private double percent(long count) {
+		return matches == 0 ? 0 : 100.0 * count / matches;
+	}
+
+	private static long usedHeapAfterGc() {
+		System.gc();
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private List<Club> clubs(Server server) {
+		return server.getLeagues().stream().flatMap(league -> league.getClubs().stream()).toList();
+	}
+
+	private List<Player> players(Server server) {
+		return clubs(server).stream().flatMap(club -> club.getTeam().getPlayers().stream()).toList();
+	}
+
+	/** Ids the database would assign: clubs and seasons are keys of the standings. */
+	private void identify(Server server) {
+		server.setId(++sequence);
+		for (League league : server.getLeagues()) {
+			league.setId(++sequence);
+			for (Club club : league.getClubs()) {
+				club.setId(++sequence);
+				club.getTeam().setId(++sequence);
+				club.getTeam().getPlayers().forEach(player -> player.setId(++sequence));
+			}
+			identify(league.getCurrentSeason());
+		}
+	}
+
+	private void identify(Season season) {
+		season.setId(++sequence);
+		season.getRankingLines().forEach(ranking -> {
+			ranking.setId(++sequence);
+			rankings.put(ranking.getId(), ranking);
+		});
+		for (Round round : season.getRounds()) {
+			round.setId(++sequence);
+			round.getMatches().forEach(match -> match.setId(++sequence));
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package com.lollito.fm.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lollito.fm.engine.FormationSnapshot;
+import com.lollito.fm.engine.MatchEngine;
+import com.lollito.fm.model.Club;
+import com.lollito.fm.model.Formation;
+import com.lollito.fm.model.Match;
+import com.lollito.fm.model.Player;
+import com.lollito.fm.model.dto.MatchResult;
+import com.lollito.fm.service.FormationService;
+import com.lollito.fm.service.SimulationMatchService;
+
+/**
+ * Throughput of a single match: the whole {@link SimulationMatchService}
+ * pipeline (formations, engine, materialisation of events and statistics) and
+ * the engine kernel alone on pre-built snapshots.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulationBenchmark {
+
+	private SimulationMatchService simulationMatchService;
+	private Club home;
+	private Club away;
+
+	private Formation homeFormation;
+	private Formation awayFormation;
+	private FormationService formationService;
+	private long seed;
+
+	@Setup
+	public void setUp() {
+		simulationMatchService = Fixtures.simulationMatchService();
+		List<Club> clubs = Fixtures.clubs(2, 42L);
+		home = clubs.get(0);
+		away = clubs.get(1);
+
+		formationService = Fixtures.formationService(Fixtures.playerService());
+		homeFormation = formationService.createFormation(home.getTeam().getPlayers(), null);
+		awayFormation = formationService.createFormation(away.getTeam().getPlayers(), null);
+	}
+
+	@Benchmark
+	public MatchResult simulateMatch() {
+		Fixtures.restoreCondition(home);
+		Fixtures.restoreCondition(away);
+		Match match = new Match(home, away, false);
+		return simulationMatchService.simulate(match, null, false, false);
+	}
+
+	@Benchmark
+	public int playEngine() {
+		MatchEngine engine = MatchEngine.seeded(snapshot(homeFormation), snapshot(awayFormation), 5, seed++);
+		engine.play();
+		return engine.getHomeScore() - engine.getAwayScore();
+	}
+
+	private FormationSnapshot snapshot(Formation formation) {
+		return FormationSnapshot.of(formation,
+				new ArrayList<Player>(formationService.getDefender(formation)),
+				new ArrayList<Player>(formationService.getMiedfileder(formation)),
+				new ArrayList<Player>(formationService.getOffender(formation)));
+	}
+}
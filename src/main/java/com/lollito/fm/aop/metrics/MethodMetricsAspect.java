@@ -0,0 +1,264 @@
+package com.lollito.fm.aop.metrics;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.util.ClassUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Times every service and repository method into {@code fm.method.duration}
+ * (tags layer, class, method, exception) and logs the calls slower than
+ * {@code fm.instrumentation.slow-threshold-ms}, at most once per method every
+ * {@code fm.instrumentation.slow-log-interval-ms}. A failed call is logged at
+ * error with its stack trace, at most once per method every
+ * {@code fm.instrumentation.error-log-interval-ms}. Arguments and results are
+ * never rendered.
+ * <p>
+ * Packages and classes can be switched off at runtime: the most specific
+ * override of a class name or one of its packages wins, otherwise
+ * {@code fm.instrumentation.enabled} applies. A switched off method only pays
+ * for the lookup of its probe.
+ */
+@Aspect
+@Slf4j
+public class MethodMetricsAspect {
+
+    static final String LAYER_SERVICE = "service";
+    static final String LAYER_REPOSITORY = "repository";
+
+    private static final String APPLICATION_PACKAGE = "com.lollito.fm.";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${fm.instrumentation.enabled:true}")
+    private boolean enabledByDefault = true;
+
+    @Value("${fm.instrumentation.disabled-packages:}")
+    private List<String> disabledPackages = List.of();
+
+    @Value("${fm.instrumentation.histogram:false}")
+    private boolean histogram;
+
+    @Value("${fm.instrumentation.slow-threshold-ms:500}")
+    private long slowThresholdMs = 500;
+
+    @Value("${fm.instrumentation.slow-log-interval-ms:10000}")
+    private long slowLogIntervalMs = 10000;
+
+    @Value("${fm.instrumentation.error-log-interval-ms:10000}")
+    private long errorLogIntervalMs = 10000;
+
+    private final Map<String, Boolean> overrides = new ConcurrentHashMap<>();
+
+    /** Bumped on every override change, so that probes resolve their switch again. */
+    private final AtomicInteger generation = new AtomicInteger();
+
+    private final Map<Class<?>, Map<Method, Probe>> probes = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (String name : disabledPackages) {
+            if (!name.isBlank()) {
+                overrides.put(name.trim(), false);
+            }
+        }
+        generation.incrementAndGet();
+    }
+
+    @Pointcut("within(com.lollito.fm.service..*)")
+    public void servicePointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    @Pointcut("this(org.springframework.data.repository.Repository)")
+    public void repositoryPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    @Around("servicePointcut()")
+    public Object aroundService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(joinPoint, LAYER_SERVICE);
+    }
+
+    @Around("repositoryPointcut()")
+    public Object aroundRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(joinPoint, LAYER_REPOSITORY);
+    }
+
+    /** Switches the instrumentation of a package, or of a single class, on or off. */
+    public void setEnabled(String name, boolean enabled) {
+        overrides.put(name, enabled);
+        generation.incrementAndGet();
+    }
+
+    /** Drops the override of a package or class, which then follows its enclosing package. */
+    public void reset(String name) {
+        if (overrides.remove(name) != null) {
+            generation.incrementAndGet();
+        }
+    }
+
+    public Map<String, Boolean> getOverrides() {
+        return new TreeMap<>(overrides);
+    }
+
+    public boolean isEnabled(String name) {
+        for (String current = name; !current.isEmpty(); current = parent(current)) {
+            Boolean enabled = overrides.get(current);
+            if (enabled != null) {
+                return enabled;
+            }
+        }
+        return enabledByDefault;
+    }
+
+    private Object record(ProceedingJoinPoint joinPoint, String layer) throws Throwable {
+        Probe probe = probe(joinPoint, layer);
+        if (!probe.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            failure = e;
+            probe.failed(e);
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            probe.timer(failure).record(elapsed, TimeUnit.NANOSECONDS);
+            if (elapsed >= TimeUnit.MILLISECONDS.toNanos(slowThresholdMs)) {
+                probe.slow(elapsed, failure);
+            }
+        }
+    }
+
+    private Probe probe(ProceedingJoinPoint joinPoint, String layer) {
+        Object proxy = joinPoint.getThis() != null ? joinPoint.getThis() : joinPoint.getTarget();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return probes.computeIfAbsent(proxy.getClass(), key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(method, key -> new Probe(layer, type(joinPoint), method.getName()));
+    }
+
+    /** The class of a service, or the interface of a repository rather than its generated implementation. */
+    private static Class<?> type(ProceedingJoinPoint joinPoint) {
+        Object target = joinPoint.getTarget();
+        if (target != null && !Proxy.isProxyClass(target.getClass())) {
+            return ClassUtils.getUserClass(target);
+        }
+        Object proxy = joinPoint.getThis() != null ? joinPoint.getThis() : target;
+        for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(proxy.getClass())) {
+            if (candidate.getName().startsWith(APPLICATION_PACKAGE)) {
+                return candidate;
+            }
+        }
+        return joinPoint.getSignature().getDeclaringType();
+    }
+
+    private static String parent(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(0, dot);
+    }
+
+    private final class Probe {
+
+        private final String layer;
+        private final String typeName;
+        private final String className;
+        private final String method;
+        private final Timer timer;
+        private final Counter slowCalls;
+        private final Map<Class<?>, Timer> failures = new ConcurrentHashMap<>();
+        private final AtomicLong lastSlowLog = new AtomicLong();
+        private final AtomicLong slowNotLogged = new AtomicLong();
+        private final AtomicLong lastErrorLog = new AtomicLong();
+        private final AtomicLong errorsNotLogged = new AtomicLong();
+        private volatile boolean enabled;
+        private volatile int resolvedAt = -1;
+
+        private Probe(String layer, Class<?> type, String method) {
+            this.layer = layer;
+            this.typeName = type.getName();
+            this.className = type.getSimpleName();
+            this.method = method;
+            this.timer = timer("none");
+            this.slowCalls = meterRegistry.counter("fm.method.slow", "layer", layer, "class", className, "method", method);
+        }
+
+        private boolean isEnabled() {
+            int current = generation.get();
+            if (resolvedAt != current) {
+                enabled = MethodMetricsAspect.this.isEnabled(typeName);
+                resolvedAt = current;
+            }
+            return enabled;
+        }
+
+        private Timer timer(Throwable failure) {
+            if (failure == null) {
+                return timer;
+            }
+            return failures.computeIfAbsent(failure.getClass(), type -> timer(type.getSimpleName()));
+        }
+
+        private Timer timer(String exception) {
+            return Timer.builder("fm.method.duration")
+                    .tags("layer", layer, "class", className, "method", method, "exception", exception)
+                    .publishPercentileHistogram(histogram)
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry);
+        }
+
+        private void slow(long elapsedNanos, Throwable failure) {
+            slowCalls.increment();
+            if (!due(lastSlowLog, slowLogIntervalMs, slowNotLogged)) {
+                return;
+            }
+            log.warn("slow_call layer={} class={} method={} duration_ms={} exception={} slow_calls_not_logged={}",
+                    layer, className, method, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    failure == null ? "none" : failure.getClass().getSimpleName(), slowNotLogged.getAndSet(0));
+        }
+
+        private void failed(Throwable failure) {
+            if (!due(lastErrorLog, errorLogIntervalMs, errorsNotLogged)) {
+                return;
+            }
+            log.error("failed_call layer={} class={} method={} exception={} failed_calls_not_logged={}",
+                    layer, className, method, failure.getClass().getSimpleName(), errorsNotLogged.getAndSet(0), failure);
+        }
+
+        /** Whether a log is due, once per interval; the skipped ones are counted. */
+        private boolean due(AtomicLong lastLog, long intervalMs, AtomicLong notLogged) {
+            long now = System.currentTimeMillis();
+            long last = lastLog.get();
+            if (now - last < intervalMs || !lastLog.compareAndSet(last, now)) {
+                notLogged.incrementAndGet();
+                return false;
+            }
+            return true;
+        }
+    }
+}
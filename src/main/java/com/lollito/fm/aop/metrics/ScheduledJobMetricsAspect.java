@@ -0,0 +1,50 @@
+package com.lollito.fm.aop.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.ClassUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every {@code @Scheduled} method into {@code fm.scheduled.duration}
+ * (tags class, method, exception). Jobs returning a count, such as the number
+ * of events drained or players written, add it to {@code fm.scheduled.items};
+ * jobs going through the BatchJobRunner report their items as
+ * {@code fm.batch.job.items}.
+ */
+@Aspect
+public class ScheduledJobMetricsAspect {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Pointcut("@annotation(org.springframework.scheduling.annotation.Scheduled)")
+    public void scheduledPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    @Around("scheduledPointcut()")
+    public Object aroundScheduled(ProceedingJoinPoint joinPoint) throws Throwable {
+        String className = ClassUtils.getUserClass(joinPoint.getTarget()).getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            Object result = joinPoint.proceed();
+            if (result instanceof Number items) {
+                meterRegistry.counter("fm.scheduled.items", "class", className, "method", method).increment(items.doubleValue());
+            }
+            return result;
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("fm.scheduled.duration", "class", className, "method", method, "exception", exception));
+        }
+    }
+}
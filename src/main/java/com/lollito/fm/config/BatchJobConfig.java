@@ -0,0 +1,46 @@
+package com.lollito.fm.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class BatchJobConfig {
+
+	public static final String EXECUTOR = "batchJobExecutor";
+
+	public static final String ON_DEMAND_EXECUTOR = "onDemandBatchJobExecutor";
+
+	/**
+	 * Workers of {@code BatchJobRunner} when {@code fm.batch.parallelism} is
+	 * greater than one: each runs a chunk in its own transaction, so the
+	 * parallelism also bounds the database connections a job takes.
+	 */
+	@Bean(name = EXECUTOR)
+	public ThreadPoolTaskExecutor batchJobExecutor(@Value("${fm.batch.parallelism:1}") int parallelism) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(parallelism);
+		executor.setMaxPoolSize(parallelism);
+		executor.setThreadNamePrefix("batch-job-");
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(30);
+		return executor;
+	}
+
+	/**
+	 * Runs the batch jobs started from a request, away from the request
+	 * thread, one at a time: a job started while another runs is rejected.
+	 */
+	@Bean(name = ON_DEMAND_EXECUTOR)
+	public ThreadPoolTaskExecutor onDemandBatchJobExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setQueueCapacity(0);
+		executor.setThreadNamePrefix("batch-job-on-demand-");
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(30);
+		return executor;
+	}
+}
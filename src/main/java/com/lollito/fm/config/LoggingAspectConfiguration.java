@@ -1,17 +0,0 @@
-package com.lollito.fm.config;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.EnableAspectJAutoProxy;
-
-import com.lollito.fm.aop.logging.LoggingAspect;
-
-@Configuration
-@EnableAspectJAutoProxy
-public class LoggingAspectConfiguration {
-
-	@Bean
-    public LoggingAspect loggingAspect() {
-        return new LoggingAspect();
-    }
-}
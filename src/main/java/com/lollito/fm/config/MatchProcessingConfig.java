@@ -0,0 +1,54 @@
+package com.lollito.fm.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@Configuration
+public class MatchProcessingConfig {
+
+	public static final String EXECUTOR = "matchProcessingExecutor";
+
+	/**
+	 * Executor behind {@code MatchProcessor.processMatch}. Pool and queue are
+	 * bounded so a round boundary cannot take more database connections than
+	 * the pool size; a full queue rejects the task and the scheduler defers the
+	 * remaining matches to its next tick.
+	 */
+	@Bean(name = EXECUTOR)
+	public ThreadPoolTaskExecutor matchProcessingExecutor(
+			@Value("${fm.match.processing.pool-size:4}") int poolSize,
+			@Value("${fm.match.processing.queue-capacity:100}") int queueCapacity,
+			@Value("${fm.match.processing.virtual-threads:false}") boolean virtualThreads,
+			MeterRegistry meterRegistry) {
+		Timer duration = Timer.builder("fm.match.processing.duration")
+				.description("Time spent simulating and starting a scheduled match")
+				.register(meterRegistry);
+
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setVirtualThreads(virtualThreads);
+		executor.setThreadNamePrefix("match-processing-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+		executor.setTaskDecorator(task -> duration.wrap(task));
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(30);
+
+		Gauge.builder("fm.match.processing.queue.size", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+				.description("Matches waiting for a processing worker")
+				.register(meterRegistry);
+		Gauge.builder("fm.match.processing.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+				.description("Matches being processed")
+				.register(meterRegistry);
+		return executor;
+	}
+}
@@ -0,0 +1,23 @@
+package com.lollito.fm.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+import com.lollito.fm.aop.metrics.MethodMetricsAspect;
+import com.lollito.fm.aop.metrics.ScheduledJobMetricsAspect;
+
+@Configuration
+@EnableAspectJAutoProxy
+public class MetricsAspectConfiguration {
+
+	@Bean
+    public MethodMetricsAspect methodMetricsAspect() {
+        return new MethodMetricsAspect();
+    }
+
+	@Bean
+    public ScheduledJobMetricsAspect scheduledJobMetricsAspect() {
+        return new ScheduledJobMetricsAspect();
+    }
+}
@@ -0,0 +1,20 @@
+package com.lollito.fm.config;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SimulationConfig {
+
+	/**
+	 * Pool running the engine of independent matches of a round in parallel.
+	 * A parallelism of 0 uses one worker per available processor.
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public ForkJoinPool simulationPool(@Value("${fm.simulation.parallelism:0}") int parallelism) {
+		return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+	}
+}
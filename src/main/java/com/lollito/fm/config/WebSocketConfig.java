@@ -1,18 +1,84 @@
 package com.lollito.fm.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${fm.websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${fm.websocket.send-time-limit:10000}")
+    private int sendTimeLimit;
+
+    @Value("${fm.websocket.outbound-pool-size:8}")
+    private int outboundPoolSize;
+
+    /** {@code simple} for the in-JVM broker, {@code relay} for an external STOMP broker */
+    @Value("${fm.websocket.broker:simple}")
+    private String broker;
+
+    @Value("${fm.websocket.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${fm.websocket.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${fm.websocket.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${fm.websocket.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${fm.websocket.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    /**
+     * The simple broker only reaches clients connected to this node. In relay
+     * mode /topic and /queue go through an external STOMP broker shared by all
+     * nodes, and user destinations are resolved across nodes via broadcast
+     * topics.
+     */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        if ("relay".equalsIgnoreCase(broker)) {
+            StompBrokerRelayRegistration relay = config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/user-registry");
+            if (!relayVirtualHost.isEmpty()) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+        } else {
+            config.enableSimpleBroker("/topic", "/queue");
+        }
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user");
     }
@@ -23,4 +89,33 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
     }
+
+    /**
+     * Caps what a single client may have waiting to be written. A session that
+     * exceeds the buffer or blocks a send for longer than the time limit is
+     * closed instead of holding back the outbound threads for everyone else.
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendBufferSizeLimit(sendBufferSizeLimit);
+        registration.setSendTimeLimit(sendTimeLimit);
+    }
+
+    /**
+     * Outbound threads and {@code fm.websocket.messages.sent}: the STOMP
+     * MESSAGE frames handed to client sessions, one per subscriber.
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor().corePoolSize(outboundPoolSize).maxPoolSize(outboundPoolSize);
+        Counter sent = meterRegistry.counter("fm.websocket.messages.sent");
+        registration.interceptors(new ExecutorChannelInterceptor() {
+            @Override
+            public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+                if (ex == null && SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+                    sent.increment();
+                }
+            }
+        });
+    }
 }
@@ -12,6 +12,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,6 +25,9 @@ public class AuthTokenFilter extends OncePerRequestFilter {
   @Autowired
   private UserDetailsService userDetailsService;
 
+  @Autowired
+  private JwtPrincipalCache principalCache;
+
   private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
   @Override
@@ -31,10 +35,8 @@ public class AuthTokenFilter extends OncePerRequestFilter {
       throws ServletException, IOException {
     try {
       String jwt = parseJwt(request);
-      if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-        String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+      UserDetails userDetails = jwt != null ? resolvePrincipal(jwt) : null;
+      if (userDetails != null) {
         UsernamePasswordAuthenticationToken authentication =
             new UsernamePasswordAuthenticationToken(
                 userDetails,
@@ -51,6 +53,19 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     filterChain.doFilter(request, response);
   }
 
+  /** The principal of a valid token, verified and loaded once per cache ttl */
+  private UserDetails resolvePrincipal(String jwt) {
+    UserDetails userDetails = principalCache.get(jwt);
+    if (userDetails == null) {
+      Claims claims = jwtUtils.parseJwtClaims(jwt);
+      if (claims != null) {
+        userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        principalCache.put(jwt, userDetails, claims.getExpiration());
+      }
+    }
+    return userDetails;
+  }
+
   private String parseJwt(HttpServletRequest request) {
     String jwt = jwtUtils.getJwtFromCookies(request);
     return jwt;
@@ -0,0 +1,83 @@
+package com.lollito.fm.config.security.jwt;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.lollito.fm.metrics.CacheStats;
+import com.lollito.fm.metrics.MeteredCache;
+
+/**
+ * Principals of tokens already verified, so that a request carrying one of
+ * them skips the signature check and the user and roles lookup. An entry
+ * lives for the configured ttl and never past the expiration of its token;
+ * role changes and deactivations therefore take effect within the ttl.
+ */
+@Component
+public class JwtPrincipalCache implements MeteredCache {
+
+	@Value("${fm.app.principalCacheTtlMs:60000}")
+	private long ttlMs = 60000;
+
+	@Value("${fm.app.principalCacheSize:10000}")
+	private int maxSize = 10000;
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private final CacheStats cacheStats = new CacheStats("jwt-principals", entries::size);
+
+	private record Entry(UserDetails principal, long expiresAt) {}
+
+	public UserDetails get(String token) {
+		Entry entry = entries.get(token);
+		if (entry == null) {
+			cacheStats.miss();
+			return null;
+		}
+		if (entry.expiresAt() <= System.currentTimeMillis()) {
+			entries.remove(token, entry);
+			cacheStats.miss();
+			return null;
+		}
+		cacheStats.hit();
+		return entry.principal();
+	}
+
+	public void put(String token, UserDetails principal, Date tokenExpiration) {
+		long now = System.currentTimeMillis();
+		long expiresAt = now + ttlMs;
+		if (tokenExpiration != null) {
+			expiresAt = Math.min(expiresAt, tokenExpiration.getTime());
+		}
+		if (expiresAt <= now) {
+			return;
+		}
+		if (entries.size() >= maxSize) {
+			entries.values().removeIf(entry -> entry.expiresAt() <= now);
+			if (entries.size() >= maxSize) {
+				// Every entry is live: start over rather than track recency on each hit
+				entries.clear();
+			}
+		}
+		entries.put(token, new Entry(principal, expiresAt));
+	}
+
+	public void evict(String token) {
+		if (token != null) {
+			entries.remove(token);
+		}
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	@Override
+	public CacheStats getCacheStats() {
+		return cacheStats;
+	}
+}
@@ -13,12 +13,15 @@ import org.springframework.web.util.WebUtils;
 
 import com.lollito.fm.model.User;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -34,10 +37,21 @@ public class JwtUtils {
 
 	private String jwtCookie = "fm_jwt";
 
+	/** Built on first use, the secret being injected after construction */
+	private volatile JwtParser parser;
+
 	private javax.crypto.SecretKey key() {
 		return Keys.hmacShaKeyFor(jwtSecret.getBytes());
 	}
 
+	private JwtParser parser() {
+		JwtParser current = parser;
+		if (current == null) {
+			current = parser = Jwts.parser().verifyWith(key()).build();
+		}
+		return current;
+	}
+
 	public String getJwtFromCookies(HttpServletRequest request) {
 		Cookie cookie = WebUtils.getCookie(request, jwtCookie);
 		if (cookie != null) {
@@ -83,14 +97,20 @@ public class JwtUtils {
 	}
 
 	public String getUserNameFromJwtToken(String token) {
-		return Jwts.parser().verifyWith(key()).build()
-				.parseSignedClaims(token).getPayload().getSubject();
+		return parser().parseSignedClaims(token).getPayload().getSubject();
 	}
 
 	public boolean validateJwtToken(String authToken) {
+		return parseJwtClaims(authToken) != null;
+	}
+
+	/**
+	 * Verifies the token and returns its claims in a single parse, or null
+	 * when it is not valid.
+	 */
+	public Claims parseJwtClaims(String authToken) {
 		try {
-			Jwts.parser().verifyWith(key()).build().parseSignedClaims(authToken);
-			return true;
+			return parser().parseSignedClaims(authToken).getPayload();
 		} catch (MalformedJwtException e) {
 			logger.error("Invalid JWT token: {}", e.getMessage());
 		} catch (ExpiredJwtException e) {
@@ -99,8 +119,10 @@ public class JwtUtils {
 			logger.error("JWT token is unsupported: {}", e.getMessage());
 		} catch (IllegalArgumentException e) {
 			logger.error("JWT claims string is empty: {}", e.getMessage());
+		} catch (SignatureException e) {
+			logger.error("Invalid JWT signature: {}", e.getMessage());
 		}
 
-		return false;
+		return null;
 	}
 }
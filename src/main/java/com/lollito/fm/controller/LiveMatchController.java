@@ -26,8 +26,10 @@ public class LiveMatchController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getLiveMatch(@PathVariable Long id) {
-        return ResponseEntity.ok(liveMatchService.getLiveMatchData(id));
+    public ResponseEntity<LiveMatchService.LiveMatchData> getLiveMatch(@PathVariable Long id) {
+        return liveMatchService.getLiveMatchData(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/all")
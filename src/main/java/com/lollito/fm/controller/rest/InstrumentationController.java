@@ -0,0 +1,44 @@
+package com.lollito.fm.controller.rest;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.lollito.fm.aop.metrics.MethodMetricsAspect;
+
+/**
+ * Switches the method timers of a package or class on and off on this node.
+ */
+@RestController
+@RequestMapping("/api/admin/instrumentation")
+@PreAuthorize("hasRole('ADMIN')")
+public class InstrumentationController {
+
+    @Autowired
+    private MethodMetricsAspect methodMetricsAspect;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Boolean>> getOverrides() {
+        return ResponseEntity.ok(methodMetricsAspect.getOverrides());
+    }
+
+    @PutMapping
+    public ResponseEntity<Map<String, Boolean>> setEnabled(@RequestParam String name, @RequestParam boolean enabled) {
+        methodMetricsAspect.setEnabled(name, enabled);
+        return ResponseEntity.ok(methodMetricsAspect.getOverrides());
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Map<String, Boolean>> reset(@RequestParam String name) {
+        methodMetricsAspect.reset(name);
+        return ResponseEntity.ok(methodMetricsAspect.getOverrides());
+    }
+}
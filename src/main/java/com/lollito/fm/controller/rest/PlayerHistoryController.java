@@ -1,9 +1,11 @@
 package com.lollito.fm.controller.rest;
 
+import java.net.URI;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,6 +16,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.lollito.fm.model.BatchJobCheckpoint;
 import com.lollito.fm.model.PlayerAchievement;
 import com.lollito.fm.model.PlayerSeasonStats;
 import com.lollito.fm.model.PlayerTransferHistory;
@@ -99,4 +102,22 @@ public class PlayerHistoryController {
             playerId, request.getType(), request.getTitle(), request.getDescription());
         return ResponseEntity.ok(playerHistoryService.convertToDTO(achievement));
     }
+
+    /** Starts the rebuild in the background; its progress is at the location returned. */
+    @PostMapping("/career-stats/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> rebuildCareerStats() {
+        if (!playerHistoryService.startCareerStatsRebuild()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.accepted().location(URI.create("/api/player-history/career-stats/rebuild")).build();
+    }
+
+    @GetMapping("/career-stats/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BatchJobCheckpoint> getCareerStatsRebuild() {
+        return playerHistoryService.getCareerStatsRebuild()
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
 }
@@ -1,7 +1,6 @@
 package com.lollito.fm.controller.rest;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,7 +10,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.lollito.fm.mapper.RankingMapper;
 import com.lollito.fm.model.dto.RankingDTO;
 import com.lollito.fm.service.RankingService;
 
@@ -22,13 +20,10 @@ public class RankingController {
 	private final Logger logger = LoggerFactory.getLogger(this.getClass());
 	
 	@Autowired private RankingService rankingService;
-	@Autowired private RankingMapper rankingMapper;
 	
 	@RequestMapping(value = "/", method = RequestMethod.GET)
     public List<RankingDTO> game(Model model) {
-        return rankingService.load().stream()
-			.map(rankingMapper::toDto)
-			.collect(Collectors.toList());
+        return rankingService.standings();
     }
    
 }
@@ -6,13 +6,16 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.lollito.fm.mapper.ServerMapper;
 import com.lollito.fm.model.Server;
+import com.lollito.fm.model.dto.ServerCreationProgress;
 import com.lollito.fm.model.dto.ServerDTO;
 import com.lollito.fm.model.rest.ServerResponse;
 import com.lollito.fm.service.ServerService;
@@ -32,6 +35,16 @@ public class ServerController {
         return new ServerResponse(server.getCurrentDate());
     }
 	
+	/** Progress and estimated time left of a server being created on this node */
+	@RequestMapping(value = "/creation", method = RequestMethod.GET)
+    public ServerCreationProgress creation(@RequestParam(required = true) String serverName) {
+		ServerCreationProgress progress = serverService.creationProgress(serverName);
+		if (progress == null) {
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No creation of server " + serverName);
+		}
+        return progress;
+    }
+	
 	@RequestMapping(value = "/", method = RequestMethod.GET)
     public ServerResponse game() {
 		return serverService.load();
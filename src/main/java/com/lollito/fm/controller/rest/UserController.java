@@ -21,6 +21,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.lollito.fm.config.security.jwt.JwtPrincipalCache;
 import com.lollito.fm.config.security.jwt.JwtUtils;
 import com.lollito.fm.mapper.UserMapper;
 import com.lollito.fm.model.User;
@@ -29,6 +30,7 @@ import com.lollito.fm.model.rest.LoginRequest;
 import com.lollito.fm.model.rest.RegistrationRequest;
 import com.lollito.fm.service.UserService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -43,6 +45,8 @@ public class UserController {
 
 	@Autowired private JwtUtils jwtUtils;
 
+	@Autowired private JwtPrincipalCache principalCache;
+
 	@Autowired private UserMapper userMapper;
 	
 	@RequestMapping(value = "/count", method = RequestMethod.GET)
@@ -76,7 +80,8 @@ public class UserController {
     }
 
 	@PostMapping("/logout")
-	public ResponseEntity<?> logout() {
+	public ResponseEntity<?> logout(HttpServletRequest httpRequest) {
+		principalCache.evict(jwtUtils.getJwtFromCookies(httpRequest));
 		ResponseCookie cookie = jwtUtils.getCleanJwtCookie();
 		return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, cookie.toString())
 				.body("You've been signed out!");
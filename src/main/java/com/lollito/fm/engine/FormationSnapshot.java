@@ -0,0 +1,347 @@
+package com.lollito.fm.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.lollito.fm.model.Formation;
+import com.lollito.fm.model.Module;
+import com.lollito.fm.model.Player;
+import com.lollito.fm.model.PlayerPosition;
+import com.lollito.fm.model.SubstitutionStrategy;
+
+/**
+ * Primitive, column oriented copy of one side of a match.
+ *
+ * The roster holds the starting eleven followed by the bench. Everything the
+ * engine reads or writes during the action loop lives in the arrays below and
+ * is indexed by roster position; the lineup and the position groups store
+ * indexes (lineup slots and roster entries) instead of {@link Player} references.
+ */
+public class FormationSnapshot {
+
+	static final int GOALKEEPER = 0;
+	static final int DEFENDER = 1;
+	static final int WINGBACK = 2;
+	static final int MIDFIELDER = 3;
+	static final int WING = 4;
+	static final int FORWARD = 5;
+
+	final Formation formation;
+	final Player[] roster;
+	final int lineupSize;
+	final int rosterSize;
+	final byte strategy;
+
+	/** lineup slot -> roster index */
+	final int[] lineup;
+	/** position group (see {@link PlayerPosition}) -> lineup slots */
+	final int[][] groups = new int[PlayerPosition.values().length][];
+	final int[] groupSize = new int[PlayerPosition.values().length];
+
+	final byte[] role;
+	final int[] playmaking;
+	final int[] winger;
+	final int[] passing;
+	final int[] defending;
+	final int[] scoring;
+	final int[] goalkeeping;
+	final int[] setPieces;
+	final int[] staminaSkill;
+	final double[] stamina;
+	final double[] defendingRaw;
+	final double[] condition;
+
+	final boolean[] appeared;
+	final boolean[] started;
+	final boolean[] cautioned;
+	final boolean[] benchUsed;
+	final int[] labelSlot;
+	final int[] minutesPlayed;
+	final int[] shots;
+	final int[] shotsOnTarget;
+	final int[] goals;
+	final int[] passes;
+	final int[] completedPasses;
+	final int[] tackles;
+	final int[] yellowCards;
+	final int[] redCards;
+	final int[] saves;
+	final int[] goalsConceded;
+
+	int teamPasses;
+	int teamCompletedPasses;
+	int teamShots;
+	int teamOnTarget;
+	int teamFouls;
+	int teamYellowCards;
+	int teamTackles;
+	int teamInterceptions;
+	int possession;
+	boolean substituted;
+
+	private FormationSnapshot(Formation formation, Player[] roster, int lineupSize, byte strategy) {
+		this.formation = formation;
+		this.roster = roster;
+		this.lineupSize = lineupSize;
+		this.rosterSize = roster.length;
+		this.strategy = strategy;
+
+		lineup = new int[lineupSize];
+		role = new byte[rosterSize];
+		playmaking = new int[rosterSize];
+		winger = new int[rosterSize];
+		passing = new int[rosterSize];
+		defending = new int[rosterSize];
+		scoring = new int[rosterSize];
+		goalkeeping = new int[rosterSize];
+		setPieces = new int[rosterSize];
+		staminaSkill = new int[rosterSize];
+		stamina = new double[rosterSize];
+		defendingRaw = new double[rosterSize];
+		condition = new double[rosterSize];
+		appeared = new boolean[rosterSize];
+		started = new boolean[rosterSize];
+		cautioned = new boolean[rosterSize];
+		benchUsed = new boolean[rosterSize];
+		labelSlot = new int[rosterSize];
+		minutesPlayed = new int[rosterSize];
+		shots = new int[rosterSize];
+		shotsOnTarget = new int[rosterSize];
+		goals = new int[rosterSize];
+		passes = new int[rosterSize];
+		completedPasses = new int[rosterSize];
+		tackles = new int[rosterSize];
+		yellowCards = new int[rosterSize];
+		redCards = new int[rosterSize];
+		saves = new int[rosterSize];
+		goalsConceded = new int[rosterSize];
+
+		for (int slot = 0; slot < lineupSize; slot++) {
+			lineup[slot] = slot;
+			appeared[slot] = true;
+			started[slot] = true;
+			labelSlot[slot] = slot;
+			minutesPlayed[slot] = 90;
+		}
+	}
+
+	private static FormationSnapshot of(Formation formation) {
+		List<Player> players = formation.getPlayers();
+		List<Player> substitutes = formation.getSubstitutes();
+		int lineupSize = players.size();
+		Player[] roster = new Player[lineupSize + (substitutes == null ? 0 : substitutes.size())];
+		for (int i = 0; i < lineupSize; i++) {
+			roster[i] = players.get(i);
+		}
+		for (int i = lineupSize; i < roster.length; i++) {
+			roster[i] = substitutes.get(i - lineupSize);
+		}
+		SubstitutionStrategy substitutionStrategy = formation.getSubstitutionStrategy();
+		byte strategy = (byte) (substitutionStrategy == null ? SubstitutionStrategy.AUTO : substitutionStrategy).ordinal();
+
+		FormationSnapshot snapshot = new FormationSnapshot(formation, roster, lineupSize, strategy);
+		for (int i = 0; i < roster.length; i++) {
+			Player p = roster[i];
+			snapshot.role[i] = (byte) (p.getRole() == null ? -1 : p.getRole().getvalue());
+			snapshot.playmaking[i] = intValue(p.getPlaymaking());
+			snapshot.winger[i] = intValue(p.getWinger());
+			snapshot.passing[i] = intValue(p.getPassing());
+			snapshot.defending[i] = intValue(p.getDefending());
+			snapshot.scoring[i] = intValue(p.getScoring());
+			snapshot.goalkeeping[i] = intValue(p.getGoalkeeping());
+			snapshot.setPieces[i] = intValue(p.getSetPieces());
+			snapshot.staminaSkill[i] = intValue(p.getStamina());
+			snapshot.stamina[i] = p.getStamina() == null ? 0.0 : p.getStamina();
+			snapshot.defendingRaw[i] = p.getDefending() == null ? 0.0 : p.getDefending();
+			snapshot.condition[i] = p.getCondition() == null ? 100.0 : p.getCondition();
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Snapshots a formation together with the players the formation service
+	 * assigned to each phase of play. Group members are resolved to lineup slots,
+	 * so a substitute coming on inherits the slot of the player he replaces.
+	 */
+	public static FormationSnapshot of(Formation formation, List<Player> defenders, List<Player> midfielders, List<Player> offenders) {
+		FormationSnapshot snapshot = of(formation);
+		snapshot.setGroup(PlayerPosition.DEFENCE, defenders);
+		snapshot.setGroup(PlayerPosition.MIDFIELD, midfielders);
+		snapshot.setGroup(PlayerPosition.OFFENCE, offenders);
+		return snapshot;
+	}
+
+	private void setGroup(PlayerPosition position, List<Player> players) {
+		int[] slots = new int[players == null ? 0 : players.size()];
+		int size = 0;
+		if (players != null) {
+			for (Player player : players) {
+				int slot = slotOf(player);
+				if (slot != -1) {
+					slots[size++] = slot;
+				}
+			}
+		}
+		groups[position.getvalue()] = slots;
+		groupSize[position.getvalue()] = size;
+	}
+
+	/**
+	 * Rebuilds a snapshot from the kick off columns of a {@link MatchReplay}.
+	 * The roster holds the players of {@link MatchReplay.Side#getPlayers()} in
+	 * the same order; they are only used to label events and statistics, their
+	 * current attributes are ignored. The formation is a detached copy, so a
+	 * replayed snapshot must never be written back.
+	 */
+	public static FormationSnapshot restore(MatchReplay.Side side, Player[] roster) {
+		int lineupSize = side.getLineupSize();
+		int[] module = side.getModule();
+		Formation formation = new Formation();
+		formation.setModule(new Module(null, module[0], module[1], module[2], module[3], module[4]));
+		formation.setSubstitutionStrategy(SubstitutionStrategy.values()[side.getStrategy()]);
+		formation.setPlayers(new ArrayList<>(Arrays.asList(roster).subList(0, lineupSize)));
+		formation.setSubstitutes(new ArrayList<>(Arrays.asList(roster).subList(lineupSize, roster.length)));
+
+		FormationSnapshot snapshot = new FormationSnapshot(formation, roster, lineupSize, side.getStrategy());
+		for (int i = 0; i < roster.length; i++) {
+			snapshot.role[i] = side.getRole()[i];
+			snapshot.playmaking[i] = side.getPlaymaking()[i];
+			snapshot.winger[i] = side.getWinger()[i];
+			snapshot.passing[i] = side.getPassing()[i];
+			snapshot.defending[i] = (int) side.getDefending()[i];
+			snapshot.scoring[i] = side.getScoring()[i];
+			snapshot.goalkeeping[i] = side.getGoalkeeping()[i];
+			snapshot.setPieces[i] = side.getSetPieces()[i];
+			snapshot.staminaSkill[i] = (int) side.getStamina()[i];
+			snapshot.stamina[i] = side.getStamina()[i];
+			snapshot.defendingRaw[i] = side.getDefending()[i];
+			snapshot.condition[i] = side.getCondition()[i];
+		}
+		for (int position = 0; position < snapshot.groups.length; position++) {
+			snapshot.groups[position] = side.getGroups()[position].clone();
+			snapshot.groupSize[position] = snapshot.groups[position].length;
+		}
+		return snapshot;
+	}
+
+	/** Kick off columns of this side, to be taken before the engine runs. */
+	public MatchReplay.Side capture() {
+		long[] players = new long[rosterSize];
+		for (int i = 0; i < rosterSize; i++) {
+			Long id = roster[i].getId();
+			players[i] = id == null ? 0L : id;
+		}
+		int[][] capturedGroups = new int[groups.length][];
+		for (int position = 0; position < groups.length; position++) {
+			capturedGroups[position] = Arrays.copyOf(groups[position], groupSize[position]);
+		}
+		Module module = formation.getModule();
+		int[] counts = { module.getCd(), module.getWb(), module.getMf(), module.getWng(), module.getFw() };
+		return new MatchReplay.Side(players, lineupSize, strategy, counts, capturedGroups, role.clone(),
+				playmaking.clone(), winger.clone(), passing.clone(), scoring.clone(), goalkeeping.clone(), setPieces.clone(),
+				stamina.clone(), defendingRaw.clone(), condition.clone());
+	}
+
+	private int slotOf(Player player) {
+		if (player == null) return -1;
+		for (int slot = 0; slot < lineupSize; slot++) {
+			if (roster[slot] == player) return slot;
+		}
+		return -1;
+	}
+
+	int offenceAverage(int position) {
+		int size = groupSize[position];
+		if (size == 0) return 0;
+		int[] slots = groups[position];
+		int tot = 0;
+		for (int i = 0; i < size; i++) {
+			int p = lineup[slots[i]];
+			tot += (playmaking[p] + winger[p] + passing[p] + (int) condition[p]) / 4;
+		}
+		return tot / size;
+	}
+
+	int defenceAverage(int position) {
+		int size = groupSize[position];
+		if (size == 0) return 0;
+		int[] slots = groups[position];
+		int tot = 0;
+		for (int i = 0; i < size; i++) {
+			int p = lineup[slots[i]];
+			tot += (playmaking[p] + defending[p] + (int) condition[p]) / 3;
+		}
+		return tot / size;
+	}
+
+	int scoringAverage(int p) {
+		return (scoring[p] + (int) condition[p]) / 2;
+	}
+
+	int goalkeepingAverage(int p) {
+		return (goalkeeping[p] + (int) condition[p]) / 2;
+	}
+
+	int piecesAverage(int p) {
+		return (setPieces[p] + (int) condition[p]) / 2;
+	}
+
+	int average(int p) {
+		return (staminaSkill[p] + playmaking[p] + scoring[p] + winger[p] + goalkeeping[p] + passing[p] + defending[p] + setPieces[p] + (int) condition[p]) / 9;
+	}
+
+	int goalKeeper() {
+		return lineupSize == 0 ? -1 : lineup[0];
+	}
+
+	/** Removes a sent off player from every position group. */
+	void sendOff(int p) {
+		for (int position = 0; position < groups.length; position++) {
+			int[] slots = groups[position];
+			int size = groupSize[position];
+			int kept = 0;
+			for (int i = 0; i < size; i++) {
+				if (lineup[slots[i]] != p) {
+					slots[kept++] = slots[i];
+				}
+			}
+			groupSize[position] = kept;
+		}
+	}
+
+	/** Writes condition changes and the final lineup back to the entities. */
+	void writeBack() {
+		for (int i = 0; i < rosterSize; i++) {
+			if (appeared[i]) {
+				roster[i].setCondition(condition[i]);
+			}
+		}
+		if (substituted) {
+			List<Player> players = formation.getPlayers();
+			for (int slot = 0; slot < lineupSize; slot++) {
+				players.set(slot, roster[lineup[slot]]);
+			}
+			for (int i = lineupSize; i < rosterSize; i++) {
+				if (benchUsed[i]) {
+					formation.getSubstitutes().remove(roster[i]);
+				}
+			}
+		}
+	}
+
+	String positionLabel(int p) {
+		Module module = formation.getModule();
+		int index = labelSlot[p];
+		if (index == 0) return "GK";
+		if (index <= module.getCd()) return "CD";
+		if (index <= module.getCd() + module.getWb()) return "WB";
+		if (index <= module.getCd() + module.getWb() + module.getMf()) return "MF";
+		if (index <= module.getCd() + module.getWb() + module.getMf() + module.getWng()) return "WNG";
+		return "FW";
+	}
+
+	private static int intValue(Double value) {
+		return value == null ? 0 : value.intValue();
+	}
+}
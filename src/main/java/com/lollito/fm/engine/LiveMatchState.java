@@ -0,0 +1,125 @@
+package com.lollito.fm.engine;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import com.lollito.fm.model.LiveMatchSession;
+import com.lollito.fm.model.dto.EventHistoryDTO;
+
+import lombok.Getter;
+
+/**
+ * In-memory state of a live match.
+ *
+ * The timeline produced by the simulation is parsed once and kept sorted by
+ * minute, with an index giving the first event of every minute, so advancing
+ * the clock only slices the array from the cursor. The persisted
+ * {@link LiveMatchSession} is touched only for checkpoints.
+ */
+@Getter
+public class LiveMatchState {
+
+	public static final int HALF_TIME = 45;
+	public static final int FULL_TIME = 90;
+
+	private final Long matchId;
+	private final LocalDateTime startTime;
+	private final long startMillis;
+	private final EventHistoryDTO[] events;
+	/** minute -> index of its first event, with a sentinel at {@code FULL_TIME + 1} */
+	private final int[] firstEvent = new int[FULL_TIME + 2];
+
+	private int currentMinute;
+	private int homeScore;
+	private int awayScore;
+
+	private int checkpointMinute;
+	private int checkpointHomeScore;
+	private int checkpointAwayScore;
+
+	public LiveMatchState(LiveMatchSession session, List<EventHistoryDTO> timeline) {
+		this.matchId = session.getMatchId();
+		this.startTime = session.getStartTime();
+		this.startMillis = startTime == null ? System.currentTimeMillis() : startTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+		this.events = timeline == null ? new EventHistoryDTO[0] : timeline.toArray(new EventHistoryDTO[0]);
+		Arrays.sort(events, Comparator.comparingInt(LiveMatchState::minuteOf));
+		int event = 0;
+		for (int minute = 0; minute < firstEvent.length; minute++) {
+			while (event < events.length && minuteOf(events[event]) < minute) {
+				event++;
+			}
+			firstEvent[minute] = event;
+		}
+		this.currentMinute = valueOf(session.getCurrentMinute());
+		this.homeScore = valueOf(session.getHomeScore());
+		this.awayScore = valueOf(session.getAwayScore());
+		markCheckpoint();
+	}
+
+	/**
+	 * Moves the clock forward and returns the events played in
+	 * {@code (currentMinute, minute]}, updating the score on the way.
+	 */
+	public synchronized List<EventHistoryDTO> advanceTo(int minute) {
+		minute = Math.min(minute, FULL_TIME);
+		if (minute <= currentMinute) {
+			return List.of();
+		}
+		List<EventHistoryDTO> played = Arrays.asList(events).subList(firstEvent[currentMinute + 1], firstEvent[minute + 1]);
+		for (EventHistoryDTO event : played) {
+			if (event.getHomeScore() != null) homeScore = event.getHomeScore();
+			if (event.getAwayScore() != null) awayScore = event.getAwayScore();
+		}
+		currentMinute = minute;
+		return played;
+	}
+
+	/** Events played so far. */
+	public synchronized List<EventHistoryDTO> playedEvents() {
+		return Arrays.asList(events).subList(0, firstEvent[currentMinute + 1]);
+	}
+
+	/**
+	 * Next minute at which the match has something to publish: its next event,
+	 * half time, full time, or a clock update after {@code clockInterval} minutes.
+	 */
+	public synchronized int nextWakeMinute(int clockInterval) {
+		int next = Math.min(currentMinute + Math.max(clockInterval, 1), FULL_TIME);
+		if (currentMinute < HALF_TIME) {
+			next = Math.min(next, HALF_TIME);
+		}
+		int event = firstEvent[Math.min(currentMinute + 1, FULL_TIME + 1)];
+		if (event < events.length) {
+			next = Math.min(next, minuteOf(events[event]));
+		}
+		return next;
+	}
+
+	/** A checkpoint is due when the score changed or enough minutes went by since the last one. */
+	public synchronized boolean isCheckpointDue(int interval) {
+		return homeScore != checkpointHomeScore || awayScore != checkpointAwayScore
+				|| currentMinute - checkpointMinute >= interval;
+	}
+
+	public synchronized void markCheckpoint() {
+		checkpointMinute = currentMinute;
+		checkpointHomeScore = homeScore;
+		checkpointAwayScore = awayScore;
+	}
+
+	public boolean isOver() {
+		return currentMinute >= FULL_TIME;
+	}
+
+	private static int minuteOf(EventHistoryDTO event) {
+		int minute = valueOf(event.getMinute());
+		return Math.max(0, Math.min(minute, FULL_TIME));
+	}
+
+	private static int valueOf(Integer value) {
+		return value == null ? 0 : value;
+	}
+}
@@ -0,0 +1,562 @@
+package com.lollito.fm.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.lollito.fm.model.Event;
+import com.lollito.fm.model.EventHistory;
+import com.lollito.fm.model.Match;
+import com.lollito.fm.model.MatchPlayerStats;
+import com.lollito.fm.model.Player;
+import com.lollito.fm.model.PlayerPosition;
+import com.lollito.fm.model.Stats;
+import com.lollito.fm.model.SubstitutionStrategy;
+
+/**
+ * Allocation free match kernel.
+ *
+ * Both sides are snapshotted into {@link FormationSnapshot}s before kick off and
+ * the whole action loop only reads and writes primitive arrays. Events are
+ * recorded as byte codes ({@link Event} ordinals) with int operands; the JPA
+ * objects ({@link EventHistory}, {@link Stats}, {@link MatchPlayerStats}) are
+ * materialised once the final whistle has been blown.
+ */
+public class MatchEngine {
+
+	static final int HOME = 0;
+	static final int AWAY = 1;
+
+	private static final int DEFENCE = PlayerPosition.DEFENCE.getvalue();
+	private static final int MIDFIELD = PlayerPosition.MIDFIELD.getvalue();
+	private static final int OFFENCE = PlayerPosition.OFFENCE.getvalue();
+
+	private static final byte HAVE_BALL = (byte) Event.HAVE_BALL.ordinal();
+	private static final byte HAVE_SCORED = (byte) Event.HAVE_SCORED.ordinal();
+	private static final byte HAVE_SCORED_FREE_KICK = (byte) Event.HAVE_SCORED_FREE_KICK.ordinal();
+	private static final byte HAVE_CORNER = (byte) Event.HAVE_CORNER.ordinal();
+	private static final byte COMMITS_FAUL = (byte) Event.COMMITS_FAUL.ordinal();
+	private static final byte YELLOW_CARD = (byte) Event.YELLOW_CARD.ordinal();
+	private static final byte RED_CARD = (byte) Event.RED_CARD.ordinal();
+	private static final byte SHOT_AND_MISSED = (byte) Event.SHOT_AND_MISSED.ordinal();
+	private static final byte SUBSTITUTION = (byte) Event.SUBSTITUTION.ordinal();
+
+	/** Upper bound of events a single action can produce (two substitutions, foul, card, shot). */
+	private static final int EVENTS_PER_ACTION = 5;
+
+	private final FormationSnapshot[] sides;
+	private final MatchRandom random;
+	private final int numberOfActions;
+	private final boolean homeKickOff;
+	private final int[] luck;
+	private final int[] luckReset = { 10, 8 };
+
+	private final byte[] eventType;
+	private final byte[] eventSide;
+	private final int[] eventMinute;
+	private final int[] eventActor;
+	private final int[] eventOther;
+	private final int[] eventHomeScore;
+	private final int[] eventAwayScore;
+	private int eventCount;
+
+	private final int[] score = new int[2];
+	private int ball;
+	private int position = MIDFIELD;
+
+	public MatchEngine(FormationSnapshot home, FormationSnapshot away, int numberOfActions, boolean homeKickOff, int homeAdvantage, MatchRandom random) {
+		this.sides = new FormationSnapshot[] { home, away };
+		this.random = random;
+		this.numberOfActions = numberOfActions;
+		this.homeKickOff = homeKickOff;
+		this.luck = new int[] { 20 + homeAdvantage, 20 };
+		this.ball = homeKickOff ? HOME : AWAY;
+
+		int capacity = 1 + Math.max(numberOfActions, 0) * EVENTS_PER_ACTION;
+		eventType = new byte[capacity];
+		eventSide = new byte[capacity];
+		eventMinute = new int[capacity];
+		eventActor = new int[capacity];
+		eventOther = new int[capacity];
+		eventHomeScore = new int[capacity];
+		eventAwayScore = new int[capacity];
+	}
+
+	/**
+	 * Engine driven by the stream of the given seed: the number of actions and
+	 * the kick off are drawn first, the action loop uses a split of the stream.
+	 * The same seed on the same snapshots always plays the same match.
+	 */
+	public static MatchEngine seeded(FormationSnapshot home, FormationSnapshot away, int homeAdvantage, long seed) {
+		MatchRandom random = new MatchRandom(seed);
+		// INCREASED ACTIONS (15-25) to allow more scoring opportunities and reduce 0-0 draws.
+		int numberOfActions = random.nextInt(15, 25);
+		boolean homeKickOff = random.nextInt(0, 1) == 0;
+		return new MatchEngine(home, away, numberOfActions, homeKickOff, homeAdvantage, random.split());
+	}
+
+	/** Runs a recorded match again on its kick off state. */
+	public static MatchEngine replay(MatchReplay replay, Player[] homeRoster, Player[] awayRoster) {
+		return seeded(FormationSnapshot.restore(replay.getHome(), homeRoster),
+				FormationSnapshot.restore(replay.getAway(), awayRoster),
+				replay.getHomeAdvantage(), replay.getSeed());
+	}
+
+	public int getNumberOfActions() {
+		return numberOfActions;
+	}
+
+	public boolean isHomeKickOff() {
+		return homeKickOff;
+	}
+
+	/**
+	 * Runs the action loop.
+	 *
+	 * The algorithm follows these phases:
+	 * 1. Initialization: The side with the ball is decided by the caller.
+	 * 2. Action Loop: Iterate through each action to determine the outcome.
+	 *    - Substitutions: Check for random substitutions at intervals.
+	 *    - Possession Phase: The team with the ball attempts to build up play.
+	 *    - Midfield Battle: Determine if the attack advances based on team stats + luck.
+	 *    - Finishing Phase: If the attack reaches the final third, a shot is taken.
+	 *      Scoring probability is weighed by Scorer vs Goalkeeper stats.
+	 *    - Defensive Phase: If the attack fails, the defense might tackle or commit a foul.
+	 * 3. Condition Update: Decrease player condition based on stamina.
+	 */
+	public void play() {
+		record(HAVE_BALL, ball, -1, -1, 0);
+		for (int actionNumber = 1; actionNumber <= numberOfActions; actionNumber++) {
+			int minute = (90 * actionNumber) / numberOfActions;
+			if (ball == HOME) {
+				sides[HOME].possession++;
+			}
+
+			if (actionNumber % 6 == 0 && random.chance(20)) {
+				substitution(HOME, minute);
+			}
+			if (actionNumber % 7 == 0 && random.chance(20)) {
+				substitution(AWAY, minute);
+			}
+
+			action(ball, minute);
+
+			decay(sides[HOME]);
+			decay(sides[AWAY]);
+		}
+	}
+
+	private void action(int side, int minute) {
+		FormationSnapshot attack = sides[side];
+		FormationSnapshot defence = sides[1 - side];
+
+		attack.teamPasses++;
+		int passer = attack.lineup[random.nextInt(0, attack.lineupSize - 1)];
+		attack.passes[passer]++;
+		if (random.chance(75)) {
+			attack.teamCompletedPasses++;
+			attack.completedPasses[passer]++;
+		}
+
+		int maxLuck = luck[side];
+		int actionLuck = random.nextInt(0, maxLuck);
+		if (actionLuck > (maxLuck / 2)) {
+			luck[side] -= random.nextInt(0, 3);
+			if (luck[side] < 0) {
+				luck[side] = luckReset[side];
+			}
+		} else {
+			luck[side] += random.nextInt(0, 3);
+		}
+
+		int opposite = inverse(position);
+		int averageDiff = (attack.offenceAverage(position) + attack.groupSize[position]) - (defence.defenceAverage(opposite) + defence.groupSize[opposite]);
+
+		if ((averageDiff > 0 && random.chance(65 + averageDiff + actionLuck)) || (averageDiff <= 0 && random.chance(45 + averageDiff + actionLuck))) {
+			if (position < OFFENCE) {
+				position++;
+			} else {
+				shot(side, minute);
+			}
+		} else {
+			int tackler = pick(defence, opposite);
+			defence.teamTackles++;
+			if (tackler != -1) {
+				defence.tackles[tackler]++;
+			}
+
+			if ((averageDiff > 0 && random.chance(40)) || averageDiff <= 0 && random.chance(20)) {
+				foul(side, minute);
+			} else {
+				position = opposite;
+				ball = 1 - side;
+				defence.teamInterceptions++;
+			}
+		}
+	}
+
+	private void shot(int side, int minute) {
+		FormationSnapshot attack = sides[side];
+		FormationSnapshot defence = sides[1 - side];
+		int scorer = pick(attack, position);
+		int keeper = defence.goalKeeper();
+		if (scorer == -1 || keeper == -1) return;
+		attack.shots[scorer]++;
+
+		int goalKeeping = defence.goalkeepingAverage(keeper);
+		int scoring = attack.scoringAverage(scorer);
+		if (scoring >= goalKeeping) {
+			if (random.chance(65 + ((scoring - goalKeeping) / 2))) {
+				goal(side, scorer, minute, HAVE_SCORED);
+			} else {
+				saved(side, scorer, minute);
+			}
+		} else {
+			if (random.chance(55 + ((goalKeeping - scoring) / 2))) {
+				missed(side, scorer, minute);
+			} else {
+				goal(side, scorer, minute, HAVE_SCORED);
+			}
+		}
+	}
+
+	private void foul(int side, int minute) {
+		FormationSnapshot attack = sides[side];
+		FormationSnapshot defence = sides[1 - side];
+		int badPlayer = pick(defence, position);
+		defence.teamFouls++;
+		if (badPlayer != -1) {
+			record(COMMITS_FAUL, 1 - side, badPlayer, -1, minute);
+			if (random.chance(100 - defence.defendingRaw[badPlayer])) {
+				defence.teamYellowCards++;
+				defence.yellowCards[badPlayer]++;
+				if (defence.cautioned[badPlayer]) {
+					defence.sendOff(badPlayer);
+					defence.redCards[badPlayer]++;
+					record(RED_CARD, 1 - side, badPlayer, -1, minute);
+				} else {
+					defence.cautioned[badPlayer] = true;
+					record(YELLOW_CARD, 1 - side, badPlayer, -1, minute);
+				}
+			}
+		}
+
+		if (position == OFFENCE) {
+			int scorer = bestSetPieceTaker(attack, position);
+			int keeper = defence.goalKeeper();
+			if (scorer == -1 || keeper == -1) return;
+			attack.shots[scorer]++;
+
+			int goalKeeping = defence.goalkeepingAverage(keeper);
+			int scoring = attack.scoringAverage(scorer);
+			if (attack.piecesAverage(scorer) >= goalKeeping) {
+				if (random.chance(40 + ((scoring - goalKeeping) / 2))) {
+					goal(side, scorer, minute, HAVE_SCORED_FREE_KICK);
+				} else {
+					saved(side, scorer, minute);
+				}
+			} else {
+				if (random.chance(70 + ((goalKeeping - scoring) / 2))) {
+					missed(side, scorer, minute);
+				} else {
+					goal(side, scorer, minute, HAVE_SCORED_FREE_KICK);
+				}
+			}
+		}
+	}
+
+	private void goal(int side, int scorer, int minute, byte type) {
+		FormationSnapshot attack = sides[side];
+		FormationSnapshot defence = sides[1 - side];
+		score[side]++;
+		attack.goals[scorer]++;
+		attack.shotsOnTarget[scorer]++;
+		defence.goalsConceded[defence.goalKeeper()]++;
+		attack.teamShots++;
+		attack.teamOnTarget++;
+		position = MIDFIELD;
+		ball = 1 - side;
+		record(type, side, scorer, -1, minute);
+	}
+
+	private void saved(int side, int scorer, int minute) {
+		FormationSnapshot attack = sides[side];
+		FormationSnapshot defence = sides[1 - side];
+		attack.teamShots++;
+		attack.teamOnTarget++;
+		attack.shotsOnTarget[scorer]++;
+		defence.saves[defence.goalKeeper()]++;
+		record(HAVE_CORNER, side, -1, -1, minute);
+	}
+
+	private void missed(int side, int scorer, int minute) {
+		sides[side].teamShots++;
+		position = inverse(position);
+		ball = 1 - side;
+		record(SHOT_AND_MISSED, side, scorer, -1, minute);
+	}
+
+	private void substitution(int side, int minute) {
+		FormationSnapshot team = sides[side];
+		int strategy = team.strategy;
+		boolean aggressive = strategy == SubstitutionStrategy.AGGRESSIVE.ordinal();
+		boolean defensive = strategy == SubstitutionStrategy.DEFENSIVE.ordinal();
+		boolean auto = strategy == SubstitutionStrategy.AUTO.ordinal();
+
+		boolean benchAvailable = false;
+		for (int i = team.lineupSize; i < team.rosterSize; i++) {
+			if (!team.benchUsed[i]) {
+				benchAvailable = true;
+				break;
+			}
+		}
+		if (!benchAvailable) return;
+
+		boolean isWinning = score[side] > score[1 - side];
+		boolean isLosing = score[side] < score[1 - side];
+		boolean comfortableWin = isWinning && score[side] - score[1 - side] >= 2;
+
+		// Match ratings are only settled at full time, so candidates are ranked on fatigue, cards and tactics.
+		int outSlot = -1;
+		double maxScore = -1.0;
+		for (int slot = 0; slot < team.lineupSize; slot++) {
+			int p = team.lineup[slot];
+			int role = team.role[p];
+			if (role == FormationSnapshot.GOALKEEPER) continue;
+
+			double candidateScore = (100.0 - team.condition[p]) * 1.5;
+			if (team.yellowCards[p] > 0) {
+				if (comfortableWin) {
+					candidateScore += 50.0;
+				} else if (aggressive || defensive) {
+					candidateScore += 20.0;
+				}
+			}
+			if (isLosing) {
+				if ((aggressive || auto) && (role == FormationSnapshot.DEFENDER || role == FormationSnapshot.WINGBACK)) {
+					candidateScore += 15.0;
+				}
+			} else if (isWinning) {
+				if ((defensive || auto) && (role == FormationSnapshot.FORWARD || role == FormationSnapshot.WING)) {
+					candidateScore += 15.0;
+				}
+			}
+
+			if (candidateScore > maxScore) {
+				maxScore = candidateScore;
+				outSlot = slot;
+			}
+		}
+		if (outSlot == -1) {
+			outSlot = random.nextInt(0, team.lineupSize - 1);
+		}
+		int out = team.lineup[outSlot];
+		int outRole = team.role[out];
+
+		int in = -1;
+		if (isLosing && (aggressive || auto)) {
+			if (outRole == FormationSnapshot.DEFENDER || outRole == FormationSnapshot.WINGBACK) {
+				in = bestSubstitute(team, FormationSnapshot.FORWARD);
+				if (in == -1) in = bestSubstitute(team, FormationSnapshot.WING);
+			}
+		} else if (isWinning && (defensive || auto)) {
+			if (outRole == FormationSnapshot.FORWARD || outRole == FormationSnapshot.WING) {
+				in = bestSubstitute(team, FormationSnapshot.DEFENDER);
+				if (in == -1) in = bestSubstitute(team, FormationSnapshot.WINGBACK);
+			}
+		}
+		if (in == -1) {
+			in = bestSubstitute(team, outRole);
+		}
+		if (in == -1) {
+			for (int i = team.lineupSize; i < team.rosterSize; i++) {
+				if (!team.benchUsed[i]) {
+					in = i;
+					break;
+				}
+			}
+		}
+
+		team.benchUsed[in] = true;
+		team.lineup[outSlot] = in;
+		team.appeared[in] = true;
+		team.minutesPlayed[in] = 90 - minute;
+		team.labelSlot[in] = team.labelSlot[out];
+		team.minutesPlayed[out] = minute;
+		team.substituted = true;
+		record(SUBSTITUTION, side, in, out, minute);
+	}
+
+	private int bestSubstitute(FormationSnapshot team, int role) {
+		int best = -1;
+		for (int i = team.lineupSize; i < team.rosterSize; i++) {
+			if (!team.benchUsed[i] && team.role[i] == role && (best == -1 || team.average(i) > team.average(best))) {
+				best = i;
+			}
+		}
+		return best;
+	}
+
+	private int bestSetPieceTaker(FormationSnapshot team, int position) {
+		int best = -1;
+		int[] slots = team.groups[position];
+		for (int i = 0; i < team.groupSize[position]; i++) {
+			int p = team.lineup[slots[i]];
+			if (best == -1 || team.piecesAverage(p) > team.piecesAverage(best)) {
+				best = p;
+			}
+		}
+		return best;
+	}
+
+	private int pick(FormationSnapshot team, int position) {
+		int size = team.groupSize[position];
+		if (size == 0) return -1;
+		return team.lineup[team.groups[position][random.nextInt(0, size - 1)]];
+	}
+
+	private static int inverse(int position) {
+		if (position == DEFENCE) return OFFENCE;
+		if (position == OFFENCE) return DEFENCE;
+		return MIDFIELD;
+	}
+
+	/** 0.5 to 2.0 condition drop per action depending on stamina. */
+	private static void decay(FormationSnapshot team) {
+		for (int slot = 0; slot < team.lineupSize; slot++) {
+			int p = team.lineup[slot];
+			double decrement = 0.5 + (1.5 * (100 - team.stamina[p]) / 100.0);
+			team.condition[p] = team.condition[p] - decrement < 0 ? 0.0 : team.condition[p] - decrement;
+		}
+	}
+
+	private void record(byte type, int side, int actor, int other, int minute) {
+		int i = eventCount++;
+		eventType[i] = type;
+		eventSide[i] = (byte) side;
+		eventActor[i] = actor;
+		eventOther[i] = other;
+		eventMinute[i] = minute;
+		eventHomeScore[i] = score[HOME];
+		eventAwayScore[i] = score[AWAY];
+	}
+
+	public int getHomeScore() {
+		return score[HOME];
+	}
+
+	public int getAwayScore() {
+		return score[AWAY];
+	}
+
+	/** Writes player condition and substitutions back to the home and away entities. */
+	public void writeBack() {
+		sides[HOME].writeBack();
+		sides[AWAY].writeBack();
+	}
+
+	public List<EventHistory> events(Match match) {
+		Event[] types = Event.values();
+		List<EventHistory> events = new ArrayList<>(eventCount);
+		for (int i = 0; i < eventCount; i++) {
+			Event type = types[eventType[i]];
+			FormationSnapshot team = sides[eventSide[i]];
+			String club = eventSide[i] == HOME ? match.getHome().getName() : match.getAway().getName();
+			int minute = eventMinute[i];
+			switch (type) {
+				case HAVE_BALL:
+					events.add(new EventHistory(String.format(type.getMessage(), club), minute));
+					break;
+				case HAVE_CORNER:
+					events.add(new EventHistory(String.format(type.getMessage(), club), minute, type));
+					break;
+				case HAVE_SCORED:
+				case HAVE_SCORED_FREE_KICK:
+					events.add(new EventHistory(String.format(type.getMessage(), team.roster[eventActor[i]].getSurname()), minute, type, eventHomeScore[i], eventAwayScore[i]));
+					break;
+				case SHOT_AND_MISSED:
+					events.add(new EventHistory(String.format(type.getMessage(), team.roster[eventActor[i]].getSurname()), minute, type));
+					break;
+				case SUBSTITUTION:
+					events.add(new EventHistory(String.format(type.getMessage(), team.roster[eventActor[i]].getSurname(), team.roster[eventOther[i]].getSurname()), minute, type));
+					break;
+				default:
+					events.add(new EventHistory(String.format(type.getMessage(), team.roster[eventActor[i]].getName()), minute, type));
+					break;
+			}
+		}
+		return events;
+	}
+
+	public Stats stats() {
+		FormationSnapshot home = sides[HOME];
+		FormationSnapshot away = sides[AWAY];
+		Stats stats = new Stats();
+		stats.setHomeShots(home.teamShots);
+		stats.setHomeOnTarget(home.teamOnTarget);
+		stats.setHomeFouls(home.teamFouls);
+		stats.setHomeYellowCards(home.teamYellowCards);
+		stats.setHomePasses(home.teamPasses);
+		stats.setHomeCompletedPasses(home.teamCompletedPasses);
+		stats.setHomeTackles(home.teamTackles);
+		stats.setHomeInterceptions(home.teamInterceptions);
+		stats.setAwayShots(away.teamShots);
+		stats.setAwayOnTarget(away.teamOnTarget);
+		stats.setAwayFouls(away.teamFouls);
+		stats.setAwayYellowCards(away.teamYellowCards);
+		stats.setAwayPasses(away.teamPasses);
+		stats.setAwayCompletedPasses(away.teamCompletedPasses);
+		stats.setAwayTackles(away.teamTackles);
+		stats.setAwayInterceptions(away.teamInterceptions);
+		int homePossession = numberOfActions > 0 ? (home.possession * 100) / numberOfActions : 0;
+		stats.setHomePossession(homePossession);
+		stats.setAwayPossession(100 - homePossession);
+		return stats;
+	}
+
+	/** Builds the rated per player statistics and flags the man of the match. */
+	public List<MatchPlayerStats> playerStats(Match match) {
+		List<MatchPlayerStats> playerStats = new ArrayList<>();
+		MatchPlayerStats mvp = null;
+		for (FormationSnapshot team : sides) {
+			for (int p = 0; p < team.rosterSize; p++) {
+				if (!team.appeared[p]) continue;
+				MatchPlayerStats mps = new MatchPlayerStats();
+				mps.setMatch(match);
+				mps.setPlayer(team.roster[p]);
+				mps.setPosition(team.positionLabel(p));
+				mps.setStarted(team.started[p]);
+				mps.setMinutesPlayed(team.minutesPlayed[p]);
+				mps.setGoals(team.goals[p]);
+				mps.setShots(team.shots[p]);
+				mps.setShotsOnTarget(team.shotsOnTarget[p]);
+				mps.setPasses(team.passes[p]);
+				mps.setCompletedPasses(team.completedPasses[p]);
+				mps.setTackles(team.tackles[p]);
+				mps.setYellowCards(team.yellowCards[p]);
+				mps.setRedCards(team.redCards[p]);
+				mps.setSaves(team.saves[p]);
+				mps.setGoalsConceded(team.goalsConceded[p]);
+				mps.setRating(rating(team, p));
+				if (mvp == null || mps.getRating() > mvp.getRating()) {
+					mvp = mps;
+				}
+				playerStats.add(mps);
+			}
+		}
+		if (mvp != null) mvp.setMvp(true);
+		return playerStats;
+	}
+
+	private static double rating(FormationSnapshot team, int p) {
+		double rating = 6.0;
+		rating += team.goals[p] * 1.5;
+		rating += (team.shotsOnTarget[p] / 5.0);
+		rating += (team.completedPasses[p] / 20.0);
+		rating += (team.tackles[p] / 10.0);
+		rating -= team.yellowCards[p] * 0.5;
+		rating -= team.redCards[p] * 2.0;
+		if (rating > 10.0) rating = 10.0;
+		if (rating < 1.0) rating = 1.0;
+		return rating;
+	}
+}
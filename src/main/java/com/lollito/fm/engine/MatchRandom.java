@@ -0,0 +1,53 @@
+package com.lollito.fm.engine;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Seeded random stream of a single match.
+ *
+ * Every draw of the engine goes through one instance built from the seed stored
+ * on the match, so running the engine again on the same snapshots replays the
+ * match bit for bit. Independent parts of the simulation get their own stream
+ * through {@link #split()} and never shift each other's sequence. Helpers return
+ * primitives and follow the semantics of {@link com.lollito.fm.utils.RandomUtils}.
+ */
+public class MatchRandom {
+
+	private final SplittableRandom random;
+
+	public MatchRandom(long seed) {
+		this(new SplittableRandom(seed));
+	}
+
+	private MatchRandom(SplittableRandom random) {
+		this.random = random;
+	}
+
+	public static long newSeed() {
+		return ThreadLocalRandom.current().nextLong();
+	}
+
+	/** Uniform value between {@code from} and {@code to}, both inclusive. */
+	public int nextInt(int from, int to) {
+		return random.nextInt(from, to + 1);
+	}
+
+	/** True with the given probability, expressed as a percentage. */
+	public boolean chance(double percent) {
+		return nextInt(1, 100) <= percent;
+	}
+
+	public double nextDouble() {
+		return random.nextDouble();
+	}
+
+	public long nextLong() {
+		return random.nextLong();
+	}
+
+	/** Independent stream derived from this one. */
+	public MatchRandom split() {
+		return new MatchRandom(random.split());
+	}
+}
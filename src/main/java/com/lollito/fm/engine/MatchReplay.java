@@ -0,0 +1,73 @@
+package com.lollito.fm.engine;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Everything needed to run a match again: the seed of its {@link MatchRandom},
+ * the home advantage and the kick off columns of both {@link FormationSnapshot}s.
+ * Players are referenced by id, the engine state is captured before the first
+ * action so later changes to the entities (condition, training) do not affect
+ * the replay. Injuries are decided outside the engine and are kept as the
+ * events they produced.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchReplay implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private long seed;
+	private int homeAdvantage;
+	private Side home;
+	private Side away;
+	private List<Injury> injuries = new ArrayList<>();
+
+	public MatchReplay(long seed, int homeAdvantage, Side home, Side away) {
+		this(seed, homeAdvantage, home, away, new ArrayList<>());
+	}
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Side implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		/** roster (lineup followed by the bench) -> player id */
+		private long[] players;
+		private int lineupSize;
+		private byte strategy;
+		/** cd, wb, mf, wng, fw */
+		private int[] module;
+		/** position group -> lineup slots */
+		private int[][] groups;
+		private byte[] role;
+		private int[] playmaking;
+		private int[] winger;
+		private int[] passing;
+		private int[] scoring;
+		private int[] goalkeeping;
+		private int[] setPieces;
+		private double[] stamina;
+		private double[] defending;
+		private double[] condition;
+	}
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Injury implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private int minute;
+		private String event;
+	}
+}
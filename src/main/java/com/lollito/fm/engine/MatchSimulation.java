@@ -0,0 +1,40 @@
+package com.lollito.fm.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.lollito.fm.model.Formation;
+import com.lollito.fm.model.Match;
+import com.lollito.fm.model.Player;
+
+import lombok.Getter;
+
+/**
+ * One match moving through the simulation pipeline.
+ *
+ * Everything that needs the persistence context (formations, lazy collections,
+ * perks, staff bonuses) is resolved while preparing the simulation, so the
+ * engine run only touches the players of the two clubs involved and can be
+ * executed on any thread. Side effects that write to the database, such as
+ * injuries, are collected here and applied when the simulation is completed.
+ */
+@Getter
+public class MatchSimulation {
+
+	private final Match match;
+	private final Formation homeFormation;
+	private final Formation awayFormation;
+	private final MatchEngine engine;
+	private final double homeInjuryBonus;
+	private final double awayInjuryBonus;
+	private final List<Player> injuredPlayers = new ArrayList<>();
+
+	public MatchSimulation(Match match, Formation homeFormation, Formation awayFormation, MatchEngine engine, double homeInjuryBonus, double awayInjuryBonus) {
+		this.match = match;
+		this.homeFormation = homeFormation;
+		this.awayFormation = awayFormation;
+		this.engine = engine;
+		this.homeInjuryBonus = homeInjuryBonus;
+		this.awayInjuryBonus = awayInjuryBonus;
+	}
+}
@@ -0,0 +1,119 @@
+package com.lollito.fm.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timer wheel.
+ *
+ * Timeouts are hashed by deadline tick into a fixed ring of buckets; advancing
+ * the wheel visits only the buckets of the ticks that elapsed, so its cost
+ * depends on how many timeouts fall due rather than on how many are pending.
+ * Timeouts further away than one rotation stay in their bucket until the wheel
+ * comes round to their tick. Deadlines in the past fire on the next advance.
+ */
+public class TimerWheel<T> {
+
+	private final long tickMillis;
+	private final Bucket<T>[] buckets;
+	private final int mask;
+	private long currentTick = -1;
+	private int size;
+
+	@SuppressWarnings("unchecked")
+	public TimerWheel(long tickMillis, int wheelSize) {
+		if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis must be positive");
+		int normalized = Integer.highestOneBit(Math.max(wheelSize, 1) - 1) << 1;
+		if (normalized <= 0) normalized = 1;
+		this.tickMillis = tickMillis;
+		this.buckets = new Bucket[normalized];
+		for (int i = 0; i < normalized; i++) {
+			buckets[i] = new Bucket<>();
+		}
+		this.mask = normalized - 1;
+	}
+
+	public synchronized void schedule(T task, long deadlineMillis) {
+		long tick = Math.max(deadlineMillis / tickMillis, currentTick + 1);
+		buckets[(int) (tick & mask)].add(new Timeout<>(task, tick));
+		size++;
+	}
+
+	/**
+	 * Moves the wheel to {@code nowMillis} and returns the tasks whose deadline
+	 * has passed, in deadline order.
+	 */
+	public synchronized List<T> advance(long nowMillis) {
+		long nowTick = nowMillis / tickMillis;
+		List<T> expired = new ArrayList<>();
+		// On the first advance, or past one rotation, every bucket is visited once;
+		// the fired timeouts are then sorted since buckets are no longer in tick order
+		boolean fullSweep = currentTick < 0 || nowTick - currentTick > buckets.length;
+		if (currentTick < 0) {
+			currentTick = nowTick - 1;
+		}
+		if (nowTick <= currentTick) {
+			return expired;
+		}
+		long last = fullSweep ? currentTick + buckets.length : nowTick;
+		List<Timeout<T>> fired = new ArrayList<>();
+		for (long tick = currentTick + 1; tick <= last; tick++) {
+			buckets[(int) (tick & mask)].expire(nowTick, fired);
+		}
+		if (fullSweep) {
+			fired.sort((a, b) -> Long.compare(a.tick, b.tick));
+		}
+		for (Timeout<T> timeout : fired) {
+			expired.add(timeout.task);
+		}
+		size -= fired.size();
+		currentTick = nowTick;
+		return expired;
+	}
+
+	public synchronized int size() {
+		return size;
+	}
+
+	private static final class Timeout<T> {
+		final T task;
+		final long tick;
+		Timeout<T> next;
+
+		Timeout(T task, long tick) {
+			this.task = task;
+			this.tick = tick;
+		}
+	}
+
+	private static final class Bucket<T> {
+		Timeout<T> head;
+		Timeout<T> tail;
+
+		void add(Timeout<T> timeout) {
+			if (head == null) {
+				head = tail = timeout;
+			} else {
+				tail.next = timeout;
+				tail = timeout;
+			}
+		}
+
+		void expire(long nowTick, List<Timeout<T>> fired) {
+			Timeout<T> previous = null;
+			Timeout<T> timeout = head;
+			while (timeout != null) {
+				Timeout<T> next = timeout.next;
+				if (timeout.tick <= nowTick) {
+					if (previous == null) head = next; else previous.next = next;
+					if (timeout == tail) tail = previous;
+					timeout.next = null;
+					fired.add(timeout);
+				} else {
+					previous = timeout;
+				}
+				timeout = next;
+			}
+		}
+	}
+}
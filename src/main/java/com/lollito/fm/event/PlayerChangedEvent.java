@@ -0,0 +1,27 @@
+package com.lollito.fm.event;
+
+import java.util.Collection;
+
+import org.springframework.context.ApplicationEvent;
+
+import lombok.Getter;
+
+/**
+ * Published when something that watchers of a player care about changed:
+ * value, form, availability or club.
+ */
+@Getter
+public class PlayerChangedEvent extends ApplicationEvent {
+    private final Collection<Long> playerIds;
+    private final Change change;
+
+    public PlayerChangedEvent(Object source, Collection<Long> playerIds, Change change) {
+        super(source);
+        this.playerIds = playerIds;
+        this.change = change;
+    }
+
+    public enum Change {
+        MATCH, INJURY, TRANSFER, SKILLS
+    }
+}
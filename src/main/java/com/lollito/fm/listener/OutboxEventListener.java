@@ -0,0 +1,39 @@
+package com.lollito.fm.listener;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.lollito.fm.event.MatchFinishedEvent;
+import com.lollito.fm.event.TrainingCompletedEvent;
+import com.lollito.fm.event.TransferCompletedEvent;
+import com.lollito.fm.model.OutboxEvent;
+import com.lollito.fm.service.DomainEventBus;
+
+/**
+ * Writes the events whose side effects run after commit to the outbox of the
+ * {@link DomainEventBus}, in the transaction publishing them.
+ */
+@Component
+public class OutboxEventListener {
+
+    @Autowired
+    private DomainEventBus domainEventBus;
+
+    @EventListener
+    public void onMatchFinished(MatchFinishedEvent event) {
+        domainEventBus.enqueue(OutboxEvent.Type.MATCH_FINISHED, event.getMatch().getId());
+    }
+
+    @EventListener
+    public void onTrainingCompleted(TrainingCompletedEvent event) {
+        if (event.getSession() == null) return;
+        domainEventBus.enqueue(OutboxEvent.Type.TRAINING_COMPLETED, event.getSession().getId());
+    }
+
+    @EventListener
+    public void onTransferCompleted(TransferCompletedEvent event) {
+        if (event.getBuyerClub() == null) return;
+        domainEventBus.enqueue(OutboxEvent.Type.TRANSFER_COMPLETED, event.getBuyerClub().getId());
+    }
+}
@@ -0,0 +1,41 @@
+package com.lollito.fm.listener;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.lollito.fm.model.Player;
+import com.lollito.fm.service.PlayerStateBuffer;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Keeps loaded players in line with the {@link PlayerStateBuffer}. Created by
+ * Hibernate through the Spring bean container; the buffer is looked up lazily
+ * since it needs the entity manager factory being built.
+ */
+public class PlayerStateListener {
+
+    @Autowired
+    private ObjectProvider<PlayerStateBuffer> playerStateBuffer;
+
+    @PostLoad
+    public void onLoad(Player player) {
+        PlayerStateBuffer buffer = buffer();
+        if (buffer != null) {
+            buffer.overlay(player);
+        }
+    }
+
+    @PostUpdate
+    public void onUpdate(Player player) {
+        PlayerStateBuffer buffer = buffer();
+        if (buffer != null) {
+            buffer.written(player);
+        }
+    }
+
+    private PlayerStateBuffer buffer() {
+        return playerStateBuffer != null ? playerStateBuffer.getIfAvailable() : null;
+    }
+}
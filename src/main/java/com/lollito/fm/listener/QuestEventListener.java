@@ -1,15 +1,19 @@
 package com.lollito.fm.listener;
 
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
-import com.lollito.fm.event.MatchFinishedEvent;
 import com.lollito.fm.event.ScoutingCompletedEvent;
-import com.lollito.fm.event.TrainingCompletedEvent;
-import com.lollito.fm.event.TransferCompletedEvent;
+import com.lollito.fm.model.Club;
 import com.lollito.fm.model.Match;
 import com.lollito.fm.model.QuestType;
+import com.lollito.fm.model.TrainingSession;
 import com.lollito.fm.model.User;
 import com.lollito.fm.service.QuestService;
 
@@ -22,20 +26,26 @@ public class QuestEventListener {
     @Autowired
     private QuestService questService;
 
-    @EventListener
-    public void onMatchFinished(MatchFinishedEvent event) {
-        Match match = event.getMatch();
-        log.debug("Processing match finished event for match {}", match.getId());
-
-        processMatchForUser(match.getHome().getUser(), match, true);
-        processMatchForUser(match.getAway().getUser(), match, false);
+    /**
+     * Quest progress of the managers of the finished matches, applied with one
+     * read of their quests. Called by the {@code DomainEventBus} once the
+     * matches are committed.
+     */
+    public void onMatchesFinished(List<Match> matches) {
+        Map<Long, Map<QuestType, Integer>> progress = new HashMap<>();
+        for (Match match : matches) {
+            log.debug("Processing match finished event for match {}", match.getId());
+            processMatchForUser(progress, match.getHome().getUser(), match, true);
+            processMatchForUser(progress, match.getAway().getUser(), match, false);
+        }
+        questService.incrementProgress(progress);
     }
 
-    private void processMatchForUser(User user, Match match, boolean isHome) {
+    private void processMatchForUser(Map<Long, Map<QuestType, Integer>> progress, User user, Match match, boolean isHome) {
         if (user == null) return;
 
         // Play Match
-        questService.incrementProgress(user, QuestType.PLAY_MATCH, 1);
+        add(progress, user, QuestType.PLAY_MATCH, 1);
 
         int homeScore = match.getHomeScore() != null ? match.getHomeScore() : 0;
         int awayScore = match.getAwayScore() != null ? match.getAwayScore() : 0;
@@ -44,32 +54,51 @@ public class QuestEventListener {
 
         // Win Match
         if (userScore > opponentScore) {
-            questService.incrementProgress(user, QuestType.WIN_MATCH, 1);
+            add(progress, user, QuestType.WIN_MATCH, 1);
         }
 
         // Clean Sheet
         if (opponentScore == 0) {
-            questService.incrementProgress(user, QuestType.CLEAN_SHEET, 1);
+            add(progress, user, QuestType.CLEAN_SHEET, 1);
         }
 
         // Score Goals
         if (userScore > 0) {
-            questService.incrementProgress(user, QuestType.SCORE_GOALS, userScore);
+            add(progress, user, QuestType.SCORE_GOALS, userScore);
         }
     }
 
-    @EventListener
-    public void onTrainingCompleted(TrainingCompletedEvent event) {
-        if (event.getSession() == null || event.getSession().getTeam() == null
-                || event.getSession().getTeam().getClub() == null) {
-            return;
+    /** Quest progress of the completed training sessions, see {@link #onMatchesFinished(List)}. */
+    public void onTrainingsCompleted(List<TrainingSession> sessions) {
+        Map<Long, Map<QuestType, Integer>> progress = new HashMap<>();
+        for (TrainingSession session : sessions) {
+            if (session.getTeam() == null || session.getTeam().getClub() == null) {
+                continue;
+            }
+            User user = session.getTeam().getClub().getUser();
+            if (user != null) {
+                log.debug("Processing training completed event for user {}", user.getId());
+                add(progress, user, QuestType.TRAIN_SESSION, 1);
+            }
         }
+        questService.incrementProgress(progress);
+    }
 
-        User user = event.getSession().getTeam().getClub().getUser();
-        if (user != null) {
-            log.debug("Processing training completed event for user {}", user.getId());
-            questService.incrementProgress(user, QuestType.TRAIN_SESSION, 1);
+    /** Quest progress of the clubs that bought a player, once per transfer. */
+    public void onTransfersCompleted(List<Club> buyerClubs) {
+        Map<Long, Map<QuestType, Integer>> progress = new HashMap<>();
+        for (Club buyerClub : buyerClubs) {
+            User user = buyerClub.getUser();
+            if (user != null) {
+                log.debug("Processing transfer completed event for user {}", user.getId());
+                add(progress, user, QuestType.SIGN_PLAYER, 1);
+            }
         }
+        questService.incrementProgress(progress);
+    }
+
+    private static void add(Map<Long, Map<QuestType, Integer>> progress, User user, QuestType type, int amount) {
+        progress.computeIfAbsent(user.getId(), id -> new EnumMap<>(QuestType.class)).merge(type, amount, Integer::sum);
     }
 
     @EventListener
@@ -85,15 +114,4 @@ public class QuestEventListener {
             questService.incrementProgress(user, QuestType.SCOUT_PLAYER, 1);
         }
     }
-
-    @EventListener
-    public void onTransferCompleted(TransferCompletedEvent event) {
-        if (event.getBuyerClub() == null) return;
-
-        User user = event.getBuyerClub().getUser();
-        if (user != null) {
-            log.debug("Processing transfer completed event for user {}", user.getId());
-            questService.incrementProgress(user, QuestType.SIGN_PLAYER, 1);
-        }
-    }
 }
@@ -0,0 +1,62 @@
+package com.lollito.fm.listener;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.lollito.fm.event.MatchFinishedEvent;
+import com.lollito.fm.event.PlayerChangedEvent;
+import com.lollito.fm.event.TrainingCompletedEvent;
+import com.lollito.fm.event.TransferCompletedEvent;
+import com.lollito.fm.model.Player;
+import com.lollito.fm.service.WatchlistChangeFeed;
+
+/**
+ * Feeds the players changed by matches, injuries, transfers and training to
+ * the watchlist update.
+ * <p>
+ * A change is only fed once the transaction publishing it has committed: fed
+ * before, the update could drain it and read the player's previous state, and
+ * a rolled back change would be fed as well.
+ */
+@Component
+public class WatchlistEventListener {
+
+    @Autowired
+    private WatchlistChangeFeed watchlistChangeFeed;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPlayerChanged(PlayerChangedEvent event) {
+        watchlistChangeFeed.record(event.getPlayerIds(), event.getChange());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMatchFinished(MatchFinishedEvent event) {
+        List<Long> playerIds = event.getMatch().getPlayerStats().stream()
+                .map(stats -> stats.getPlayer())
+                .filter(Objects::nonNull)
+                .map(Player::getId)
+                .toList();
+        watchlistChangeFeed.record(playerIds, PlayerChangedEvent.Change.MATCH);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransferCompleted(TransferCompletedEvent event) {
+        if (event.getPlayer() == null) return;
+        watchlistChangeFeed.record(Collections.singletonList(event.getPlayer().getId()), PlayerChangedEvent.Change.TRANSFER);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTrainingCompleted(TrainingCompletedEvent event) {
+        if (event.getSession() == null || event.getSession().getTeam() == null) return;
+        List<Long> playerIds = event.getSession().getTeam().getPlayers().stream()
+                .map(Player::getId)
+                .toList();
+        watchlistChangeFeed.record(playerIds, PlayerChangedEvent.Change.SKILLS);
+    }
+}
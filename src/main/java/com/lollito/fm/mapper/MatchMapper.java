@@ -17,6 +17,8 @@ public interface MatchMapper {
     @Mapping(source = "number", target = "roundNumber")
     MatchDTO toDto(Match match);
 
+    @Mapping(target = "seed", ignore = true)
+    @Mapping(target = "replay", ignore = true)
     Match toEntity(MatchDTO matchDTO);
 
     StatsDTO toDto(Stats stats);
@@ -11,5 +11,6 @@ public interface PlayerMapper {
     @Mapping(target = "clubId", expression = "java(player.getTeam() != null ? player.getTeam().getOwnerClubId() : null)")
     @Mapping(target = "price", expression = "java(player.getMarketValue())")
     PlayerDTO toDto(Player player);
+    @Mapping(target = "stateVersion", ignore = true)
     Player toEntity(PlayerDTO dto);
 }
@@ -0,0 +1,41 @@
+package com.lollito.fm.metrics;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes the lookups of every {@link MeteredCache} as {@code fm.cache.gets}
+ * (tags cache and result, hit or miss) and its entries as
+ * {@code fm.cache.size}. The hit rate of a cache is
+ * {@code rate(fm_cache_gets_total{result="hit"}) / rate(fm_cache_gets_total)}.
+ */
+@Component
+public class CacheMetrics implements MeterBinder {
+
+    @Autowired
+    private List<MeteredCache> caches = List.of();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (MeteredCache cache : caches) {
+            // The stats are read directly rather than through the (proxied) cache bean
+            CacheStats stats = cache.getCacheStats();
+            FunctionCounter.builder("fm.cache.gets", stats, CacheStats::getHits)
+                    .tags("cache", stats.getName(), "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("fm.cache.gets", stats, CacheStats::getMisses)
+                    .tags("cache", stats.getName(), "result", "miss")
+                    .register(registry);
+            Gauge.builder("fm.cache.size", stats, CacheStats::getSize)
+                    .tags("cache", stats.getName())
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.lollito.fm.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Hit and miss counts of an in-memory cache. Counting only bumps a
+ * {@link LongAdder}; {@link CacheMetrics} reads the totals when the meters are
+ * scraped.
+ */
+public final class CacheStats {
+
+    private final String name;
+    private final LongSupplier size;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CacheStats(String name, LongSupplier size) {
+        this.name = name;
+        this.size = size;
+    }
+
+    public void hit() {
+        hits.increment();
+    }
+
+    public void miss() {
+        misses.increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getSize() {
+        return size.getAsLong();
+    }
+}
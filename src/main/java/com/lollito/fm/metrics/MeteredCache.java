@@ -0,0 +1,10 @@
+package com.lollito.fm.metrics;
+
+/**
+ * A bean keeping data in memory whose hit rate is published by
+ * {@link CacheMetrics}.
+ */
+public interface MeteredCache {
+
+    CacheStats getCacheStats();
+}
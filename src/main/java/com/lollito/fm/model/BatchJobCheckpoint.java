@@ -0,0 +1,59 @@
+package com.lollito.fm.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Progress of a scheduled batch job, see {@code BatchJobRunner}. A run that
+ * did not complete resumes after {@link #lastKey}.
+ */
+@Entity
+@Table(name = "batch_job_checkpoint")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+public class BatchJobCheckpoint implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @EqualsAndHashCode.Include
+    private String jobName;
+
+    @Enumerated(EnumType.STRING)
+    private BatchJobStatus status;
+
+    /** Id of the last item processed by the current run */
+    @Builder.Default
+    private Long lastKey = 0L;
+
+    @Builder.Default
+    private Long itemsProcessed = 0L;
+
+    /** Items of the current run that failed on their own and were passed over */
+    @Builder.Default
+    private Long itemsSkipped = 0L;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+}
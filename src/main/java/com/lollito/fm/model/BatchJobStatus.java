@@ -0,0 +1,5 @@
+package com.lollito.fm.model;
+
+public enum BatchJobStatus {
+    RUNNING, COMPLETED, FAILED
+}
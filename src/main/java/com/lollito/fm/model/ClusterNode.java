@@ -0,0 +1,40 @@
+package com.lollito.fm.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * A backend node, alive while it keeps its heartbeat, see {@code ClusterService}.
+ */
+@Entity
+@Table(name = "cluster_node")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+public class ClusterNode implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @EqualsAndHashCode.Include
+    private String nodeId;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime heartbeatAt;
+}
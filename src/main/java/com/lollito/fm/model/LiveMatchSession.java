@@ -38,12 +38,21 @@ public class LiveMatchSession implements Serializable {
     @Builder.Default
     private Integer awayScore = 0;
 
-    private String events; // JSON of List<EventHistoryDTO>
+    private Long seed;
 
-    private String stats; // JSON of StatsDTO
+    private String replay; // JSON of MatchReplay, the timeline is regenerated by MatchReplayService
 
-    private String playerStats; // JSON of List<MatchPlayerStatsDTO>
+    private String events; // JSON of List<EventHistoryDTO>, sessions created before replays
+
+    private String stats; // JSON of StatsDTO, sessions created before replays
+
+    private String playerStats; // JSON of List<MatchPlayerStatsDTO>, sessions created before replays
 
     @Builder.Default
     private Boolean finished = false;
+
+    /** Node ticking this session, see LiveMatchRegistry */
+    private String owner;
+
+    private LocalDateTime leaseUntil;
 }
@@ -9,6 +9,7 @@ import org.hibernate.annotations.GenericGenerator;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.lollito.fm.engine.MatchReplay;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
@@ -91,6 +92,16 @@ public class Match implements Serializable{
 	private Boolean last = Boolean.FALSE;
 	
 	public Integer spectators;
+
+	/** Seed of the engine random stream, see MatchRandom */
+	@JsonIgnore
+	private Long seed;
+
+	/** Kick off state of the last simulation, kept to replay the match */
+	@Transient
+	@JsonIgnore
+	@ToString.Exclude
+	private MatchReplay replay;
 	
 	@OneToMany(mappedBy = "match", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
 	@OrderBy("minute")
@@ -0,0 +1,75 @@
+package com.lollito.fm.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.GenericGenerator;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * A domain event waiting for its side effects, written in the transaction
+ * that raised it, see {@code DomainEventBus}. The row is deleted once the
+ * side effects are committed; {@link #availableAt} delays a retry and
+ * {@link #failed} marks an event that ran out of attempts.
+ */
+@Entity
+@Table(name = "outbox_event")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+public class OutboxEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Type {
+        /** {@link #aggregateId} is the match */
+        MATCH_FINISHED,
+        /** {@link #aggregateId} is the training session */
+        TRAINING_COMPLETED,
+        /** {@link #aggregateId} is the buying club */
+        TRANSFER_COMPLETED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "native")
+    @GenericGenerator(name = "native", strategy = "native")
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private Type type;
+
+    private Long aggregateId;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime availableAt;
+
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Builder.Default
+    private Boolean failed = false;
+
+    @Column(length = 1000)
+    private String lastError;
+}
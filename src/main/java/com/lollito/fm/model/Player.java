@@ -11,10 +11,12 @@ import org.hibernate.annotations.GenericGenerator;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.lollito.fm.listener.PlayerStateListener;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -56,6 +58,7 @@ import lombok.ToString;
 
 @Entity
 @Table(name = "player")
+@EntityListeners(PlayerStateListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -181,6 +184,12 @@ public class Player implements Serializable{
 	@ToString.Exclude
 	private List<ContractNegotiation> negotiations = new ArrayList<>();
 
+	/** Version of the buffered state put in when loaded, see PlayerStateBuffer */
+	@Transient
+	@JsonIgnore
+	@ToString.Exclude
+	private long stateVersion;
+
 	@Transient
 	public boolean isContractExpiringSoon() {
 		if (currentContract == null) return true;
@@ -16,6 +16,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -83,6 +84,14 @@ public class PlayerCareerStats implements Serializable {
     @Builder.Default
     private Double highestSeasonRating = 0.0;
 
+    // Running accumulators, updated match by match
+    @Builder.Default
+    private Integer currentGoalStreak = 0;
+    @Builder.Default
+    private Integer ratedMatches = 0;
+    @Builder.Default
+    private Double ratingSum = 0.0;
+
     // Career milestones
     private LocalDate firstProfessionalMatch;
     private LocalDate firstGoal;
@@ -96,4 +105,9 @@ public class PlayerCareerStats implements Serializable {
     private BigDecimal totalTransferValue = BigDecimal.ZERO;
     @Builder.Default
     private BigDecimal highestTransferValue = BigDecimal.ZERO;
+
+    @Transient
+    public Double getAverageRating() {
+        return ratedMatches > 0 ? ratingSum / ratedMatches : 0.0;
+    }
 }
@@ -0,0 +1,45 @@
+package com.lollito.fm.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Lease on a scheduled job, so a job runs on one node at a time, see
+ * {@code SchedulerLockService}. The lease is free once {@link #lockedUntil}
+ * has passed.
+ */
+@Entity
+@Table(name = "scheduler_lock")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+public class SchedulerLock implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @EqualsAndHashCode.Include
+    private String name;
+
+    /** Node holding the lease */
+    private String owner;
+
+    private LocalDateTime lockedAt;
+
+    private LocalDateTime lockedUntil;
+}
@@ -0,0 +1,28 @@
+package com.lollito.fm.model.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServerCreationProgress {
+
+    public enum Phase { GENERATING, SCHEDULING, SAVING, COMPLETED, FAILED }
+
+    private String serverName;
+    private Phase phase;
+    private int leagues;
+    private int stepsDone;
+    private int stepsTotal;
+    private LocalDateTime startedAt;
+    private long elapsedMs;
+    /** Estimated from the pace so far, null before the first step and once finished */
+    private Long remainingMs;
+    private String error;
+}
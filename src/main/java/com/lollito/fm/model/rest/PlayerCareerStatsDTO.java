@@ -28,4 +28,5 @@ public class PlayerCareerStatsDTO {
     private Integer mostAssistsInSeason;
     private Double highestSeasonRating;
     private Integer longestGoalStreak;
+    private Double averageRating;
 }
@@ -1,8 +1,12 @@
 package com.lollito.fm.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.lollito.fm.model.ManagerProfile;
@@ -12,4 +16,8 @@ public interface ManagerProfileRepository extends JpaRepository<ManagerProfile,
 
     Optional<ManagerProfile> findByUserId(Long userId);
 
+    /** Pairs of user id and unlocked perk; users without perks have no row. */
+    @Query("SELECT p.user.id, perk FROM ManagerProfile p JOIN p.unlockedPerks perk WHERE p.user.id IN :userIds")
+    List<Object[]> findUnlockedPerksByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
 }
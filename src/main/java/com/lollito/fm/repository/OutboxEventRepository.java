@@ -0,0 +1,20 @@
+package com.lollito.fm.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.lollito.fm.model.OutboxEvent;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    List<OutboxEvent> findByFailedFalseAndAvailableAtLessThanEqualOrderById(LocalDateTime now, Pageable pageable);
+
+    long countByFailedFalse();
+
+    long countByFailedTrue();
+}
@@ -1,6 +1,7 @@
 package com.lollito.fm.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -13,6 +14,7 @@ import com.lollito.fm.model.QuestStatus;
 @Repository
 public interface QuestRepository extends JpaRepository<Quest, Long> {
     List<Quest> findByUserIdAndStatusAndExpirationDateAfter(Long userId, QuestStatus status, LocalDateTime now);
+    List<Quest> findByUserIdInAndStatusAndExpirationDateAfter(Collection<Long> userIds, QuestStatus status, LocalDateTime now);
     List<Quest> findByUserIdAndFrequency(Long userId, QuestFrequency frequency);
     List<Quest> findByUserIdAndStatus(Long userId, QuestStatus status);
     List<Quest> findByUserId(Long userId);
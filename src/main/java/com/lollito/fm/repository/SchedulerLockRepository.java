@@ -0,0 +1,39 @@
+package com.lollito.fm.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.lollito.fm.model.SchedulerLock;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    // Leases are committed on their own, also when taken inside the transaction of a job
+
+    /** Takes the lease if it is free or already held by the owner; returns 1 when taken. */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.owner = :owner, l.lockedAt = :now, l.lockedUntil = :until " +
+            "WHERE l.name = :name AND (l.lockedUntil <= :now OR l.owner = :owner)")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+            @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :until WHERE l.name IN :names AND l.owner = :owner")
+    int extend(@Param("names") Collection<String> names, @Param("owner") String owner, @Param("until") LocalDateTime until);
+
+    /** Frees the lease at the given time, now or the end of the period it is kept for. */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :until WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("until") LocalDateTime until);
+}
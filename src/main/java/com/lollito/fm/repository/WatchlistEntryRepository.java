@@ -1,10 +1,12 @@
 package com.lollito.fm.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.lollito.fm.model.Player;
@@ -18,5 +20,8 @@ public interface WatchlistEntryRepository extends JpaRepository<WatchlistEntry,
     @Query("SELECT e FROM WatchlistEntry e WHERE e.watchlist.isActive = true")
     List<WatchlistEntry> findAllActive();
 
+    @Query("SELECT e FROM WatchlistEntry e JOIN FETCH e.player WHERE e.watchlist.isActive = true AND e.player.id IN :playerIds")
+    List<WatchlistEntry> findAllActiveByPlayerIdIn(@Param("playerIds") Collection<Long> playerIds);
+
     List<WatchlistEntry> findByWatchlist(Watchlist watchlist);
 }
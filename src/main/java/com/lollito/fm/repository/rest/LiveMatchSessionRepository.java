@@ -1,9 +1,13 @@
 package com.lollito.fm.repository.rest;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 
 import com.lollito.fm.model.LiveMatchSession;
@@ -12,4 +16,22 @@ import com.lollito.fm.model.LiveMatchSession;
 public interface LiveMatchSessionRepository extends MongoRepository<LiveMatchSession, String> {
     Optional<LiveMatchSession> findByMatchId(Long matchId);
     List<LiveMatchSession> findByFinishedFalse();
+
+    @Query("{ 'matchId' : ?0 }")
+    @Update("{ '$set' : { 'currentMinute' : ?1, 'homeScore' : ?2, 'awayScore' : ?3 } }")
+    void checkpoint(Long matchId, Integer currentMinute, Integer homeScore, Integer awayScore);
+
+    @Query("{ 'finished' : false, $or : [ { 'leaseUntil' : null }, { 'leaseUntil' : { $lt : ?0 } } ] }")
+    List<LiveMatchSession> findOrphans(LocalDateTime now);
+
+    /** Takes the lease of an unfinished session that is unowned, expired or already ours; returns 1 on success. */
+    @Query("{ 'matchId' : ?0, 'finished' : false, $or : [ { 'owner' : ?1 }, { 'owner' : null }, { 'leaseUntil' : null }, { 'leaseUntil' : { $lt : ?2 } } ] }")
+    @Update("{ '$set' : { 'owner' : ?1, 'leaseUntil' : ?3 } }")
+    long claim(Long matchId, String owner, LocalDateTime now, LocalDateTime leaseUntil);
+
+    @Query("{ 'matchId' : { $in : ?0 }, 'owner' : ?1 }")
+    @Update("{ '$set' : { 'leaseUntil' : ?2 } }")
+    long renew(Collection<Long> matchIds, String owner, LocalDateTime leaseUntil);
+
+    List<LiveMatchSession> findByMatchIdInAndOwnerNot(Collection<Long> matchIds, String owner);
 }
@@ -26,6 +26,11 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
 	@Query("SELECT m FROM Match m WHERE (m.home = :club OR m.away = :club) AND m.finish = true ORDER BY m.date DESC")
 	public Page<Match> findByClubAndFinishOrderByDateDesc(@Param("club") Club club, Pageable pageable);
 	public List<Match> findByStatusAndDateBefore(MatchStatus status, LocalDateTime date);
+
+	/** Matches of the leagues whose id modulo count is index, see ClusterService.Partition. */
+	@Query("SELECT m FROM Match m WHERE m.status = :status AND m.date < :date AND MOD(m.round.season.league.id, :count) = :index")
+	public List<Match> findByStatusAndDateBeforeInLeaguePartition(@Param("status") MatchStatus status, @Param("date") LocalDateTime date,
+			@Param("count") int count, @Param("index") int index);
 	public long countByRoundAndFinish(Round round, Boolean finish);
 
 	@Query("SELECT m FROM Match m JOIN FETCH m.home h LEFT JOIN FETCH h.stadium JOIN FETCH m.away a JOIN FETCH m.round r JOIN FETCH r.season s JOIN FETCH s.league l WHERE m.finish = false AND (m.home.id = :clubId OR m.away.id = :clubId) ORDER BY m.date ASC")
@@ -22,11 +22,16 @@ public interface PlayerSeasonStatsRepository extends JpaRepository<PlayerSeasonS
 
     List<PlayerSeasonStats> findByPlayer(Player player);
 
+    List<PlayerSeasonStats> findByPlayerIn(List<Player> players);
+
     List<PlayerSeasonStats> findByPlayerOrderBySeasonDesc(Player player);
 
-    @Query("SELECT s FROM PlayerSeasonStats s WHERE s.league.id = :leagueId AND s.season = :season ORDER BY s.goals DESC")
+    // Season, club and league are fetched: the rows are kept in memory by LeagueLeaderboards and mapped without a session
+    @Query("SELECT s FROM PlayerSeasonStats s JOIN FETCH s.season JOIN FETCH s.league LEFT JOIN FETCH s.club "
+            + "WHERE s.league.id = :leagueId AND s.season = :season ORDER BY s.goals DESC")
     List<PlayerSeasonStats> findTopScorersByLeagueAndSeason(@Param("leagueId") Long leagueId, @Param("season") Season season, Pageable pageable);
 
-    @Query("SELECT s FROM PlayerSeasonStats s WHERE s.league.id = :leagueId AND s.season = :season ORDER BY s.assists DESC")
+    @Query("SELECT s FROM PlayerSeasonStats s JOIN FETCH s.season JOIN FETCH s.league LEFT JOIN FETCH s.club "
+            + "WHERE s.league.id = :leagueId AND s.season = :season ORDER BY s.assists DESC")
     List<PlayerSeasonStats> findTopAssistsByLeagueAndSeason(@Param("leagueId") Long leagueId, @Param("season") Season season, Pageable pageable);
 }
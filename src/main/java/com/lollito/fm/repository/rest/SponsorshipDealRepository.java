@@ -1,6 +1,7 @@
 package com.lollito.fm.repository.rest;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -18,6 +19,8 @@ public interface SponsorshipDealRepository extends JpaRepository<SponsorshipDeal
 
     List<SponsorshipDeal> findByClubAndStatus(Club club, SponsorshipStatus status);
 
+    List<SponsorshipDeal> findByClubInAndStatus(Collection<Club> clubs, SponsorshipStatus status);
+
     List<SponsorshipDeal> findByStatusAndEndDateAfter(SponsorshipStatus status, LocalDate date);
 
     boolean existsByClubAndTypeAndStatus(Club club, SponsorshipType type, SponsorshipStatus status);
@@ -0,0 +1,53 @@
+package com.lollito.fm.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+/**
+ * A scheduled job over the rows of one entity, run by {@link BatchJobRunner}
+ * in chunks of ascending ids.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class BatchJob<T> {
+
+    /** Name of the checkpoint and tag of the metrics */
+    private final String name;
+
+    private final Class<T> type;
+
+    /** Rows of the job, all of them when null */
+    private final Specification<T> filter;
+
+    /** Associations loaded with each chunk, as dotted paths ("scout.club") */
+    @Singular("fetch")
+    private final List<String> fetch;
+
+    /** Processes one chunk, inside the chunk transaction */
+    private final Consumer<List<T>> processor;
+
+    /** Rows per chunk, fm.batch.chunk-size when null */
+    private final Integer chunkSize;
+
+    /**
+     * Period of the schedule running the job, for which a run keeps its lease
+     * so that another node does not run it again; null for a job started on
+     * demand, whose lease is freed when it returns.
+     */
+    private final Duration period;
+
+    /**
+     * Attribute path ("id", "club.id") splitting the rows in the slices of
+     * {@link ClusterService#partitions()}, each processing the rows whose key
+     * modulo the slice count is its index; rows sharing the key are processed
+     * in the same slice. When null the job runs whole on one node at a time.
+     */
+    private final String partitionKey;
+}
@@ -0,0 +1,334 @@
+package com.lollito.fm.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lollito.fm.config.BatchJobConfig;
+import com.lollito.fm.model.BatchJobCheckpoint;
+import com.lollito.fm.model.BatchJobStatus;
+import com.lollito.fm.repository.BatchJobCheckpointRepository;
+import com.lollito.fm.service.ClusterService.Partition;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.FetchParent;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs a {@link BatchJob}: the ids are read in ascending order after the last
+ * checkpoint (keyset paging, no offsets), each chunk is loaded and processed
+ * in its own transaction and the checkpoint moves past it, so a run that
+ * stops half way resumes where it stopped instead of starting over.
+ *
+ * With {@code fm.batch.parallelism} greater than one, that many chunks run at
+ * the same time on the batch executor and the checkpoint moves after all of
+ * them.
+ *
+ * A chunk that fails is rolled back and its rows are run again one per
+ * transaction, so that only the rows failing on their own are skipped and
+ * logged; past {@code fm.batch.skip-limit} skipped rows in a run the job
+ * fails instead and resumes at the failing row, running the chunks of its
+ * group that came after it again.
+ *
+ * With several backend nodes a job holds a {@link SchedulerLockService}
+ * lease while it runs, and for the rest of its {@link BatchJob#getPeriod()
+ * period}; a partitioned job is split among the live nodes of
+ * the {@link ClusterService}, each slice with its own lease and checkpoint.
+ */
+@Service
+@Slf4j
+public class BatchJobRunner {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BatchJobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SchedulerLockService schedulerLockService;
+
+    @Autowired
+    private ClusterService clusterService;
+
+    @Autowired
+    @Qualifier(BatchJobConfig.EXECUTOR)
+    private Executor executor;
+
+    @Value("${fm.batch.chunk-size:100}")
+    private Integer chunkSize;
+
+    @Value("${fm.batch.parallelism:1}")
+    private Integer parallelism;
+
+    @Value("${fm.batch.skip-limit:10}")
+    private Integer skipLimit;
+
+    /**
+     * Runs the job, or this node's slices of it one after the other when it is
+     * partitioned, to the end or to the first failed chunk. Nothing runs if
+     * another node holds the job (or the slice).
+     *
+     * @return the rows processed by this run
+     */
+    public <T> long run(BatchJob<T> job) {
+        if (job.getPartitionKey() == null) {
+            return runLocked(job);
+        }
+        long items = 0;
+        for (Partition partition : clusterService.partitions()) {
+            items += runLocked(partition.isWhole() ? job : slice(job, partition));
+        }
+        return items;
+    }
+
+    /** Progress of the last run of a job, or of one slice of a partitioned job. */
+    public Optional<BatchJobCheckpoint> checkpoint(String name) {
+        return checkpointRepository.findById(name);
+    }
+
+    private <T> long runLocked(BatchJob<T> job) {
+        long[] items = new long[1];
+        schedulerLockService.runLocked(job.getName(), job.getPeriod(), () -> items[0] = execute(job));
+        return items[0];
+    }
+
+    private <T> BatchJob<T> slice(BatchJob<T> job, Partition partition) {
+        Specification<T> slice = (root, query, cb) -> {
+            Path<?> key = root;
+            for (String attribute : job.getPartitionKey().split("\\.")) {
+                key = key.get(attribute);
+            }
+            return cb.equal(cb.function("mod", Long.class, key, cb.literal((long) partition.getCount())), (long) partition.getIndex());
+        };
+        return job.toBuilder()
+                .name(job.getName() + "#" + partition)
+                .filter(job.getFilter() == null ? slice : job.getFilter().and(slice))
+                .build();
+    }
+
+    private <T> long execute(BatchJob<T> job) {
+        log.info("Starting batch job {}...", job.getName());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        BatchJobCheckpoint checkpoint = start(job.getName());
+        int size = job.getChunkSize() != null ? job.getChunkSize() : chunkSize;
+        long items = 0;
+        String outcome = "completed";
+        try {
+            List<Long> keys;
+            while (!(keys = keys(job, checkpoint.getLastKey(), size * parallelism)).isEmpty()) {
+                items += parallelism > 1 ? runGroup(job, keys, size, checkpoint) : runChunk(job, keys, checkpoint);
+            }
+            checkpoint.setStatus(BatchJobStatus.COMPLETED);
+            checkpoint.setFinishedAt(LocalDateTime.now());
+            checkpointRepository.save(checkpoint);
+            log.info("Finished batch job {}: {} items.", job.getName(), items);
+        } catch (RuntimeException e) {
+            outcome = "failed";
+            log.error("Batch job {} failed after {} items, it resumes on the next run", job.getName(), items, e);
+            fail(job.getName());
+        } finally {
+            sample.stop(meterRegistry.timer("fm.batch.job.duration", "job", job.getName(), "outcome", outcome));
+            meterRegistry.counter("fm.batch.job.items", "job", job.getName()).increment(items);
+        }
+        return items;
+    }
+
+    private BatchJobCheckpoint start(String name) {
+        BatchJobCheckpoint checkpoint = checkpointRepository.findById(name)
+                .orElseGet(() -> BatchJobCheckpoint.builder().jobName(name).build());
+        if (checkpoint.getStatus() == BatchJobStatus.RUNNING || checkpoint.getStatus() == BatchJobStatus.FAILED) {
+            log.info("Resuming batch job {} after key {}", name, checkpoint.getLastKey());
+        } else {
+            checkpoint.setLastKey(0L);
+            checkpoint.setItemsProcessed(0L);
+            checkpoint.setItemsSkipped(0L);
+            checkpoint.setStartedAt(LocalDateTime.now());
+            checkpoint.setFinishedAt(null);
+        }
+        checkpoint.setStatus(BatchJobStatus.RUNNING);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        return checkpointRepository.save(checkpoint);
+    }
+
+    private void fail(String name) {
+        // Reloaded: the last chunk may have moved the copy in memory and rolled back
+        checkpointRepository.findById(name).ifPresent(checkpoint -> {
+            checkpoint.setStatus(BatchJobStatus.FAILED);
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            checkpointRepository.save(checkpoint);
+        });
+    }
+
+    /** One chunk, the checkpoint moves in the same transaction. */
+    private <T> int runChunk(BatchJob<T> job, List<Long> keys, BatchJobCheckpoint checkpoint) {
+        long lastKey = checkpoint.getLastKey();
+        long itemsProcessed = checkpoint.getItemsProcessed();
+        try {
+            return transaction().execute(status -> {
+                int processed = process(job, keys);
+                advance(checkpoint, keys.get(keys.size() - 1), processed);
+                return processed;
+            });
+        } catch (RuntimeException e) {
+            // Rolled back, the commit may have failed after the checkpoint moved in memory
+            checkpoint.setLastKey(lastKey);
+            checkpoint.setItemsProcessed(itemsProcessed);
+            return retry(job, keys, checkpoint, e);
+        }
+    }
+
+    private <T> int runGroup(BatchJob<T> job, List<Long> keys, int size, BatchJobCheckpoint checkpoint) {
+        List<CompletableFuture<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += size) {
+            List<Long> chunk = keys.subList(from, Math.min(from + size, keys.size()));
+            chunks.add(CompletableFuture.supplyAsync(() -> transaction().execute(status -> process(job, chunk)), executor));
+        }
+
+        int processed = 0;
+        int uncheckpointed = 0;
+        long lastKey = checkpoint.getLastKey();
+        for (int i = 0; i < chunks.size(); i++) {
+            List<Long> chunk = keys.subList(i * size, Math.min((i + 1) * size, keys.size()));
+            try {
+                int items = chunks.get(i).join();
+                processed += items;
+                uncheckpointed += items;
+            } catch (CompletionException e) {
+                CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).exceptionally(ignored -> null).join();
+                // The retry moves the checkpoint row by row, so first past the chunks committed before this one
+                advance(checkpoint, lastKey, uncheckpointed);
+                uncheckpointed = 0;
+                processed += retry(job, chunk, checkpoint, e.getCause() instanceof RuntimeException cause ? cause : e);
+            }
+            lastKey = chunk.get(chunk.size() - 1);
+        }
+        advance(checkpoint, lastKey, uncheckpointed);
+        return processed;
+    }
+
+    /**
+     * Runs the rows of a failed chunk one per transaction, each moving the
+     * checkpoint past it. A row failing on its own is skipped, unless the run
+     * already skipped {@code fm.batch.skip-limit} rows: then its failure fails
+     * the job.
+     */
+    private <T> int retry(BatchJob<T> job, List<Long> keys, BatchJobCheckpoint checkpoint, RuntimeException failure) {
+        log.warn("Chunk of batch job {} after key {} failed, retrying its {} rows one at a time",
+                job.getName(), checkpoint.getLastKey(), keys.size(), failure);
+        int processed = 0;
+        for (Long key : keys) {
+            long itemsProcessed = checkpoint.getItemsProcessed();
+            try {
+                processed += transaction().execute(status -> {
+                    int item = process(job, List.of(key));
+                    advance(checkpoint, key, item);
+                    return item;
+                });
+            } catch (RuntimeException e) {
+                checkpoint.setItemsProcessed(itemsProcessed);
+                if (checkpoint.getItemsSkipped() >= skipLimit) {
+                    throw e;
+                }
+                log.error("Skipping row {} of batch job {}", key, job.getName(), e);
+                meterRegistry.counter("fm.batch.job.skipped", "job", job.getName()).increment();
+                checkpoint.setItemsSkipped(checkpoint.getItemsSkipped() + 1);
+                advance(checkpoint, key, 0);
+            }
+        }
+        return processed;
+    }
+
+    private <T> int process(BatchJob<T> job, List<Long> keys) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<T> chunk = load(job, keys);
+        if (!chunk.isEmpty()) {
+            job.getProcessor().accept(chunk);
+        }
+        sample.stop(meterRegistry.timer("fm.batch.chunk.duration", "job", job.getName()));
+        meterRegistry.summary("fm.batch.chunk.size", "job", job.getName()).record(chunk.size());
+        return chunk.size();
+    }
+
+    private void advance(BatchJobCheckpoint checkpoint, long lastKey, int processed) {
+        checkpoint.setLastKey(lastKey);
+        checkpoint.setItemsProcessed(checkpoint.getItemsProcessed() + processed);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+    }
+
+    private TransactionTemplate transaction() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    /** Next ids of the job after the given one, in ascending order. */
+    <T> List<Long> keys(BatchJob<T> job, long after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(job.getType());
+        Path<Long> id = root.get("id");
+        query.select(id)
+                .where(where(job, root, query, cb, cb.greaterThan(id, after)))
+                .orderBy(cb.asc(id));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    /** Rows of a chunk with their fetched associations; rows no longer matching the filter are left out. */
+    <T> List<T> load(BatchJob<T> job, List<Long> keys) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(job.getType());
+        Root<T> root = query.from(job.getType());
+        Map<String, FetchParent<?, ?>> fetched = new HashMap<>();
+        for (String path : job.getFetch()) {
+            FetchParent<?, ?> parent = root;
+            String prefix = "";
+            for (String attribute : path.split("\\.")) {
+                prefix = prefix.isEmpty() ? attribute : prefix + "." + attribute;
+                FetchParent<?, ?> owner = parent;
+                parent = fetched.computeIfAbsent(prefix, p -> owner.fetch(attribute, JoinType.LEFT));
+            }
+        }
+        Path<Long> id = root.get("id");
+        query.select(root)
+                .where(where(job, root, query, cb, id.in(keys)))
+                .orderBy(cb.asc(id));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private <T> Predicate where(BatchJob<T> job, Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb, Predicate keys) {
+        if (job.getFilter() == null) {
+            return keys;
+        }
+        Predicate filter = job.getFilter().toPredicate(root, query, cb);
+        return filter == null ? keys : cb.and(filter, keys);
+    }
+}
@@ -0,0 +1,120 @@
+package com.lollito.fm.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.lollito.fm.model.ClusterNode;
+import com.lollito.fm.repository.ClusterNodeRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Backend nodes sharing the database. Every node keeps a heartbeat row; the
+ * nodes whose heartbeat is recent are the live ones. A partitioned job is cut
+ * in a fixed number of slices, whatever the nodes, and each live node runs
+ * the slices matching its position among them: a slice keeps its lease and
+ * checkpoint names when nodes join or leave, so whichever node owns it next
+ * waits for the lease of the previous one and resumes from its checkpoint.
+ */
+@Service
+@Slf4j
+public class ClusterService {
+
+    @Autowired
+    private ClusterNodeRepository clusterNodeRepository;
+
+    @Value("${fm.cluster.node-id:${random.uuid}}")
+    private String nodeId;
+
+    @Value("${fm.cluster.node-timeout-seconds:30}")
+    private long nodeTimeoutSeconds = 30;
+
+    /** Slices of a partitioned job, the same on every node; 1 runs the jobs whole */
+    @Value("${fm.cluster.partitions:8}")
+    private int partitions = 8;
+
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${fm.scheduling.cluster-heartbeat.initial-delay:10000}", fixedRateString = "${fm.scheduling.cluster-heartbeat.fixed-rate:10000}")
+    public void heartbeat() {
+        clusterNodeRepository.save(ClusterNode.builder()
+                .nodeId(nodeId)
+                .startedAt(startedAt)
+                .heartbeatAt(LocalDateTime.now())
+                .build());
+    }
+
+    @PreDestroy
+    public void leave() {
+        try {
+            clusterNodeRepository.deleteById(nodeId);
+        } catch (Exception e) {
+            log.warn("Could not remove node {} from the cluster", nodeId, e);
+        }
+    }
+
+    /** Ids of the live nodes in a stable order, this node included. */
+    public List<String> liveNodes() {
+        List<String> nodes = new ArrayList<>(clusterNodeRepository.findLiveNodeIds(LocalDateTime.now().minusSeconds(nodeTimeoutSeconds)));
+        if (!nodes.contains(nodeId)) {
+            nodes.add(nodeId);
+            Collections.sort(nodes);
+        }
+        return nodes;
+    }
+
+    /**
+     * Slices of a partitioned job for this node: slice i, the keys whose hash
+     * modulo {@link Partition#getCount()} is i, goes to the live node at
+     * position i modulo the live node count. A node may own none of them when
+     * there are more nodes than slices.
+     */
+    public List<Partition> partitions() {
+        List<String> nodes = liveNodes();
+        List<Partition> owned = new ArrayList<>();
+        for (int index = nodes.indexOf(nodeId); index < partitions; index += nodes.size()) {
+            owned.add(new Partition(index, partitions));
+        }
+        return owned;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Partition {
+
+        private final int index;
+
+        private final int count;
+
+        public boolean isWhole() {
+            return count == 1;
+        }
+
+        public boolean owns(long key) {
+            return Math.floorMod(key, count) == index;
+        }
+
+        /** Suffix of the lock and checkpoint names of this slice. */
+        @Override
+        public String toString() {
+            return index + "/" + count;
+        }
+    }
+}
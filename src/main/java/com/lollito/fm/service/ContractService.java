@@ -2,6 +2,7 @@ package com.lollito.fm.service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -9,6 +10,7 @@ import java.util.Optional;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -65,6 +67,15 @@ public class ContractService {
     @Autowired
     private ManagerProgressionService managerProgressionService;
 
+    @Autowired
+    private BatchJobRunner batchJobRunner;
+
+    @Value("${fm.scheduling.contract.bonuses.fixed-rate}")
+    private Duration bonusesPeriod;
+
+    @Value("${fm.scheduling.contract.expiry.fixed-rate}")
+    private Duration expiryPeriod;
+
     public ContractNegotiation startNegotiation(Long playerId, Long clubId,
                                               NegotiationType type, ContractOfferRequest initialOffer) {
         Player player = playerService.findOne(playerId);
@@ -385,9 +396,18 @@ public class ContractService {
 
     @Scheduled(initialDelayString = "${fm.scheduling.contract.bonuses.initial-delay}", fixedRateString = "${fm.scheduling.contract.bonuses.fixed-rate}")
     public void processPerformanceBonuses() {
-        log.info("Starting processPerformanceBonuses...");
-        List<Contract> activeContracts = contractRepository.findByStatus(ContractStatus.ACTIVE);
+        batchJobRunner.run(BatchJob.<Contract>builder()
+                .name("contract-bonuses")
+                .type(Contract.class)
+                .period(bonusesPeriod)
+                .filter((root, query, cb) -> cb.equal(root.get("status"), ContractStatus.ACTIVE))
+                .fetch("performanceBonuses")
+                .processor(this::processPerformanceBonuses)
+                .partitionKey("id")
+                .build());
+    }
 
+    void processPerformanceBonuses(List<Contract> activeContracts) {
         for (Contract contract : activeContracts) {
             for (PerformanceBonus bonus : contract.getPerformanceBonuses()) {
                 if (!Boolean.TRUE.equals(bonus.getIsAchieved()) && checkBonusCondition(bonus)) {
@@ -400,15 +420,25 @@ public class ContractService {
             }
             contractRepository.save(contract);
         }
-        log.info("Finished processPerformanceBonuses.");
     }
 
     @Scheduled(initialDelayString = "${fm.scheduling.contract.expiry.initial-delay}", fixedRateString = "${fm.scheduling.contract.expiry.fixed-rate}")
     public void processContractExpiries() {
-        log.info("Starting processContractExpiries...");
-        List<Contract> expiringContracts = contractRepository
-            .findByStatusAndEndDateBefore(ContractStatus.ACTIVE, LocalDate.now());
+        LocalDate today = LocalDate.now();
+        batchJobRunner.run(BatchJob.<Contract>builder()
+                .name("contract-expiries")
+                .type(Contract.class)
+                .period(expiryPeriod)
+                .filter((root, query, cb) -> cb.and(
+                        cb.equal(root.get("status"), ContractStatus.ACTIVE),
+                        cb.lessThan(root.get("endDate"), today)))
+                .fetch("player")
+                .processor(this::processContractExpiries)
+                .partitionKey("player.id")
+                .build());
+    }
 
+    void processContractExpiries(List<Contract> expiringContracts) {
         for (Contract contract : expiringContracts) {
             if (shouldAutoExtend(contract)) {
                 extendContract(contract);
@@ -424,7 +454,6 @@ public class ContractService {
                 createContractExpiryNews(contract);
             }
         }
-        log.info("Finished processContractExpiries.");
     }
 
     private boolean checkBonusCondition(PerformanceBonus bonus) {
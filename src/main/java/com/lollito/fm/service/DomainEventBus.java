@@ -0,0 +1,270 @@
+package com.lollito.fm.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lollito.fm.listener.QuestEventListener;
+import com.lollito.fm.model.Club;
+import com.lollito.fm.model.Match;
+import com.lollito.fm.model.OutboxEvent;
+import com.lollito.fm.repository.OutboxEventRepository;
+import com.lollito.fm.repository.TrainingSessionRepository;
+import com.lollito.fm.repository.rest.ClubRepository;
+import com.lollito.fm.repository.rest.MatchRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs the side effects of finished matches, completed training sessions and
+ * transfers (achievements and quest progress) outside the transaction that
+ * raised them.
+ *
+ * {@link #enqueue} writes an {@link OutboxEvent} row in that transaction, so
+ * an event is kept exactly when its cause is committed. Once it commits, the
+ * outbox is drained on a background thread, and every
+ * {@code fm.events.poll-interval-ms} in case a wake-up was lost or another
+ * node wrote the rows. Events are handled in batches by type, one transaction
+ * per batch: the quests of all the managers of a round are read with one
+ * query. A failed batch is retried event by event; a failed event is delayed
+ * by {@code fm.events.retry-delay-ms}, doubling with each attempt, and set
+ * aside after {@code fm.events.max-attempts}. One node drains at a time.
+ */
+@Component
+@Slf4j
+public class DomainEventBus {
+
+    static final String LOCK = "domain-events";
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private TrainingSessionRepository trainingSessionRepository;
+
+    @Autowired
+    private ClubRepository clubRepository;
+
+    @Autowired
+    private AchievementService achievementService;
+
+    @Autowired
+    private QuestEventListener questEventListener;
+
+    @Autowired
+    private SchedulerLockService schedulerLockService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${fm.events.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${fm.events.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    @Value("${fm.events.retry-delay-ms:10000}")
+    private long retryDelayMs = 10000;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "domain-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** A drain is queued on {@link #worker} and has not started yet */
+    private final AtomicBoolean wakeUpQueued = new AtomicBoolean();
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    /** Events left in the outbox after the last drain, the failed ones apart */
+    private final AtomicLong pending = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("fm.events.outbox.pending", pending, AtomicLong::get)
+                .description("Domain events waiting in the outbox after the last drain")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Writes the event to the outbox in the current transaction; it is handled
+     * after the transaction commits, right away without a transaction.
+     */
+    public void enqueue(OutboxEvent.Type type, Long aggregateId) {
+        if (aggregateId == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        outboxEventRepository.save(OutboxEvent.builder()
+                .type(type)
+                .aggregateId(aggregateId)
+                .createdAt(now)
+                .availableAt(now)
+                .build());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp();
+                }
+            });
+        } else {
+            wakeUp();
+        }
+    }
+
+    /** Queues a drain, unless one is queued already. */
+    void wakeUp() {
+        if (wakeUpQueued.compareAndSet(false, true)) {
+            worker.execute(() -> {
+                wakeUpQueued.set(false);
+                drain();
+            });
+        }
+    }
+
+    /**
+     * Handles the events due, batch after batch, while this node holds the
+     * outbox lease.
+     *
+     * @return the events handled
+     */
+    @Scheduled(initialDelayString = "${fm.events.poll-interval-ms:5000}", fixedDelayString = "${fm.events.poll-interval-ms:5000}")
+    public int drain() {
+        if (!draining.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            if (!schedulerLockService.acquire(LOCK)) {
+                return 0;
+            }
+            try {
+                int handled = 0;
+                List<OutboxEvent> batch;
+                do {
+                    batch = outboxEventRepository.findByFailedFalseAndAvailableAtLessThanEqualOrderById(
+                            LocalDateTime.now(), PageRequest.of(0, batchSize));
+                    Map<OutboxEvent.Type, List<OutboxEvent>> byType = batch.stream().collect(Collectors.groupingBy(
+                            OutboxEvent::getType, () -> new EnumMap<>(OutboxEvent.Type.class), Collectors.toList()));
+                    for (Map.Entry<OutboxEvent.Type, List<OutboxEvent>> events : byType.entrySet()) {
+                        handled += process(events.getKey(), events.getValue());
+                    }
+                } while (batch.size() == batchSize);
+                pending.set(outboxEventRepository.countByFailedFalse());
+                return handled;
+            } finally {
+                schedulerLockService.release(LOCK);
+            }
+        } catch (RuntimeException e) {
+            log.error("Draining the domain event outbox failed", e);
+            return 0;
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        worker.shutdownNow();
+    }
+
+    /** Handles the events in one transaction that also deletes them; on failure, one at a time. */
+    private int process(OutboxEvent.Type type, List<OutboxEvent> events) {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                handle(type, events);
+                outboxEventRepository.deleteAllInBatch(events);
+            });
+        } catch (RuntimeException e) {
+            if (events.size() == 1) {
+                retryLater(events.get(0), e);
+                return 0;
+            }
+            log.warn("A batch of {} {} events failed, retrying them one by one", events.size(), type, e);
+            int handled = 0;
+            for (OutboxEvent event : events) {
+                handled += process(type, List.of(event));
+            }
+            return handled;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : events) {
+            meterRegistry.timer("fm.events.lag", "type", type.name()).record(Duration.between(event.getCreatedAt(), now));
+        }
+        meterRegistry.counter("fm.events.handled", "type", type.name()).increment(events.size());
+        return events.size();
+    }
+
+    private void handle(OutboxEvent.Type type, List<OutboxEvent> events) {
+        List<Long> ids = events.stream().map(OutboxEvent::getAggregateId).toList();
+        switch (type) {
+            case MATCH_FINISHED -> {
+                List<Match> matches = matchRepository.findAllById(ids);
+                matches.forEach(achievementService::checkMatchAchievements);
+                questEventListener.onMatchesFinished(matches);
+            }
+            case TRAINING_COMPLETED -> questEventListener.onTrainingsCompleted(trainingSessionRepository.findAllById(ids));
+            case TRANSFER_COMPLETED -> {
+                // A club buying twice progresses twice
+                Map<Long, Club> clubs = clubRepository.findAllById(new HashSet<>(ids)).stream()
+                        .collect(Collectors.toMap(Club::getId, Function.identity()));
+                questEventListener.onTransfersCompleted(ids.stream().map(clubs::get).filter(Objects::nonNull).toList());
+            }
+        }
+    }
+
+    private void retryLater(OutboxEvent event, RuntimeException e) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(abbreviate(String.valueOf(e.getMessage())));
+        if (attempts >= maxAttempts) {
+            event.setFailed(true);
+            meterRegistry.counter("fm.events.failed", "type", event.getType().name()).increment();
+            log.error("Giving up {} event {} after {} attempts", event.getType(), event.getAggregateId(), attempts, e);
+        } else {
+            event.setAvailableAt(LocalDateTime.now().plus(Duration.ofMillis(retryDelayMs << (attempts - 1))));
+            meterRegistry.counter("fm.events.retried", "type", event.getType().name()).increment();
+            log.warn("{} event {} failed, attempt {} of {}", event.getType(), event.getAggregateId(), attempts, maxAttempts, e);
+        }
+        try {
+            outboxEventRepository.save(event);
+        } catch (RuntimeException saveFailure) {
+            log.error("Could not record the failure of {} event {}", event.getType(), event.getAggregateId(), saveFailure);
+        }
+    }
+
+    private static String abbreviate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
@@ -2,21 +2,30 @@ package com.lollito.fm.service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.UUID;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.hibernate.Session;
+
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -27,6 +36,7 @@ import com.lollito.fm.model.FinancialTransaction;
 import com.lollito.fm.model.Match;
 import com.lollito.fm.model.Player;
 import com.lollito.fm.model.ReportType;
+import com.lollito.fm.model.Season;
 import com.lollito.fm.model.SponsorshipDeal;
 import com.lollito.fm.model.SponsorshipStatus;
 import com.lollito.fm.model.Stadium;
@@ -43,6 +53,9 @@ import com.lollito.fm.repository.rest.FinancialReportRepository;
 import com.lollito.fm.repository.rest.FinancialTransactionRepository;
 import com.lollito.fm.repository.rest.SponsorshipDealRepository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
 @Service
 @Slf4j
 public class FinancialService {
@@ -77,6 +90,24 @@ public class FinancialService {
     @Autowired
     private ManagerProgressionService managerProgressionService;
 
+    @Autowired
+    private SchedulerLockService schedulerLockService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${fm.finance.close.batch-size:500}")
+    private Integer closeBatchSize;
+
+    @Value("${fm.scheduling.finance.fixed-rate}")
+    private Duration financePeriod;
+
+    @Value("${fm.scheduling.finance.interest.fixed-rate:604800000}")
+    private Duration interestPeriod;
+
     @Transactional
     public void addIncome(Club club, BigDecimal amount, TransactionCategory category) {
         if (club == null || amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
@@ -132,13 +163,7 @@ public class FinancialService {
         transaction = transactionRepository.save(transaction);
 
         // Update finance balance
-        if (request.getType() == TransactionType.INCOME) {
-            finance.setBalance(finance.getBalance().add(request.getAmount()));
-            updateRevenueCategory(finance, request.getCategory(), request.getAmount());
-        } else {
-            finance.setBalance(finance.getBalance().subtract(request.getAmount()));
-            updateExpenseCategory(finance, request.getCategory(), request.getAmount());
-        }
+        apply(finance, transaction);
 
         finance.setLastUpdated(LocalDate.now());
         updateFinancialHealthIndicators(finance);
@@ -153,31 +178,43 @@ public class FinancialService {
         return transaction;
     }
 
+    /**
+     * Monthly close of every club.
+     *
+     * Salary and sponsorship lines of all clubs are computed in memory and
+     * inserted in JDBC batches; each club then gets a single balance update, one
+     * report and one health, alert and achievement evaluation, instead of one
+     * per line as {@link #processTransaction} would do.
+     *
+     * The lease is taken outside the transaction of the close, so that it is
+     * only let go once the close is committed.
+     */
     @Scheduled(initialDelayString = "${fm.scheduling.finance.initial-delay}", fixedRateString = "${fm.scheduling.finance.fixed-rate}")
-    @Transactional
     public void processMonthlyFinancials() {
-        log.info("Starting processMonthlyFinancials...");
-        List<Club> allClubs = clubService.findAll();
-
-        for (Club club : allClubs) {
-            try {
-                processClubMonthlyFinancials(club);
-            } catch (Exception e) {
-                log.error("Error processing monthly financials for club " + club.getId(), e);
-            }
-        }
-        log.info("Finished processMonthlyFinancials.");
+        schedulerLockService.runLocked("monthly-financials", financePeriod, () ->
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                log.info("Starting processMonthlyFinancials...");
+                List<Club> allClubs = clubService.findAll();
+                int closed = closeMonth(allClubs);
+                log.info("Finished processMonthlyFinancials: {} clubs closed.", closed);
+            }));
     }
 
     @Scheduled(initialDelayString = "${fm.scheduling.finance.interest.initial-delay:5m}", fixedRateString = "${fm.scheduling.finance.interest.fixed-rate:604800000}")
     public void processWeeklyInterest() {
+        schedulerLockService.runLocked("weekly-interest", interestPeriod, this::applyWeeklyInterest);
+    }
+
+    private void applyWeeklyInterest() {
         log.info("Starting processWeeklyInterest...");
         List<Club> allClubs = clubService.findAll();
+        Map<Long, Set<ManagerPerk>> perks = managerProgressionService.getPerks(
+            allClubs.stream().map(Club::getUser).filter(Objects::nonNull).toList());
 
         for (Club club : allClubs) {
             try {
                 if (club.getUser() != null) {
-                    if (managerProgressionService.hasPerk(club.getUser(), ManagerPerk.INVESTOR)) {
+                    if (perks.getOrDefault(club.getUser().getId(), Set.of()).contains(ManagerPerk.INVESTOR)) {
                         Finance finance = club.getFinance();
                         if (finance != null && finance.getBalance().compareTo(BigDecimal.ZERO) > 0) {
                             BigDecimal interest = finance.getBalance().multiply(BigDecimal.valueOf(0.0005)); // 0.05%
@@ -196,36 +233,60 @@ public class FinancialService {
 
     @Transactional
     public void processClubMonthlyFinancials(Club club) {
-        Finance finance = club.getFinance();
-        if (finance == null) return;
-
-        // Process recurring transactions logic could be added here if needed,
-        // but for now we focus on salaries and other fixed costs.
-
-        // Process player salaries
-        processPlayerSalaries(club);
-
-        // Process staff salaries
-        processStaffSalaries(club);
+        closeMonth(List.of(club));
+    }
 
-        // Process sponsorship payments
-        processSponsorshipPayments(club);
+    private int closeMonth(List<Club> clubs) {
+        Season season = seasonService.getCurrentSeason();
+        Map<Long, List<SponsorshipDeal>> dealsByClub = sponsorshipRepository
+            .findByClubInAndStatus(clubs, SponsorshipStatus.ACTIVE).stream()
+            .collect(Collectors.groupingBy(deal -> deal.getClub().getId()));
+        Map<Long, Set<ManagerPerk>> perks = managerProgressionService.getPerks(
+            clubs.stream().map(Club::getUser).filter(Objects::nonNull).toList());
+
+        List<Finance> finances = new ArrayList<>();
+        List<FinancialTransaction> lines = new ArrayList<>();
+        for (Club club : clubs) {
+            Finance finance = club.getFinance();
+            if (finance == null) continue;
+            try {
+                List<FinancialTransaction> clubLines = new ArrayList<>();
+                // Process recurring transactions logic could be added here if needed,
+                // but for now we focus on salaries and other fixed costs.
+                addPlayerSalaries(club, season, clubLines);
+                addStaffSalaries(club, season, clubLines);
+                boolean marketingGuru = club.getUser() != null
+                    && perks.getOrDefault(club.getUser().getId(), Set.of()).contains(ManagerPerk.MARKETING_GURU);
+                addSponsorshipPayments(club, season, dealsByClub.getOrDefault(club.getId(), List.of()), marketingGuru, clubLines);
+                // Facility maintenance is delegated to InfrastructureService
+
+                clubLines.forEach(line -> apply(finance, line));
+                finance.setLastUpdated(LocalDate.now());
+                lines.addAll(clubLines);
+                finances.add(finance);
+            } catch (Exception e) {
+                log.error("Error processing monthly financials for club " + club.getId(), e);
+            }
+        }
 
-        // Process facility maintenance costs
-        // Delegated to InfrastructureService to handle detailed facility maintenance
-        // processFacilityMaintenance(club);
+        entityManager.unwrap(Session.class).setJdbcBatchSize(closeBatchSize);
+        transactionRepository.saveAll(lines);
 
-        // Generate monthly report
-        generateMonthlyReport(finance);
+        for (Finance finance : finances) {
+            // Generate monthly report
+            generateMonthlyReport(finance);
 
-        // Update financial health indicators
-        updateFinancialHealthIndicators(finance);
-        financeRepository.save(finance);
+            // Update financial health indicators
+            updateFinancialHealthIndicators(finance);
+            checkFinancialAlerts(finance);
+        }
+        financeRepository.saveAll(finances);
 
-        achievementService.checkFinancialAchievements(finance);
+        finances.forEach(achievementService::checkFinancialAchievements);
+        return finances.size();
     }
 
-    private void processPlayerSalaries(Club club) {
+    private void addPlayerSalaries(Club club, Season season, List<FinancialTransaction> lines) {
         List<Player> players = club.getTeam().getPlayers();
 
         for (Player player : players) {
@@ -233,61 +294,57 @@ public class FinancialService {
             if (player.getSalary() != null) {
                 BigDecimal monthlySalary = player.getSalary().divide(BigDecimal.valueOf(12), 2, RoundingMode.HALF_UP);
 
-                processTransaction(club.getId(), CreateTransactionRequest.builder()
-                    .type(TransactionType.EXPENSE)
-                    .category(TransactionCategory.PLAYER_SALARIES)
-                    .amount(monthlySalary)
-                    .description("Monthly salary for " + player.getName() + " " + player.getSurname())
-                    .reference("PLAYER_" + player.getId())
-                    .effectiveDate(LocalDate.now())
-                    .isRecurring(false)
-                    .build());
+                lines.add(line(club.getFinance(), season, TransactionType.EXPENSE, TransactionCategory.PLAYER_SALARIES,
+                    monthlySalary,
+                    "Monthly salary for " + player.getName() + " " + player.getSurname(),
+                    "PLAYER_" + player.getId()));
             }
         }
     }
 
-    private void processStaffSalaries(Club club) {
+    private void addStaffSalaries(Club club, Season season, List<FinancialTransaction> lines) {
         // Placeholder: Assume generic staff cost if no detailed staff model
         BigDecimal estimatedStaffCost = BigDecimal.valueOf(50000);
-        processTransaction(club.getId(), CreateTransactionRequest.builder()
-            .type(TransactionType.EXPENSE)
-            .category(TransactionCategory.STAFF_SALARIES)
-            .amount(estimatedStaffCost)
-            .description("Monthly staff salaries")
-            .reference("STAFF_SALARIES")
-            .effectiveDate(LocalDate.now())
-            .isRecurring(false)
-            .build());
+        lines.add(line(club.getFinance(), season, TransactionType.EXPENSE, TransactionCategory.STAFF_SALARIES,
+            estimatedStaffCost, "Monthly staff salaries", "STAFF_SALARIES"));
     }
 
-    private void processSponsorshipPayments(Club club) {
-        List<SponsorshipDeal> deals = sponsorshipRepository.findByClub(club);
+    private void addSponsorshipPayments(Club club, Season season, List<SponsorshipDeal> deals, boolean marketingGuru, List<FinancialTransaction> lines) {
         for (SponsorshipDeal deal : deals) {
-            if (deal.getStatus() == SponsorshipStatus.ACTIVE &&
-                (deal.getEndDate() == null || deal.getEndDate().isAfter(LocalDate.now()))) {
+            if (deal.getEndDate() == null || deal.getEndDate().isAfter(LocalDate.now())) {
 
                 // Assuming monthly payments for annual value
                 BigDecimal monthlyPayment = deal.getCurrentAnnualValue().divide(BigDecimal.valueOf(12), 2, RoundingMode.HALF_UP);
 
-                if (club.getUser() != null) {
-                    if (managerProgressionService.hasPerk(club.getUser(), ManagerPerk.MARKETING_GURU)) {
-                        monthlyPayment = monthlyPayment.multiply(BigDecimal.valueOf(1.05));
-                    }
+                if (marketingGuru) {
+                    monthlyPayment = monthlyPayment.multiply(BigDecimal.valueOf(1.05));
                 }
 
-                processTransaction(club.getId(), CreateTransactionRequest.builder()
-                    .type(TransactionType.INCOME)
-                    .category(TransactionCategory.SPONSORSHIP)
-                    .amount(monthlyPayment)
-                    .description("Sponsorship payment: " + (deal.getSponsor() != null ? deal.getSponsor().getName() : "Unknown"))
-                    .reference("SPONSOR_" + deal.getId())
-                    .effectiveDate(LocalDate.now())
-                    .isRecurring(false)
-                    .build());
+                lines.add(line(club.getFinance(), season, TransactionType.INCOME, TransactionCategory.SPONSORSHIP,
+                    monthlyPayment,
+                    "Sponsorship payment: " + (deal.getSponsor() != null ? deal.getSponsor().getName() : "Unknown"),
+                    "SPONSOR_" + deal.getId()));
             }
         }
     }
 
+    private FinancialTransaction line(Finance finance, Season season, TransactionType type, TransactionCategory category,
+                                      BigDecimal amount, String description, String reference) {
+        return FinancialTransaction.builder()
+            .finance(finance)
+            .type(type)
+            .category(category)
+            .amount(amount)
+            .description(description)
+            .reference(reference)
+            .transactionDate(LocalDateTime.now())
+            .effectiveDate(LocalDate.now())
+            .status(TransactionStatus.COMPLETED)
+            .isRecurring(false)
+            .season(season)
+            .build();
+    }
+
     private void processFacilityMaintenance(Club club) {
         Stadium stadium = club.getStadium();
         if (stadium != null) {
@@ -476,6 +533,16 @@ public class FinancialService {
 
     // Helpers
 
+    private void apply(Finance finance, FinancialTransaction transaction) {
+        if (transaction.getType() == TransactionType.INCOME) {
+            finance.setBalance(finance.getBalance().add(transaction.getAmount()));
+            updateRevenueCategory(finance, transaction.getCategory(), transaction.getAmount());
+        } else {
+            finance.setBalance(finance.getBalance().subtract(transaction.getAmount()));
+            updateExpenseCategory(finance, transaction.getCategory(), transaction.getAmount());
+        }
+    }
+
     private void updateRevenueCategory(Finance finance, TransactionCategory category, BigDecimal amount) {
         switch (category) {
             case MATCHDAY_REVENUE -> finance.setMatchdayRevenue(finance.getMatchdayRevenue().add(amount));
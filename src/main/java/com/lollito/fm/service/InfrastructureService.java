@@ -1,6 +1,7 @@
 package com.lollito.fm.service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -9,6 +10,7 @@ import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -82,6 +84,12 @@ public class InfrastructureService {
     @Autowired
     private FacilityMapper facilityMapper;
 
+    @Autowired
+    private BatchJobRunner batchJobRunner;
+
+    @Value("${fm.scheduling.infrastructure.fixed-rate}")
+    private Duration maintenancePeriod;
+
     /**
      * Get infrastructure overview for a club
      */
@@ -392,15 +400,14 @@ public class InfrastructureService {
     }
 
     @Scheduled(initialDelayString = "${fm.scheduling.infrastructure.initial-delay}", fixedRateString = "${fm.scheduling.infrastructure.fixed-rate}")
-    @Transactional
     public void processMonthlyMaintenance() {
-        log.info("Starting processMonthlyMaintenance...");
-        List<Club> allClubs = clubService.findAll();
-
-        for (Club club : allClubs) {
-            processClubMaintenance(club);
-        }
-        log.info("Finished processMonthlyMaintenance.");
+        batchJobRunner.run(BatchJob.<Club>builder()
+                .name("facility-maintenance")
+                .type(Club.class)
+                .period(maintenancePeriod)
+                .processor(clubs -> clubs.forEach(this::processClubMaintenance))
+                .partitionKey("id")
+                .build());
     }
 
     private void processClubMaintenance(Club club) {
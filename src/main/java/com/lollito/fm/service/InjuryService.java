@@ -1,6 +1,9 @@
 package com.lollito.fm.service;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ThreadLocalRandom;
@@ -8,9 +11,11 @@ import java.util.concurrent.ThreadLocalRandom;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import com.lollito.fm.event.PlayerChangedEvent;
 import com.lollito.fm.model.Club;
 import com.lollito.fm.model.Injury;
 import com.lollito.fm.model.InjuryContext;
@@ -40,6 +45,15 @@ public class InjuryService {
     @Autowired
     private StaffService staffService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BatchJobRunner batchJobRunner;
+
+    @Value("${fm.scheduling.injury.fixed-rate}")
+    private Duration recoveryPeriod;
+
     @Value("${fm.injury.base-probability:0.02}")
     private Double baseProbability;
 
@@ -102,7 +116,9 @@ public class InjuryService {
             .description(generateInjuryDescription(type, severity))
             .build();
 
-        return injuryRepository.save(injury);
+        injury = injuryRepository.save(injury);
+        publishInjuryChanged(Collections.singletonList(player.getId()));
+        return injury;
     }
 
     public Injury createManualInjury(Long playerId, CreateInjuryRequest request) {
@@ -130,13 +146,26 @@ public class InjuryService {
             .description(generateInjuryDescription(type, severity))
             .build();
 
-        return injuryRepository.save(injury);
+        injury = injuryRepository.save(injury);
+        publishInjuryChanged(Collections.singletonList(player.getId()));
+        return injury;
     }
 
     @Scheduled(initialDelayString = "${fm.scheduling.injury.initial-delay}", fixedRateString = "${fm.scheduling.injury.fixed-rate}")
     public void processInjuryRecovery() {
-        log.info("Starting processInjuryRecovery...");
-        List<Injury> activeInjuries = injuryRepository.findByStatus(InjuryStatus.ACTIVE);
+        batchJobRunner.run(BatchJob.<Injury>builder()
+                .name("injury-recovery")
+                .type(Injury.class)
+                .period(recoveryPeriod)
+                .filter((root, query, cb) -> cb.equal(root.get("status"), InjuryStatus.ACTIVE))
+                .fetch("player")
+                .processor(this::processInjuryRecovery)
+                .partitionKey("player.id")
+                .build());
+    }
+
+    void processInjuryRecovery(List<Injury> activeInjuries) {
+        List<Long> recoveredPlayerIds = new ArrayList<>();
 
         for (Injury injury : activeInjuries) {
             if (LocalDate.now().isAfter(injury.getExpectedRecoveryDate()) || LocalDate.now().isEqual(injury.getExpectedRecoveryDate())) {
@@ -145,12 +174,19 @@ public class InjuryService {
                     injury.setStatus(InjuryStatus.HEALED);
                     injury.setActualRecoveryDate(LocalDate.now());
                     injuryRepository.save(injury);
+                    recoveredPlayerIds.add(injury.getPlayer().getId());
 
                     log.info("Player {} {} recovered from {}", injury.getPlayer().getName(), injury.getPlayer().getSurname(), injury.getType());
                 }
             }
         }
-        log.info("Finished processInjuryRecovery.");
+        if (!recoveredPlayerIds.isEmpty()) {
+            publishInjuryChanged(recoveredPlayerIds);
+        }
+    }
+
+    private void publishInjuryChanged(List<Long> playerIds) {
+        eventPublisher.publishEvent(new PlayerChangedEvent(this, playerIds, PlayerChangedEvent.Change.INJURY));
     }
 
     public List<Injury> getTeamInjuries(Long teamId) {
@@ -0,0 +1,246 @@
+package com.lollito.fm.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.lollito.fm.metrics.CacheStats;
+import com.lollito.fm.metrics.MeteredCache;
+import com.lollito.fm.model.League;
+import com.lollito.fm.model.PlayerSeasonStats;
+import com.lollito.fm.model.Season;
+import com.lollito.fm.repository.rest.LeagueRepository;
+import com.lollito.fm.repository.rest.PlayerSeasonStatsRepository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Top scorers and assists of each league and season, kept in memory.
+ *
+ * A board holds the best {@code fm.leaderboard.size} players of one league,
+ * season and statistic, sorted. It is read from the database once (at
+ * startup for the current seasons, otherwise on the first request) and then
+ * follows the season rows as the match statistics are applied. Goals and
+ * assists only grow during a season, so a player outside a board can only
+ * enter it through an update, which the board sees.
+ *
+ * A board is read again after {@code fm.leaderboard.max-age-seconds}, so the
+ * boards of a node catch up with matches processed by the other nodes.
+ *
+ * The rows of a board have their season, club and league loaded, by the
+ * query or before they enter it, so that serving them needs no session.
+ */
+@Component
+@Slf4j
+public class LeagueLeaderboards implements MeteredCache {
+
+    public enum Statistic {
+        GOALS(PlayerSeasonStats::getGoals),
+        ASSISTS(PlayerSeasonStats::getAssists);
+
+        private final ToIntFunction<PlayerSeasonStats> value;
+
+        Statistic(ToIntFunction<PlayerSeasonStats> value) {
+            this.value = value;
+        }
+    }
+
+    @Autowired
+    private PlayerSeasonStatsRepository playerSeasonStatsRepository;
+
+    @Autowired
+    private LeagueRepository leagueRepository;
+
+    @Value("${fm.leaderboard.size:50}")
+    private Integer size;
+
+    @Value("${fm.leaderboard.max-age-seconds:300}")
+    private Long maxAgeSeconds;
+
+    private final Map<String, Board> boards = new ConcurrentHashMap<>();
+
+    private final CacheStats cacheStats = new CacheStats("leaderboards", boards::size);
+
+    public List<PlayerSeasonStats> top(Statistic statistic, Long leagueId, Season season, int limit) {
+        if (leagueId == null || season == null || season.getId() == null || limit > size) {
+            return query(statistic, leagueId, season, limit);
+        }
+        String key = key(statistic, leagueId, season.getId());
+        Board board = boards.get(key);
+        if (board != null && !board.isExpired()) {
+            cacheStats.hit();
+            return board.top(limit);
+        }
+        if (board != null) {
+            boards.remove(key, board);
+        }
+        return boards.computeIfAbsent(key, k -> {
+            cacheStats.miss();
+            return load(statistic, leagueId, season);
+        }).top(limit);
+    }
+
+    @Override
+    public CacheStats getCacheStats() {
+        return cacheStats;
+    }
+
+    /**
+     * Moves the season rows into the boards once the transaction writing them
+     * commits, right away without a transaction. Rows of boards not loaded
+     * yet are skipped: the first read takes them from the database.
+     */
+    public void record(Collection<PlayerSeasonStats> seasonStats) {
+        List<PlayerSeasonStats> updates = new ArrayList<>(seasonStats.size());
+        for (PlayerSeasonStats stats : seasonStats) {
+            if (isOnABoard(stats)) {
+                // Loaded while still in the session of the caller
+                Hibernate.initialize(stats.getSeason());
+                Hibernate.initialize(stats.getClub());
+                Hibernate.initialize(stats.getLeague());
+                updates.add(stats);
+            }
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(updates);
+                }
+            });
+        } else {
+            apply(updates);
+        }
+    }
+
+    private boolean isOnABoard(PlayerSeasonStats stats) {
+        if (stats.getLeague() == null || stats.getSeason() == null || stats.getPlayer() == null) {
+            return false;
+        }
+        for (Statistic statistic : Statistic.values()) {
+            if (boards.containsKey(key(statistic, stats.getLeague().getId(), stats.getSeason().getId()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void apply(List<PlayerSeasonStats> seasonStats) {
+        for (PlayerSeasonStats stats : seasonStats) {
+            for (Statistic statistic : Statistic.values()) {
+                Board board = boards.get(key(statistic, stats.getLeague().getId(), stats.getSeason().getId()));
+                if (board != null) {
+                    board.update(stats);
+                }
+            }
+        }
+    }
+
+    /** Loads the boards of the current seasons, dropping any other. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        boards.clear();
+        int loaded = 0;
+        for (League league : leagueRepository.findAll()) {
+            Season season = league.getCurrentSeason();
+            if (season == null || season.getId() == null) {
+                continue;
+            }
+            for (Statistic statistic : Statistic.values()) {
+                boards.put(key(statistic, league.getId(), season.getId()), load(statistic, league.getId(), season));
+                loaded++;
+            }
+        }
+        log.info("Loaded {} league leaderboards", loaded);
+    }
+
+    private Board load(Statistic statistic, Long leagueId, Season season) {
+        Board board = new Board(statistic);
+        query(statistic, leagueId, season, size).forEach(board::update);
+        return board;
+    }
+
+    private List<PlayerSeasonStats> query(Statistic statistic, Long leagueId, Season season, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return switch (statistic) {
+            case GOALS -> playerSeasonStatsRepository.findTopScorersByLeagueAndSeason(leagueId, season, page);
+            case ASSISTS -> playerSeasonStatsRepository.findTopAssistsByLeagueAndSeason(leagueId, season, page);
+        };
+    }
+
+    private String key(Statistic statistic, Long leagueId, Long seasonId) {
+        return statistic + "/" + leagueId + "/" + seasonId;
+    }
+
+    /** The top players of one board, by value and then player id. */
+    private class Board {
+
+        private final Statistic statistic;
+        private final TreeSet<Entry> ranked = new TreeSet<>(Comparator.comparingInt(Entry::getValue).reversed()
+                .thenComparing(Entry::getPlayerId));
+        private final Map<Long, Entry> byPlayer = new HashMap<>();
+        private final long loadedAt = System.currentTimeMillis();
+
+        Board(Statistic statistic) {
+            this.statistic = statistic;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() - loadedAt > maxAgeSeconds * 1000;
+        }
+
+        synchronized void update(PlayerSeasonStats stats) {
+            Long playerId = stats.getPlayer().getId();
+            Entry entry = new Entry(playerId, statistic.value.applyAsInt(stats), stats);
+            Entry previous = byPlayer.remove(playerId);
+            if (previous != null) {
+                ranked.remove(previous);
+            }
+            if (ranked.size() < size || ranked.comparator().compare(entry, ranked.last()) < 0) {
+                ranked.add(entry);
+                byPlayer.put(playerId, entry);
+                if (ranked.size() > size) {
+                    byPlayer.remove(ranked.pollLast().getPlayerId());
+                }
+            }
+        }
+
+        synchronized List<PlayerSeasonStats> top(int limit) {
+            List<PlayerSeasonStats> top = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (Entry entry : ranked) {
+                if (top.size() == limit) {
+                    break;
+                }
+                top.add(entry.getStats());
+            }
+            return top;
+        }
+    }
+
+    /** A player's value when it entered the board; the row itself moves on. */
+    @Getter
+    @AllArgsConstructor
+    private static class Entry {
+        private final Long playerId;
+        private final int value;
+        private final PlayerSeasonStats stats;
+    }
+}
@@ -0,0 +1,67 @@
+package com.lollito.fm.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lollito.fm.model.dto.EventHistoryDTO;
+import com.lollito.fm.service.LiveMatchService.LiveMatchUpdateDTO;
+
+/**
+ * Coalesces live match updates into one STOMP frame per match.
+ *
+ * Updates published during a tick are merged per match (latest state, events
+ * appended in order) and sent on {@link #flush()}. Each frame is serialised
+ * once to JSON bytes; the broker then fans the same payload out to every
+ * subscriber of {@code /topic/match/{id}}.
+ */
+@Component
+@Slf4j
+public class LiveMatchBroadcaster {
+
+    @Autowired private SimpMessagingTemplate messagingTemplate;
+    @Autowired private ObjectMapper objectMapper;
+
+    private final Map<Long, LiveMatchUpdateDTO> pending = new ConcurrentHashMap<>();
+
+    public void publish(LiveMatchUpdateDTO update) {
+        pending.merge(update.getMatchId(), update, LiveMatchBroadcaster::coalesce);
+    }
+
+    public void flush() {
+        for (Long matchId : pending.keySet()) {
+            // Take the frame out atomically, an update merged after this starts the next frame
+            LiveMatchUpdateDTO frame = pending.remove(matchId);
+            if (frame == null) {
+                continue;
+            }
+            try {
+                Message<byte[]> message = MessageBuilder.withPayload(objectMapper.writeValueAsBytes(frame))
+                        .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+                        .build();
+                messagingTemplate.send("/topic/match/" + matchId, message);
+            } catch (Exception e) {
+                log.error("Error broadcasting live match {}", matchId, e);
+            }
+        }
+    }
+
+    private static LiveMatchUpdateDTO coalesce(LiveMatchUpdateDTO previous, LiveMatchUpdateDTO update) {
+        List<EventHistoryDTO> events = new ArrayList<>();
+        if (previous.getEvents() != null) events.addAll(previous.getEvents());
+        if (update.getEvents() != null) events.addAll(update.getEvents());
+        update.setEvents(events);
+        return update;
+    }
+}
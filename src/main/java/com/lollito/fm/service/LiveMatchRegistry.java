@@ -0,0 +1,151 @@
+package com.lollito.fm.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.lollito.fm.engine.LiveMatchState;
+import com.lollito.fm.engine.TimerWheel;
+import com.lollito.fm.model.LiveMatchSession;
+import com.lollito.fm.model.dto.EventHistoryDTO;
+import com.lollito.fm.repository.rest.LiveMatchSessionRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Live matches being played on this node, keyed by match id.
+ *
+ * Sessions are registered when they are created and rebuilt from the
+ * unfinished {@link LiveMatchSession} documents when the application starts,
+ * so the timeline is regenerated once per match instead of once per tick.
+ * Each match is woken up through a {@link TimerWheel} only when it has
+ * something to publish.
+ *
+ * When several nodes run the backend each session is ticked by a single
+ * node: the owner holds a lease on the session document and renews it while
+ * the match is live. Sessions whose lease expired, for example because their
+ * node went down, are claimed by whichever node renews next.
+ */
+@Component
+@Slf4j
+public class LiveMatchRegistry {
+
+    @Autowired private LiveMatchSessionRepository liveMatchSessionRepository;
+    @Autowired private MatchReplayService matchReplayService;
+    @Autowired private ClusterService clusterService;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @Value("${fm.live-match.lease-seconds:30}")
+    private long leaseSeconds = 30;
+
+    private final Map<Long, LiveMatchState> states = new ConcurrentHashMap<>();
+    /** Next wake-up of every live match; 100 ms resolution, 512 buckets per rotation. */
+    private final TimerWheel<Long> wheel = new TimerWheel<>(100, 512);
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("fm.live.sessions.active", states, Map::size)
+                .description("Live matches ticked by this node")
+                .register(meterRegistry);
+    }
+
+    public LiveMatchState register(LiveMatchSession session, List<EventHistoryDTO> events) {
+        LiveMatchState state = new LiveMatchState(session, events);
+        states.put(state.getMatchId(), state);
+        wheel.schedule(state.getMatchId(), System.currentTimeMillis());
+        return state;
+    }
+
+    public void schedule(Long matchId, long deadlineMillis) {
+        wheel.schedule(matchId, deadlineMillis);
+    }
+
+    /**
+     * Matches whose wake-up is due. Matches removed in the meantime are
+     * dropped here rather than cancelled in the wheel.
+     */
+    public List<LiveMatchState> due(long nowMillis) {
+        List<LiveMatchState> due = new ArrayList<>();
+        for (Long matchId : wheel.advance(nowMillis)) {
+            LiveMatchState state = states.get(matchId);
+            if (state != null) {
+                due.add(state);
+            }
+        }
+        return due;
+    }
+
+    public LiveMatchState get(Long matchId) {
+        return states.get(matchId);
+    }
+
+    public LiveMatchState remove(Long matchId) {
+        return states.remove(matchId);
+    }
+
+    public Collection<LiveMatchState> active() {
+        return states.values();
+    }
+
+    public String getNodeId() {
+        return clusterService.getNodeId();
+    }
+
+    /** Expiry of a lease taken or renewed now. */
+    public LocalDateTime leaseUntil() {
+        return LocalDateTime.now().plusSeconds(leaseSeconds);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        claimOrphans();
+        log.info("Restored {} live matches", states.size());
+    }
+
+    /**
+     * Renews the leases of the sessions ticked here, drops the ones another node
+     * took over and claims the sessions nobody is ticking.
+     */
+    @Scheduled(initialDelayString = "${fm.scheduling.live-match-lease.initial-delay:10000}", fixedRateString = "${fm.scheduling.live-match-lease.fixed-rate:10000}")
+    public void renewLeases() {
+        if (!states.isEmpty()) {
+            Set<Long> matchIds = Set.copyOf(states.keySet());
+            liveMatchSessionRepository.renew(matchIds, getNodeId(), leaseUntil());
+            for (LiveMatchSession lost : liveMatchSessionRepository.findByMatchIdInAndOwnerNot(matchIds, getNodeId())) {
+                log.warn("Live match {} is now ticked by {}", lost.getMatchId(), lost.getOwner());
+                states.remove(lost.getMatchId());
+            }
+        }
+        claimOrphans();
+    }
+
+    private void claimOrphans() {
+        LocalDateTime now = LocalDateTime.now();
+        for (LiveMatchSession session : liveMatchSessionRepository.findOrphans(now)) {
+            if (states.containsKey(session.getMatchId())
+                    || liveMatchSessionRepository.claim(session.getMatchId(), getNodeId(), now, leaseUntil()) == 0) {
+                continue;
+            }
+            try {
+                register(session, matchReplayService.timeline(session));
+                log.info("Claimed live match {}", session.getMatchId());
+            } catch (Exception e) {
+                log.error("Error restoring live session for match {}", session.getMatchId(), e);
+            }
+        }
+    }
+}
@@ -1,23 +1,22 @@
 package com.lollito.fm.service;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lollito.fm.engine.LiveMatchState;
 import com.lollito.fm.mapper.MatchMapper;
 import com.lollito.fm.model.LiveMatchSession;
 import com.lollito.fm.model.Match;
@@ -29,6 +28,8 @@ import com.lollito.fm.model.dto.MatchDTO;
 import com.lollito.fm.repository.rest.LiveMatchSessionRepository;
 import com.lollito.fm.repository.rest.MatchRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.Data;
 
 @Service
@@ -37,9 +38,23 @@ public class LiveMatchService {
 
     @Autowired private LiveMatchSessionRepository liveMatchSessionRepository;
     @Autowired private MatchRepository matchRepository;
-    @Autowired private SimpMessagingTemplate messagingTemplate;
-    @Autowired private ObjectMapper objectMapper;
+    @Autowired private MatchReplayService matchReplayService;
     @Autowired private MatchMapper matchMapper;
+    @Autowired private LiveMatchRegistry liveMatchRegistry;
+    @Autowired private LiveMatchBroadcaster liveMatchBroadcaster;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @Value("${fm.live-match.checkpoint-interval:10}")
+    private int checkpointInterval = 10;
+
+    @Value("${fm.live-match.duration-seconds:180}")
+    private long matchDurationSeconds = 180;
+
+    @Value("${fm.live-match.simulation.speed:1000}")
+    private int simulationSpeed = 1000;
+
+    @Value("${fm.live-match.clock-update-minutes:2}")
+    private int clockUpdateMinutes = 2;
 
     @Autowired
     @Lazy
@@ -57,13 +72,15 @@ public class LiveMatchService {
                     .currentMinute(0)
                     .homeScore(0)
                     .awayScore(0)
-                    .events(objectMapper.writeValueAsString(matchDTO.getEvents()))
-                    .stats(objectMapper.writeValueAsString(matchDTO.getStats()))
-                    .playerStats(objectMapper.writeValueAsString(matchDTO.getPlayerStats()))
+                    .seed(match.getSeed())
+                    .replay(match.getReplay() == null ? null : matchReplayService.write(match.getReplay()))
                     .finished(false)
+                    .owner(liveMatchRegistry.getNodeId())
+                    .leaseUntil(liveMatchRegistry.leaseUntil())
                     .build();
 
             liveMatchSessionRepository.save(session);
+            liveMatchRegistry.register(session, matchDTO.getEvents());
             log.info("Created LiveMatchSession for match {}", match.getId());
         } catch (Exception e) {
             log.error("Error creating live match session", e);
@@ -71,90 +88,123 @@ public class LiveMatchService {
         }
     }
 
+    /**
+     * Drives the timer wheel of the live matches registered on this node. Only
+     * matches whose wake-up is due are touched: each one publishes the events
+     * of the minutes that went by and is scheduled again for its next event,
+     * half time, full time or clock update. Events come from the pre-parsed
+     * timeline of each {@link LiveMatchState}; Mongo only receives a
+     * minute/score checkpoint when the score changes or every
+     * {@code fm.live-match.checkpoint-interval} minutes. Updates are published
+     * through the {@link LiveMatchBroadcaster}, one frame per match and tick.
+     * Each tick is timed into {@code fm.live.tick}.
+     * <p>
+     * The tick holds no transaction: a checkpoint is a single atomic update of
+     * its session, and a finished match is finalized in the transaction of
+     * {@link MatchProcessor#finalizeMatch}.
+     */
     @Scheduled(initialDelayString = "${fm.scheduling.live-match.initial-delay}", fixedRateString = "${fm.scheduling.live-match.fixed-rate}")
-    @Transactional
     public void updateLiveMatches() {
-        List<LiveMatchSession> sessions = liveMatchSessionRepository.findByFinishedFalse();
-        LocalDateTime now = LocalDateTime.now();
-        // 3 minutes real time = 180 seconds
-        // 90 minutes game time
-
-        long matchDurationSeconds = 180; // 3 minutes
-
-        for (LiveMatchSession session : sessions) {
-            try {
-                long secondsElapsed = Duration.between(session.getStartTime(), now).getSeconds();
-                int newMinute = (int) ((secondsElapsed * 90) / matchDurationSeconds);
-
-                if (newMinute > 90) newMinute = 90; // Cap at 90 until finish logic runs
-
-                if (newMinute > session.getCurrentMinute()) {
-                    processEvents(session, newMinute);
-                    session.setCurrentMinute(newMinute);
-                    liveMatchSessionRepository.save(session);
-
-                    broadcastUpdate(session);
-                }
-
-                if (secondsElapsed >= matchDurationSeconds) {
-                    finishMatch(session);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long now = System.currentTimeMillis();
+        try {
+            for (LiveMatchState state : liveMatchRegistry.due(now)) {
+                try {
+                    tick(state, now);
+                } catch (Exception e) {
+                    log.error("Error updating live match {}", state.getMatchId(), e);
+                    liveMatchRegistry.schedule(state.getMatchId(), now + millisPerMinute());
                 }
-            } catch (Exception e) {
-                log.error("Error updating session {}", session.getId(), e);
             }
+            liveMatchBroadcaster.flush();
+        } finally {
+            sample.stop(meterRegistry.timer("fm.live.tick"));
         }
     }
 
-    private void processEvents(LiveMatchSession session, int newMinute) throws Exception {
-        int oldMinute = session.getCurrentMinute();
-        if (session.getEvents() == null) return;
-        List<EventHistoryDTO> allEvents = objectMapper.readValue(session.getEvents(), new TypeReference<List<EventHistoryDTO>>(){});
+    private void tick(LiveMatchState state, long now) {
+        long millisPerMinute = millisPerMinute();
+        long elapsed = now - state.getStartMillis();
+        int newMinute = (int) Math.min(elapsed / millisPerMinute, LiveMatchState.FULL_TIME);
 
-        List<EventHistoryDTO> newEvents = allEvents.stream()
-            .filter(e -> e.getMinute() > oldMinute && e.getMinute() <= newMinute)
-            .collect(Collectors.toList());
+        if (newMinute > state.getCurrentMinute()) {
+            List<EventHistoryDTO> events = state.advanceTo(newMinute);
+            if (state.isCheckpointDue(checkpointInterval)) {
+                liveMatchSessionRepository.checkpoint(state.getMatchId(), state.getCurrentMinute(), state.getHomeScore(), state.getAwayScore());
+                state.markCheckpoint();
+            }
 
-        for (EventHistoryDTO event : newEvents) {
-            if (event.getHomeScore() != null) session.setHomeScore(event.getHomeScore());
-            if (event.getAwayScore() != null) session.setAwayScore(event.getAwayScore());
-            // Broadcast event to /topic/match/{id}/events
-            messagingTemplate.convertAndSend("/topic/match/" + session.getMatchId() + "/events", event);
+            broadcastUpdate(state.getMatchId(), state.getHomeScore(), state.getAwayScore(), state.getCurrentMinute(), events);
+        }
+
+        if (state.isOver()) {
+            LiveMatchSession session = liveMatchSessionRepository.findByMatchId(state.getMatchId()).orElse(null);
+            if (session != null && !session.getFinished()) {
+                finishMatch(session);
+            } else {
+                // Deleted, or finished from another node
+                liveMatchRegistry.remove(state.getMatchId());
+            }
+        } else {
+            liveMatchRegistry.schedule(state.getMatchId(), state.getStartMillis() + state.nextWakeMinute(clockUpdateMinutes) * millisPerMinute);
         }
     }
 
-    private void broadcastUpdate(LiveMatchSession session) {
+    /**
+     * Real time of one game minute: {@code fm.live-match.duration-seconds} spread
+     * over 90 minutes, scaled by {@code fm.live-match.simulation.speed} (1000 = 1x).
+     */
+    private long millisPerMinute() {
+        long normal = matchDurationSeconds * 1000L / LiveMatchState.FULL_TIME;
+        return Math.max(1, normal * 1000L / Math.max(simulationSpeed, 1));
+    }
+
+    private void broadcastUpdate(Long matchId, Integer homeScore, Integer awayScore, Integer currentMinute, List<EventHistoryDTO> events) {
         LiveMatchUpdateDTO dto = new LiveMatchUpdateDTO();
-        dto.setMatchId(session.getMatchId());
-        dto.setHomeScore(session.getHomeScore());
-        dto.setAwayScore(session.getAwayScore());
-        dto.setCurrentMinute(session.getCurrentMinute());
-        dto.setCurrentPhase(session.getCurrentMinute() >= 90 ? "FINISHED" : (session.getCurrentMinute() >= 45 ? "SECOND_HALF" : "FIRST_HALF"));
+        dto.setMatchId(matchId);
+        dto.setHomeScore(homeScore);
+        dto.setAwayScore(awayScore);
+        dto.setCurrentMinute(currentMinute);
+        dto.setCurrentPhase(phase(currentMinute));
         dto.setSpectatorCount(1000); // Mock
         dto.setWeatherConditions("Sunny");
         dto.setIntensity("HIGH");
         dto.setAdditionalTime(0);
+        dto.setEvents(events);
 
-        messagingTemplate.convertAndSend("/topic/match/" + session.getMatchId(), dto);
+        liveMatchBroadcaster.publish(dto);
     }
 
     private void finishMatch(LiveMatchSession session) {
         if (session.getFinished()) return;
+        LiveMatchState state = liveMatchRegistry.remove(session.getMatchId());
+        List<EventHistoryDTO> events = List.of();
+        if (state != null) {
+            // Play out whatever is left of the timeline so the final score matches the events
+            events = state.advanceTo(LiveMatchState.FULL_TIME);
+            session.setHomeScore(state.getHomeScore());
+            session.setAwayScore(state.getAwayScore());
+        }
         session.setFinished(true);
         session.setCurrentMinute(90); // Ensure it says 90
         liveMatchSessionRepository.save(session);
         matchProcessor.finalizeMatch(session.getMatchId(), session);
-        broadcastUpdate(session); // Send final state
+        broadcastUpdate(session.getMatchId(), session.getHomeScore(), session.getAwayScore(), session.getCurrentMinute(), events); // Send final state
+    }
+
+    private static String phase(int minute) {
+        return minute >= 90 ? "FINISHED" : (minute >= 45 ? "SECOND_HALF" : "FIRST_HALF");
     }
 
     @Transactional(readOnly = true)
     public List<LiveMatchData> getAllLiveMatches() {
-        List<LiveMatchSession> sessions = liveMatchSessionRepository.findByFinishedFalse();
-        if (sessions.isEmpty()) {
+        List<LiveMatchState> states = new ArrayList<>(liveMatchRegistry.active());
+        if (states.isEmpty()) {
             return new ArrayList<>();
         }
 
-        List<Long> matchIds = sessions.stream()
-                .map(LiveMatchSession::getMatchId)
+        List<Long> matchIds = states.stream()
+                .map(LiveMatchState::getMatchId)
                 .collect(Collectors.toList());
 
         List<Match> matches = matchRepository.findAllById(matchIds);
@@ -162,54 +212,66 @@ public class LiveMatchService {
         Map<Long, Match> matchMap = matches.stream()
                 .collect(Collectors.toMap(Match::getId, m -> m));
 
-        return sessions.stream().map(session -> {
-            Match match = matchMap.get(session.getMatchId());
+        return states.stream().map(state -> {
+            Match match = matchMap.get(state.getMatchId());
             if (match == null) return null;
 
             LiveMatchData data = new LiveMatchData();
             data.setMatch(matchMapper.toDto(match));
-            data.setHomeScore(session.getHomeScore());
-            data.setAwayScore(session.getAwayScore());
-            data.setCurrentMinute(session.getCurrentMinute());
-            data.setCurrentPhase(session.getCurrentMinute() >= 90 ? "FINISHED" : (session.getCurrentMinute() >= 45 ? "SECOND_HALF" : "FIRST_HALF"));
+            data.setHomeScore(state.getHomeScore());
+            data.setAwayScore(state.getAwayScore());
+            data.setCurrentMinute(state.getCurrentMinute());
+            data.setCurrentPhase(phase(state.getCurrentMinute()));
             return data;
         })
         .filter(Objects::nonNull)
         .collect(Collectors.toList());
     }
 
+    /** The live data of the match, empty if the match or its live session does not exist. */
     @Transactional(readOnly = true)
-    public Object getLiveMatchData(Long matchId) {
-        LiveMatchSession session = liveMatchSessionRepository.findByMatchId(matchId)
-                .orElseThrow(() -> new RuntimeException("Live match not found"));
+    public Optional<LiveMatchData> getLiveMatchData(Long matchId) {
+        MatchDTO matchDTO = matchRepository.findById(matchId).map(matchMapper::toDto).orElse(null);
+        if (matchDTO == null) {
+            return Optional.empty();
+        }
 
-        Match match = matchRepository.findById(matchId).orElse(null);
-        MatchDTO matchDTO = matchMapper.toDto(match);
+        LiveMatchState state = liveMatchRegistry.get(matchId);
+        if (state != null) {
+            return Optional.of(liveMatchData(matchDTO, state.getHomeScore(), state.getAwayScore(), state.getCurrentMinute(), state.playedEvents()));
+        }
+
+        LiveMatchSession session = liveMatchSessionRepository.findByMatchId(matchId).orElse(null);
+        if (session == null) {
+            return Optional.empty();
+        }
 
         try {
-            List<EventHistoryDTO> allEvents = objectMapper.readValue(session.getEvents(), new TypeReference<List<EventHistoryDTO>>(){});
-            List<EventHistoryDTO> currentEvents = allEvents.stream()
+            List<EventHistoryDTO> currentEvents = matchReplayService.timeline(session).stream()
                     .filter(e -> e.getMinute() <= session.getCurrentMinute())
                     .collect(Collectors.toList());
 
-            LiveMatchData data = new LiveMatchData();
-            data.setMatch(matchDTO);
-            data.setHomeScore(session.getHomeScore());
-            data.setAwayScore(session.getAwayScore());
-            data.setCurrentMinute(session.getCurrentMinute());
-            data.setEvents(currentEvents);
-            data.setSpectatorCount(matchDTO.getSpectators());
-            data.setWeatherConditions("Sunny");
-            data.setIntensity("HIGH");
-            data.setCurrentPhase(session.getCurrentMinute() >= 90 ? "FINISHED" : (session.getCurrentMinute() >= 45 ? "SECOND_HALF" : "FIRST_HALF"));
-            data.setAdditionalTime(0); // Mock
-
-            return data;
+            return Optional.of(liveMatchData(matchDTO, session.getHomeScore(), session.getAwayScore(), session.getCurrentMinute(), currentEvents));
         } catch (Exception e) {
             throw new RuntimeException("Error parsing session data", e);
         }
     }
 
+    private LiveMatchData liveMatchData(MatchDTO matchDTO, Integer homeScore, Integer awayScore, Integer currentMinute, List<EventHistoryDTO> events) {
+        LiveMatchData data = new LiveMatchData();
+        data.setMatch(matchDTO);
+        data.setHomeScore(homeScore);
+        data.setAwayScore(awayScore);
+        data.setCurrentMinute(currentMinute);
+        data.setEvents(new ArrayList<>(events));
+        data.setSpectatorCount(matchDTO.getSpectators());
+        data.setWeatherConditions("Sunny");
+        data.setIntensity("HIGH");
+        data.setCurrentPhase(phase(currentMinute));
+        data.setAdditionalTime(0); // Mock
+        return data;
+    }
+
     @Transactional(readOnly = true)
     public List<LiveMatchSummaryDTO> getAllLiveMatchSummaries() {
         List<LiveMatchSession> sessions = liveMatchSessionRepository.findAll();
@@ -244,10 +306,12 @@ public class LiveMatchService {
                 .orElseThrow(() -> new RuntimeException("Live match session not found for match " + matchId));
 
         finishMatch(session);
+        liveMatchBroadcaster.flush();
     }
 
     @Transactional
     public void reset(Long matchId) {
+        liveMatchRegistry.remove(matchId);
         LiveMatchSession session = liveMatchSessionRepository.findByMatchId(matchId).orElse(null);
         if (session != null) {
             liveMatchSessionRepository.delete(session);
@@ -292,5 +356,7 @@ public class LiveMatchService {
         private String weatherConditions;
         private String intensity;
         private Integer additionalTime;
+        /** Events played since the previous update, oldest first */
+        private List<EventHistoryDTO> events;
     }
 }
@@ -1,6 +1,7 @@
 package com.lollito.fm.service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -9,6 +10,7 @@ import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -52,6 +54,10 @@ public class LoanService {
     @Autowired private PlayerHistoryService playerHistoryService;
     @Autowired private SeasonService seasonService;
     @Autowired private NewsService newsService;
+    @Autowired private BatchJobRunner batchJobRunner;
+
+    @Value("${fm.scheduling.loans.fixed-rate}")
+    private Duration reviewPeriod;
 
     public LoanProposal createLoanProposal(CreateLoanProposalRequest request) {
         Player player = playerService.findOne(request.getPlayerId());
@@ -135,14 +141,18 @@ public class LoanService {
 
     @Scheduled(initialDelayString = "${fm.scheduling.loans.initial-delay}", fixedRateString = "${fm.scheduling.loans.fixed-rate}")
     public void processMonthlyLoanReviews() {
-        log.info("Starting processMonthlyLoanReviews...");
-        List<LoanAgreement> activeLoans = loanAgreementRepository.findWithPlayerByStatus(LoanStatus.ACTIVE);
-
-        if (activeLoans.isEmpty()) {
-            log.info("No active loans found.");
-            return;
-        }
+        batchJobRunner.run(BatchJob.<LoanAgreement>builder()
+                .name("loan-reviews")
+                .type(LoanAgreement.class)
+                .period(reviewPeriod)
+                .filter((root, query, cb) -> cb.equal(root.get("status"), LoanStatus.ACTIVE))
+                .fetch("player")
+                .processor(this::processMonthlyLoanReviews)
+                .partitionKey("id")
+                .build());
+    }
 
+    void processMonthlyLoanReviews(List<LoanAgreement> activeLoans) {
         List<Player> players = activeLoans.stream()
             .map(LoanAgreement::getPlayer)
             .collect(Collectors.toList());
@@ -154,7 +164,6 @@ public class LoanService {
              PlayerSeasonStats stats = statsMap.get(loan.getPlayer().getId());
              createPerformanceReview(loan, ReviewPeriod.MONTHLY, stats);
         }
-        log.info("Finished processMonthlyLoanReviews.");
     }
 
     public LoanPerformanceReview createPerformanceReview(LoanAgreement loan, ReviewPeriod period) {
@@ -1,20 +1,33 @@
 package com.lollito.fm.service;
 
+import com.lollito.fm.metrics.CacheStats;
+import com.lollito.fm.metrics.MeteredCache;
 import com.lollito.fm.model.ManagerPerk;
 import com.lollito.fm.model.ManagerProfile;
 import com.lollito.fm.model.User;
 import com.lollito.fm.repository.ManagerProfileRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class ManagerProgressionService {
+public class ManagerProgressionService implements MeteredCache {
 
     private final ManagerProfileRepository managerProfileRepository;
     private final NotificationService notificationService;
@@ -24,6 +37,20 @@ public class ManagerProgressionService {
     public static final long XP_LOSS = 10;
     public static final long LEVEL_XP_MULTIPLIER = 1000;
 
+    /**
+     * Unlocked perks by user id, read on first use and dropped when a perk is
+     * unlocked on this node. Entries are read again after
+     * {@code fm.perks.max-age-seconds} to pick up unlocks made on other nodes.
+     */
+    private final Map<Long, Perks> perks = new ConcurrentHashMap<>();
+
+    private final CacheStats cacheStats = new CacheStats("manager-perks", perks::size);
+
+    @Value("${fm.perks.max-age-seconds:300}")
+    private long perksMaxAgeSeconds = 300;
+
+    private record Perks(Set<ManagerPerk> unlocked, long loadedAt) {}
+
     @Transactional
     public ManagerProfile getProfile(User user) {
         return managerProfileRepository.findByUserId(user.getId())
@@ -87,7 +114,7 @@ public class ManagerProgressionService {
     public void unlockPerk(User user, ManagerPerk perk) {
         ManagerProfile profile = getProfile(user);
 
-        if (hasPerk(user, perk)) {
+        if (profile.getUnlockedPerks().contains(perk)) {
             log.info("User {} already has perk {}", user.getUsername(), perk);
             return;
         }
@@ -105,13 +132,94 @@ public class ManagerProgressionService {
         profile.setTalentPoints(talentPoints - 1);
         profile.getUnlockedPerks().add(perk);
         managerProfileRepository.save(profile);
+        evictPerks(user.getId());
         log.info("User {} unlocked perk {}", user.getUsername(), perk);
     }
 
-    @Transactional(readOnly = true)
     public boolean hasPerk(User user, ManagerPerk perk) {
-        return managerProfileRepository.findByUserId(user.getId())
-                .map(profile -> profile.getUnlockedPerks().contains(perk))
-                .orElse(false);
+        return getPerks(user).contains(perk);
+    }
+
+    /** The perks unlocked by the user, from memory once loaded. */
+    public Set<ManagerPerk> getPerks(User user) {
+        Perks cached = perks.get(user.getId());
+        if (cached != null && !isExpired(cached)) {
+            cacheStats.hit();
+            return cached.unlocked();
+        }
+        cacheStats.miss();
+        long loadedAt = System.nanoTime();
+        Set<ManagerPerk> unlocked = managerProfileRepository.findByUserId(user.getId())
+                .map(profile -> toEnumSet(profile.getUnlockedPerks()))
+                .orElse(Collections.emptySet());
+        perks.put(user.getId(), new Perks(unlocked, loadedAt));
+        return unlocked;
+    }
+
+    /**
+     * The perks unlocked by each of the users, keyed by user id; the users not
+     * in memory are read with a single query. Null users are skipped.
+     */
+    public Map<Long, Set<ManagerPerk>> getPerks(Collection<User> users) {
+        Map<Long, Set<ManagerPerk>> result = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (User user : users) {
+            if (user == null) {
+                continue;
+            }
+            Perks cached = perks.get(user.getId());
+            if (cached != null && !isExpired(cached)) {
+                cacheStats.hit();
+                result.put(user.getId(), cached.unlocked());
+            } else if (missing.add(user.getId())) {
+                cacheStats.miss();
+            }
+        }
+        if (!missing.isEmpty()) {
+            long loadedAt = System.nanoTime();
+            Map<Long, EnumSet<ManagerPerk>> loaded = new HashMap<>();
+            for (Object[] row : managerProfileRepository.findUnlockedPerksByUserIdIn(missing)) {
+                loaded.computeIfAbsent((Long) row[0], id -> EnumSet.noneOf(ManagerPerk.class)).add((ManagerPerk) row[1]);
+            }
+            for (Long userId : missing) {
+                EnumSet<ManagerPerk> found = loaded.get(userId);
+                Set<ManagerPerk> unlocked = found != null ? Collections.unmodifiableSet(found) : Collections.emptySet();
+                perks.put(userId, new Perks(unlocked, loadedAt));
+                result.put(userId, unlocked);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public CacheStats getCacheStats() {
+        return cacheStats;
+    }
+
+    /**
+     * Drops the perks of the user now and again once the transaction commits,
+     * so a read in between cannot keep the set from before the unlock.
+     */
+    private void evictPerks(Long userId) {
+        perks.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    perks.remove(userId);
+                }
+            });
+        }
+    }
+
+    private boolean isExpired(Perks cached) {
+        return System.nanoTime() - cached.loadedAt() > TimeUnit.SECONDS.toNanos(perksMaxAgeSeconds);
+    }
+
+    private static Set<ManagerPerk> toEnumSet(Set<ManagerPerk> unlocked) {
+        if (unlocked == null || unlocked.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(EnumSet.copyOf(unlocked));
     }
 }
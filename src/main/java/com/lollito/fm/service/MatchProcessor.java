@@ -1,8 +1,7 @@
 package com.lollito.fm.service;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,24 +12,16 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lollito.fm.config.MatchProcessingConfig;
 import com.lollito.fm.event.MatchFinishedEvent;
-import com.lollito.fm.mapper.MatchMapper;
-import com.lollito.fm.mapper.MatchPlayerStatsMapper;
-import com.lollito.fm.model.EventHistory;
 import com.lollito.fm.model.League;
 import com.lollito.fm.model.LiveMatchSession;
 import com.lollito.fm.model.Match;
-import com.lollito.fm.model.MatchPlayerStats;
 import com.lollito.fm.model.MatchStatus;
 import com.lollito.fm.model.Round;
 import com.lollito.fm.model.Season;
 import com.lollito.fm.model.Stats;
 import com.lollito.fm.model.User;
-import com.lollito.fm.model.dto.EventHistoryDTO;
-import com.lollito.fm.model.dto.MatchPlayerStatsDTO;
-import com.lollito.fm.model.dto.StatsDTO;
 import com.lollito.fm.repository.rest.MatchRepository;
 import com.lollito.fm.repository.rest.SeasonRepository;
 
@@ -50,20 +41,18 @@ public class MatchProcessor {
     @Autowired private SeasonRepository seasonRepository;
     @Autowired private LiveMatchService liveMatchService;
     @Autowired private SimpMessagingTemplate messagingTemplate;
-    @Autowired private ObjectMapper objectMapper;
-    @Autowired private MatchMapper matchMapper;
-    @Autowired private MatchPlayerStatsMapper matchPlayerStatsMapper;
+    @Autowired private MatchReplayService matchReplayService;
     @Autowired private PlayerService playerService;
     @Autowired private PlayerHistoryService playerHistoryService;
     @Autowired private RankingService rankingService;
     @Autowired private ApplicationEventPublisher eventPublisher;
 
-    @Async
+    @Async(MatchProcessingConfig.EXECUTOR)
     @Transactional
-    public void processMatch(Long matchId) {
+    public CompletableFuture<Void> processMatch(Long matchId) {
         Match match = matchRepository.findById(matchId).orElse(null);
         if (match == null || match.getStatus() != MatchStatus.SCHEDULED) {
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         logger.info("Processing match {} : {} vs {}", match.getId(), match.getHome().getName(), match.getAway().getName());
@@ -100,9 +89,12 @@ public class MatchProcessor {
 
             matchRepository.saveAndFlush(match);
 
+            eventPublisher.publishEvent(new MatchFinishedEvent(this, match));
+
             notifyUser(match.getHome().getUser(), match.getId(), "MATCH_ENDED", "Match Ended (Simulated)!");
             notifyUser(match.getAway().getUser(), match.getId(), "MATCH_ENDED", "Match Ended (Simulated)!");
         }
+        return CompletableFuture.completedFuture(null);
     }
 
     private void notifyUser(User user, Long matchId, String type, String message) {
@@ -121,36 +113,8 @@ public class MatchProcessor {
             match.setHomeScore(session.getHomeScore());
             match.setAwayScore(session.getAwayScore());
 
-            // Restore Events
-            List<EventHistoryDTO> eventDTOs = objectMapper.readValue(session.getEvents(), new TypeReference<List<EventHistoryDTO>>(){});
-            List<EventHistory> events = eventDTOs.stream().map(matchMapper::toEntity).collect(Collectors.toList());
-
-            match.getEvents().clear();
-            events.forEach(e -> {
-                e.setId(null);
-                e.setMatch(match);
-            });
-            match.getEvents().addAll(events);
-
-            // Restore Stats
-            StatsDTO statsDTO = objectMapper.readValue(session.getStats(), StatsDTO.class);
-            Stats stats = matchMapper.toEntity(statsDTO);
-            stats.setId(null);
-            match.setStats(stats);
-
-            // Restore PlayerStats (if persisted in Session)
-            if (session.getPlayerStats() != null) {
-                List<MatchPlayerStatsDTO> playerStatsDTOs = objectMapper.readValue(session.getPlayerStats(), new TypeReference<List<MatchPlayerStatsDTO>>(){});
-                List<MatchPlayerStats> playerStats = playerStatsDTOs.stream()
-                        .map(matchPlayerStatsMapper::toEntity)
-                        .collect(Collectors.toList());
-                playerStats.forEach(mps -> {
-                    mps.setMatch(match);
-                    mps.setId(null);
-                });
-                match.getPlayerStats().clear();
-                match.getPlayerStats().addAll(playerStats);
-            }
+            // Restore events, stats and player stats, regenerated from the replay
+            matchReplayService.restore(match, session);
 
             match.setFinish(true);
             match.setStatus(MatchStatus.COMPLETED);
@@ -0,0 +1,146 @@
+package com.lollito.fm.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lollito.fm.engine.MatchEngine;
+import com.lollito.fm.engine.MatchReplay;
+import com.lollito.fm.mapper.MatchMapper;
+import com.lollito.fm.mapper.MatchPlayerStatsMapper;
+import com.lollito.fm.model.Event;
+import com.lollito.fm.model.EventHistory;
+import com.lollito.fm.model.LiveMatchSession;
+import com.lollito.fm.model.Match;
+import com.lollito.fm.model.MatchPlayerStats;
+import com.lollito.fm.model.Player;
+import com.lollito.fm.model.Stats;
+import com.lollito.fm.model.dto.EventHistoryDTO;
+import com.lollito.fm.model.dto.MatchPlayerStatsDTO;
+import com.lollito.fm.model.dto.StatsDTO;
+import com.lollito.fm.repository.rest.MatchRepository;
+import com.lollito.fm.repository.rest.PlayerRepository;
+
+/**
+ * Regenerates the outcome of a simulated match from its {@link MatchReplay}.
+ *
+ * A {@link LiveMatchSession} only stores the seed and the kick off state of
+ * the match; timeline, statistics and player statistics are produced again by
+ * the engine when they are needed. Sessions written with the full events,
+ * stats and player stats JSON are still read as they are.
+ */
+@Service
+public class MatchReplayService {
+
+    @Autowired private MatchRepository matchRepository;
+    @Autowired private PlayerRepository playerRepository;
+    @Autowired private MatchMapper matchMapper;
+    @Autowired private MatchPlayerStatsMapper matchPlayerStatsMapper;
+    @Autowired private ObjectMapper objectMapper;
+
+    public String write(MatchReplay replay) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(replay);
+    }
+
+    public MatchReplay read(String replay) throws JsonProcessingException {
+        return objectMapper.readValue(replay, MatchReplay.class);
+    }
+
+    /** Full timeline of a live session, sorted by minute. */
+    public List<EventHistoryDTO> timeline(LiveMatchSession session) throws JsonProcessingException {
+        if (session.getReplay() == null) {
+            return session.getEvents() == null ? List.of()
+                    : objectMapper.readValue(session.getEvents(), new TypeReference<List<EventHistoryDTO>>(){});
+        }
+        Match match = matchRepository.findById(session.getMatchId())
+                .orElseThrow(() -> new IllegalStateException("Match " + session.getMatchId() + " not found"));
+        MatchReplay replay = read(session.getReplay());
+        return events(match, replay, replay(replay)).stream()
+                .map(matchMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /** Puts the events, stats and player stats of the session back on the match. */
+    public void restore(Match match, LiveMatchSession session) throws JsonProcessingException {
+        List<EventHistory> events;
+        Stats stats;
+        List<MatchPlayerStats> playerStats = null;
+        if (session.getReplay() != null) {
+            MatchReplay replay = read(session.getReplay());
+            MatchEngine engine = replay(replay);
+            events = events(match, replay, engine);
+            stats = engine.stats();
+            playerStats = engine.playerStats(match);
+        } else {
+            events = objectMapper.readValue(session.getEvents(), new TypeReference<List<EventHistoryDTO>>(){}).stream()
+                    .map(matchMapper::toEntity)
+                    .collect(Collectors.toList());
+            stats = matchMapper.toEntity(objectMapper.readValue(session.getStats(), StatsDTO.class));
+            stats.setId(null);
+            if (session.getPlayerStats() != null) {
+                playerStats = objectMapper.readValue(session.getPlayerStats(), new TypeReference<List<MatchPlayerStatsDTO>>(){}).stream()
+                        .map(matchPlayerStatsMapper::toEntity)
+                        .collect(Collectors.toList());
+            }
+        }
+
+        match.getEvents().clear();
+        events.forEach(e -> {
+            e.setId(null);
+            e.setMatch(match);
+        });
+        match.getEvents().addAll(events);
+        match.setStats(stats);
+        if (playerStats != null) {
+            playerStats.forEach(mps -> {
+                mps.setMatch(match);
+                mps.setId(null);
+            });
+            match.getPlayerStats().clear();
+            match.getPlayerStats().addAll(playerStats);
+        }
+    }
+
+    /** Plays the recorded match again; the engine is never written back. */
+    public MatchEngine replay(MatchReplay replay) {
+        List<Long> ids = new ArrayList<>();
+        for (long id : replay.getHome().getPlayers()) ids.add(id);
+        for (long id : replay.getAway().getPlayers()) ids.add(id);
+        Map<Long, Player> players = playerRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Player::getId, Function.identity()));
+
+        MatchEngine engine = MatchEngine.replay(replay, roster(replay.getHome(), players), roster(replay.getAway(), players));
+        engine.play();
+        return engine;
+    }
+
+    private List<EventHistory> events(Match match, MatchReplay replay, MatchEngine engine) {
+        List<EventHistory> events = engine.events(match);
+        for (MatchReplay.Injury injury : replay.getInjuries()) {
+            events.add(new EventHistory(injury.getEvent(), injury.getMinute(), Event.INJURY));
+        }
+        events.sort(Comparator.comparingInt(EventHistory::getMinute));
+        return events;
+    }
+
+    private Player[] roster(MatchReplay.Side side, Map<Long, Player> players) {
+        long[] ids = side.getPlayers();
+        Player[] roster = new Player[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            roster[i] = players.get(ids[i]);
+            if (roster[i] == null) {
+                throw new IllegalStateException("Player " + ids[i] + " of the replay not found");
+            }
+        }
+        return roster;
+    }
+}
@@ -2,15 +2,21 @@ package com.lollito.fm.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import com.lollito.fm.model.Match;
 import com.lollito.fm.model.MatchStatus;
 import com.lollito.fm.repository.rest.MatchRepository;
+import com.lollito.fm.service.ClusterService.Partition;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
 @Slf4j
@@ -18,18 +24,57 @@ public class MatchSchedulerService {
 
     @Autowired private MatchRepository matchRepository;
     @Autowired private MatchProcessor matchProcessor;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired private ClusterService clusterService;
+    @Autowired private SchedulerLockService schedulerLockService;
+
+    /** Matches handed to the processing executor and not finished yet. */
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
 
     @Scheduled(initialDelayString = "${fm.scheduling.match-processing.initial-delay}", fixedRateString = "${fm.scheduling.match-processing.fixed-rate}")
     public void processScheduledMatches() {
+        // With several nodes each one dispatches the matches of its slices of the leagues
+        for (Partition partition : clusterService.partitions()) {
+            String lock = partition.isWhole() ? "match-processing" : "match-processing#" + partition;
+            schedulerLockService.runLocked(lock, () -> processScheduledMatches(partition));
+        }
+    }
+
+    private void processScheduledMatches(Partition partition) {
         log.info("Starting processScheduledMatches...");
         LocalDateTime now = LocalDateTime.now();
-        List<Match> matchesToRun = matchRepository.findByStatusAndDateBefore(MatchStatus.SCHEDULED, now);
+        List<Match> matchesToRun = partition.isWhole()
+                ? matchRepository.findByStatusAndDateBefore(MatchStatus.SCHEDULED, now)
+                : matchRepository.findByStatusAndDateBeforeInLeaguePartition(MatchStatus.SCHEDULED, now, partition.getCount(), partition.getIndex());
 
         if (!matchesToRun.isEmpty()) {
             log.info("Found {} matches to run.", matchesToRun.size());
-            for (Match match : matchesToRun) {
-                matchProcessor.processMatch(match.getId());
+            int submitted = 0;
+            int skipped = 0;
+            for (int i = 0; i < matchesToRun.size(); i++) {
+                Long matchId = matchesToRun.get(i).getId();
+                if (!inFlight.add(matchId)) {
+                    skipped++;
+                    continue;
+                }
+                try {
+                    matchProcessor.processMatch(matchId).whenComplete((result, e) -> {
+                        inFlight.remove(matchId);
+                        if (e != null) {
+                            log.error("Processing of match {} failed", matchId, e);
+                        }
+                    });
+                    submitted++;
+                } catch (TaskRejectedException e) {
+                    // Queue is full: the remaining matches are still SCHEDULED and are picked up on the next tick
+                    inFlight.remove(matchId);
+                    int deferred = matchesToRun.size() - i;
+                    meterRegistry.counter("fm.match.processing.deferred").increment(deferred);
+                    log.warn("Match processing queue is full, deferring {} matches to the next tick", deferred);
+                    break;
+                }
             }
+            log.info("Submitted {} matches, {} already in progress.", submitted, skipped);
         }
         log.info("Finished processScheduledMatches.");
     }
@@ -30,12 +30,24 @@ public class NameService {
 		
 	}
 	
+	/** Read once: the pools are immutable and shared by every caller and thread */
+	private volatile List<String> names;
+	private volatile List<String> surnames;
+	
 	public List<String> getNames(){
-		return getStrings("/name/name.txt");
+		List<String> pool = names;
+		if (pool == null) {
+			pool = names = List.copyOf(getStrings("/name/name.txt"));
+		}
+		return pool;
 	}
 	
 	public List<String> getSurnames(){
-		return getStrings("/name/surname.txt");
+		List<String> pool = surnames;
+		if (pool == null) {
+			pool = surnames = List.copyOf(getStrings("/name/surname.txt"));
+		}
+		return pool;
 	}
 	
 	public List<String> getCountryFileLanes(){
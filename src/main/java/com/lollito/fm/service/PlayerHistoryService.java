@@ -9,12 +9,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 
+import com.lollito.fm.config.BatchJobConfig;
+import com.lollito.fm.model.BatchJobCheckpoint;
 import com.lollito.fm.model.PlayerAchievementType;
 import com.lollito.fm.model.Club;
 import com.lollito.fm.model.MatchPlayerStats;
@@ -41,6 +45,7 @@ import com.lollito.fm.repository.rest.PlayerCareerStatsRepository;
 import com.lollito.fm.repository.rest.PlayerRepository;
 import com.lollito.fm.repository.rest.PlayerSeasonStatsRepository;
 import com.lollito.fm.repository.rest.PlayerTransferHistoryRepository;
+import com.lollito.fm.service.LeagueLeaderboards.Statistic;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -54,6 +59,9 @@ public class PlayerHistoryService {
     @Autowired private PlayerRepository playerRepository;
     @Autowired private SeasonService seasonService;
     @Autowired private ClubRepository clubRepository;
+    @Autowired private BatchJobRunner batchJobRunner;
+    @Autowired private LeagueLeaderboards leagueLeaderboards;
+    @Autowired @Qualifier(BatchJobConfig.ON_DEMAND_EXECUTOR) private Executor onDemandExecutor;
 
     @Autowired private ClubMapper clubMapper;
     @Autowired private SeasonMapper seasonMapper;
@@ -113,6 +121,7 @@ public class PlayerHistoryService {
         updateSeasonStatsInternal(seasonStats, matchStats);
 
         playerSeasonStatsRepository.save(seasonStats);
+        leagueLeaderboards.record(List.of(seasonStats));
 
         // Update career stats
         updateCareerStatsIncremental(player, seasonStats, matchStats);
@@ -161,34 +170,23 @@ public class PlayerHistoryService {
             }
 
             // Career Stats
-            PlayerCareerStats careerStats = careerStatsMap.get(player.getId());
-            if (careerStats == null) {
-                // Fallback to existing heavy logic or initialize empty.
-                // Since updateCareerStats saves immediately, we use it for safety but it breaks batching for this player.
-                // However, getting null here means data inconsistency or new player.
-                updateCareerStats(player);
-                // After update, we should ideally fetch it again or ignore.
-                // Since updateCareerStats saves, it's persisted. We don't add to batch save list.
-            } else {
-                 updateCareerStatsIncrementalInternal(player, careerStats, seasonStats, matchStats);
-                 if (!processedCareerStatsIds.contains(player.getId())) {
-                     careerStatsToSave.add(careerStats);
-                     processedCareerStatsIds.add(player.getId());
-                 }
-                 // Ensure we check milestones on the modified object
-                 checkCareerMilestones(careerStats);
+            PlayerCareerStats careerStats = careerStatsMap.computeIfAbsent(player.getId(), id -> getOrCreateCareerStats(player));
+            updateCareerStatsIncrementalInternal(player, careerStats, seasonStats, matchStats);
+            if (!processedCareerStatsIds.contains(player.getId())) {
+                careerStatsToSave.add(careerStats);
+                processedCareerStatsIds.add(player.getId());
             }
+            checkCareerMilestones(careerStats);
 
             // Achievements
-            if (careerStats != null) {
-                player.setCareerStats(careerStats);
-            }
+            player.setCareerStats(careerStats);
 
             checkForAchievements(player, seasonStats, matchStats);
         }
 
         if (!seasonStatsToSave.isEmpty()) {
             playerSeasonStatsRepository.saveAll(seasonStatsToSave);
+            leagueLeaderboards.record(seasonStatsToSave);
         }
         if (!careerStatsToSave.isEmpty()) {
             playerCareerStatsRepository.saveAll(careerStatsToSave);
@@ -244,13 +242,7 @@ public class PlayerHistoryService {
     }
 
     private void updateCareerStatsIncremental(Player player, PlayerSeasonStats seasonStats, MatchPlayerStats matchStats) {
-        PlayerCareerStats careerStats = player.getCareerStats();
-
-        // If career stats are missing, fallback to full recalculation
-        if (careerStats == null) {
-            updateCareerStats(player);
-            return;
-        }
+        PlayerCareerStats careerStats = getOrCreateCareerStats(player);
 
         updateCareerStatsIncrementalInternal(player, careerStats, seasonStats, matchStats);
 
@@ -259,10 +251,32 @@ public class PlayerHistoryService {
         playerCareerStatsRepository.save(careerStats);
     }
 
+    /**
+     * The career row of the player, a new empty one for a player without it:
+     * the first match starts it from zero, the totals are never recomputed.
+     */
+    private PlayerCareerStats getOrCreateCareerStats(Player player) {
+        PlayerCareerStats careerStats = player.getCareerStats();
+        if (careerStats == null) {
+            careerStats = PlayerCareerStats.builder()
+                .player(player)
+                .firstProfessionalMatch(LocalDate.now())
+                .build();
+            player.setCareerStats(careerStats);
+        }
+        return careerStats;
+    }
+
+    /**
+     * Applies one match to the career aggregates: running sums for the totals
+     * and the rating, running maxima for the records. The season records read
+     * the season row the match has just been added to.
+     */
     private void updateCareerStatsIncrementalInternal(Player player, PlayerCareerStats careerStats, PlayerSeasonStats seasonStats, MatchPlayerStats matchStats) {
-        // Incrementally update career stats
+        int goals = matchStats.getGoals() != null ? matchStats.getGoals() : 0;
+
         careerStats.setTotalMatchesPlayed(careerStats.getTotalMatchesPlayed() + 1);
-        careerStats.setTotalGoals(careerStats.getTotalGoals() + (matchStats.getGoals() != null ? matchStats.getGoals() : 0));
+        careerStats.setTotalGoals(careerStats.getTotalGoals() + goals);
         careerStats.setTotalAssists(careerStats.getTotalAssists() + (matchStats.getAssists() != null ? matchStats.getAssists() : 0));
         careerStats.setTotalYellowCards(careerStats.getTotalYellowCards() + (matchStats.getYellowCards() != null ? matchStats.getYellowCards() : 0));
         careerStats.setTotalRedCards(careerStats.getTotalRedCards() + (matchStats.getRedCards() != null ? matchStats.getRedCards() : 0));
@@ -273,6 +287,15 @@ public class PlayerHistoryService {
             }
         }
 
+        if (matchStats.getRating() != null) {
+            careerStats.setRatedMatches(careerStats.getRatedMatches() + 1);
+            careerStats.setRatingSum(careerStats.getRatingSum() + matchStats.getRating());
+        }
+
+        // Goal streak: consecutive matches with a goal
+        careerStats.setCurrentGoalStreak(goals > 0 ? careerStats.getCurrentGoalStreak() + 1 : 0);
+        careerStats.setLongestGoalStreak(Math.max(careerStats.getLongestGoalStreak(), careerStats.getCurrentGoalStreak()));
+
         // Update season records
         if (seasonStats.getGoals() > careerStats.getMostGoalsInSeason()) {
             careerStats.setMostGoalsInSeason(seasonStats.getGoals());
@@ -285,49 +308,98 @@ public class PlayerHistoryService {
         }
     }
 
-    public void updateCareerStats(Player player) {
-        PlayerCareerStats careerStats = player.getCareerStats();
-        if (careerStats == null) {
-            careerStats = new PlayerCareerStats();
-            careerStats.setPlayer(player);
-            careerStats.setFirstProfessionalMatch(LocalDate.now());
-            player.setCareerStats(careerStats);
+    static final String CAREER_STATS_REBUILD = "career-stats-rebuild";
+
+    /**
+     * Starts {@link #rebuildAllCareerStats()} in the background.
+     *
+     * @return false if an on-demand job is already running on this node
+     */
+    public boolean startCareerStatsRebuild() {
+        try {
+            onDemandExecutor.execute(this::rebuildAllCareerStats);
+            return true;
+        } catch (TaskRejectedException e) {
+            return false;
         }
+    }
 
-        List<PlayerSeasonStats> allSeasonStats = playerSeasonStatsRepository.findByPlayer(player);
+    /** Progress of the last career stats rebuild, empty if it never ran. */
+    public Optional<BatchJobCheckpoint> getCareerStatsRebuild() {
+        return batchJobRunner.checkpoint(CAREER_STATS_REBUILD);
+    }
 
-        careerStats.setTotalMatchesPlayed(
-            allSeasonStats.stream().mapToInt(PlayerSeasonStats::getMatchesPlayed).sum()
-        );
-        careerStats.setTotalGoals(
-            allSeasonStats.stream().mapToInt(PlayerSeasonStats::getGoals).sum()
-        );
-        careerStats.setTotalAssists(
-            allSeasonStats.stream().mapToInt(PlayerSeasonStats::getAssists).sum()
-        );
-        careerStats.setTotalYellowCards(
-            allSeasonStats.stream().mapToInt(PlayerSeasonStats::getYellowCards).sum()
-        );
-        careerStats.setTotalRedCards(
-            allSeasonStats.stream().mapToInt(PlayerSeasonStats::getRedCards).sum()
-        );
-        careerStats.setTotalCleanSheets(
-            allSeasonStats.stream().mapToInt(PlayerSeasonStats::getCleanSheets).sum()
-        );
+    /**
+     * Recomputes the career aggregates of every player from the season rows,
+     * to repair them; the match updates never need it. Runs as the batch job
+     * {@code career-stats-rebuild}, resumable; it is started on demand on one
+     * node, so it is not split among the nodes.
+     *
+     * @return the players rebuilt
+     */
+    public long rebuildAllCareerStats() {
+        return batchJobRunner.run(BatchJob.<Player>builder()
+                .name(CAREER_STATS_REBUILD)
+                .type(Player.class)
+                .fetch("careerStats")
+                .processor(this::rebuildCareerStats)
+                .build());
+    }
 
-        careerStats.setMostGoalsInSeason(
-            allSeasonStats.stream().mapToInt(PlayerSeasonStats::getGoals).max().orElse(0)
-        );
-        careerStats.setMostAssistsInSeason(
-            allSeasonStats.stream().mapToInt(PlayerSeasonStats::getAssists).max().orElse(0)
-        );
-        careerStats.setHighestSeasonRating(
-            allSeasonStats.stream().mapToDouble(PlayerSeasonStats::getAverageRating).max().orElse(0.0)
-        );
+    void rebuildCareerStats(List<Player> players) {
+        Map<Long, List<PlayerSeasonStats>> seasonStats = playerSeasonStatsRepository.findByPlayerIn(players).stream()
+                .collect(Collectors.groupingBy(stats -> stats.getPlayer().getId()));
+        List<PlayerCareerStats> careerStats = new ArrayList<>();
+        for (Player player : players) {
+            careerStats.add(rebuildCareerStats(player, seasonStats.getOrDefault(player.getId(), List.of())));
+        }
+        playerCareerStatsRepository.saveAll(careerStats);
+    }
 
-        checkCareerMilestones(careerStats);
+    public void rebuildCareerStats(Player player) {
+        playerCareerStatsRepository.save(rebuildCareerStats(player, playerSeasonStatsRepository.findByPlayer(player)));
+    }
 
-        playerCareerStatsRepository.save(careerStats);
+    /**
+     * Totals and records in one pass over the seasons. The goal streaks are
+     * kept, the season rows do not have the match order to rebuild them.
+     */
+    private PlayerCareerStats rebuildCareerStats(Player player, List<PlayerSeasonStats> allSeasonStats) {
+        PlayerCareerStats careerStats = getOrCreateCareerStats(player);
+
+        int matches = 0, goals = 0, assists = 0, yellowCards = 0, redCards = 0, cleanSheets = 0;
+        int mostGoals = 0, mostAssists = 0, ratedMatches = 0;
+        double ratingSum = 0.0, highestRating = 0.0;
+        for (PlayerSeasonStats season : allSeasonStats) {
+            matches += season.getMatchesPlayed();
+            goals += season.getGoals();
+            assists += season.getAssists();
+            yellowCards += season.getYellowCards();
+            redCards += season.getRedCards();
+            cleanSheets += season.getCleanSheets();
+            mostGoals = Math.max(mostGoals, season.getGoals());
+            mostAssists = Math.max(mostAssists, season.getAssists());
+            highestRating = Math.max(highestRating, season.getAverageRating());
+            if (season.getAverageRating() > 0) {
+                ratedMatches += season.getMatchesPlayed();
+                ratingSum += season.getAverageRating() * season.getMatchesPlayed();
+            }
+        }
+
+        careerStats.setTotalMatchesPlayed(matches);
+        careerStats.setTotalGoals(goals);
+        careerStats.setTotalAssists(assists);
+        careerStats.setTotalYellowCards(yellowCards);
+        careerStats.setTotalRedCards(redCards);
+        careerStats.setTotalCleanSheets(cleanSheets);
+        careerStats.setMostGoalsInSeason(mostGoals);
+        careerStats.setMostAssistsInSeason(mostAssists);
+        careerStats.setHighestSeasonRating(highestRating);
+        careerStats.setRatedMatches(ratedMatches);
+        careerStats.setRatingSum(ratingSum);
+
+        checkCareerMilestones(careerStats);
+        return careerStats;
     }
 
     public PlayerTransferHistory recordTransfer(Player player, Club fromClub, Club toClub,
@@ -347,22 +419,15 @@ public class PlayerHistoryService {
 
         transfer = playerTransferHistoryRepository.save(transfer);
 
-        PlayerCareerStats careerStats = player.getCareerStats();
-        if (careerStats == null) {
-            updateCareerStats(player);
-            careerStats = player.getCareerStats();
-        }
-
-        if (careerStats != null) {
-            careerStats.setClubsPlayed(careerStats.getClubsPlayed() + 1);
-            careerStats.setTotalTransferValue(
-                careerStats.getTotalTransferValue().add(transferFee)
-            );
-            if (transferFee.compareTo(careerStats.getHighestTransferValue()) > 0) {
-                careerStats.setHighestTransferValue(transferFee);
-            }
-            playerCareerStatsRepository.save(careerStats);
+        PlayerCareerStats careerStats = getOrCreateCareerStats(player);
+        careerStats.setClubsPlayed(careerStats.getClubsPlayed() + 1);
+        careerStats.setTotalTransferValue(
+            careerStats.getTotalTransferValue().add(transferFee)
+        );
+        if (transferFee.compareTo(careerStats.getHighestTransferValue()) > 0) {
+            careerStats.setHighestTransferValue(transferFee);
         }
+        playerCareerStatsRepository.save(careerStats);
 
         return transfer;
     }
@@ -393,10 +458,6 @@ public class PlayerHistoryService {
 
     private void checkForAchievements(Player player, PlayerSeasonStats seasonStats,
                                     MatchPlayerStats matchStats) {
-        if (player.getCareerStats() == null) {
-            updateCareerStats(player);
-        }
-
         if (player.getCareerStats().getFirstGoal() == null && matchStats.getGoals() > 0) {
             addAchievement(player, PlayerAchievementType.MILESTONE, "First Goal",
                          "Scored first professional goal");
@@ -466,13 +527,11 @@ public class PlayerHistoryService {
     }
 
     public List<PlayerSeasonStats> getLeagueTopScorers(Long leagueId, Season season, int limit) {
-        return playerSeasonStatsRepository.findTopScorersByLeagueAndSeason(leagueId, season,
-                                                                          PageRequest.of(0, limit));
+        return leagueLeaderboards.top(Statistic.GOALS, leagueId, season, limit);
     }
 
     public List<PlayerSeasonStats> getLeagueTopAssists(Long leagueId, Season season, int limit) {
-        return playerSeasonStatsRepository.findTopAssistsByLeagueAndSeason(leagueId, season,
-                                                                          PageRequest.of(0, limit));
+        return leagueLeaderboards.top(Statistic.ASSISTS, leagueId, season, limit);
     }
 
     // Helper to get stats for a player/season directly
@@ -586,6 +645,7 @@ public class PlayerHistoryService {
             .mostAssistsInSeason(stats.getMostAssistsInSeason())
             .highestSeasonRating(stats.getHighestSeasonRating())
             .longestGoalStreak(stats.getLongestGoalStreak())
+            .averageRating(stats.getAverageRating())
             .build();
     }
 
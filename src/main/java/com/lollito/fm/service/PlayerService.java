@@ -5,9 +5,11 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import com.lollito.fm.event.PlayerChangedEvent;
 import com.lollito.fm.model.Player;
 import com.lollito.fm.model.PlayerRole;
 import com.lollito.fm.model.rest.PlayerCondition;
@@ -19,6 +21,8 @@ public class PlayerService {
 	
 	private final Logger logger = LoggerFactory.getLogger(this.getClass());
 	@Autowired PlayerRepository playerRepository;
+	@Autowired ApplicationEventPublisher eventPublisher;
+	@Autowired PlayerStateBuffer playerStateBuffer;
 	
 	public Player findOne(Long id) {
 		return playerRepository.findById(id).get();
@@ -198,10 +202,12 @@ public class PlayerService {
 
 	public void updateSkills(List<Player> players) {
 		players.parallelStream().forEach(player -> updateSkills(player));
+		eventPublisher.publishEvent(new PlayerChangedEvent(this, players.stream().map(Player::getId).toList(), PlayerChangedEvent.Change.SKILLS));
 	}
 
+	/** Saves the players; their condition, morale and skills go through the {@link PlayerStateBuffer} */
 	public void saveAll(List<Player> players) {
-		playerRepository.saveAll(players);
+		playerStateBuffer.record(players);
 	}
 	
 	public Player save(Player player) {
@@ -0,0 +1,346 @@
+package com.lollito.fm.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lollito.fm.model.Player;
+import com.lollito.fm.repository.rest.PlayerRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind buffer for the state of the players that changes after every
+ * match, training session and day of rest: condition, morale and skills.
+ *
+ * {@link #record(List)} takes the changed columns of each player from the
+ * persistence context and tells Hibernate they are clean, so the transaction
+ * does not write the row. Once it commits, the changes join the buffer, where
+ * later changes to the same player overwrite earlier ones. The buffer is
+ * written every {@code fm.player-buffer.flush-interval-ms}, or as soon as it
+ * holds {@code fm.player-buffer.flush-threshold} players, with one JDBC batch
+ * per set of changed columns that updates those columns only.
+ *
+ * Players loaded before their changes are written get them from the buffer
+ * ({@link com.lollito.fm.listener.PlayerStateListener}); a row written by
+ * Hibernate with the buffered values in it drops them from the buffer.
+ *
+ * The buffer is off unless {@code fm.player-buffer.enabled} is set, and only
+ * buffers while this node is the only live one of the {@link ClusterService}:
+ * another node would read the rows before the changes are written and
+ * overwrite them, or see them overwritten, with its own. Every flush checks
+ * the live nodes again; while others are live the buffer is written and
+ * players are saved right away. Changes committed but not written yet, at
+ * most a flush interval or threshold worth of them, are lost if the node
+ * goes down without closing.
+ */
+@Component
+@Slf4j
+public class PlayerStateBuffer {
+
+    /** The buffered properties of {@link Player}. */
+    static final List<String> PROPERTIES = List.of("condition", "moral", "stamina", "playmaking", "scoring",
+            "winger", "goalkeeping", "passing", "defending", "setPieces");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ClusterService clusterService;
+
+    @Value("${fm.player-buffer.enabled:false}")
+    private Boolean enabled;
+
+    @Value("${fm.player-buffer.flush-threshold:5000}")
+    private Integer flushThreshold;
+
+    private final Map<Long, PendingState> pending = new ConcurrentHashMap<>();
+
+    /** Taken from {@link #pending} by a flush and not written yet; loads still see them. */
+    private final Map<Long, PendingState> flushing = new ConcurrentHashMap<>();
+
+    private final AtomicLong versions = new AtomicLong();
+
+    private volatile Mapping mapping;
+
+    /** Other nodes were live at the last check: nothing is buffered. */
+    private volatile boolean clustered = true;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("fm.player.buffer.pending", pending, Map::size).register(meterRegistry);
+        if (enabled) {
+            checkCluster();
+        }
+    }
+
+    /**
+     * Buffers the condition, morale and skills of the players changed in the
+     * current transaction. Players outside a persistence context, or without
+     * a transaction, or while other nodes are live, are saved right away.
+     */
+    public void record(List<Player> players) {
+        if (!enabled || clustered || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            playerRepository.saveAll(players);
+            return;
+        }
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        Mapping mapping = mapping(session);
+        Map<Long, Double[]> changes = new HashMap<>();
+        List<Player> unmanaged = new ArrayList<>();
+        for (Player player : players) {
+            EntityEntry entry = session.getPersistenceContextInternal().getEntry(player);
+            if (entry == null || entry.getLoadedState() == null) {
+                unmanaged.add(player);
+                continue;
+            }
+            Object[] loaded = entry.getLoadedState();
+            Double[] values = new Double[PROPERTIES.size()];
+            boolean changed = false;
+            for (int i = 0; i < values.length; i++) {
+                int index = mapping.indexes[i];
+                Object value = mapping.persister.getValue(player, index);
+                // A value set to null is left to Hibernate
+                if (value != null && !value.equals(loaded[index])) {
+                    values[i] = (Double) value;
+                    loaded[index] = value;
+                    changed = true;
+                }
+            }
+            if (changed) {
+                changes.merge(player.getId(), values, PlayerStateBuffer::combine);
+            }
+        }
+        if (!unmanaged.isEmpty()) {
+            playerRepository.saveAll(unmanaged);
+        }
+        if (!changes.isEmpty()) {
+            afterCommit(() -> {
+                changes.forEach((id, values) -> pending.merge(id, new PendingState(values, versions.incrementAndGet()),
+                        (older, newer) -> new PendingState(combine(older.values, newer.values), newer.version)));
+                if (pending.size() >= flushThreshold) {
+                    flush();
+                }
+            });
+        }
+    }
+
+    /** Puts the buffered state into a player just loaded, as if read from its row. */
+    public void overlay(Player player) {
+        PendingState flushed = flushing.get(player.getId());
+        PendingState state = pending.get(player.getId());
+        if (flushed == null && state == null) {
+            return;
+        }
+        Mapping mapping = this.mapping;
+        if (mapping == null) {
+            return;
+        }
+        EntityEntry entry = entityManager.unwrap(SessionImplementor.class).getPersistenceContextInternal().getEntry(player);
+        Object[] loaded = entry != null ? entry.getLoadedState() : null;
+        for (PendingState buffered : new PendingState[] { flushed, state }) {
+            if (buffered == null) {
+                continue;
+            }
+            for (int i = 0; i < PROPERTIES.size(); i++) {
+                if (buffered.values[i] != null) {
+                    mapping.persister.setValue(player, mapping.indexes[i], buffered.values[i]);
+                    if (loaded != null) {
+                        loaded[mapping.indexes[i]] = buffered.values[i];
+                    }
+                }
+            }
+            player.setStateVersion(Math.max(player.getStateVersion(), buffered.version));
+        }
+    }
+
+    /**
+     * A row written by Hibernate from a player that had the buffered state
+     * put in holds it: once committed, the buffer drops it unless it changed
+     * again in the meantime.
+     */
+    public void written(Player player) {
+        PendingState state = pending.get(player.getId());
+        if (state != null && state.version <= player.getStateVersion()) {
+            afterCommit(() -> pending.remove(player.getId(), state));
+        }
+    }
+
+    /**
+     * Writes the buffer: one JDBC batch per set of changed columns, in one
+     * transaction. On failure the changes go back to the buffer, under any
+     * newer ones.
+     *
+     * @return the players written
+     */
+    @Scheduled(initialDelayString = "${fm.player-buffer.flush-interval-ms:5000}", fixedDelayString = "${fm.player-buffer.flush-interval-ms:5000}")
+    public synchronized int flush() {
+        if (enabled) {
+            checkCluster();
+        }
+        if (pending.isEmpty() || mapping == null) {
+            return 0;
+        }
+        Map<Long, PendingState> batch = new HashMap<>();
+        for (Long id : pending.keySet()) {
+            PendingState state = pending.get(id);
+            if (state == null) {
+                continue;
+            }
+            flushing.put(id, state);
+            if (pending.remove(id, state)) {
+                batch.put(id, state);
+            } else {
+                // Changed while taken: the newer state holds this one, it goes next time
+                flushing.remove(id, state);
+            }
+        }
+
+        Map<Integer, List<Object[]>> statements = new HashMap<>();
+        batch.forEach((id, state) -> {
+            int columns = 0;
+            List<Object> args = new ArrayList<>();
+            for (int i = 0; i < PROPERTIES.size(); i++) {
+                if (state.values[i] != null) {
+                    columns |= 1 << i;
+                    args.add(state.values[i]);
+                }
+            }
+            args.add(id);
+            statements.computeIfAbsent(columns, c -> new ArrayList<>()).add(args.toArray());
+        });
+
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> statements.forEach((columns, args) -> {
+                jdbcTemplate.batchUpdate(mapping.update(columns), args);
+                meterRegistry.summary("fm.db.batch.size", "statement", "player-state").record(args.size());
+            }));
+            meterRegistry.counter("fm.player.buffer.written").increment(batch.size());
+            log.debug("Wrote the state of {} players in {} batches", batch.size(), statements.size());
+        } catch (RuntimeException e) {
+            log.error("Writing the state of {} players failed, kept for the next flush", batch.size(), e);
+            batch.forEach((id, state) -> pending.merge(id, state,
+                    (newer, older) -> new PendingState(combine(older.values, newer.values), newer.version)));
+            return 0;
+        } finally {
+            batch.forEach(flushing::remove);
+        }
+        return batch.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    private void checkCluster() {
+        boolean others = clusterService.liveNodes().size() > 1;
+        if (others && !clustered) {
+            log.warn("Other backend nodes are live, player state is no longer buffered");
+        } else if (!others && clustered) {
+            log.info("Only live backend node, player state is buffered");
+        }
+        clustered = others;
+    }
+
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Mapping mapping(SessionImplementor session) {
+        if (mapping == null) {
+            AbstractEntityPersister persister = (AbstractEntityPersister) session.getFactory().getMappingMetamodel()
+                    .getEntityDescriptor(Player.class);
+            int[] indexes = new int[PROPERTIES.size()];
+            String[] columns = new String[PROPERTIES.size()];
+            for (int i = 0; i < indexes.length; i++) {
+                indexes[i] = persister.getPropertyIndex(PROPERTIES.get(i));
+                columns[i] = persister.getPropertyColumnNames(PROPERTIES.get(i))[0];
+            }
+            mapping = new Mapping(persister, indexes, columns, persister.getTableName(), persister.getIdentifierColumnNames()[0]);
+        }
+        return mapping;
+    }
+
+    /** The older values overwritten by the newer ones. */
+    private static Double[] combine(Double[] older, Double[] newer) {
+        Double[] values = older.clone();
+        for (int i = 0; i < values.length; i++) {
+            if (newer[i] != null) {
+                values[i] = newer[i];
+            }
+        }
+        return values;
+    }
+
+    /** Changed values by property, null for the unchanged ones. */
+    @AllArgsConstructor
+    private static class PendingState {
+        private final Double[] values;
+        private final long version;
+    }
+
+    /** Where the buffered properties live: persister indexes and quoted SQL names. */
+    @AllArgsConstructor
+    private static class Mapping {
+        private final AbstractEntityPersister persister;
+        private final int[] indexes;
+        private final String[] columns;
+        private final String table;
+        private final String id;
+
+        String update(int changed) {
+            List<String> assignments = new ArrayList<>();
+            for (int i = 0; i < columns.length; i++) {
+                if ((changed & (1 << i)) != 0) {
+                    assignments.add(columns[i] + " = ?");
+                }
+            }
+            return "update " + table + " set " + String.join(", ", assignments) + " where " + id + " = ?";
+        }
+    }
+}
@@ -2,10 +2,12 @@ package com.lollito.fm.service;
 
 import java.math.BigDecimal;
 import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -52,6 +54,9 @@ public class QuestService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private SchedulerLockService schedulerLockService;
+
     @Transactional
     public void generateDailyQuests(User user) {
         List<Quest> dailyQuests = new ArrayList<>();
@@ -142,8 +147,37 @@ public class QuestService {
         }
     }
 
+    /**
+     * Adds the progress of many users at once, by user id and quest type: the
+     * active quests of all of them are read with one query and saved together.
+     */
+    @Transactional
+    public void incrementProgress(Map<Long, Map<QuestType, Integer>> progressByUserId) {
+        if (progressByUserId.isEmpty()) {
+            return;
+        }
+        List<Quest> quests = questRepository.findByUserIdInAndStatusAndExpirationDateAfter(progressByUserId.keySet(), QuestStatus.ACTIVE, LocalDateTime.now());
+        List<Quest> progressed = new ArrayList<>();
+        for (Quest quest : quests) {
+            Integer amount = progressByUserId.getOrDefault(quest.getUser().getId(), Map.of()).get(quest.getType());
+            if (amount == null) {
+                continue;
+            }
+            quest.setCurrentValue(quest.getCurrentValue() + amount);
+            checkCompletion(quest);
+            if (quest.getStatus() == QuestStatus.ACTIVE) {
+                progressed.add(quest);
+            }
+        }
+        questRepository.saveAll(progressed);
+    }
+
     @Scheduled(cron = "0 0 0 * * ?")
     public void runDailyQuestGeneration() {
+        schedulerLockService.runLocked("daily-quests", Duration.ofDays(1), this::generateDailyQuestsForAllUsers);
+    }
+
+    private void generateDailyQuestsForAllUsers() {
         log.info("Running daily quest generation");
 
         // Cleanup expired - this needs to be transactional too.
@@ -1,8 +1,12 @@
 package com.lollito.fm.service;
 
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -16,7 +20,9 @@ import com.lollito.fm.model.Match;
 import com.lollito.fm.model.Ranking;
 import com.lollito.fm.model.Season;
 import com.lollito.fm.model.User;
+import com.lollito.fm.model.dto.RankingDTO;
 import com.lollito.fm.repository.rest.RankingRepository;
+import com.lollito.fm.service.StandingsEngine.Table;
 import java.util.Collections;
 
 @Service
@@ -26,6 +32,7 @@ public class RankingService {
 	
 	@Autowired RankingRepository rankingLineRepository;
 	@Autowired UserService userService;
+	@Autowired StandingsEngine standingsEngine;
 	
 	public void create(List<Club> clubs, Season season) {
 		for (Club club : clubs) {
@@ -36,47 +43,64 @@ public class RankingService {
 	}
 	
 	public void update(Match match){
-		Ranking rankingLineHome = rankingLineRepository.findFirstByClubAndSeason(match.getHome(), match.getRound().getSeason());
-		if (rankingLineHome != null) {
-			rankingLineHome.updateStats(match.getHomeScore(), match.getAwayScore());
-			rankingLineRepository.save(rankingLineHome);
-		}
-		
-		Ranking rankingLineAway = rankingLineRepository.findFirstByClubAndSeason(match.getAway(), match.getRound().getSeason());
-		if (rankingLineAway != null) {
-			rankingLineAway.updateStats(match.getAwayScore(), match.getHomeScore());
-			rankingLineRepository.save(rankingLineAway);
-		}
+		updateAll(List.of(match));
 	}
 	
+	/**
+	 * Applies the results to the ranking rows, read by id in one query and
+	 * saved in one batch, and to the in-memory standings once committed. The
+	 * ids come from the {@link StandingsEngine} table, so a season already in
+	 * memory is not queried by club.
+	 */
 	public void updateAll(List<Match> matches) {
 		if (matches == null || matches.isEmpty()) {
 			return;
 		}
 
-		Season season = matches.get(0).getRound().getSeason();
+		// A round of the server spans every league, so group the matches by season
+		Map<Season, List<Match>> matchesBySeason = matches.stream()
+				.collect(Collectors.groupingBy(match -> match.getRound().getSeason(), LinkedHashMap::new, Collectors.toList()));
 
-		List<Ranking> rankings = rankingLineRepository.findBySeason(season);
-		Map<Long, Ranking> rankingMap = rankings.stream()
-				.collect(Collectors.toMap(r -> r.getClub().getId(), r -> r));
+		Map<Match, Long[]> rankingIdsByMatch = new IdentityHashMap<>();
+		Set<Long> rankingIds = new HashSet<>();
+		matchesBySeason.forEach((season, seasonMatches) -> {
+			Table table = standingsEngine.table(season);
+			for (Match match : seasonMatches) {
+				Long[] ids = { table.rankingId(match.getHome().getId()), table.rankingId(match.getAway().getId()) };
+				rankingIdsByMatch.put(match, ids);
+				Arrays.stream(ids).filter(Objects::nonNull).forEach(rankingIds::add);
+			}
+		});
 
-		Set<Ranking> modifiedRankings = new HashSet<>();
+		Map<Long, Ranking> rankingMap = rankingLineRepository.findAllById(rankingIds).stream()
+				.collect(Collectors.toMap(Ranking::getId, r -> r));
 
-		for (Match match : matches) {
-			Ranking rankingLineHome = rankingMap.get(match.getHome().getId());
-			if (rankingLineHome != null) {
-				rankingLineHome.updateStats(match.getHomeScore(), match.getAwayScore());
-				modifiedRankings.add(rankingLineHome);
-			}
+		matchesBySeason.forEach((season, seasonMatches) -> {
+			for (Match match : seasonMatches) {
+				Long[] ids = rankingIdsByMatch.get(match);
+				Ranking rankingLineHome = rankingMap.get(ids[0]);
+				if (rankingLineHome != null) {
+					rankingLineHome.updateStats(match.getHomeScore(), match.getAwayScore());
+				}
 
-			Ranking rankingLineAway = rankingMap.get(match.getAway().getId());
-			if (rankingLineAway != null) {
-				rankingLineAway.updateStats(match.getAwayScore(), match.getHomeScore());
-				modifiedRankings.add(rankingLineAway);
+				Ranking rankingLineAway = rankingMap.get(ids[1]);
+				if (rankingLineAway != null) {
+					rankingLineAway.updateStats(match.getAwayScore(), match.getHomeScore());
+				}
 			}
-		}
+			standingsEngine.record(season, seasonMatches);
+		});
 
-		rankingLineRepository.saveAll(modifiedRankings);
+		rankingLineRepository.saveAll(rankingMap.values());
+	}
+
+	/** Standings of the season of the logged user's league, served from memory. */
+	public List<RankingDTO> standings() {
+		User user = userService.getLoggedUser();
+		if (user != null && user.getClub() != null) {
+			return standingsEngine.standings(user.getClub().getLeague().getCurrentSeason());
+		}
+		return Collections.emptyList();
 	}
 
 	public List<Ranking> load(){
@@ -0,0 +1,173 @@
+package com.lollito.fm.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lollito.fm.model.SchedulerLock;
+import com.lollito.fm.repository.SchedulerLockRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Database leases on scheduled jobs, so that with several backend nodes a job
+ * runs on one of them at a time. The node running a job renews its lease with
+ * a heartbeat; if the node goes down the lease expires and the next node
+ * whose schedule fires takes the job over.
+ * <p>
+ * A job given its schedule period keeps the lease after it returns, for 9/10
+ * of the period from when it was taken: another node whose schedule fires
+ * within the same period does not run the job again, while the holder, which
+ * may always take its own lease back, runs it on its next firing. The tenth
+ * left over lets a schedule firing a bit late, or a cron firing on every node
+ * at once, take over from a node gone down.
+ */
+@Service
+@Slf4j
+public class SchedulerLockService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SchedulerLockRepository schedulerLockRepository;
+
+    @Autowired
+    private ClusterService clusterService;
+
+    @Value("${fm.scheduler.lock.lease-seconds:60}")
+    private long leaseSeconds = 60;
+
+    /** Leases held by the jobs running on this node, with the time each was taken */
+    private final Map<String, LocalDateTime> held = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the task if this node takes the lease, then frees the lease.
+     *
+     * @return false if another node holds the lease and the task did not run
+     */
+    public boolean runLocked(String name, Runnable task) {
+        return runLocked(name, null, task);
+    }
+
+    /**
+     * Runs the task if this node takes the lease, which is then kept for most
+     * of the schedule period, see above; with a null period, or if the task
+     * fails, it is freed as soon as the task returns, or as soon as the
+     * surrounding transaction completes.
+     *
+     * @return false if another node holds the lease and the task did not run
+     */
+    public boolean runLocked(String name, Duration period, Runnable task) {
+        if (!acquire(name)) {
+            log.info("Skipping {}: running on another node", name);
+            return false;
+        }
+        boolean completed = false;
+        try {
+            task.run();
+            completed = true;
+            return true;
+        } finally {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                releaseAfterCompletion(name, completed ? period : null);
+            } else {
+                release(name, completed ? period : null);
+            }
+        }
+    }
+
+    /**
+     * Called inside a transaction, the task's writes are only committed with
+     * it: the lease is let go after, and freed at once if it rolls back.
+     */
+    private void releaseAfterCompletion(String name, Duration period) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                release(name, status == STATUS_COMMITTED ? period : null);
+            }
+        });
+    }
+
+    boolean acquire(String name) {
+        String owner = clusterService.getNodeId();
+        LocalDateTime now = LocalDateTime.now();
+        if (schedulerLockRepository.acquire(name, owner, now, now.plusSeconds(leaseSeconds)) == 0 && !create(name, owner, now)) {
+            return false;
+        }
+        held.put(name, now);
+        return true;
+    }
+
+    /** First run of the job: the row is inserted, a concurrent insert of another node wins. */
+    private boolean create(String name, String owner, LocalDateTime now) {
+        if (schedulerLockRepository.existsById(name)) {
+            return false;
+        }
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            transaction.executeWithoutResult(status -> {
+                entityManager.persist(SchedulerLock.builder()
+                        .name(name)
+                        .owner(owner)
+                        .lockedAt(now)
+                        .lockedUntil(now.plusSeconds(leaseSeconds))
+                        .build());
+                entityManager.flush();
+            });
+            return true;
+        } catch (DataAccessException | PersistenceException e) {
+            return false;
+        }
+    }
+
+    void release(String name) {
+        release(name, null);
+    }
+
+    private void release(String name, Duration period) {
+        LocalDateTime lockedAt = held.remove(name);
+        LocalDateTime until = LocalDateTime.now();
+        if (period != null && lockedAt != null) {
+            LocalDateTime periodEnd = lockedAt.plus(period.multipliedBy(9).dividedBy(10));
+            if (periodEnd.isAfter(until)) {
+                until = periodEnd;
+            }
+        }
+        schedulerLockRepository.release(name, clusterService.getNodeId(), until);
+    }
+
+    /** Renews the leases of the jobs still running here. */
+    @Scheduled(initialDelayString = "${fm.scheduling.scheduler-lock-heartbeat.initial-delay:10000}", fixedRateString = "${fm.scheduling.scheduler-lock-heartbeat.fixed-rate:10000}")
+    public void heartbeat() {
+        if (held.isEmpty()) {
+            return;
+        }
+        Set<String> names = Set.copyOf(held.keySet());
+        int renewed = schedulerLockRepository.extend(names, clusterService.getNodeId(), LocalDateTime.now().plusSeconds(leaseSeconds));
+        if (renewed < names.size()) {
+            log.warn("Lost {} of the leases of {}", names.size() - renewed, names);
+        }
+    }
+}
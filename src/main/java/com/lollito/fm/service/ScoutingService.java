@@ -1,6 +1,7 @@
 package com.lollito.fm.service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -8,6 +9,7 @@ import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -53,6 +55,10 @@ public class ScoutingService {
     @Autowired private WatchlistService watchlistService;
     @Autowired private ApplicationEventPublisher eventPublisher;
     @Autowired private ManagerProgressionService managerProgressionService;
+    @Autowired private BatchJobRunner batchJobRunner;
+
+    @Value("${fm.scheduling.scouting.fixed-rate}")
+    private Duration scoutingPeriod;
 
     public List<Scout> getClubScouts(Long clubId) {
         Club club = clubService.findById(clubId);
@@ -123,16 +129,18 @@ public class ScoutingService {
     }
 
     @Scheduled(initialDelayString = "${fm.scheduling.scouting.initial-delay}", fixedRateString = "${fm.scheduling.scouting.fixed-rate}")
-    @Transactional
     public void processDailyScoutingProgress() {
-        log.info("Starting processDailyScoutingProgress...");
-        List<ScoutingAssignment> activeAssignments = assignmentRepository
-            .findAllWithScoutAndPlayerAndClub(AssignmentStatus.IN_PROGRESS);
-
-        for (ScoutingAssignment assignment : activeAssignments) {
-            processScoutingProgress(assignment);
-        }
-        log.info("Finished processDailyScoutingProgress.");
+        batchJobRunner.run(BatchJob.<ScoutingAssignment>builder()
+                .name("scouting-progress")
+                .type(ScoutingAssignment.class)
+                .period(scoutingPeriod)
+                .filter((root, query, cb) -> cb.equal(root.get("status"), AssignmentStatus.IN_PROGRESS))
+                .fetch("scout.club.user")
+                .fetch("targetPlayer.careerStats")
+                .fetch("targetPlayer.currentContract")
+                .processor(assignments -> assignments.forEach(this::processScoutingProgress))
+                .partitionKey("scout.club.id")
+                .build());
     }
 
     private void processScoutingProgress(ScoutingAssignment assignment) {
@@ -3,8 +3,12 @@ package com.lollito.fm.service;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -12,7 +16,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.lollito.fm.mapper.MatchMapper;
 import com.lollito.fm.model.AdminRole;
@@ -25,6 +31,8 @@ import com.lollito.fm.model.Player;
 import com.lollito.fm.model.Season;
 import com.lollito.fm.model.Server;
 import com.lollito.fm.model.User;
+import com.lollito.fm.model.dto.ServerCreationProgress;
+import com.lollito.fm.model.dto.ServerCreationProgress.Phase;
 import com.lollito.fm.model.rest.ServerResponse;
 import com.lollito.fm.repository.rest.ClubRepository;
 import com.lollito.fm.repository.rest.LeagueRepository;
@@ -33,7 +41,9 @@ import com.lollito.fm.repository.rest.PlayerRepository;
 import com.lollito.fm.repository.rest.SeasonRepository;
 import com.lollito.fm.repository.rest.ServerRepository;
 
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
 
 @Service
 public class ServerService {
@@ -54,26 +64,77 @@ public class ServerService {
 	@Autowired private PlayerService playerService;
 	@Autowired private UserService userService;
 	@Autowired private MatchMapper matchMapper;
+	@Autowired private PlatformTransactionManager transactionManager;
+	@Autowired private ForkJoinPool simulationPool;
+	@PersistenceContext private EntityManager entityManager;
+
+	/** Servers created on this node, kept an hour after finishing for the progress endpoint */
+	private final Map<String, ServerCreation> creations = new ConcurrentHashMap<>();
 	
+	/**
+	 * Creates a server with a league of 10 clubs for each country flagged for
+	 * it. The clubs, teams and players of every country are generated at once
+	 * on the simulation pool; the seasons follow one league at a time, since
+	 * creating one retires the current seasons. Everything is then saved in
+	 * one transaction, league by league, clearing the persistence context in
+	 * between so its size does not grow with the server.
+	 * {@link #creationProgress(String)} reports how far it got.
+	 */
 	public Server create(String serverName){
 		Server server = new Server();
 		server.setName(serverName);
 		server.setOwner(userService.getLoggedUser());
 		LocalDateTime gameStartDate = LocalDateTime.now();
-		for(Country country : countryService.findByCreateLeague(true)){
-			League league = new League();
-			league.setName(serverName + "_" + country.getName());
-			league.setCountry(country);
-            league.setServer(server); // Explicitly set server
-			server.addLeague(league);
-			List<Club> clubs = clubService.createClubs(server, league, 10);
-			league.setClubs(clubs);
-			league.setCurrentSeason(seasonService.create(league, gameStartDate));
-		};
-		
-		server.setCurrentDate(gameStartDate);
-		server = serverRepository.save(server);
-		return server;
+		List<Country> countries = countryService.findByCreateLeague(true);
+		ServerCreation creation = new ServerCreation(serverName, countries.size());
+		creations.values().removeIf(ServerCreation::isExpired);
+		creations.put(serverName, creation);
+		try {
+			List<League> leagues = simulationPool.submit(() -> countries.parallelStream().map(country -> {
+				League league = new League();
+				league.setName(serverName + "_" + country.getName());
+				league.setCountry(country);
+				league.setServer(server);
+				league.setClubs(clubService.createClubs(server, league, 10));
+				creation.step();
+				return league;
+			}).toList()).join();
+
+			creation.phase = Phase.SCHEDULING;
+			for (League league : leagues) {
+				league.setCurrentSeason(seasonService.create(league, gameStartDate));
+				creation.step();
+			}
+
+			creation.phase = Phase.SAVING;
+			server.setCurrentDate(gameStartDate);
+			Server saved = new TransactionTemplate(transactionManager).execute(status -> {
+				Server shell = serverRepository.save(server);
+				for (League league : leagues) {
+					shell.addLeague(league);
+					leagueRepository.save(league);
+					entityManager.flush();
+					entityManager.clear();
+					creation.step();
+				}
+				return shell;
+			});
+			creation.phase = Phase.COMPLETED;
+			logger.info("Created server {} with {} leagues in {} ms", serverName, leagues.size(), creation.elapsedMs());
+			return saved;
+		} catch (RuntimeException e) {
+			creation.phase = Phase.FAILED;
+			creation.error = e.getMessage();
+			throw e;
+		} finally {
+			creation.finishedAt = System.currentTimeMillis();
+		}
+	}
+
+	/** How far the creation of the server got on this node, null if none was started here. */
+	public ServerCreationProgress creationProgress(String serverName) {
+		ServerCreation creation = creations.get(serverName);
+		return creation != null ? creation.progress() : null;
 	}
 	
 	@Transactional
@@ -88,6 +149,8 @@ public class ServerService {
 				.collect(Collectors.groupingBy(m -> m.getRound().getSeason()));
 
 		List<League> leaguesWithoutMatches = new ArrayList<>();
+		Map<League, List<Match>> leaguesWithMatches = new LinkedHashMap<>();
+		List<Match> scheduledMatches = new ArrayList<>();
 
 		for (League league : leagues) {
 			Season season = league.getCurrentSeason();
@@ -97,24 +160,30 @@ public class ServerService {
 				leaguesWithoutMatches.add(league);
 			} else {
 				matches.sort((m1, m2) -> m1.getDate().compareTo(m2.getDate()));
+				leaguesWithMatches.put(league, matches);
+				matches.stream()
+						.filter(match -> match.getStatus() == MatchStatus.SCHEDULED)
+						.forEach(scheduledMatches::add);
+			}
+		}
 
-				for (Match match : matches) {
-					if (match.getStatus() == MatchStatus.SCHEDULED) {
-						simulationMatchService.simulate(match);
-					}
-				}
-				Match match =  matches.get(matches.size() -1);
-				if(match.getLast()) {
-					league.getCurrentSeason().setNextRoundNumber(match.getRound().getNumber() + 1);
-					seasonRepository.save(league.getCurrentSeason());
-					if(match.getRound().getLast()){
-						league.addSeasonHistory(league.getCurrentSeason());
-						league.setCurrentSeason(seasonService.create(league, LocalDateTime.now().plusMinutes(10)));
-						leagueService.save(league);
-					}
+		// The leagues of a round share no clubs, so the whole round is simulated as one batch
+		if (!scheduledMatches.isEmpty()) {
+			simulationMatchService.simulate(scheduledMatches);
+		}
+
+		leaguesWithMatches.forEach((league, matches) -> {
+			Match match =  matches.get(matches.size() -1);
+			if(match.getLast()) {
+				league.getCurrentSeason().setNextRoundNumber(match.getRound().getNumber() + 1);
+				seasonRepository.save(league.getCurrentSeason());
+				if(match.getRound().getLast()){
+					league.addSeasonHistory(league.getCurrentSeason());
+					league.setCurrentSeason(seasonService.create(league, LocalDateTime.now().plusMinutes(10)));
+					leagueService.save(league);
 				}
 			}
-		}
+		});
 
 		if(!leaguesWithoutMatches.isEmpty()) {
 			List<Club> clubs = clubRepository.findAllByLeagueInWithTeam(leaguesWithoutMatches);
@@ -218,4 +287,57 @@ public class ServerService {
 	public void deleteAll(){
 		serverRepository.deleteAll();
 	}
+
+	/** A server being created: three steps per league, generated, scheduled and saved. */
+	private static class ServerCreation {
+
+		private static final long RETENTION_MS = 3_600_000;
+
+		private final String serverName;
+		private final int leagues;
+		private final LocalDateTime startedAt = LocalDateTime.now();
+		private final long started = System.currentTimeMillis();
+		private final AtomicInteger steps = new AtomicInteger();
+		private volatile Phase phase = Phase.GENERATING;
+		private volatile String error;
+		private volatile Long finishedAt;
+
+		ServerCreation(String serverName, int leagues) {
+			this.serverName = serverName;
+			this.leagues = leagues;
+		}
+
+		void step() {
+			steps.incrementAndGet();
+		}
+
+		long elapsedMs() {
+			return (finishedAt != null ? finishedAt : System.currentTimeMillis()) - started;
+		}
+
+		boolean isExpired() {
+			return finishedAt != null && System.currentTimeMillis() - finishedAt > RETENTION_MS;
+		}
+
+		ServerCreationProgress progress() {
+			int done = steps.get();
+			int total = leagues * 3;
+			long elapsed = elapsedMs();
+			Long remaining = null;
+			if (finishedAt == null && done > 0) {
+				remaining = elapsed * (total - done) / done;
+			}
+			return ServerCreationProgress.builder()
+					.serverName(serverName)
+					.phase(phase)
+					.leagues(leagues)
+					.stepsDone(done)
+					.stepsTotal(total)
+					.startedAt(startedAt)
+					.elapsedMs(elapsed)
+					.remainingMs(remaining)
+					.error(error)
+					.build();
+		}
+	}
 }
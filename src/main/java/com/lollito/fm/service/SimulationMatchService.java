@@ -2,18 +2,29 @@ package com.lollito.fm.service;
 
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.EnumMap;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import com.lollito.fm.engine.FormationSnapshot;
+import com.lollito.fm.engine.MatchEngine;
+import com.lollito.fm.engine.MatchRandom;
+import com.lollito.fm.engine.MatchReplay;
+import com.lollito.fm.engine.MatchSimulation;
+import com.lollito.fm.event.MatchFinishedEvent;
+import com.lollito.fm.event.PlayerChangedEvent;
+import com.lollito.fm.model.Club;
 import com.lollito.fm.model.Event;
 import com.lollito.fm.model.EventHistory;
 import com.lollito.fm.model.Formation;
@@ -23,18 +34,17 @@ import com.lollito.fm.model.Match;
 import com.lollito.fm.model.MatchPlayerStats;
 import com.lollito.fm.model.MatchStatus;
 import com.lollito.fm.model.ManagerPerk;
-import com.lollito.fm.model.Module;
 import com.lollito.fm.model.Player;
-import com.lollito.fm.model.PlayerRole;
-import com.lollito.fm.model.PlayerPosition;
-import com.lollito.fm.model.SubstitutionStrategy;
-import com.lollito.fm.model.Stats;
+import com.lollito.fm.model.User;
 import com.lollito.fm.model.dto.MatchResult;
 import com.lollito.fm.repository.rest.MatchRepository;
 import com.lollito.fm.repository.rest.ModuleRepository;
 import com.lollito.fm.repository.rest.PlayerRepository;
 import com.lollito.fm.utils.RandomUtils;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Service
 public class SimulationMatchService {
 	
@@ -49,22 +59,52 @@ public class SimulationMatchService {
 	@Autowired PlayerRepository playerRepository;
 	@Autowired PlayerHistoryService playerHistoryService;
 	@Autowired InjuryService injuryService;
-	@Autowired AchievementService achievementService;
 	@Autowired ManagerProgressionService managerProgressionService;
 	@Autowired StaffService staffService;
+	@Autowired ApplicationEventPublisher eventPublisher;
+	@Autowired ForkJoinPool simulationPool;
+	@Autowired MeterRegistry meterRegistry;
 	
+	/**
+	 * Simulates a batch of matches and persists the outcome in one go.
+	 *
+	 * Matches are grouped into waves in which every club plays at most once, so
+	 * the matches of a wave share no players and their engine runs can execute
+	 * in parallel on the simulation pool. Preparation and completion stay on the
+	 * calling thread because they go through the persistence context; waves are
+	 * processed in order, so a club playing twice in the batch sees its earlier
+	 * match completed first.
+	 */
 	public void simulate(List<Match> matches){
 		List<Player> allPlayersToSave = new ArrayList<>();
 		List<MatchPlayerStats> allMatchStats = new ArrayList<>();
-		matches.forEach(match -> {
-			simulateMatchLogic(match, null);
-			// Collect players
-			allPlayersToSave.addAll(match.getHome().getTeam().getPlayers());
-			allPlayersToSave.addAll(match.getAway().getTeam().getPlayers());
-
-			// Collect match stats for batch update
-			allMatchStats.addAll(match.getPlayerStats());
-		});
+		// Loads the perks of every manager of the round at once, prepare then reads them from memory
+		List<User> managers = matches.stream()
+				.flatMap(match -> Stream.of(match.getHome().getUser(), match.getAway().getUser()))
+				.filter(Objects::nonNull)
+				.toList();
+		if (!managers.isEmpty()) {
+			managerProgressionService.getPerks(managers);
+		}
+		for (List<Match> wave : waves(matches)) {
+			List<MatchSimulation> simulations = new ArrayList<>(wave.size());
+			wave.forEach(match -> simulations.add(prepare(match)));
+			if (simulations.size() == 1) {
+				run(simulations.get(0));
+			} else {
+				simulationPool.submit(() -> simulations.parallelStream().forEach(this::run)).join();
+			}
+			simulations.forEach(simulation -> {
+				Match match = simulation.getMatch();
+				complete(simulation, null);
+				// Collect players
+				allPlayersToSave.addAll(match.getHome().getTeam().getPlayers());
+				allPlayersToSave.addAll(match.getAway().getTeam().getPlayers());
+
+				// Collect match stats for batch update
+				allMatchStats.addAll(match.getPlayerStats());
+			});
+		}
 
 		playerService.saveAll(allPlayersToSave);
 
@@ -74,7 +114,28 @@ public class SimulationMatchService {
 		matchRepository.saveAll(matches);
 		rankingService.updateAll(matches);
 
-		matches.forEach(match -> achievementService.checkMatchAchievements(match));
+		matches.forEach(match -> eventPublisher.publishEvent(new MatchFinishedEvent(this, match)));
+		publishPlayersChanged(allMatchStats);
+		meterRegistry.counter("fm.match.simulated", "mode", "round").increment(matches.size());
+	}
+
+	/**
+	 * Splits the matches into waves in which no club appears twice, keeping the
+	 * relative order of the matches of each club.
+	 */
+	List<List<Match>> waves(List<Match> matches) {
+		List<List<Match>> waves = new ArrayList<>();
+		Map<Club, Integer> nextWave = new IdentityHashMap<>();
+		for (Match match : matches) {
+			int wave = Math.max(nextWave.getOrDefault(match.getHome(), 0), nextWave.getOrDefault(match.getAway(), 0));
+			if (wave == waves.size()) {
+				waves.add(new ArrayList<>());
+			}
+			waves.get(wave).add(match);
+			nextWave.put(match.getHome(), wave + 1);
+			nextWave.put(match.getAway(), wave + 1);
+		}
+		return waves;
 	}
 	
 	public MatchResult simulate(Match match) {
@@ -90,7 +151,9 @@ public class SimulationMatchService {
 	}
 
 	public MatchResult simulate(Match match, String forcedResult, boolean updateRanking, boolean saveMatch) {
-		simulateMatchLogic(match, forcedResult);
+		MatchSimulation simulation = prepare(match);
+		run(simulation);
+		complete(simulation, forcedResult);
 
 		// Save players
 		List<Player> players = Stream.concat(
@@ -108,7 +171,12 @@ public class SimulationMatchService {
 			rankingService.update(match);
 		}
 
-		achievementService.checkMatchAchievements(match);
+		// A match simulated ahead of its live replay finishes when the replay does
+		if (saveMatch) {
+			eventPublisher.publishEvent(new MatchFinishedEvent(this, match));
+		}
+		publishPlayersChanged(match.getPlayerStats());
+		meterRegistry.counter("fm.match.simulated", "mode", "single").increment();
 
 		return MatchResult.builder()
 				.matchId(match.getId())
@@ -119,7 +187,16 @@ public class SimulationMatchService {
 				.build();
 	}
 
-	private void simulateMatchLogic(Match match, String forcedResult) {
+	public MatchResult simulateMatchWithForcedResult(Match match, String forcedResult) {
+		return simulate(match, forcedResult);
+	}
+
+	/**
+	 * Prepares a match for the engine: spectators, formations, home advantage and
+	 * staff bonuses. Lazy collections read while the engine runs are initialised
+	 * here, on the thread owning the persistence context.
+	 */
+	private MatchSimulation prepare(Match match) {
 		Integer stadiumCapacity = stadiumService.getCapacity(match.getHome().getStadium());
 		match.setSpectators(RandomUtils.randomValue(stadiumCapacity/3, stadiumCapacity));
 		
@@ -129,114 +206,6 @@ public class SimulationMatchService {
 		match.setHomeFormation(match.getHome().getTeam().getFormation().copy());
 		match.setAwayFormation(match.getAway().getTeam().getFormation().copy());
 
-		playMatch(match);
-
-		if (forcedResult != null) {
-			if ("HOME_WIN".equals(forcedResult) && match.getHomeScore() <= match.getAwayScore()) {
-				match.setHomeScore(match.getAwayScore() + 1);
-			} else if ("AWAY_WIN".equals(forcedResult) && match.getAwayScore() <= match.getHomeScore()) {
-				match.setAwayScore(match.getHomeScore() + 1);
-			} else if ("DRAW".equals(forcedResult) && !match.getHomeScore().equals(match.getAwayScore())) {
-				match.setAwayScore(match.getHomeScore());
-			}
-		}
-
-		updateMorale(match);
-
-		match.setFinish(true);
-		match.setStatus(MatchStatus.COMPLETED);
-	}
-
-	public MatchResult simulateMatchWithForcedResult(Match match, String forcedResult) {
-		return simulate(match, forcedResult);
-	}
-	
-	/**
-	 * Simulates the match logic step-by-step.
-	 *
-	 * The algorithm follows these phases:
-	 * 1. Initialization: Determine number of actions (15-25) and initial possession.
-	 * 2. Action Loop: Iterate through each action to determine the outcome.
-	 *    - Substitutions: Check for random substitutions at intervals.
-	 *    - Possession Phase: The team with the ball attempts to build up play.
-	 *    - Midfield Battle: Determine if the attack advances based on team stats + luck.
-	 *      - Base probability to advance is increased to reduce stalemate (draws).
-	 *    - Finishing Phase: If the attack reaches the final third, a shot is taken.
-	 *      - Scoring probability is weighed by Scorer vs Goalkeeper stats.
-	 *      - Probabilities adjusted to favour goals slightly more.
-	 *    - Defensive Phase: If the attack fails, the defense might tackle or commit a foul.
-	 * 3. Condition Update: Decrease player condition based on stamina.
-	 *    - Formula updated to be less punishing: Base decay + Stamina factor.
-	 * 4. Injury Check: Check for injuries after the match intensity.
-	 *
-	 * @param match The match to simulate.
-	 * @return An array containing [homeScore, awayScore].
-	 */
-	private int[] playMatch(Match match){
-//		Let's say you have an "action" every 5 minutes of the game, so 90/5 = 18 actions. To make it more realistic you can choose random number like:
-		// INCREASED ACTIONS (15-25) to allow more scoring opportunities and reduce 0-0 draws.
-		Integer numberOfActions = RandomUtils.randomValue(15,25);
-		logger.debug("numberOfActions {}", numberOfActions);
-		
-		Integer homeScore = 0;
-		Integer awayScore = 0;
-		
-		int coin = RandomUtils.randomValue(0, 1);
-		Formation homeFormation = match.getHome().getTeam().getFormation();
-		Formation awayFormation = match.getAway().getTeam().getFormation();
-		List<EventHistory> events = new ArrayList<>();
-		Stats stats = new Stats();
-		List<Player> cautionedPlayers = new ArrayList<>();
-
-		Map<Player, MatchPlayerStats> allPlayerStats = new HashMap<>();
-		for (int i = 0; i < homeFormation.getPlayers().size(); i++) {
-			Player p = homeFormation.getPlayers().get(i);
-			MatchPlayerStats mps = new MatchPlayerStats();
-			mps.setMatch(match);
-			mps.setPlayer(p);
-			mps.setPosition(getPositionLabel(homeFormation.getModule(), i));
-			mps.setStarted(true);
-			mps.setMinutesPlayed(90);
-			allPlayerStats.put(p, mps);
-		}
-		for (int i = 0; i < awayFormation.getPlayers().size(); i++) {
-			Player p = awayFormation.getPlayers().get(i);
-			MatchPlayerStats mps = new MatchPlayerStats();
-			mps.setMatch(match);
-			mps.setPlayer(p);
-			mps.setPosition(getPositionLabel(awayFormation.getModule(), i));
-			mps.setStarted(true);
-			mps.setMinutesPlayed(90);
-			allPlayerStats.put(p, mps);
-		}
-
-		if (coin == 0){
-			homeFormation.setHaveBall(true);
-			events.add(new EventHistory(String.format(Event.HAVE_BALL.getMessage(), match.getHome().getName()) , 0));
-			//logger.debug("home have ball");
-		} else {
-			awayFormation.setHaveBall(true);
-			events.add(new EventHistory(String.format(Event.HAVE_BALL.getMessage(), match.getAway().getName()) , 0));
-			//logger.debug("away have ball");
-		}
-		
-		PlayerPosition playerPosition = PlayerPosition.MIDFIELD;
-		EnumMap<PlayerPosition, List<Player>> homePlayers = new EnumMap<>(PlayerPosition.class);
-		EnumMap<PlayerPosition, List<Player>> awayPlayers = new EnumMap<>(PlayerPosition.class);
-		homePlayers.put(PlayerPosition.DEFENCE, formationService.getDefender(homeFormation));
-		homePlayers.put(PlayerPosition.MIDFIELD, formationService.getMiedfileder(homeFormation));
-		homePlayers.put(PlayerPosition.OFFENCE, formationService.getOffender(homeFormation));
-		
-		awayPlayers.put(PlayerPosition.DEFENCE, formationService.getDefender(awayFormation));
-		awayPlayers.put(PlayerPosition.MIDFIELD, formationService.getMiedfileder(awayFormation));
-		awayPlayers.put(PlayerPosition.OFFENCE, formationService.getOffender(awayFormation));
-		
-		Map<PlayerPosition, PlayerPosition> inversePosition = new HashMap<>();
-		inversePosition.put(PlayerPosition.DEFENCE, PlayerPosition.OFFENCE);
-		inversePosition.put(PlayerPosition.MIDFIELD, PlayerPosition.MIDFIELD);
-		inversePosition.put(PlayerPosition.OFFENCE, PlayerPosition.DEFENCE);
-
-		Integer stadiumCapacity = stadiumService.getCapacity(match.getHome().getStadium());
 		double occupancy = (double) match.getSpectators() / stadiumCapacity;
 		int homeAdvantage = (int) (occupancy * 10);
 
@@ -246,385 +215,6 @@ public class SimulationMatchService {
 			}
 		}
 
-		int luckHome = 20 + homeAdvantage;
-		int luckAway = 20;
-		int homePosession = 0;
-		for (int actionNumber = 1; actionNumber <= numberOfActions; actionNumber++) {
-			int minute = (90 * actionNumber) / numberOfActions;
-			homePosession = homeFormation.getHaveBall() ? homePosession + 1 : homePosession;
-
-			if (actionNumber % 6 == 0 && RandomUtils.randomPercentage(20)) {
-				performSubstitution(homeFormation, match, events, minute, allPlayerStats, true);
-			}
-			if (actionNumber % 7 == 0 && RandomUtils.randomPercentage(20)) {
-				performSubstitution(awayFormation, match, events, minute, allPlayerStats, false);
-			}
-
-			if(homeFormation.getHaveBall()){
-				stats.setHomePasses(stats.getHomePasses() + 1);
-				Player passer = RandomUtils.randomValueFromList(homeFormation.getPlayers());
-				trackAction(passer, allPlayerStats, ActionType.PASS);
-				if (RandomUtils.randomPercentage(75)) {
-					stats.setHomeCompletedPasses(stats.getHomeCompletedPasses() + 1);
-					trackAction(passer, allPlayerStats, ActionType.COMPLETED_PASS);
-				}
-
-				int luck = RandomUtils.randomValue(0, luckHome);
-				if(luck > (luckHome/2)){
-					luckHome-=RandomUtils.randomValue(0, 3);
-					if(luckHome < 0){
-						luckHome = 10;
-					}
-				} else{
-					luckHome+=RandomUtils.randomValue(0, 3);
-				}
-				logger.debug("luck home {}", luck);
-				List<Player> hPlayers = homePlayers.get(playerPosition);
-				List<Player> aPlayers = awayPlayers.get(inversePosition.get(playerPosition));
-				int averageDiff = (playerService.getOffenceAverage(hPlayers) + (hPlayers == null ? 0 : hPlayers.size())) - (playerService.getDefenceAverage(aPlayers) + (aPlayers == null ? 0 : aPlayers.size()));
-				logger.debug("home average diff {}", averageDiff);
-
-				// IMPROVED ADVANCEMENT CHANCE: 65% (was 60) and 45% (was 40) base chance.
-				if((averageDiff > 0 && RandomUtils.randomPercentage(65 + averageDiff + luck)) || (averageDiff <= 0 && RandomUtils.randomPercentage(45 + averageDiff + luck))) {
-					if(playerPosition.getvalue() < PlayerPosition.values().length -1   ){
-						playerPosition = PlayerPosition.valueOf(playerPosition.getvalue() + 1);
-						logger.debug("home ball -> {}", playerPosition.getvalue());
-					}else {
-							      
-						
-						Player scorer = RandomUtils.randomValueFromList(homePlayers.get(playerPosition));
-						trackAction(scorer, allPlayerStats, ActionType.SHOT);
-						
-						Integer goalKeeping = awayFormation.getGoalKeeper().getGoalkeepingAverage();
-						
-						if(scorer.getScoringAverage()  >= goalKeeping) {
-							Integer diff = scorer.getScoringAverage() - goalKeeping;
-							logger.debug("diff > {}", diff);
-							// IMPROVED SCORING CHANCE: 65% (was 60) base chance if Scorer is better.
-							if(RandomUtils.randomPercentage(65 + (diff / 2))) {
-								homeScore++;
-								trackAction(scorer, allPlayerStats, ActionType.GOAL);
-								trackAction(scorer, allPlayerStats, ActionType.SHOT_ON_TARGET);
-								trackGoalConceded(awayFormation.getGoalKeeper(), allPlayerStats);
-								playerPosition = PlayerPosition.MIDFIELD;
-								homeFormation.setHaveBall(false);
-								awayFormation.setHaveBall(true);
-								stats.addHomeShot();
-								stats.addHomeOnTarget();
-								events.add(new EventHistory(String.format(Event.HAVE_SCORED.getMessage(), scorer.getSurname()) , minute, Event.HAVE_SCORED, homeScore, awayScore));
-								logger.debug("home gol");
-							} else {
-								stats.addHomeShot();
-								stats.addHomeOnTarget();
-								trackAction(scorer, allPlayerStats, ActionType.SHOT_ON_TARGET);
-								trackSave(awayFormation.getGoalKeeper(), allPlayerStats);
-								events.add(new EventHistory(String.format(Event.HAVE_CORNER.getMessage(), match.getHome().getName()) , minute, Event.HAVE_CORNER));
-								logger.debug("home corner");
-							}
-						} else {
-							Integer diff = goalKeeping - scorer.getScoringAverage();
-							logger.debug("diff < {}", diff);
-							// DECREASED MISS CHANCE: 55% (was 60) base chance to miss if GK is better.
-							if(RandomUtils.randomPercentage(55 + (diff / 2))) {
-								homeFormation.setHaveBall(false);
-								awayFormation.setHaveBall(true);
-								playerPosition = inversePosition.get(playerPosition);
-								stats.addHomeShot();
-								events.add(new EventHistory(String.format(Event.SHOT_AND_MISSED.getMessage(), scorer.getSurname()) , minute, Event.SHOT_AND_MISSED));
-								logger.debug("shot missed");
-							} else {
-								homeScore++;
-								trackAction(scorer, allPlayerStats, ActionType.GOAL);
-								trackAction(scorer, allPlayerStats, ActionType.SHOT_ON_TARGET);
-								trackGoalConceded(awayFormation.getGoalKeeper(), allPlayerStats);
-								playerPosition = PlayerPosition.MIDFIELD;
-								homeFormation.setHaveBall(false);
-								awayFormation.setHaveBall(true);
-								stats.addHomeShot();
-								stats.addHomeOnTarget();
-								events.add(new EventHistory(String.format(Event.HAVE_SCORED.getMessage(), scorer.getSurname()) , minute, Event.HAVE_SCORED, homeScore, awayScore));
-								logger.debug("home gol");
-							}
-						}
-						
-					}
-				}else {
-					Player tackler = RandomUtils.randomValueFromList(awayPlayers.get(inversePosition.get(playerPosition)));
-					stats.setAwayTackles(stats.getAwayTackles() + 1);
-					trackAction(tackler, allPlayerStats, ActionType.TACKLE);
-
-					if((averageDiff > 0 && RandomUtils.randomPercentage(40)) || averageDiff <= 0 && RandomUtils.randomPercentage(20)) {
-						Player badPlayer = RandomUtils.randomValueFromList(awayPlayers.get(playerPosition));
-						stats.addAwayFoul();
-						events.add(new EventHistory(String.format(Event.COMMITS_FAUL.getMessage(), badPlayer.getName()) , minute, Event.COMMITS_FAUL));
-						if(RandomUtils.randomPercentage(100 - badPlayer.getDefending())) {
-							stats.addAwayYellowCard();
-							trackAction(badPlayer, allPlayerStats, ActionType.YELLOW_CARD);
-							if(cautionedPlayers.contains(badPlayer)) {
-								for (PlayerPosition pps : PlayerPosition.values()) {
-									awayPlayers.get(pps).remove(badPlayer);
-								}
-								trackAction(badPlayer, allPlayerStats, ActionType.RED_CARD);
-								events.add(new EventHistory(String.format(Event.RED_CARD.getMessage(), badPlayer.getName()) , minute, Event.RED_CARD));
-							} else {
-								cautionedPlayers.add(badPlayer);
-								events.add(new EventHistory(String.format(Event.YELLOW_CARD.getMessage(), badPlayer.getName()) , minute, Event.YELLOW_CARD));
-							}
-							
-						}
-						logger.debug("away commits faul {}" , playerPosition);
-						if(playerPosition.getvalue() == PlayerPosition.values().length -1 ) {
-							Player scorer = homePlayers.get(playerPosition).stream().max(Comparator.comparing(Player::getPiecesAverage)).get();
-							trackAction(scorer, allPlayerStats, ActionType.SHOT);
-
-							Integer goalKeeping = awayFormation.getGoalKeeper().getGoalkeepingAverage();
-							
-							if(scorer.getPiecesAverage()  >= goalKeeping) {
-								Integer diff = scorer.getScoringAverage() - goalKeeping;
-								logger.debug("diff > {}", diff);
-								if(RandomUtils.randomPercentage(40 + (diff / 2))) {
-									homeScore++;
-									trackAction(scorer, allPlayerStats, ActionType.GOAL);
-									trackAction(scorer, allPlayerStats, ActionType.SHOT_ON_TARGET);
-									trackGoalConceded(awayFormation.getGoalKeeper(), allPlayerStats);
-									playerPosition = PlayerPosition.MIDFIELD;
-									homeFormation.setHaveBall(false);
-									awayFormation.setHaveBall(true);
-									stats.addHomeShot();
-									stats.addHomeOnTarget();
-									events.add(new EventHistory(String.format(Event.HAVE_SCORED_FREE_KICK.getMessage(), scorer.getSurname()) , minute, Event.HAVE_SCORED_FREE_KICK, homeScore, awayScore));
-									logger.debug("home gol free kick");
-								} else {
-									stats.addHomeShot();
-									stats.addHomeOnTarget();
-									trackAction(scorer, allPlayerStats, ActionType.SHOT_ON_TARGET);
-									trackSave(awayFormation.getGoalKeeper(), allPlayerStats);
-									events.add(new EventHistory(String.format(Event.HAVE_CORNER.getMessage(), match.getHome().getName()) , minute, Event.HAVE_CORNER));
-									logger.debug("home corner");
-								}
-							} else {
-								Integer diff = goalKeeping - scorer.getScoringAverage();
-								logger.debug("diff < {}", diff);
-								if(RandomUtils.randomPercentage(70 + (diff / 2))) {
-									homeFormation.setHaveBall(false);
-									awayFormation.setHaveBall(true);
-									playerPosition = inversePosition.get(playerPosition);
-									stats.addHomeShot();
-									events.add(new EventHistory(String.format(Event.SHOT_AND_MISSED.getMessage(), scorer.getSurname()) , minute, Event.SHOT_AND_MISSED));
-									logger.debug("shot missed");
-								} else {
-									homeScore++;
-									trackAction(scorer, allPlayerStats, ActionType.GOAL);
-									trackAction(scorer, allPlayerStats, ActionType.SHOT_ON_TARGET);
-									trackGoalConceded(awayFormation.getGoalKeeper(), allPlayerStats);
-									playerPosition = PlayerPosition.MIDFIELD;
-									homeFormation.setHaveBall(false);
-									awayFormation.setHaveBall(true);
-									stats.addHomeShot();
-									stats.addHomeOnTarget();
-									events.add(new EventHistory(String.format(Event.HAVE_SCORED_FREE_KICK.getMessage(), scorer.getSurname()) , minute, Event.HAVE_SCORED_FREE_KICK, homeScore, awayScore));
-									logger.debug("home gol free kick");
-								}
-							}
-						}
-					} else {
-						logger.debug("home lost ball {}" , playerPosition);
-						playerPosition = inversePosition.get(playerPosition);
-						homeFormation.setHaveBall(false);
-						awayFormation.setHaveBall(true);
-						stats.setAwayInterceptions(stats.getAwayInterceptions() + 1);
-					}
-					
-				}
-			} else {
-				stats.setAwayPasses(stats.getAwayPasses() + 1);
-				Player passer = RandomUtils.randomValueFromList(awayFormation.getPlayers());
-				trackAction(passer, allPlayerStats, ActionType.PASS);
-				if (RandomUtils.randomPercentage(75)) {
-					stats.setAwayCompletedPasses(stats.getAwayCompletedPasses() + 1);
-					trackAction(passer, allPlayerStats, ActionType.COMPLETED_PASS);
-				}
-
-				int luck = RandomUtils.randomValue(0, luckAway);
-				if(luck > (luckAway/2)){
-					luckAway-=RandomUtils.randomValue(0, 3);
-					if(luckAway < 0){
-						luckAway = 8;
-					}
-				} else{
-					luckAway+=RandomUtils.randomValue(0, 3);
-				}
-				logger.debug("luck away {}", luck);
-				List<Player> aPlayers = awayPlayers.get(playerPosition);
-				List<Player> hPlayers = homePlayers.get(inversePosition.get(playerPosition));
-				int averageDiff = (playerService.getOffenceAverage(aPlayers) + (aPlayers == null ? 0 : aPlayers.size())) - (playerService.getDefenceAverage(hPlayers) + (hPlayers == null ? 0 : hPlayers.size()));
-				logger.debug("away averageDiff {}", averageDiff);
-
-				// IMPROVED ADVANCEMENT CHANCE
-				if((averageDiff > 0 && RandomUtils.randomPercentage(65 + averageDiff + luck)) || (averageDiff <= 0 && RandomUtils.randomPercentage(45 + averageDiff + luck))) {
-					if(playerPosition.getvalue() < PlayerPosition.values().length -1   ){
-						playerPosition = PlayerPosition.valueOf(playerPosition.getvalue() + 1);
-						logger.debug("away ball -> {}", playerPosition.getvalue());
-					}else {
-						Player scorer = RandomUtils.randomValueFromList(awayPlayers.get(playerPosition));
-						trackAction(scorer, allPlayerStats, ActionType.SHOT);
-						
-						Integer goalKeeping = homeFormation.getGoalKeeper().getGoalkeepingAverage();
-						
-						if(scorer.getScoringAverage()  >= goalKeeping) {
-							Integer diff = scorer.getScoringAverage() - goalKeeping;
-							logger.debug("diff > {}", diff);
-							// IMPROVED SCORING CHANCE
-							if(RandomUtils.randomPercentage(65 + (diff / 2))) {
-								awayScore++;
-								trackAction(scorer, allPlayerStats, ActionType.GOAL);
-								trackAction(scorer, allPlayerStats, ActionType.SHOT_ON_TARGET);
-								trackGoalConceded(homeFormation.getGoalKeeper(), allPlayerStats);
-								playerPosition = PlayerPosition.MIDFIELD;
-								homeFormation.setHaveBall(true);
-								awayFormation.setHaveBall(false);
-								stats.addAwayShot();
-								stats.addAwayOnTarget();
-								events.add(new EventHistory(String.format(Event.HAVE_SCORED.getMessage(),scorer.getSurname()) , minute, Event.HAVE_SCORED, homeScore, awayScore));
-								logger.debug("away gol");
-							} else {
-								stats.addAwayShot();
-								stats.addAwayOnTarget();
-								trackAction(scorer, allPlayerStats, ActionType.SHOT_ON_TARGET);
-								trackSave(homeFormation.getGoalKeeper(), allPlayerStats);
-								events.add(new EventHistory(String.format(Event.HAVE_CORNER.getMessage(), match.getHome().getName()) , minute, Event.HAVE_CORNER));
-								logger.debug("home corner");
-							}
-						} else {
-							Integer diff = goalKeeping - scorer.getScoringAverage();
-							logger.debug("diff < {}", diff);
-							// DECREASED MISS CHANCE
-							if(RandomUtils.randomPercentage(55 + (diff / 2))) {
-								homeFormation.setHaveBall(true);
-								awayFormation.setHaveBall(false);
-								playerPosition = inversePosition.get(playerPosition);
-								stats.addAwayShot();
-								events.add(new EventHistory(String.format(Event.SHOT_AND_MISSED.getMessage(), scorer.getSurname()) , minute, Event.SHOT_AND_MISSED));
-								logger.debug("shot missed");
-							} else {
-								awayScore++;
-								trackAction(scorer, allPlayerStats, ActionType.GOAL);
-								trackAction(scorer, allPlayerStats, ActionType.SHOT_ON_TARGET);
-								trackGoalConceded(homeFormation.getGoalKeeper(), allPlayerStats);
-								playerPosition = PlayerPosition.MIDFIELD;
-								homeFormation.setHaveBall(true);
-								awayFormation.setHaveBall(false);
-								stats.addAwayShot();
-								stats.addAwayOnTarget();
-								events.add(new EventHistory(String.format(Event.HAVE_SCORED.getMessage(),scorer.getSurname()) , minute, Event.HAVE_SCORED, homeScore, awayScore));
-								logger.debug("away gol");
-							}
-						}
-						
-					}
-				}else{
-					Player tackler = RandomUtils.randomValueFromList(homePlayers.get(inversePosition.get(playerPosition)));
-					stats.setHomeTackles(stats.getHomeTackles() + 1);
-					trackAction(tackler, allPlayerStats, ActionType.TACKLE);
-
-					if((averageDiff > 0 && RandomUtils.randomPercentage(40)) || averageDiff <= 0 && RandomUtils.randomPercentage(20)) {
-						Player badPlayer = RandomUtils.randomValueFromList(homePlayers.get(playerPosition));
-						stats.addHomeFoul();
-						events.add(new EventHistory(String.format(Event.COMMITS_FAUL.getMessage(), badPlayer.getName()) , minute, Event.COMMITS_FAUL));
-						if(RandomUtils.randomPercentage(100 - badPlayer.getDefending())) {
-							stats.addHomeYellowCard();
-							trackAction(badPlayer, allPlayerStats, ActionType.YELLOW_CARD);
-							if(cautionedPlayers.contains(badPlayer)) {
-								for (PlayerPosition pps : PlayerPosition.values()) {
-									homePlayers.get(pps).remove(badPlayer);
-								}
-								trackAction(badPlayer, allPlayerStats, ActionType.RED_CARD);
-								events.add(new EventHistory(String.format(Event.RED_CARD.getMessage(), badPlayer.getName()) , minute, Event.RED_CARD));
-							} else {
-								cautionedPlayers.add(badPlayer);
-								events.add(new EventHistory(String.format(Event.YELLOW_CARD.getMessage(), badPlayer.getName()) , minute, Event.YELLOW_CARD));
-							}
-						}
-						logger.debug("home commits faul {}" , playerPosition);
-						if(playerPosition.getvalue() == PlayerPosition.values().length -1 ) {
-							Player scorer = awayPlayers.get(playerPosition).stream().max(Comparator.comparing(Player::getPiecesAverage)).get();
-							trackAction(scorer, allPlayerStats, ActionType.SHOT);
-
-							Integer goalKeeping = homeFormation.getGoalKeeper().getGoalkeepingAverage();
-							
-							if(scorer.getPiecesAverage()  >= goalKeeping) {
-								Integer diff = scorer.getScoringAverage() - goalKeeping;
-								logger.debug("diff > {}", diff);
-								if(RandomUtils.randomPercentage(40 + (diff / 2))) {
-									awayScore++;
-									trackAction(scorer, allPlayerStats, ActionType.GOAL);
-									trackAction(scorer, allPlayerStats, ActionType.SHOT_ON_TARGET);
-									trackGoalConceded(homeFormation.getGoalKeeper(), allPlayerStats);
-									playerPosition = PlayerPosition.MIDFIELD;
-									homeFormation.setHaveBall(true);
-									awayFormation.setHaveBall(false);
-									stats.addAwayShot();
-									stats.addAwayOnTarget();
-									events.add(new EventHistory(String.format(Event.HAVE_SCORED_FREE_KICK.getMessage(), scorer.getSurname()) , minute, Event.HAVE_SCORED_FREE_KICK, homeScore, awayScore));
-									logger.debug("away gol free kick");
-								} else {
-									stats.addAwayShot();
-									stats.addAwayOnTarget();
-									trackAction(scorer, allPlayerStats, ActionType.SHOT_ON_TARGET);
-									trackSave(homeFormation.getGoalKeeper(), allPlayerStats);
-									events.add(new EventHistory(String.format(Event.HAVE_CORNER.getMessage(), match.getHome().getName()) , minute, Event.HAVE_CORNER));
-									logger.debug("home corner");
-								}
-							} else {
-								Integer diff = goalKeeping - scorer.getScoringAverage();
-								logger.debug("diff < {}", diff);
-								if(RandomUtils.randomPercentage(70 + (diff / 2))) {
-									homeFormation.setHaveBall(false);
-									awayFormation.setHaveBall(true);
-									playerPosition = inversePosition.get(playerPosition);
-									stats.addAwayShot();
-									events.add(new EventHistory(String.format(Event.SHOT_AND_MISSED.getMessage(), scorer.getSurname()) , minute, Event.SHOT_AND_MISSED));
-									logger.debug("shot missed");
-								} else {
-									awayScore++;
-									trackAction(scorer, allPlayerStats, ActionType.GOAL);
-									trackAction(scorer, allPlayerStats, ActionType.SHOT_ON_TARGET);
-									trackGoalConceded(homeFormation.getGoalKeeper(), allPlayerStats);
-									playerPosition = PlayerPosition.MIDFIELD;
-									homeFormation.setHaveBall(true);
-									awayFormation.setHaveBall(false);
-									stats.addAwayShot();
-									stats.addAwayOnTarget();
-									events.add(new EventHistory(String.format(Event.HAVE_SCORED_FREE_KICK.getMessage(), scorer.getSurname()) , minute, Event.HAVE_SCORED_FREE_KICK, homeScore, awayScore));
-									logger.debug("away gol free kick");
-								}
-							}
-						}
-					} else {
-						logger.debug("away lost ball {}" , playerPosition);
-						playerPosition = inversePosition.get(playerPosition);
-						homeFormation.setHaveBall(true);
-						awayFormation.setHaveBall(false);
-						stats.setHomeInterceptions(stats.getHomeInterceptions() + 1);
-					}
-				}
-			}
-
-			// NEW CONDITION DECAY LOGIC
-			// Adjusted formula to be less aggressive.
-			// Old: 5 - (5 * stamina/100) -> linear 0 to 5 drop per action.
-			// New: 0.5 + (1.5 * (100-stamina)/100) -> 0.5 to 2.0 drop per action.
-			for(Player player : homeFormation.getPlayers()) {
-			double d = 0.5 + (1.5 * (100 - player.getStamina()) / 100.0);
-	        	player.decrementCondition(d);
-	        }
-			for(Player player : awayFormation.getPlayers()) {
-				double d = 0.5 + (1.5 * (100 - player.getStamina()) / 100.0);
-	        	player.decrementCondition(d);
-	        }
-		}
-		double matchIntensity = 1.0;
-
 		Double homeInjuryBonus = 0.0;
 		if (match.getHome() != null) {
 			Double bonus = staffService.calculateClubStaffBonuses(match.getHome()).getInjuryPreventionBonus();
@@ -637,229 +227,115 @@ public class SimulationMatchService {
 			if (bonus != null) awayInjuryBonus = bonus;
 		}
 
-		for (Player player : homeFormation.getPlayers()) {
-			if (injuryService.checkForInjury(player, matchIntensity, homeInjuryBonus)) {
-				Injury injury = injuryService.createInjury(player, InjuryContext.MATCH);
-				int injuryMinute = RandomUtils.randomValue(1, 90);
-				events.add(new EventHistory(String.format(Event.INJURY.getMessage(), player.getSurname(), injury.getDescription()), injuryMinute, Event.INJURY));
-			}
-		}
-
-		for (Player player : awayFormation.getPlayers()) {
-			if (injuryService.checkForInjury(player, matchIntensity, awayInjuryBonus)) {
-				Injury injury = injuryService.createInjury(player, InjuryContext.MATCH);
-				int injuryMinute = RandomUtils.randomValue(1, 90);
-				events.add(new EventHistory(String.format(Event.INJURY.getMessage(), player.getSurname(), injury.getDescription()), injuryMinute, Event.INJURY));
-			}
-		}
-		events.sort(Comparator.comparingInt(EventHistory::getMinute));
-
-		int homePosessionPerc = (homePosession * 100) / numberOfActions;
-		stats.setHomePossession(homePosessionPerc);
-		stats.setAwayPossession(100 - homePosessionPerc);
-		
-		logger.debug("homePosessionPerc {}", homePosessionPerc);
-		
-		match.setStats(stats);
-		match.addEvents(events);
-		match.setHomeScore(homeScore);
-		match.setAwayScore(awayScore);
-
-		allPlayerStats.values().forEach(mps -> {
-			double rating = 6.0;
-			rating += mps.getGoals() * 1.5;
-			rating += mps.getAssists() * 1.0;
-			rating += (mps.getShotsOnTarget() / 5.0);
-			rating += (mps.getCompletedPasses() / 20.0);
-			rating += (mps.getTackles() / 10.0);
-			rating -= mps.getYellowCards() * 0.5;
-			rating -= mps.getRedCards() * 2.0;
-			if (rating > 10.0) rating = 10.0;
-			if (rating < 1.0) rating = 1.0;
-			mps.setRating(rating);
-		});
-
-		MatchPlayerStats mvp = allPlayerStats.values().stream()
-				.max(Comparator.comparing(MatchPlayerStats::getRating))
-				.orElse(null);
-		if (mvp != null) mvp.setMvp(true);
-
-		match.setPlayerStats(new ArrayList<>(allPlayerStats.values()));
-		
-		logger.debug("{} vs {}", homeScore, awayScore);
-		return new int[]{homeScore, awayScore};
-	}
-
-	private void trackAction(Player player, Map<Player, MatchPlayerStats> allPlayerStats, ActionType actionType) {
-		MatchPlayerStats mps = allPlayerStats.get(player);
-		if (mps == null) return;
-		switch (actionType) {
-			case SHOT: mps.setShots(mps.getShots() + 1); break;
-			case SHOT_ON_TARGET: mps.setShotsOnTarget(mps.getShotsOnTarget() + 1); break;
-			case GOAL: mps.setGoals(mps.getGoals() + 1); break;
-			case PASS: mps.setPasses(mps.getPasses() + 1); break;
-			case COMPLETED_PASS: mps.setCompletedPasses(mps.getCompletedPasses() + 1); break;
-			case TACKLE: mps.setTackles(mps.getTackles() + 1); break;
-			case YELLOW_CARD: mps.setYellowCards(mps.getYellowCards() + 1); break;
-			case RED_CARD: mps.setRedCards(mps.getRedCards() + 1); break;
-		}
-	}
-
-	private void trackSave(Player gk, Map<Player, MatchPlayerStats> allPlayerStats) {
-		if (gk == null) return;
-		MatchPlayerStats mps = allPlayerStats.get(gk);
-		if (mps != null) {
-			mps.setSaves(mps.getSaves() + 1);
-		}
-	}
-
-	private void trackGoalConceded(Player gk, Map<Player, MatchPlayerStats> allPlayerStats) {
-		if (gk == null) return;
-		MatchPlayerStats mps = allPlayerStats.get(gk);
-		if (mps != null) {
-			mps.setGoalsConceded(mps.getGoalsConceded() + 1);
+		if (match.getSeed() == null) {
+			match.setSeed(MatchRandom.newSeed());
 		}
+		Formation homeFormation = match.getHome().getTeam().getFormation();
+		Formation awayFormation = match.getAway().getTeam().getFormation();
+		FormationSnapshot home = snapshot(homeFormation);
+		FormationSnapshot away = snapshot(awayFormation);
+		match.setReplay(new MatchReplay(match.getSeed(), homeAdvantage, home.capture(), away.capture()));
+		MatchEngine engine = MatchEngine.seeded(home, away, homeAdvantage, match.getSeed());
+		logger.debug("numberOfActions {}", engine.getNumberOfActions());
+
+		homeFormation.setHaveBall(engine.isHomeKickOff());
+		awayFormation.setHaveBall(!engine.isHomeKickOff());
+
+		initializeInjuries(homeFormation);
+		initializeInjuries(awayFormation);
+		return new MatchSimulation(match, homeFormation, awayFormation, engine, homeInjuryBonus, awayInjuryBonus);
 	}
 
-	private void performSubstitution(Formation formation, Match match, List<EventHistory> events, int minute, Map<Player, MatchPlayerStats> allPlayerStats, boolean isHome) {
-		if (formation.getSubstitutes() == null || formation.getSubstitutes().isEmpty()) {
-			return;
-		}
-
-		SubstitutionStrategy strategy = formation.getSubstitutionStrategy();
-		if (strategy == null) strategy = SubstitutionStrategy.AUTO;
-
-		// Identify candidate OUT
-		Player candidateOut = null;
-		double maxScore = -1.0;
-
-		int homeScore = match.getHomeScore();
-		int awayScore = match.getAwayScore();
-		boolean isWinning = isHome ? homeScore > awayScore : awayScore > homeScore;
-		boolean isLosing = isHome ? homeScore < awayScore : awayScore < homeScore;
-		int scoreDiff = Math.abs(homeScore - awayScore);
-		boolean comfortableWin = isWinning && scoreDiff >= 2;
-
-		for (Player p : formation.getPlayers()) {
-			if (p.getRole() == PlayerRole.GOALKEEPER) continue;
-
-			MatchPlayerStats stats = allPlayerStats.get(p);
-			if (stats == null) continue;
-
-			double score = 0.0;
-
-			// Fatigue
-			if (p.getCondition() != null) {
-				score += (100.0 - p.getCondition()) * 1.5;
-			}
-
-			// Rating
-			if (stats.getRating() != null) {
-				score += (10.0 - stats.getRating()) * 10.0;
-			}
-
-			// Yellow Card Risk
-			if (stats.getYellowCards() > 0) {
-				if (comfortableWin) {
-					score += 50.0;
-				} else if (strategy == SubstitutionStrategy.AGGRESSIVE || strategy == SubstitutionStrategy.DEFENSIVE) {
-					score += 20.0;
-				}
-			}
+	/**
+	 * Simulates the match logic step-by-step.
+	 *
+	 * Both formations have been snapshotted into a {@link MatchEngine}, which runs
+	 * the 15-25 action loop on primitive arrays (see {@link MatchEngine#play()}).
+	 * Once the loop is over the kernel writes condition and substitutions back to
+	 * the players and the injury check runs on the final lineups. Only the
+	 * players of the two clubs are touched, so matches without common clubs can
+	 * run concurrently.
+	 */
+	private void run(MatchSimulation simulation) {
+		Timer.Sample sample = Timer.start(meterRegistry);
+		MatchEngine engine = simulation.getEngine();
+		engine.play();
+		engine.writeBack();
 
-			// Tactics
-			if (isLosing) {
-				if (strategy == SubstitutionStrategy.AGGRESSIVE || strategy == SubstitutionStrategy.AUTO) {
-					if (p.getRole() == PlayerRole.DEFENDER || p.getRole() == PlayerRole.WINGBACK) {
-						score += 15.0;
-					}
-				}
-			} else if (isWinning) {
-				if (strategy == SubstitutionStrategy.DEFENSIVE || strategy == SubstitutionStrategy.AUTO) {
-					if (p.getRole() == PlayerRole.FORWARD || p.getRole() == PlayerRole.WING) {
-						score += 15.0;
-					}
-				}
+		double matchIntensity = 1.0;
+		for (Player player : simulation.getHomeFormation().getPlayers()) {
+			if (injuryService.checkForInjury(player, matchIntensity, simulation.getHomeInjuryBonus())) {
+				simulation.getInjuredPlayers().add(player);
 			}
-
-			if (score > maxScore) {
-				maxScore = score;
-				candidateOut = p;
+		}
+		for (Player player : simulation.getAwayFormation().getPlayers()) {
+			if (injuryService.checkForInjury(player, matchIntensity, simulation.getAwayInjuryBonus())) {
+				simulation.getInjuredPlayers().add(player);
 			}
 		}
+		sample.stop(meterRegistry.timer("fm.match.simulation"));
+	}
 
-		if (candidateOut == null) {
-			// Fallback: random if no clear candidate found (unlikely given score logic)
-			candidateOut = RandomUtils.randomValueFromList(formation.getPlayers());
+	/**
+	 * Materialises the engine outcome on the match: injuries, events, statistics
+	 * and score, then applies the forced result and the morale changes.
+	 */
+	private void complete(MatchSimulation simulation, String forcedResult) {
+		Match match = simulation.getMatch();
+		MatchEngine engine = simulation.getEngine();
+
+		List<EventHistory> events = engine.events(match);
+		for (Player player : simulation.getInjuredPlayers()) {
+			Injury injury = injuryService.createInjury(player, InjuryContext.MATCH);
+			int injuryMinute = RandomUtils.randomValue(1, 90);
+			String event = String.format(Event.INJURY.getMessage(), player.getSurname(), injury.getDescription());
+			events.add(new EventHistory(event, injuryMinute, Event.INJURY));
+			match.getReplay().getInjuries().add(new MatchReplay.Injury(injuryMinute, event));
 		}
+		events.sort(Comparator.comparingInt(EventHistory::getMinute));
 
-		// Identify candidate IN
-		Player candidateIn = null;
-		List<Player> availableSubs = new ArrayList<>(formation.getSubstitutes());
+		int homeScore = engine.getHomeScore();
+		int awayScore = engine.getAwayScore();
+		match.setStats(engine.stats());
+		match.addEvents(events);
+		match.setHomeScore(homeScore);
+		match.setAwayScore(awayScore);
+		match.setPlayerStats(engine.playerStats(match));
+		logger.debug("{} vs {}", homeScore, awayScore);
 
-		if (isLosing && (strategy == SubstitutionStrategy.AGGRESSIVE || strategy == SubstitutionStrategy.AUTO)) {
-			if (candidateOut.getRole() == PlayerRole.DEFENDER || candidateOut.getRole() == PlayerRole.WINGBACK) {
-				candidateIn = findBestSubForRole(availableSubs, PlayerRole.FORWARD);
-				if (candidateIn == null) candidateIn = findBestSubForRole(availableSubs, PlayerRole.WING);
-			}
-		} else if (isWinning && (strategy == SubstitutionStrategy.DEFENSIVE || strategy == SubstitutionStrategy.AUTO)) {
-			if (candidateOut.getRole() == PlayerRole.FORWARD || candidateOut.getRole() == PlayerRole.WING) {
-				candidateIn = findBestSubForRole(availableSubs, PlayerRole.DEFENDER);
-				if (candidateIn == null) candidateIn = findBestSubForRole(availableSubs, PlayerRole.WINGBACK);
+		if (forcedResult != null) {
+			if ("HOME_WIN".equals(forcedResult) && match.getHomeScore() <= match.getAwayScore()) {
+				match.setHomeScore(match.getAwayScore() + 1);
+			} else if ("AWAY_WIN".equals(forcedResult) && match.getAwayScore() <= match.getHomeScore()) {
+				match.setAwayScore(match.getHomeScore() + 1);
+			} else if ("DRAW".equals(forcedResult) && !match.getHomeScore().equals(match.getAwayScore())) {
+				match.setAwayScore(match.getHomeScore());
 			}
 		}
 
-		if (candidateIn == null) {
-			candidateIn = findBestSubForRole(availableSubs, candidateOut.getRole());
-		}
-
-		if (candidateIn == null && !availableSubs.isEmpty()) {
-			candidateIn = availableSubs.get(0);
-		}
-
-		if (candidateIn != null) {
-			formation.getSubstitutes().remove(candidateIn);
-			int idx = formation.getPlayers().indexOf(candidateOut);
-			if (idx != -1) {
-				formation.getPlayers().set(idx, candidateIn);
-
-				MatchPlayerStats mpsIn = new MatchPlayerStats();
-				mpsIn.setMatch(match);
-				mpsIn.setPlayer(candidateIn);
-				mpsIn.setStarted(false);
-				mpsIn.setMinutesPlayed(90 - minute);
-
-				MatchPlayerStats mpsOut = allPlayerStats.get(candidateOut);
-				if (mpsOut != null) {
-					mpsIn.setPosition(mpsOut.getPosition());
-					mpsOut.setMinutesPlayed(minute);
-				}
-				allPlayerStats.put(candidateIn, mpsIn);
+		updateMorale(match);
 
-				events.add(new EventHistory(String.format(Event.SUBSTITUTION.getMessage(), candidateIn.getSurname(), candidateOut.getSurname()), minute, Event.SUBSTITUTION));
-				logger.debug("{} Substitution: {} for {} (Strategy: {})", isHome ? "Home" : "Away", candidateIn.getSurname(), candidateOut.getSurname(), strategy);
-			}
-		}
+		match.setFinish(true);
+		match.setStatus(MatchStatus.COMPLETED);
 	}
 
-	private Player findBestSubForRole(List<Player> subs, PlayerRole role) {
-		return subs.stream()
-				.filter(p -> p.getRole() == role)
-				.max(Comparator.comparing(Player::getAverage))
-				.orElse(null);
+	private void publishPlayersChanged(List<MatchPlayerStats> matchStats) {
+		List<Long> playerIds = matchStats.stream().map(stats -> stats.getPlayer().getId()).distinct().toList();
+		eventPublisher.publishEvent(new PlayerChangedEvent(this, playerIds, PlayerChangedEvent.Change.MATCH));
 	}
 
-	private String getPositionLabel(Module module, int index) {
-		if (index == 0) return "GK";
-		if (index <= module.getCd()) return "CD";
-		if (index <= module.getCd() + module.getWb()) return "WB";
-		if (index <= module.getCd() + module.getWb() + module.getMf()) return "MF";
-		if (index <= module.getCd() + module.getWb() + module.getMf() + module.getWng()) return "WNG";
-		return "FW";
+	private void initializeInjuries(Formation formation) {
+		formation.getPlayers().forEach(player -> Hibernate.initialize(player.getInjuries()));
+		if (formation.getSubstitutes() != null) {
+			formation.getSubstitutes().forEach(player -> Hibernate.initialize(player.getInjuries()));
+		}
 	}
 
-	private enum ActionType {
-		SHOT, SHOT_ON_TARGET, GOAL, PASS, COMPLETED_PASS, TACKLE, YELLOW_CARD, RED_CARD
+	private FormationSnapshot snapshot(Formation formation) {
+		return FormationSnapshot.of(formation,
+				formationService.getDefender(formation),
+				formationService.getMiedfileder(formation),
+				formationService.getOffender(formation));
 	}
 
 	private void updateMorale(Match match) {
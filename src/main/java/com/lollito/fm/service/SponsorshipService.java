@@ -1,6 +1,7 @@
 package com.lollito.fm.service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -8,6 +9,7 @@ import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -76,6 +78,12 @@ public class SponsorshipService {
     @Autowired
     private SeasonService seasonService;
 
+    @Autowired
+    private BatchJobRunner batchJobRunner;
+
+    @Value("${fm.scheduling.sponsorship.fixed-rate}")
+    private Duration paymentsPeriod;
+
     /**
      * Generate sponsorship offers for a club based on performance and reputation
      */
@@ -372,38 +380,54 @@ public class SponsorshipService {
      * Process monthly sponsorship payments
      */
     @Scheduled(initialDelayString = "${fm.scheduling.sponsorship.initial-delay}", fixedRateString = "${fm.scheduling.sponsorship.fixed-rate}")
-    @Transactional
     public void processMonthlyPayments() {
-        log.info("Starting processMonthlyPayments...");
         LocalDate today = LocalDate.now();
 
-        // Get all pending payments due today or overdue
-        List<SponsorshipPayment> duePayments = sponsorshipPaymentRepository
-            .findByStatusAndDueDateLessThanEqual(PaymentStatus.PENDING, today);
-
-        for (SponsorshipPayment payment : duePayments) {
-            processPayment(payment);
-        }
+        // Pending payments due today or overdue
+        batchJobRunner.run(BatchJob.<SponsorshipPayment>builder()
+                .name("sponsorship-payments")
+                .type(SponsorshipPayment.class)
+                .period(paymentsPeriod)
+                .filter((root, query, cb) -> cb.and(
+                        cb.equal(root.get("status"), PaymentStatus.PENDING),
+                        cb.lessThanOrEqualTo(root.get("dueDate"), today)))
+                .fetch("sponsorshipDeal.club")
+                .processor(payments -> payments.forEach(this::processPayment))
+                .partitionKey("sponsorshipDeal.club.id")
+                .build());
 
         // Mark overdue payments
-        List<SponsorshipPayment> overduePayments = sponsorshipPaymentRepository
-            .findByStatusAndDueDateLessThan(PaymentStatus.PENDING, today.minusDays(7));
+        batchJobRunner.run(BatchJob.<SponsorshipPayment>builder()
+                .name("sponsorship-overdue")
+                .type(SponsorshipPayment.class)
+                .period(paymentsPeriod)
+                .filter((root, query, cb) -> cb.and(
+                        cb.equal(root.get("status"), PaymentStatus.PENDING),
+                        cb.lessThan(root.get("dueDate"), today.minusDays(7))))
+                .processor(this::markOverdue)
+                .partitionKey("sponsorshipDeal.club.id")
+                .build());
+
+        // Generate next month payments for active deals
+        batchJobRunner.run(BatchJob.<SponsorshipDeal>builder()
+                .name("sponsorship-next-payments")
+                .type(SponsorshipDeal.class)
+                .period(paymentsPeriod)
+                .filter((root, query, cb) -> cb.equal(root.get("status"), SponsorshipStatus.ACTIVE))
+                .processor(this::generateNextMonthPayments)
+                .partitionKey("club.id")
+                .build());
+    }
 
+    void markOverdue(List<SponsorshipPayment> overduePayments) {
         for (SponsorshipPayment payment : overduePayments) {
             payment.setStatus(PaymentStatus.OVERDUE);
             sponsorshipPaymentRepository.save(payment);
         }
-
-        // Generate next month payments for active deals
-        generateNextMonthPayments();
-        log.info("Finished processMonthlyPayments.");
     }
 
-    private void generateNextMonthPayments() {
-        List<SponsorshipDeal> activeDeals = sponsorshipDealRepository.findAll().stream()
-                .filter(d -> d.getStatus() == SponsorshipStatus.ACTIVE)
-                .collect(Collectors.toList());
-
+    void generateNextMonthPayments(List<SponsorshipDeal> activeDeals) {
+        Season currentSeason = seasonService.getCurrentSeason();
         for (SponsorshipDeal deal : activeDeals) {
              BigDecimal amount = deal.getCurrentAnnualValue().divide(BigDecimal.valueOf(12), 2, java.math.RoundingMode.HALF_UP);
              SponsorshipPayment payment = SponsorshipPayment.builder()
@@ -413,7 +437,7 @@ public class SponsorshipService {
                 .dueDate(LocalDate.now().plusMonths(1).withDayOfMonth(1))
                 .status(PaymentStatus.PENDING)
                 .description("Monthly Payment")
-                .season(seasonService.getCurrentSeason())
+                .season(currentSeason)
                 .build();
              sponsorshipPaymentRepository.save(payment);
         }
@@ -2,12 +2,14 @@ package com.lollito.fm.service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -50,6 +52,12 @@ public class StaffService {
     @Autowired
     private CountryService countryService;
 
+    @Autowired
+    private BatchJobRunner batchJobRunner;
+
+    @Value("${fm.scheduling.staff.fixed-rate}")
+    private Duration staffPeriod;
+
     public List<Staff> generateAvailableStaff(StaffRole role, int count) {
         List<Staff> availableStaff = new ArrayList<>();
         List<Country> countries = countryService.findAll();
@@ -319,11 +327,19 @@ public class StaffService {
     }
 
     @Scheduled(initialDelayString = "${fm.scheduling.staff.initial-delay}", fixedRateString = "${fm.scheduling.staff.fixed-rate}")
-    @Transactional
     public void processMonthlyStaffSalaries() {
-        log.info("Starting processMonthlyStaffSalaries...");
-        List<Staff> activeStaff = staffRepository.findByStatus(StaffStatus.ACTIVE);
+        batchJobRunner.run(BatchJob.<Staff>builder()
+                .name("staff-salaries")
+                .type(Staff.class)
+                .period(staffPeriod)
+                .filter((root, query, cb) -> cb.equal(root.get("status"), StaffStatus.ACTIVE))
+                .fetch("club.finance")
+                .processor(this::processMonthlyStaffSalaries)
+                .partitionKey("club.id")
+                .build());
+    }
 
+    void processMonthlyStaffSalaries(List<Staff> activeStaff) {
         for (Staff staff : activeStaff) {
             if (staff.getClub() != null) {
                 Club club = staff.getClub();
@@ -336,7 +352,6 @@ public class StaffService {
                 }
             }
         }
-        log.info("Finished processMonthlyStaffSalaries.");
     }
 
     @Transactional
@@ -0,0 +1,262 @@
+package com.lollito.fm.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.lollito.fm.mapper.ClubMapper;
+import com.lollito.fm.metrics.CacheStats;
+import com.lollito.fm.metrics.MeteredCache;
+import com.lollito.fm.model.Match;
+import com.lollito.fm.model.Ranking;
+import com.lollito.fm.model.Season;
+import com.lollito.fm.model.dto.ClubDTO;
+import com.lollito.fm.model.dto.RankingDTO;
+import com.lollito.fm.repository.rest.RankingRepository;
+
+/**
+ * The standings of each season, kept in memory.
+ *
+ * A table is read from the ranking rows of its season on first use and then
+ * follows the results committed by {@link RankingService}; the counters are
+ * plain int arrays, one slot per club, and the order is kept sorted by
+ * points, goal difference, goals scored and club id as results come in.
+ *
+ * A table loaded while a result was being committed may or may not hold it,
+ * so it is dropped and read again rather than updated. Tables are also read
+ * again after {@code fm.standings.max-age-seconds}, so a node catches up with
+ * results committed by the other nodes and with clubs changing hands.
+ */
+@Component
+public class StandingsEngine implements MeteredCache {
+
+    @Autowired
+    private RankingRepository rankingRepository;
+
+    @Autowired
+    private ClubMapper clubMapper;
+
+    @Value("${fm.standings.max-age-seconds:300}")
+    private Long maxAgeSeconds;
+
+    private final Map<Long, Table> tables = new ConcurrentHashMap<>();
+
+    private final CacheStats cacheStats = new CacheStats("standings", tables::size);
+
+    /** The table of the season, read from the ranking rows if not in memory. */
+    public Table table(Season season) {
+        tables.values().removeIf(Table::isExpired);
+        Table table = tables.get(season.getId());
+        if (table != null) {
+            cacheStats.hit();
+            return table;
+        }
+        return tables.computeIfAbsent(season.getId(), id -> {
+            cacheStats.miss();
+            return load(season);
+        });
+    }
+
+    @Override
+    public CacheStats getCacheStats() {
+        return cacheStats;
+    }
+
+    /** The standings of the season in table order. */
+    public List<RankingDTO> standings(Season season) {
+        return table(season).standings();
+    }
+
+    /**
+     * Applies the results to the table of the season once the transaction
+     * writing the ranking rows commits, right away without a transaction.
+     */
+    public void record(Season season, List<Match> matches) {
+        long recordedAt = System.nanoTime();
+        List<long[]> results = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            results.add(new long[] { match.getHome().getId(), match.getAway().getId(), match.getHomeScore(), match.getAwayScore() });
+        }
+        Runnable apply = () -> {
+            Table table = tables.get(season.getId());
+            if (table == null) {
+                return;
+            }
+            if (table.loadedAt > recordedAt) {
+                tables.remove(season.getId(), table);
+                return;
+            }
+            for (long[] result : results) {
+                table.apply(result[0], result[1], (int) result[2], (int) result[3]);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private Table load(Season season) {
+        List<Ranking> rankings = new ArrayList<>(rankingRepository.findBySeason(season));
+        rankings.sort(Comparator.comparing(ranking -> ranking.getClub().getId()));
+        Table table = new Table(rankings.size());
+        for (int row = 0; row < rankings.size(); row++) {
+            Ranking ranking = rankings.get(row);
+            table.clubIds[row] = ranking.getClub().getId();
+            table.rankingIds[row] = ranking.getId();
+            table.clubs[row] = clubMapper.toDto(ranking.getClub());
+            table.played[row] = ranking.getPlayed();
+            table.won[row] = ranking.getWon();
+            table.drawn[row] = ranking.getDrawn();
+            table.lost[row] = ranking.getLost();
+            table.points[row] = ranking.getPoints();
+            table.goalsFor[row] = ranking.getGoalsFor();
+            table.goalsAgainst[row] = ranking.getGoalAgainst();
+        }
+        table.sort();
+        // Taken after reading the rows: a result recorded earlier is not in them
+        table.loadedAt = System.nanoTime();
+        return table;
+    }
+
+    /** One season: rows sorted by club id, {@code order} holds the rows by position. */
+    public class Table {
+
+        private final long[] clubIds;
+        private final Long[] rankingIds;
+        private final ClubDTO[] clubs;
+        private final int[] played;
+        private final int[] won;
+        private final int[] drawn;
+        private final int[] lost;
+        private final int[] points;
+        private final int[] goalsFor;
+        private final int[] goalsAgainst;
+        private final int[] order;
+        private volatile long loadedAt;
+
+        Table(int size) {
+            clubIds = new long[size];
+            rankingIds = new Long[size];
+            clubs = new ClubDTO[size];
+            played = new int[size];
+            won = new int[size];
+            drawn = new int[size];
+            lost = new int[size];
+            points = new int[size];
+            goalsFor = new int[size];
+            goalsAgainst = new int[size];
+            order = new int[size];
+        }
+
+        /** The id of the ranking row of the club, null for a club not in the season. */
+        public Long rankingId(long clubId) {
+            int row = Arrays.binarySearch(clubIds, clubId);
+            return row >= 0 ? rankingIds[row] : null;
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - loadedAt > maxAgeSeconds * 1_000_000_000L;
+        }
+
+        synchronized void apply(long homeClubId, long awayClubId, int homeScore, int awayScore) {
+            result(Arrays.binarySearch(clubIds, homeClubId), homeScore, awayScore);
+            result(Arrays.binarySearch(clubIds, awayClubId), awayScore, homeScore);
+        }
+
+        private void result(int row, int scored, int conceded) {
+            if (row < 0) {
+                return;
+            }
+            played[row]++;
+            goalsFor[row] += scored;
+            goalsAgainst[row] += conceded;
+            if (scored > conceded) {
+                won[row]++;
+                points[row] += 3;
+            } else if (scored < conceded) {
+                lost[row]++;
+            } else {
+                drawn[row]++;
+                points[row] += 1;
+            }
+            reposition(row);
+        }
+
+        /** Moves a changed row to its place; the rest of the order is still sorted. */
+        private void reposition(int row) {
+            int position = 0;
+            while (order[position] != row) {
+                position++;
+            }
+            while (position > 0 && compare(row, order[position - 1]) < 0) {
+                order[position] = order[position - 1];
+                position--;
+            }
+            while (position < order.length - 1 && compare(row, order[position + 1]) > 0) {
+                order[position] = order[position + 1];
+                position++;
+            }
+            order[position] = row;
+        }
+
+        private void sort() {
+            Integer[] rows = new Integer[order.length];
+            for (int row = 0; row < rows.length; row++) {
+                rows[row] = row;
+            }
+            Arrays.sort(rows, this::compare);
+            for (int position = 0; position < rows.length; position++) {
+                order[position] = rows[position];
+            }
+        }
+
+        /** Points, goal difference and goals scored descending, then club id. */
+        private int compare(int a, int b) {
+            if (points[a] != points[b]) {
+                return Integer.compare(points[b], points[a]);
+            }
+            int difference = Integer.compare(goalsFor[b] - goalsAgainst[b], goalsFor[a] - goalsAgainst[a]);
+            if (difference != 0) {
+                return difference;
+            }
+            if (goalsFor[a] != goalsFor[b]) {
+                return Integer.compare(goalsFor[b], goalsFor[a]);
+            }
+            return Long.compare(clubIds[a], clubIds[b]);
+        }
+
+        synchronized List<RankingDTO> standings() {
+            List<RankingDTO> standings = new ArrayList<>(order.length);
+            for (int row : order) {
+                standings.add(RankingDTO.builder()
+                        .id(rankingIds[row])
+                        .club(clubs[row])
+                        .played(played[row])
+                        .points(points[row])
+                        .won(won[row])
+                        .drawn(drawn[row])
+                        .lost(lost[row])
+                        .goalsFor(goalsFor[row])
+                        .goalAgainst(goalsAgainst[row])
+                        .build());
+            }
+            return standings;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.lollito.fm.service;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.slf4j.Logger;
@@ -32,11 +31,8 @@ public class TeamService {
 		int wng = 4;
 		int fw = 4;
 		
-		List<String> names = new ArrayList<>();
-		List<String> surnames = new ArrayList<>();
-		
-		names = nameService.getNames();
-		surnames = nameService.getSurnames();
+		List<String> names = nameService.getNames();
+		List<String> surnames = nameService.getSurnames();
 		
 		Team team = new Team();
 		for (int i = 0; i < gk; i++) {
@@ -1,5 +1,6 @@
 package com.lollito.fm.service;
 
+import java.time.Duration;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -9,6 +10,7 @@ import java.util.Optional;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -69,6 +71,12 @@ public class TrainingService {
     @Autowired
     private ClubRepository clubRepository;
 
+    @Autowired
+    private BatchJobRunner batchJobRunner;
+
+    @Value("${fm.scheduling.training.fixed-rate}")
+    private Duration trainingPeriod;
+
     @Autowired
     private ApplicationEventPublisher eventPublisher;
     private ManagerProgressionService managerProgressionService;
@@ -78,9 +86,17 @@ public class TrainingService {
      */
     @Scheduled(initialDelayString = "${fm.scheduling.training.initial-delay}", fixedRateString = "${fm.scheduling.training.fixed-rate}")
     public void processDailyTraining() {
-        log.info("Starting daily training processing");
-        List<TrainingPlan> activePlans = trainingPlanRepository.findAll();
+        batchJobRunner.run(BatchJob.<TrainingPlan>builder()
+                .name("daily-training")
+                .type(TrainingPlan.class)
+                .period(trainingPeriod)
+                .fetch("team")
+                .processor(this::processDailyTraining)
+                .partitionKey("team.id")
+                .build());
+    }
 
+    void processDailyTraining(List<TrainingPlan> activePlans) {
         for (TrainingPlan plan : activePlans) {
             try {
                 if (shouldTrainToday(plan)) {
@@ -93,7 +109,6 @@ public class TrainingService {
                 log.error("Error processing training for team {}", plan.getTeam().getId(), e);
             }
         }
-        log.info("Completed daily training processing");
     }
 
     private TrainingFocus getTodaysFocus(TrainingPlan plan) {
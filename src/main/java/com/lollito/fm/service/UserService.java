@@ -9,6 +9,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import com.lollito.fm.model.Club;
 import com.lollito.fm.model.News;
@@ -26,6 +28,8 @@ public class UserService {
 	
 	private final Logger logger = LoggerFactory.getLogger(this.getClass());
 	
+	private static final String LOGGED_USER_ATTRIBUTE = UserService.class.getName() + ".loggedUser";
+	
 	@Autowired UserRepository userRepository;
 	@Autowired ClubService clubService;
 	@Autowired NewsService newsService;
@@ -99,6 +103,11 @@ public class UserService {
 		return userRepository.existsByEmail(email);
 	}
 	
+	/**
+	 * The user of the current authentication. Within a web request it is
+	 * loaded once and kept as a request attribute, so the services called by
+	 * a controller share it instead of querying it again each time.
+	 */
 	public User getLoggedUser ( ) {
     	Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
     	String username = null;
@@ -107,7 +116,16 @@ public class UserService {
 		} else {
 			username =  principal.toString();
 		}
-    	return getUser( username );
+    	RequestAttributes request = RequestContextHolder.getRequestAttributes();
+    	if (request == null) {
+    		return getUser( username );
+    	}
+    	User user = (User) request.getAttribute(LOGGED_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    	if (user == null || !username.equals(user.getUsername())) {
+    		user = getUser( username );
+    		request.setAttribute(LOGGED_USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+    	}
+    	return user;
     }
 	
     public User getUser(String username) {
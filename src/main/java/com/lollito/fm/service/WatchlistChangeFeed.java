@@ -0,0 +1,55 @@
+package com.lollito.fm.service;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.lollito.fm.event.PlayerChangedEvent.Change;
+
+/**
+ * Players changed since the last watchlist update, with what changed.
+ *
+ * Changes are keyed by player, so a player watched by many clubs or changed
+ * several times between two updates is processed once.
+ */
+@Component
+public class WatchlistChangeFeed {
+
+    private final Map<Long, Set<Change>> pending = new ConcurrentHashMap<>();
+
+    public void record(Collection<Long> playerIds, Change change) {
+        for (Long playerId : playerIds) {
+            if (playerId != null) {
+                pending.merge(playerId, EnumSet.of(change), (current, added) -> {
+                    EnumSet<Change> merged = EnumSet.copyOf(current);
+                    merged.addAll(added);
+                    return merged;
+                });
+            }
+        }
+    }
+
+    /**
+     * Takes the pending changes. A change recorded while draining is either
+     * returned now or left for the next drain, never lost.
+     */
+    public Map<Long, Set<Change>> drain() {
+        Map<Long, Set<Change>> changes = new HashMap<>();
+        for (Long playerId : pending.keySet()) {
+            Set<Change> playerChanges = pending.remove(playerId);
+            if (playerChanges != null) {
+                changes.put(playerId, playerChanges);
+            }
+        }
+        return changes;
+    }
+
+    public int size() {
+        return pending.size();
+    }
+}
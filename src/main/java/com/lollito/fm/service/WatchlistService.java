@@ -3,8 +3,13 @@ package com.lollito.fm.service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +26,7 @@ import com.lollito.fm.dto.WatchlistEntryDTO;
 import com.lollito.fm.dto.WatchlistNotificationDTO;
 import com.lollito.fm.dto.WatchlistStatsDTO;
 import com.lollito.fm.dto.WatchlistUpdateDTO;
+import com.lollito.fm.event.PlayerChangedEvent.Change;
 import com.lollito.fm.model.Club;
 import com.lollito.fm.model.Match;
 import com.lollito.fm.model.MatchPlayerStats;
@@ -67,12 +73,23 @@ public class WatchlistService {
     @Autowired
     private MatchPlayerStatsRepository matchPlayerStatsRepository;
 
+    @Autowired
+    private WatchlistChangeFeed watchlistChangeFeed;
+
+    @Autowired
+    private BatchJobRunner batchJobRunner;
+
     @Value("${fm.watchlist.max-entries.default:50}")
     private Integer defaultMaxEntries;
 
     @Value("${fm.watchlist.value-change.threshold:0.05}")
     private Double valueChangeThreshold;
 
+    @Value("${fm.watchlist.update.batch-size:1000}")
+    private Integer updateBatchSize;
+
+    private final AtomicBoolean caughtUp = new AtomicBoolean();
+
     /**
      * Get or create watchlist for club
      */
@@ -186,33 +203,75 @@ public class WatchlistService {
     }
 
     /**
-     * Process daily watchlist updates
+     * Process daily watchlist updates.
+     *
+     * Only the entries of players changed since the last run are processed, as
+     * recorded by the {@link WatchlistChangeFeed}; the first run after startup
+     * processes every active entry as a batch job, since changes made while
+     * the application was down were not recorded.
      */
     @Scheduled(initialDelayString = "${fm.scheduling.watchlist.initial-delay}", fixedRateString = "${fm.scheduling.watchlist.fixed-rate}")
     public void processDailyWatchlistUpdates() {
         log.info("Starting processDailyWatchlistUpdates...");
-        List<WatchlistEntry> allEntries = watchlistEntryRepository.findAllActive();
-
-        for (WatchlistEntry entry : allEntries) {
-            processWatchlistEntryUpdates(entry);
+        Map<Long, Set<Change>> changes = watchlistChangeFeed.drain();
+        if (caughtUp.compareAndSet(false, true)) {
+            batchJobRunner.run(BatchJob.<WatchlistEntry>builder()
+                    .name("watchlist-catch-up")
+                    .type(WatchlistEntry.class)
+                    .filter((root, query, cb) -> cb.isTrue(root.get("watchlist").get("isActive")))
+                    .fetch("player")
+                    .processor(entries -> processPlayerUpdates(entries, null))
+                    .partitionKey("player.id")
+                    .build());
+        } else if (!changes.isEmpty()) {
+            List<Long> playerIds = new ArrayList<>(changes.keySet());
+            for (int from = 0; from < playerIds.size(); from += updateBatchSize) {
+                List<Long> batch = playerIds.subList(from, Math.min(from + updateBatchSize, playerIds.size()));
+                processPlayerUpdates(watchlistEntryRepository.findAllActiveByPlayerIdIn(batch), changes);
+            }
         }
-        log.info("Finished processDailyWatchlistUpdates.");
+        log.info("Finished processDailyWatchlistUpdates: {} players changed.", changes.size());
     }
 
     /**
-     * Process updates for a single watchlist entry
+     * Processes the entries grouped by player, so value, rating and recent
+     * performances are computed once for all the clubs watching the player.
+     *
+     * @param changes what changed for each player, or null if unknown
      */
-    private void processWatchlistEntryUpdates(WatchlistEntry entry) {
-        Player player = entry.getPlayer();
+    private void processPlayerUpdates(List<WatchlistEntry> entries, Map<Long, Set<Change>> changes) {
+        Map<Long, List<WatchlistEntry>> entriesByPlayer = entries.stream()
+            .collect(Collectors.groupingBy(entry -> entry.getPlayer().getId(), LinkedHashMap::new, Collectors.toList()));
+
+        entriesByPlayer.forEach((playerId, playerEntries) -> {
+            Player player = playerEntries.get(0).getPlayer();
+            BigDecimal currentValue = calculatePlayerValue(player);
+            Double currentRating = calculatePlayerRating(player);
+
+            List<MatchPlayerStats> recentStats = List.of();
+            boolean played = changes == null || changes.getOrDefault(playerId, Set.of()).contains(Change.MATCH);
+            if (played && playerEntries.stream().anyMatch(entry -> !Boolean.FALSE.equals(entry.getNotifyOnPerformance()))) {
+                // Get recent match performances (last 7 days)
+                recentStats = matchPlayerStatsRepository.findRecentStats(playerId, LocalDateTime.now().minusDays(7));
+            }
 
+            for (WatchlistEntry entry : playerEntries) {
+                processWatchlistEntryUpdates(entry, currentValue, currentRating, recentStats);
+            }
+        });
+    }
+
+    /**
+     * Process updates for a single watchlist entry
+     */
+    private void processWatchlistEntryUpdates(WatchlistEntry entry, BigDecimal currentValue, Double currentRating,
+                                              List<MatchPlayerStats> recentStats) {
         // Check for value changes
-        BigDecimal currentValue = calculatePlayerValue(player);
         if (hasSignificantValueChange(entry.getCurrentValue(), currentValue)) {
             processValueChange(entry, currentValue);
         }
 
         // Check for rating changes
-        Double currentRating = calculatePlayerRating(player);
         if (hasSignificantRatingChange(entry.getCurrentRating(), currentRating)) {
             processRatingChange(entry, currentRating);
         }
@@ -233,7 +292,7 @@ public class WatchlistService {
         }
 
         // Check recent match performances
-        processRecentPerformances(entry);
+        processRecentPerformances(entry, recentStats);
     }
 
     /**
@@ -275,15 +334,9 @@ public class WatchlistService {
     /**
      * Process match performance notifications
      */
-    private void processRecentPerformances(WatchlistEntry entry) {
+    private void processRecentPerformances(WatchlistEntry entry, List<MatchPlayerStats> recentStats) {
         if (Boolean.FALSE.equals(entry.getNotifyOnPerformance())) return;
 
-        Player player = entry.getPlayer();
-
-        // Get recent match performances (last 7 days)
-        List<MatchPlayerStats> recentStats = matchPlayerStatsRepository
-            .findRecentStats(player.getId(), LocalDateTime.now().minusDays(7));
-
         for (MatchPlayerStats stats : recentStats) {
             // Check if we already notified about this match
             // Ideally we should track which matches we notified about,
@@ -1,6 +1,7 @@
 package com.lollito.fm.service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -39,6 +40,10 @@ public class YouthAcademyService {
     @Autowired private ContractRepository contractRepository;
     @Autowired private ClubService clubService;
     @Autowired private ManagerProgressionService managerProgressionService;
+    @Autowired private BatchJobRunner batchJobRunner;
+
+    @Value("${fm.scheduling.youth.fixed-rate}")
+    private Duration youthPeriod;
 
     @Value("${fm.youth.generation.count:3}")
     private Integer generationCount;
@@ -47,11 +52,18 @@ public class YouthAcademyService {
     private Double qualityMultiplier;
 
     @Scheduled(initialDelayString = "${fm.scheduling.youth.initial-delay}", fixedRateString = "${fm.scheduling.youth.fixed-rate}")
-    @Transactional
     public void generateYouthCandidates() {
-        log.info("Starting scheduled youth candidate generation...");
-        List<YouthAcademy> academies = youthAcademyRepository.findAll();
+        batchJobRunner.run(BatchJob.<YouthAcademy>builder()
+                .name("youth-candidates")
+                .type(YouthAcademy.class)
+                .period(youthPeriod)
+                .fetch("candidates")
+                .processor(this::generateYouthCandidates)
+                .partitionKey("id")
+                .build());
+    }
 
+    void generateYouthCandidates(List<YouthAcademy> academies) {
         for (YouthAcademy academy : academies) {
             try {
                 if (academy.getMaxYouthPlayers() != null && academy.getCandidates().size() >= academy.getMaxYouthPlayers()) {
@@ -67,7 +79,6 @@ public class YouthAcademyService {
                 log.error("Error generating candidates for academy {}", academy.getId(), e);
             }
         }
-        log.info("Completed youth candidate generation.");
     }
 
     private YouthCandidate createCandidate(YouthAcademy academy) {
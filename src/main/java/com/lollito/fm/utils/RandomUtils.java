@@ -11,19 +11,15 @@ public class RandomUtils {
 	
 	public static <T> T randomValueFromList(List<T> list){
         if (list == null || list.isEmpty()) return null;
-        return list.get(randomValue(0, list.size() - 1));
+        return list.get(ThreadLocalRandom.current().nextInt(list.size()));
 	}
 	
 	public static Double randomValue(double from, double to){
 		return ThreadLocalRandom.current().nextDouble(from, to + 1D);
 	}
 	
-	public static Boolean randomPercentage(double percent){
-	    int number = randomValue(1, 100);
-	    if (number <= percent){ // 60%
-	        return true;
-	    }
-	    return false;
+	public static boolean randomPercentage(double percent){
+		return ThreadLocalRandom.current().nextInt(1, 101) <= percent;
 	}
 
 	public static <T> T weightedRandomSelection(Map<T, Double> weights) {
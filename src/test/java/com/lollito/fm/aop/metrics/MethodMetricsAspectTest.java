@@ -0,0 +1,119 @@
+package com.lollito.fm.aop.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class MethodMetricsAspectTest {
+
+    @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Mock private ProceedingJoinPoint joinPoint;
+    @Mock private MethodSignature signature;
+
+    @InjectMocks
+    private MethodMetricsAspect aspect;
+
+    private final SampleService service = new SampleService();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        lenient().when(joinPoint.getThis()).thenReturn(service);
+        lenient().when(joinPoint.getTarget()).thenReturn(service);
+        lenient().when(joinPoint.getSignature()).thenReturn(signature);
+        lenient().when(signature.getMethod()).thenReturn(SampleService.class.getMethod("work"));
+    }
+
+    @Test
+    void aroundService_TimesTheCallWithLowCardinalityTags() throws Throwable {
+        when(joinPoint.proceed()).thenReturn("done");
+
+        assertThat(aspect.aroundService(joinPoint)).isEqualTo("done");
+        aspect.aroundService(joinPoint);
+
+        assertThat(meterRegistry.get("fm.method.duration")
+                .tags("layer", "service", "class", "SampleService", "method", "work", "exception", "none")
+                .timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void aroundService_TagsTheExceptionOfAFailedCall() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("broken"));
+
+        assertThatThrownBy(() -> aspect.aroundService(joinPoint)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get("fm.method.duration").tags("exception", "IllegalStateException").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @ExtendWith(OutputCaptureExtension.class)
+    void aroundService_LogsAFailedCallWithItsStackTraceOncePerInterval(CapturedOutput output) throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("broken"));
+
+        assertThatThrownBy(() -> aspect.aroundService(joinPoint)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> aspect.aroundService(joinPoint)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(output.getOut()).containsOnlyOnce("failed_call layer=service class=SampleService method=work")
+                .contains("java.lang.IllegalStateException: broken");
+    }
+
+    @Test
+    void aroundService_SkipsASwitchedOffPackageUntilItIsReset() throws Throwable {
+        when(joinPoint.proceed()).thenReturn("done");
+        aspect.aroundService(joinPoint);
+
+        aspect.setEnabled("com.lollito.fm.aop", false);
+        assertThat(aspect.aroundService(joinPoint)).isEqualTo("done");
+        assertThat(meterRegistry.get("fm.method.duration").timer().count()).isEqualTo(1);
+
+        aspect.reset("com.lollito.fm.aop");
+        aspect.aroundService(joinPoint);
+        assertThat(meterRegistry.get("fm.method.duration").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void isEnabled_FollowsTheMostSpecificOverride() {
+        aspect.setEnabled("com.lollito.fm", false);
+        aspect.setEnabled("com.lollito.fm.service", true);
+
+        assertThat(aspect.isEnabled("com.lollito.fm.service.MatchService")).isTrue();
+        assertThat(aspect.isEnabled("com.lollito.fm.repository.MatchRepository")).isFalse();
+        assertThat(aspect.isEnabled("org.example.Other")).isTrue();
+        assertThat(aspect.getOverrides()).containsOnlyKeys("com.lollito.fm", "com.lollito.fm.service");
+    }
+
+    @Test
+    void aroundService_CountsSlowCalls() throws Throwable {
+        ReflectionTestUtils.setField(aspect, "slowThresholdMs", 0L);
+        when(joinPoint.proceed()).thenReturn("done");
+
+        aspect.aroundService(joinPoint);
+        aspect.aroundService(joinPoint);
+
+        assertThat(meterRegistry.get("fm.method.slow").tags("class", "SampleService").counter().count()).isEqualTo(2);
+    }
+
+    static class SampleService {
+        public String work() {
+            return "done";
+        }
+    }
+}
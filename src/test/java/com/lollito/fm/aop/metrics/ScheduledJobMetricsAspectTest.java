@@ -0,0 +1,61 @@
+package com.lollito.fm.aop.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduledJobMetricsAspectTest {
+
+    @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Mock private ProceedingJoinPoint joinPoint;
+    @Mock private Signature signature;
+
+    @InjectMocks
+    private ScheduledJobMetricsAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        when(joinPoint.getTarget()).thenReturn(new SampleJob());
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.getName()).thenReturn("drain");
+    }
+
+    @Test
+    void aroundScheduled_TimesTheJobAndCountsTheItemsItReturns() throws Throwable {
+        when(joinPoint.proceed()).thenReturn(42);
+
+        assertThat(aspect.aroundScheduled(joinPoint)).isEqualTo(42);
+
+        assertThat(meterRegistry.get("fm.scheduled.duration")
+                .tags("class", "SampleJob", "method", "drain", "exception", "none").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("fm.scheduled.items").tags("class", "SampleJob").counter().count()).isEqualTo(42);
+    }
+
+    @Test
+    void aroundScheduled_TagsTheExceptionOfAFailedRun() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("broken"));
+
+        assertThatThrownBy(() -> aspect.aroundScheduled(joinPoint)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get("fm.scheduled.duration").tags("exception", "IllegalStateException").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.find("fm.scheduled.items").counter()).isNull();
+    }
+
+    static class SampleJob {
+    }
+}
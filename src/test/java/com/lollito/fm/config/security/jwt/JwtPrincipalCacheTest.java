@@ -0,0 +1,62 @@
+package com.lollito.fm.config.security.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Collections;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class JwtPrincipalCacheTest {
+
+    private JwtPrincipalCache cache;
+    private UserDetails principal = new User("testuser", "password", Collections.emptyList());
+
+    @BeforeEach
+    void setUp() {
+        cache = new JwtPrincipalCache();
+        ReflectionTestUtils.setField(cache, "ttlMs", 60000L);
+        ReflectionTestUtils.setField(cache, "maxSize", 2);
+    }
+
+    @Test
+    void get_shouldReturnPrincipal_untilEvicted() {
+        cache.put("token", principal, new Date(System.currentTimeMillis() + 60000));
+
+        assertSame(principal, cache.get("token"));
+
+        cache.evict("token");
+        assertNull(cache.get("token"));
+    }
+
+    @Test
+    void put_shouldSkipExpiredToken() {
+        cache.put("token", principal, new Date(System.currentTimeMillis() - 1000));
+
+        assertNull(cache.get("token"));
+    }
+
+    @Test
+    void get_shouldExpireAfterTtl() {
+        ReflectionTestUtils.setField(cache, "ttlMs", 0L);
+        cache.put("token", principal, null);
+
+        assertNull(cache.get("token"));
+    }
+
+    @Test
+    void put_shouldStayWithinMaxSize() {
+        cache.put("a", principal, null);
+        cache.put("b", principal, null);
+        cache.put("c", principal, null);
+
+        assertEquals(1, cache.size());
+        assertSame(principal, cache.get("c"));
+    }
+}
@@ -1,6 +1,7 @@
 package com.lollito.fm.config.security.jwt;
 
 import com.lollito.fm.model.User;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.BeforeEach;
@@ -67,4 +68,25 @@ class JwtUtilsTest {
 
         assertEquals(123L, userId);
     }
+
+    @Test
+    void parseJwtClaims_shouldReturnNull_whenSignedWithAnotherKey() {
+        SecretKey otherKey = Keys.hmacShaKeyFor("anotherSecretKeyForIntegrationTestingOnly".getBytes(StandardCharsets.UTF_8));
+        String token = Jwts.builder().subject("testuser").signWith(otherKey).compact();
+
+        assertNull(jwtUtils.parseJwtClaims(token));
+        assertFalse(jwtUtils.validateJwtToken(token));
+    }
+
+    @Test
+    void parseJwtClaims_shouldReturnSubjectAndExpiration_whenTokenIsValid() {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("testuser");
+
+        Claims claims = jwtUtils.parseJwtClaims(jwtUtils.generateJwtToken(user));
+
+        assertEquals("testuser", claims.getSubject());
+        assertNotNull(claims.getExpiration());
+    }
 }
@@ -13,6 +13,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.lollito.fm.config.security.jwt.AuthEntryPointJwt;
+import com.lollito.fm.config.security.jwt.JwtPrincipalCache;
 import com.lollito.fm.config.security.jwt.JwtUtils;
 import com.lollito.fm.dto.PlayerDTO;
 import com.lollito.fm.service.DebugToolsService;
@@ -37,6 +38,9 @@ public class DebugToolsControllerTest {
     @MockBean
     private JwtUtils jwtUtils;
 
+    @MockBean
+    private JwtPrincipalCache principalCache;
+
     @MockBean
     private UserDetailsServiceImpl userDetailsService;
 
@@ -9,6 +9,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lollito.fm.config.security.jwt.AuthEntryPointJwt;
+import com.lollito.fm.config.security.jwt.JwtPrincipalCache;
 import com.lollito.fm.config.security.jwt.JwtUtils;
 import com.lollito.fm.mapper.ClubMapper;
 import com.lollito.fm.mapper.SystemConfigurationMapper;
@@ -55,6 +56,9 @@ public class AdminControllerValidationTest {
     @MockBean
     private JwtUtils jwtUtils;
 
+    @MockBean
+    private JwtPrincipalCache principalCache;
+
     @MockBean
     private UserDetailsServiceImpl userDetailsService;
 
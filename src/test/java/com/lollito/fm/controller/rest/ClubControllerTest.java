@@ -17,6 +17,7 @@ import com.lollito.fm.service.UserService;
 import com.lollito.fm.repository.rest.CountryRepository;
 import com.lollito.fm.mapper.ClubMapper;
 import com.lollito.fm.config.security.jwt.AuthEntryPointJwt;
+import com.lollito.fm.config.security.jwt.JwtPrincipalCache;
 import com.lollito.fm.config.security.jwt.JwtUtils;
 import com.lollito.fm.service.UserDetailsServiceImpl;
 import com.lollito.fm.model.Club;
@@ -46,6 +47,9 @@ public class ClubControllerTest {
     @MockBean
     private JwtUtils jwtUtils;
 
+    @MockBean
+    private JwtPrincipalCache principalCache;
+
     @MockBean
     private UserDetailsServiceImpl userDetailsService;
 
@@ -10,6 +10,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lollito.fm.config.security.jwt.AuthEntryPointJwt;
+import com.lollito.fm.config.security.jwt.JwtPrincipalCache;
 import com.lollito.fm.config.security.jwt.JwtUtils;
 import com.lollito.fm.model.ManagerPerk;
 import com.lollito.fm.model.ManagerProfile;
@@ -47,6 +48,9 @@ public class ManagerControllerTest {
 
     @MockBean
     private JwtUtils jwtUtils;
+
+    @MockBean
+    private JwtPrincipalCache principalCache;
     @MockBean
     private AuthEntryPointJwt authEntryPointJwt;
     @MockBean
@@ -22,6 +22,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lollito.fm.config.security.jwt.AuthEntryPointJwt;
+import com.lollito.fm.config.security.jwt.JwtPrincipalCache;
 import com.lollito.fm.config.security.jwt.JwtUtils;
 import com.lollito.fm.mapper.UserMapper;
 import com.lollito.fm.model.User;
@@ -48,6 +49,9 @@ public class UserControllerTest {
     @MockBean
     private JwtUtils jwtUtils;
 
+    @MockBean
+    private JwtPrincipalCache principalCache;
+
     @MockBean
     private UserMapper userMapper;
 
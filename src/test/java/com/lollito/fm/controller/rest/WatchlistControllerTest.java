@@ -18,6 +18,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lollito.fm.config.security.jwt.AuthEntryPointJwt;
+import com.lollito.fm.config.security.jwt.JwtPrincipalCache;
 import com.lollito.fm.config.security.jwt.JwtUtils;
 import com.lollito.fm.dto.AddToWatchlistRequest;
 import com.lollito.fm.dto.WatchlistDTO;
@@ -48,6 +49,9 @@ public class WatchlistControllerTest {
     @MockBean
     private JwtUtils jwtUtils;
 
+    @MockBean
+    private JwtPrincipalCache principalCache;
+
     @MockBean
     private UserDetailsServiceImpl userDetailsService;
 
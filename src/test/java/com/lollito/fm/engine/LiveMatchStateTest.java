@@ -0,0 +1,78 @@
+package com.lollito.fm.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.lollito.fm.model.LiveMatchSession;
+import com.lollito.fm.model.dto.EventHistoryDTO;
+
+public class LiveMatchStateTest {
+
+    @Test
+    void testAdvanceReturnsEventsOfTheWindow() {
+        EventHistoryDTO kickOff = event(0, null, null);
+        EventHistoryDTO homeGoal = event(12, 1, 0);
+        EventHistoryDTO card = event(12, null, null);
+        EventHistoryDTO awayGoal = event(60, 1, 1);
+        EventHistoryDTO late = event(95, null, null);
+        LiveMatchState state = new LiveMatchState(session(0, 0, 0), List.of(late, homeGoal, card, awayGoal, kickOff));
+
+        assertEquals(List.of(), state.advanceTo(11));
+        assertEquals(List.of(homeGoal, card), state.advanceTo(30));
+        assertEquals(1, state.getHomeScore());
+        assertEquals(List.of(), state.advanceTo(20));
+        assertEquals(List.of(awayGoal, late), state.advanceTo(120));
+        assertEquals(1, state.getAwayScore());
+        assertEquals(90, state.getCurrentMinute());
+        assertTrue(state.isOver());
+        assertEquals(5, state.playedEvents().size());
+    }
+
+    @Test
+    void testRestoredStateResumesFromCheckpoint() {
+        EventHistoryDTO homeGoal = event(12, 1, 0);
+        EventHistoryDTO awayGoal = event(60, 1, 1);
+        LiveMatchState state = new LiveMatchState(session(40, 1, 0), List.of(homeGoal, awayGoal));
+
+        assertEquals(List.of(homeGoal), state.playedEvents());
+        assertFalse(state.isCheckpointDue(10));
+        assertEquals(List.of(awayGoal), state.advanceTo(61));
+        assertTrue(state.isCheckpointDue(100));
+        state.markCheckpoint();
+        assertFalse(state.isCheckpointDue(100));
+    }
+
+    @Test
+    void testNextWakeMinute() {
+        LiveMatchState state = new LiveMatchState(session(0, 0, 0), List.of(event(12, 1, 0), event(70, 1, 1)));
+
+        assertEquals(5, state.nextWakeMinute(5));
+        assertEquals(12, state.nextWakeMinute(30));
+        state.advanceTo(12);
+        assertEquals(45, state.nextWakeMinute(60));
+        state.advanceTo(45);
+        assertEquals(70, state.nextWakeMinute(60));
+        state.advanceTo(70);
+        assertEquals(90, state.nextWakeMinute(60));
+    }
+
+    private LiveMatchSession session(int minute, int homeScore, int awayScore) {
+        return LiveMatchSession.builder()
+                .matchId(1L)
+                .startTime(LocalDateTime.now())
+                .currentMinute(minute)
+                .homeScore(homeScore)
+                .awayScore(awayScore)
+                .build();
+    }
+
+    private EventHistoryDTO event(int minute, Integer homeScore, Integer awayScore) {
+        return EventHistoryDTO.builder().minute(minute).homeScore(homeScore).awayScore(awayScore).build();
+    }
+}
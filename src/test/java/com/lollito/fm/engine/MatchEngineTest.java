@@ -0,0 +1,195 @@
+package com.lollito.fm.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import com.lollito.fm.model.Club;
+import com.lollito.fm.model.Event;
+import com.lollito.fm.model.EventHistory;
+import com.lollito.fm.model.Formation;
+import com.lollito.fm.model.Match;
+import com.lollito.fm.model.MatchPlayerStats;
+import com.lollito.fm.model.Module;
+import com.lollito.fm.model.Player;
+import com.lollito.fm.model.PlayerRole;
+import com.lollito.fm.model.Stats;
+
+public class MatchEngineTest {
+
+    @RepeatedTest(20)
+    void testMaterialisedResultIsConsistent() {
+        Match match = createMatch();
+        Formation home = createFormation("Home", 5);
+        Formation away = createFormation("Away", 5);
+
+        MatchEngine engine = new MatchEngine(snapshot(home), snapshot(away), 25, true, 5, new MatchRandom(MatchRandom.newSeed()));
+        engine.play();
+        engine.writeBack();
+
+        List<EventHistory> events = engine.events(match);
+        List<MatchPlayerStats> playerStats = engine.playerStats(match);
+        Stats stats = engine.stats();
+
+        long goalEvents = events.stream()
+                .filter(e -> e.getType() == Event.HAVE_SCORED || e.getType() == Event.HAVE_SCORED_FREE_KICK)
+                .count();
+        int playerGoals = playerStats.stream().mapToInt(MatchPlayerStats::getGoals).sum();
+
+        assertEquals(engine.getHomeScore() + engine.getAwayScore(), goalEvents);
+        assertEquals(engine.getHomeScore() + engine.getAwayScore(), playerGoals);
+        assertEquals(100, stats.getHomePossession() + stats.getAwayPossession());
+        assertEquals(25, stats.getHomePasses() + stats.getAwayPasses());
+        assertEquals(1, playerStats.stream().filter(MatchPlayerStats::getMvp).count());
+        assertEquals(11, home.getPlayers().size());
+        assertTrue(home.getPlayers().stream().allMatch(p -> p.getCondition() < 100.0));
+    }
+
+    @Test
+    void testSubstitutionsAreWrittenBack() {
+        Match match = createMatch();
+        Formation home = createFormation("Home", 3);
+        Formation away = createFormation("Away", 3);
+
+        // Enough actions to trigger the 20% substitution roll on every sixth action
+        MatchEngine engine = new MatchEngine(snapshot(home), snapshot(away), 3000, true, 0, new MatchRandom(MatchRandom.newSeed()));
+        engine.play();
+        engine.writeBack();
+
+        List<EventHistory> substitutions = engine.events(match).stream()
+                .filter(e -> e.getType() == Event.SUBSTITUTION)
+                .toList();
+        assertFalse(substitutions.isEmpty());
+
+        List<MatchPlayerStats> playerStats = engine.playerStats(match);
+        assertEquals(22 + substitutions.size(), playerStats.size());
+        assertTrue(home.getSubstitutes().size() + away.getSubstitutes().size() == 6 - substitutions.size());
+        playerStats.stream()
+                .filter(mps -> !mps.isStarted())
+                .forEach(mps -> assertFalse("GK".equals(mps.getPosition())));
+    }
+
+    @RepeatedTest(10)
+    void testSameSeedReplaysBitForBit() {
+        Match match = createMatch();
+        Formation home = createFormation("Home", 5);
+        Formation away = createFormation("Away", 5);
+        Player[] homeRoster = roster(home);
+        Player[] awayRoster = roster(away);
+        long seed = MatchRandom.newSeed();
+
+        FormationSnapshot homeSnapshot = snapshot(home);
+        FormationSnapshot awaySnapshot = snapshot(away);
+        MatchReplay replay = new MatchReplay(seed, 4, homeSnapshot.capture(), awaySnapshot.capture());
+        MatchEngine engine = MatchEngine.seeded(homeSnapshot, awaySnapshot, 4, seed);
+        engine.play();
+        // The entities change after the match, the replay must not see it
+        engine.writeBack();
+
+        MatchEngine replayed = MatchEngine.replay(replay, homeRoster, awayRoster);
+        replayed.play();
+
+        assertEquals(engine.getNumberOfActions(), replayed.getNumberOfActions());
+        assertEquals(engine.isHomeKickOff(), replayed.isHomeKickOff());
+        assertEquals(engine.getHomeScore(), replayed.getHomeScore());
+        assertEquals(engine.getAwayScore(), replayed.getAwayScore());
+        assertEquals(describe(engine.events(match)), describe(replayed.events(match)));
+        assertEquals(engine.stats().getHomePasses(), replayed.stats().getHomePasses());
+        assertEquals(engine.stats().getHomePossession(), replayed.stats().getHomePossession());
+        List<MatchPlayerStats> stats = engine.playerStats(match);
+        List<MatchPlayerStats> replayedStats = replayed.playerStats(match);
+        assertEquals(stats.size(), replayedStats.size());
+        for (int i = 0; i < stats.size(); i++) {
+            assertSame(stats.get(i).getPlayer(), replayedStats.get(i).getPlayer());
+            assertEquals(stats.get(i).getGoals(), replayedStats.get(i).getGoals());
+            assertEquals(stats.get(i).getRating(), replayedStats.get(i).getRating());
+        }
+    }
+
+    @Test
+    void testEveryDrawComesFromTheMatchStream() {
+        Match match = createMatch();
+        // Every roll succeeds and every pick takes the first candidate
+        MatchRandom scripted = new MatchRandom(0) {
+            @Override
+            public int nextInt(int from, int to) {
+                return from;
+            }
+
+            @Override
+            public boolean chance(double percent) {
+                return true;
+            }
+        };
+
+        MatchEngine engine = new MatchEngine(snapshot(createFormation("Home", 0)), snapshot(createFormation("Away", 0)), 20, true, 0, scripted);
+        engine.play();
+
+        // Home kicks off, advances and scores; then the away side does the same:
+        // with 20 actions and a perfect success rate that is 5 goals each.
+        assertEquals(5, engine.getHomeScore());
+        assertEquals(5, engine.getAwayScore());
+        assertEquals(10, engine.events(match).stream().filter(e -> e.getType() == Event.HAVE_SCORED).count());
+    }
+
+    private Player[] roster(Formation formation) {
+        List<Player> roster = new ArrayList<>(formation.getPlayers());
+        roster.addAll(formation.getSubstitutes());
+        return roster.toArray(new Player[0]);
+    }
+
+    private List<String> describe(List<EventHistory> events) {
+        return events.stream().map(e -> e.getMinute() + " " + e.getType() + " " + e.getEvent()).toList();
+    }
+
+    private FormationSnapshot snapshot(Formation formation) {
+        List<Player> players = formation.getPlayers();
+        return FormationSnapshot.of(formation,
+                new ArrayList<>(players.subList(0, 5)),
+                new ArrayList<>(players.subList(1, 9)),
+                new ArrayList<>(players.subList(5, 11)));
+    }
+
+    private Match createMatch() {
+        Club home = new Club();
+        home.setName("Home FC");
+        Club away = new Club();
+        away.setName("Away FC");
+        Match match = new Match();
+        match.setHome(home);
+        match.setAway(away);
+        return match;
+    }
+
+    private Formation createFormation(String name, int substitutes) {
+        Formation formation = new Formation();
+        formation.setModule(new Module("4-4-2", 4, 0, 4, 0, 2));
+        for (int i = 0; i < 11 + substitutes; i++) {
+            Player p = new Player();
+            p.setName(name);
+            p.setSurname(name + " " + i);
+            p.setStamina(60.0);
+            p.setGoalkeeping(60.0);
+            p.setDefending(60.0);
+            p.setScoring(60.0);
+            p.setPassing(60.0);
+            p.setPlaymaking(60.0);
+            p.setWinger(60.0);
+            p.setSetPieces(60.0);
+            p.setRole(i == 0 ? PlayerRole.GOALKEEPER : i < 5 ? PlayerRole.DEFENDER : i < 9 ? PlayerRole.MIDFIELDER : PlayerRole.FORWARD);
+            if (i < 11) {
+                formation.getPlayers().add(p);
+            } else {
+                formation.getSubstitutes().add(p);
+            }
+        }
+        return formation;
+    }
+}
@@ -0,0 +1,51 @@
+package com.lollito.fm.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TimerWheelTest {
+
+    @Test
+    void testTimeoutsFireOnTheirTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(100, 8);
+        wheel.advance(1_000);
+        wheel.schedule("a", 1_250);
+        wheel.schedule("b", 1_100);
+        wheel.schedule("far", 1_000 + 100 * 20);
+
+        assertEquals(List.of(), wheel.advance(1_050));
+        assertEquals(List.of("b"), wheel.advance(1_199));
+        assertEquals(List.of("a"), wheel.advance(1_300));
+        assertEquals(1, wheel.size());
+
+        // Same bucket as "far" on earlier rotations
+        assertEquals(List.of(), wheel.advance(1_000 + 100 * 12));
+        assertEquals(List.of("far"), wheel.advance(1_000 + 100 * 20));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testLateAdvanceFiresEverythingDueInDeadlineOrder() {
+        TimerWheel<String> wheel = new TimerWheel<>(100, 4);
+        wheel.schedule("past", 0);
+        wheel.schedule("second", 1_500);
+        wheel.schedule("first", 1_200);
+        wheel.schedule("later", 9_000);
+
+        assertEquals(List.of("past"), wheel.advance(1_000));
+        assertEquals(List.of("first", "second"), wheel.advance(5_000));
+        assertEquals(List.of("later"), wheel.advance(9_000));
+    }
+
+    @Test
+    void testDeadlineInThePastFiresOnNextAdvance() {
+        TimerWheel<String> wheel = new TimerWheel<>(100, 16);
+        wheel.advance(5_000);
+        wheel.schedule("late", 1_000);
+
+        assertEquals(List.of("late"), wheel.advance(5_100));
+    }
+}
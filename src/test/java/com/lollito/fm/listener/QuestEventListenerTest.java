@@ -1,11 +1,9 @@
 package com.lollito.fm.listener;
 
-import static org.mockito.ArgumentMatchers.anyInt;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
-import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,13 +12,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import com.lollito.fm.event.MatchFinishedEvent;
 import com.lollito.fm.event.ScoutingCompletedEvent;
-import com.lollito.fm.event.TrainingCompletedEvent;
-import com.lollito.fm.event.TransferCompletedEvent;
 import com.lollito.fm.model.Club;
 import com.lollito.fm.model.Match;
-import com.lollito.fm.model.Player;
 import com.lollito.fm.model.QuestType;
 import com.lollito.fm.model.Scout;
 import com.lollito.fm.model.ScoutingAssignment;
@@ -71,36 +65,47 @@ public class QuestEventListenerTest {
     }
 
     @Test
-    void onMatchFinished_HomeWin() {
+    void onMatchesFinished_HomeWin() {
         match.setHomeScore(2);
         match.setAwayScore(0);
 
-        MatchFinishedEvent event = new MatchFinishedEvent(this, match);
-        questEventListener.onMatchFinished(event);
+        questEventListener.onMatchesFinished(List.of(match));
 
-        // Home User: Play, Win, Clean Sheet, Score Goals
-        verify(questService).incrementProgress(homeUser, QuestType.PLAY_MATCH, 1);
-        verify(questService).incrementProgress(homeUser, QuestType.WIN_MATCH, 1);
-        verify(questService).incrementProgress(homeUser, QuestType.CLEAN_SHEET, 1);
-        verify(questService).incrementProgress(homeUser, QuestType.SCORE_GOALS, 2);
+        // Home User: Play, Win, Clean Sheet, Score Goals. Away User: Play
+        verify(questService).incrementProgress(Map.of(
+                homeUser.getId(), Map.of(QuestType.PLAY_MATCH, 1, QuestType.WIN_MATCH, 1, QuestType.CLEAN_SHEET, 1, QuestType.SCORE_GOALS, 2),
+                awayUser.getId(), Map.of(QuestType.PLAY_MATCH, 1)));
+    }
 
-        // Away User: Play
-        verify(questService).incrementProgress(awayUser, QuestType.PLAY_MATCH, 1);
-        verify(questService, never()).incrementProgress(awayUser, QuestType.WIN_MATCH, 1);
-        verify(questService, never()).incrementProgress(awayUser, QuestType.CLEAN_SHEET, 1);
-        verify(questService, never()).incrementProgress(eq(awayUser), eq(QuestType.SCORE_GOALS), anyInt());
+    @Test
+    void onMatchesFinished_SumsTheMatchesOfTheRound() {
+        match.setHomeScore(1);
+        match.setAwayScore(1);
+
+        Club otherClub = new Club();
+        Match returnMatch = new Match();
+        returnMatch.setId(101L);
+        returnMatch.setHome(otherClub);
+        returnMatch.setAway(match.getHome());
+        returnMatch.setHomeScore(0);
+        returnMatch.setAwayScore(3);
+
+        questEventListener.onMatchesFinished(List.of(match, returnMatch));
+
+        verify(questService).incrementProgress(Map.of(
+                homeUser.getId(), Map.of(QuestType.PLAY_MATCH, 2, QuestType.WIN_MATCH, 1, QuestType.CLEAN_SHEET, 1, QuestType.SCORE_GOALS, 4),
+                awayUser.getId(), Map.of(QuestType.PLAY_MATCH, 1, QuestType.SCORE_GOALS, 1)));
     }
 
     @Test
-    void onTrainingCompleted() {
+    void onTrainingsCompleted() {
         TrainingSession session = new TrainingSession();
         Team team = match.getHome().getTeam();
         session.setTeam(team);
 
-        TrainingCompletedEvent event = new TrainingCompletedEvent(this, session);
-        questEventListener.onTrainingCompleted(event);
+        questEventListener.onTrainingsCompleted(List.of(session));
 
-        verify(questService).incrementProgress(homeUser, QuestType.TRAIN_SESSION, 1);
+        verify(questService).incrementProgress(Map.of(homeUser.getId(), Map.of(QuestType.TRAIN_SESSION, 1)));
     }
 
     @Test
@@ -119,15 +124,11 @@ public class QuestEventListenerTest {
     }
 
     @Test
-    void onTransferCompleted() {
-        Player player = new Player();
+    void onTransfersCompleted() {
         Club buyerClub = match.getHome();
-        Club sellerClub = match.getAway();
-        BigDecimal amount = BigDecimal.valueOf(1000000);
 
-        TransferCompletedEvent event = new TransferCompletedEvent(this, player, buyerClub, sellerClub, amount);
-        questEventListener.onTransferCompleted(event);
+        questEventListener.onTransfersCompleted(List.of(buyerClub, buyerClub));
 
-        verify(questService).incrementProgress(homeUser, QuestType.SIGN_PLAYER, 1);
+        verify(questService).incrementProgress(Map.of(homeUser.getId(), Map.of(QuestType.SIGN_PLAYER, 2)));
     }
 }
@@ -0,0 +1,102 @@
+package com.lollito.fm.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lollito.fm.event.PlayerChangedEvent;
+import com.lollito.fm.event.PlayerChangedEvent.Change;
+import com.lollito.fm.service.WatchlistChangeFeed;
+
+class WatchlistEventListenerTest {
+
+    private AnnotationConfigApplicationContext context;
+    private WatchlistChangeFeed feed;
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext(Config.class);
+        feed = context.getBean(WatchlistChangeFeed.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void testChangeIsFedOnlyOnceItsTransactionCommits() {
+        transaction.executeWithoutResult(status -> {
+            publish(7L);
+            // A watchlist update draining now would read the player's previous state
+            assertThat(feed.drain()).isEmpty();
+        });
+
+        assertThat(feed.drain()).containsOnlyKeys(7L);
+    }
+
+    @Test
+    void testRolledBackChangeIsNotFed() {
+        transaction.executeWithoutResult(status -> {
+            publish(7L);
+            status.setRollbackOnly();
+        });
+
+        assertThat(feed.drain()).isEmpty();
+    }
+
+    @Test
+    void testChangeOutsideATransactionIsFedAtOnce() {
+        publish(7L);
+
+        assertThat(feed.drain()).containsOnlyKeys(7L);
+    }
+
+    private void publish(Long playerId) {
+        context.publishEvent(new PlayerChangedEvent(this, List.of(playerId), Change.SKILLS));
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @Import({ WatchlistEventListener.class, WatchlistChangeFeed.class })
+    static class Config {
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new AbstractPlatformTransactionManager() {
+                @Override
+                protected Object doGetTransaction() {
+                    return new Object();
+                }
+
+                @Override
+                protected void doBegin(Object transaction, TransactionDefinition definition) {
+                }
+
+                @Override
+                protected void doCommit(DefaultTransactionStatus status) {
+                }
+
+                @Override
+                protected void doRollback(DefaultTransactionStatus status) {
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.lollito.fm.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.lollito.fm.config.security.jwt.JwtPrincipalCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CacheMetricsTest {
+
+    @Test
+    void bindTo_PublishesHitsMissesAndSizeOfEachCache() {
+        JwtPrincipalCache cache = new JwtPrincipalCache();
+        CacheMetrics cacheMetrics = new CacheMetrics();
+        ReflectionTestUtils.setField(cacheMetrics, "caches", List.of(cache));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cacheMetrics.bindTo(registry);
+
+        cache.get("token");
+        cache.put("token", new User("testuser", "password", Collections.emptyList()), new Date(System.currentTimeMillis() + 60000));
+        cache.get("token");
+        cache.get("token");
+
+        assertThat(registry.get("fm.cache.gets").tags("cache", "jwt-principals", "result", "hit").functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("fm.cache.gets").tags("cache", "jwt-principals", "result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("fm.cache.size").tags("cache", "jwt-principals").gauge().value()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,286 @@
+package com.lollito.fm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.lollito.fm.model.BatchJobCheckpoint;
+import com.lollito.fm.model.BatchJobStatus;
+import com.lollito.fm.repository.BatchJobCheckpointRepository;
+import com.lollito.fm.service.ClusterService.Partition;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class BatchJobRunnerTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private BatchJobCheckpointRepository checkpointRepository;
+
+    @Mock
+    private SchedulerLockService schedulerLockService;
+
+    @Mock
+    private ClusterService clusterService;
+
+    @Spy
+    @InjectMocks
+    private BatchJobRunner batchJobRunner;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /** Committed checkpoints, copied on save as the database would */
+    private final Map<String, BatchJobCheckpoint> checkpoints = new HashMap<>();
+
+    private final List<List<Long>> processed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(batchJobRunner, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(batchJobRunner, "executor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(batchJobRunner, "chunkSize", 2);
+        ReflectionTestUtils.setField(batchJobRunner, "parallelism", 1);
+        ReflectionTestUtils.setField(batchJobRunner, "skipLimit", 0);
+        lenient().when(schedulerLockService.runLocked(anyString(), any(), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(2).run();
+            return true;
+        });
+        lenient().when(checkpointRepository.findById(anyString())).thenAnswer(invocation ->
+                Optional.ofNullable(checkpoints.get(invocation.<String>getArgument(0))).map(this::copy));
+        lenient().when(checkpointRepository.save(any())).thenAnswer(invocation -> {
+            BatchJobCheckpoint checkpoint = copy(invocation.getArgument(0));
+            checkpoints.put(checkpoint.getJobName(), checkpoint);
+            return copy(checkpoint);
+        });
+    }
+
+    @Test
+    void testRunProcessesEveryChunkAndCompletes() {
+        BatchJob<Long> job = job(null);
+        keys(job, 0, 1L, 2L);
+        keys(job, 2, 3L);
+        keys(job, 3);
+
+        long items = batchJobRunner.run(job);
+
+        assertThat(items).isEqualTo(3);
+        assertThat(processed).containsExactly(List.of(1L, 2L), List.of(3L));
+        BatchJobCheckpoint checkpoint = checkpoints.get("test");
+        assertThat(checkpoint.getStatus()).isEqualTo(BatchJobStatus.COMPLETED);
+        assertThat(checkpoint.getLastKey()).isEqualTo(3L);
+        assertThat(checkpoint.getItemsProcessed()).isEqualTo(3L);
+        assertThat(meterRegistry.counter("fm.batch.job.items", "job", "test").count()).isEqualTo(3.0);
+        assertThat(meterRegistry.timer("fm.batch.job.duration", "job", "test", "outcome", "completed").count()).isEqualTo(1);
+        assertThat(meterRegistry.summary("fm.batch.chunk.size", "job", "test").max()).isEqualTo(2.0);
+    }
+
+    @Test
+    void testFailedRunResumesAfterTheLastCommittedChunk() {
+        BatchJob<Long> job = job(3L);
+        keys(job, 0, 1L, 2L);
+        keys(job, 2, 3L, 4L);
+
+        batchJobRunner.run(job);
+
+        BatchJobCheckpoint checkpoint = checkpoints.get("test");
+        assertThat(checkpoint.getStatus()).isEqualTo(BatchJobStatus.FAILED);
+        assertThat(checkpoint.getLastKey()).isEqualTo(2L);
+        assertThat(meterRegistry.timer("fm.batch.job.duration", "job", "test", "outcome", "failed").count()).isEqualTo(1);
+
+        // The next run starts from the checkpoint, not from the first row
+        processed.clear();
+        BatchJob<Long> fixed = job(null);
+        keys(fixed, 2, 3L, 4L);
+        keys(fixed, 4);
+
+        long items = batchJobRunner.run(fixed);
+
+        assertThat(items).isEqualTo(2);
+        assertThat(processed).containsExactly(List.of(3L, 4L));
+        assertThat(checkpoints.get("test").getStatus()).isEqualTo(BatchJobStatus.COMPLETED);
+        assertThat(checkpoints.get("test").getItemsProcessed()).isEqualTo(4L);
+    }
+
+    @Test
+    void testParallelGroupCheckpointsBeforeTheFirstFailedChunk() {
+        ReflectionTestUtils.setField(batchJobRunner, "parallelism", 2);
+        BatchJob<Long> job = job(3L);
+        keys(job, 0, 1L, 2L, 3L, 4L);
+
+        batchJobRunner.run(job);
+
+        assertThat(processed).containsExactly(List.of(1L, 2L));
+        BatchJobCheckpoint checkpoint = checkpoints.get("test");
+        assertThat(checkpoint.getStatus()).isEqualTo(BatchJobStatus.FAILED);
+        assertThat(checkpoint.getLastKey()).isEqualTo(2L);
+        assertThat(checkpoint.getItemsProcessed()).isEqualTo(2L);
+    }
+
+    @Test
+    void testFailedChunkIsRetriedRowByRowSkippingTheFailingRow() {
+        ReflectionTestUtils.setField(batchJobRunner, "skipLimit", 1);
+        BatchJob<Long> job = job(3L);
+        keys(job, 0, 1L, 2L);
+        keys(job, 2, 3L, 4L);
+        keys(job, 4);
+
+        long items = batchJobRunner.run(job);
+
+        assertThat(items).isEqualTo(3);
+        assertThat(processed).containsExactly(List.of(1L, 2L), List.of(4L));
+        BatchJobCheckpoint checkpoint = checkpoints.get("test");
+        assertThat(checkpoint.getStatus()).isEqualTo(BatchJobStatus.COMPLETED);
+        assertThat(checkpoint.getLastKey()).isEqualTo(4L);
+        assertThat(checkpoint.getItemsProcessed()).isEqualTo(3L);
+        assertThat(checkpoint.getItemsSkipped()).isEqualTo(1L);
+        assertThat(meterRegistry.counter("fm.batch.job.skipped", "job", "test").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testParallelGroupRetriesOnlyTheFailedChunk() {
+        ReflectionTestUtils.setField(batchJobRunner, "parallelism", 2);
+        ReflectionTestUtils.setField(batchJobRunner, "skipLimit", 1);
+        BatchJob<Long> job = job(1L);
+        keys(job, 0, 1L, 2L, 3L, 4L);
+        keys(job, 4);
+
+        long items = batchJobRunner.run(job);
+
+        assertThat(items).isEqualTo(3);
+        assertThat(processed).containsExactly(List.of(3L, 4L), List.of(2L));
+        BatchJobCheckpoint checkpoint = checkpoints.get("test");
+        assertThat(checkpoint.getStatus()).isEqualTo(BatchJobStatus.COMPLETED);
+        assertThat(checkpoint.getLastKey()).isEqualTo(4L);
+        assertThat(checkpoint.getItemsProcessed()).isEqualTo(3L);
+        assertThat(checkpoint.getItemsSkipped()).isEqualTo(1L);
+    }
+
+    @Test
+    void testRowFailingPastTheSkipLimitFailsTheJobAtThatRow() {
+        ReflectionTestUtils.setField(batchJobRunner, "skipLimit", 1);
+        BatchJob<Long> job = failingJob(Set.of(1L, 2L));
+        keys(job, 0, 1L, 2L);
+
+        batchJobRunner.run(job);
+
+        BatchJobCheckpoint checkpoint = checkpoints.get("test");
+        assertThat(checkpoint.getStatus()).isEqualTo(BatchJobStatus.FAILED);
+        assertThat(checkpoint.getLastKey()).isEqualTo(1L);
+        assertThat(checkpoint.getItemsSkipped()).isEqualTo(1L);
+    }
+
+    @Test
+    void testPartitionedJobRunsThisNodesSlicesUnderTheirOwnLocks() {
+        when(clusterService.partitions()).thenReturn(List.of(new Partition(1, 8), new Partition(5, 8)));
+        BatchJob<Long> job = job(null).toBuilder().partitionKey("id").build();
+        doReturn(List.of()).when(batchJobRunner).keys(argThat(slice -> slice.getName().startsWith("test#") && slice.getFilter() != null), eq(0L), eq(2));
+
+        batchJobRunner.run(job);
+
+        verify(schedulerLockService).runLocked(eq("test#1/8"), any(), any());
+        verify(schedulerLockService).runLocked(eq("test#5/8"), any(), any());
+        assertThat(checkpoints).containsOnlyKeys("test#1/8", "test#5/8");
+        assertThat(checkpoints.get("test#5/8").getStatus()).isEqualTo(BatchJobStatus.COMPLETED);
+    }
+
+    @Test
+    void testSliceResumesFromTheCheckpointLeftByItsPreviousNode() {
+        checkpoints.put("test#1/8", BatchJobCheckpoint.builder()
+                .jobName("test#1/8")
+                .status(BatchJobStatus.FAILED)
+                .lastKey(9L)
+                .build());
+        when(clusterService.partitions()).thenReturn(List.of(new Partition(1, 8)));
+        BatchJob<Long> job = job(null).toBuilder().partitionKey("id").build();
+        doReturn(List.of()).when(batchJobRunner).keys(any(), eq(9L), eq(2));
+
+        batchJobRunner.run(job);
+
+        assertThat(checkpoints.get("test#1/8").getStatus()).isEqualTo(BatchJobStatus.COMPLETED);
+    }
+
+    @Test
+    void testJobHeldByAnotherNodeDoesNotRun() {
+        when(schedulerLockService.runLocked(eq("test"), any(), any())).thenReturn(false);
+
+        assertThat(batchJobRunner.run(job(null))).isZero();
+        assertThat(checkpoints).isEmpty();
+    }
+
+    @Test
+    void testJobKeepsItsLeaseForItsSchedulePeriod() {
+        doReturn(List.of()).when(batchJobRunner).keys(any(), eq(0L), eq(2));
+
+        batchJobRunner.run(job(null).toBuilder().period(Duration.ofMinutes(1)).build());
+
+        verify(schedulerLockService).runLocked(eq("test"), eq(Duration.ofMinutes(1)), any());
+    }
+
+    /** A job over ids, failing on the chunk holding the given one. */
+    private BatchJob<Long> job(Long failOn) {
+        BatchJob<Long> job = BatchJob.<Long>builder()
+                .name("test")
+                .type(Long.class)
+                .processor(chunk -> {
+                    if (failOn != null && chunk.contains(failOn)) {
+                        throw new IllegalStateException("Chunk failed");
+                    }
+                    processed.add(List.copyOf(chunk));
+                })
+                .build();
+        lenient().doAnswer(invocation -> invocation.getArgument(1)).when(batchJobRunner).load(any(), any());
+        return job;
+    }
+
+    /** A job over ids, failing on every chunk holding one of the given ones. */
+    private BatchJob<Long> failingJob(Set<Long> failOn) {
+        return job(null).toBuilder()
+                .processor(chunk -> {
+                    if (chunk.stream().anyMatch(failOn::contains)) {
+                        throw new IllegalStateException("Chunk failed");
+                    }
+                    processed.add(List.copyOf(chunk));
+                })
+                .build();
+    }
+
+    private void keys(BatchJob<Long> job, long after, Long... keys) {
+        int limit = (Integer) ReflectionTestUtils.getField(batchJobRunner, "chunkSize")
+                * (Integer) ReflectionTestUtils.getField(batchJobRunner, "parallelism");
+        doReturn(List.of(keys)).when(batchJobRunner).keys(job, after, limit);
+    }
+
+    private BatchJobCheckpoint copy(BatchJobCheckpoint checkpoint) {
+        return new BatchJobCheckpoint(checkpoint.getJobName(), checkpoint.getStatus(), checkpoint.getLastKey(),
+                checkpoint.getItemsProcessed(), checkpoint.getItemsSkipped(), checkpoint.getStartedAt(), checkpoint.getUpdatedAt(), checkpoint.getFinishedAt());
+    }
+}
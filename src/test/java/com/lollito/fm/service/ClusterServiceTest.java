@@ -0,0 +1,93 @@
+package com.lollito.fm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.lollito.fm.repository.ClusterNodeRepository;
+import com.lollito.fm.service.ClusterService.Partition;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterServiceTest {
+
+    @Mock
+    private ClusterNodeRepository clusterNodeRepository;
+
+    @InjectMocks
+    private ClusterService clusterService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(clusterService, "nodeId", "node-b");
+    }
+
+    @Test
+    void testPartitionsAreTheSlicesAtThePositionAmongLiveNodes() {
+        when(clusterNodeRepository.findLiveNodeIds(any())).thenReturn(List.of("node-a", "node-b", "node-c"));
+
+        List<Partition> partitions = clusterService.partitions();
+
+        assertThat(partitions).extracting(Partition::getIndex).containsExactly(1, 4, 7);
+        assertThat(partitions).allMatch(partition -> partition.getCount() == 8 && !partition.isWhole());
+        assertThat(partitions.get(0)).hasToString("1/8");
+    }
+
+    @Test
+    void testSliceNamesDoNotDependOnTheLiveNodes() {
+        when(clusterNodeRepository.findLiveNodeIds(any())).thenReturn(List.of("node-a", "node-b"));
+        List<Partition> two = clusterService.partitions();
+        when(clusterNodeRepository.findLiveNodeIds(any())).thenReturn(List.of("node-b"));
+        List<Partition> alone = clusterService.partitions();
+
+        assertThat(two).extracting(Partition::toString).containsExactly("1/8", "3/8", "5/8", "7/8");
+        assertThat(alone).extracting(Partition::toString).containsAll(two.stream().map(Partition::toString).toList()).hasSize(8);
+    }
+
+    @Test
+    void testNodeBeyondTheSliceCountOwnsNone() {
+        ReflectionTestUtils.setField(clusterService, "partitions", 1);
+        when(clusterNodeRepository.findLiveNodeIds(any())).thenReturn(List.of("node-a", "node-b"));
+
+        assertThat(clusterService.partitions()).isEmpty();
+    }
+
+    @Test
+    void testNodeWithoutHeartbeatYetCountsItself() {
+        when(clusterNodeRepository.findLiveNodeIds(any())).thenReturn(List.of("node-a", "node-c"));
+
+        assertThat(clusterService.liveNodes()).containsExactly("node-a", "node-b", "node-c");
+    }
+
+    @Test
+    void testSingleSliceOwnsEveryKey() {
+        ReflectionTestUtils.setField(clusterService, "partitions", 1);
+        when(clusterNodeRepository.findLiveNodeIds(any())).thenReturn(List.of());
+
+        List<Partition> partitions = clusterService.partitions();
+
+        assertThat(partitions).hasSize(1);
+        assertThat(partitions.get(0).isWhole()).isTrue();
+        assertThat(LongStream.rangeClosed(1, 10).allMatch(partitions.get(0)::owns)).isTrue();
+    }
+
+    @Test
+    void testSlicesAreDisjointAndCoverEveryKey() {
+        List<Partition> partitions = List.of(new Partition(0, 3), new Partition(1, 3), new Partition(2, 3));
+
+        for (long key = 1; key <= 100; key++) {
+            long k = key;
+            assertThat(partitions.stream().filter(p -> p.owns(k)).count()).isEqualTo(1);
+        }
+    }
+}
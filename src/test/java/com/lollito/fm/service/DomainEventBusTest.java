@@ -0,0 +1,146 @@
+package com.lollito.fm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.lollito.fm.listener.QuestEventListener;
+import com.lollito.fm.model.Club;
+import com.lollito.fm.model.Match;
+import com.lollito.fm.model.OutboxEvent;
+import com.lollito.fm.repository.OutboxEventRepository;
+import com.lollito.fm.repository.TrainingSessionRepository;
+import com.lollito.fm.repository.rest.ClubRepository;
+import com.lollito.fm.repository.rest.MatchRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class DomainEventBusTest {
+
+    @Mock private OutboxEventRepository outboxEventRepository;
+    @Mock private MatchRepository matchRepository;
+    @Mock private TrainingSessionRepository trainingSessionRepository;
+    @Mock private ClubRepository clubRepository;
+    @Mock private AchievementService achievementService;
+    @Mock private QuestEventListener questEventListener;
+    @Mock private SchedulerLockService schedulerLockService;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private DomainEventBus domainEventBus;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(schedulerLockService.acquire(DomainEventBus.LOCK)).thenReturn(true);
+    }
+
+    @Test
+    void drain_HandlesTheMatchesOfABatchAtOnce() {
+        List<OutboxEvent> events = List.of(event(1L, OutboxEvent.Type.MATCH_FINISHED, 10L), event(2L, OutboxEvent.Type.MATCH_FINISHED, 11L));
+        List<Match> matches = List.of(match(10L), match(11L));
+        when(outboxEventRepository.findByFailedFalseAndAvailableAtLessThanEqualOrderById(any(), any())).thenReturn(events);
+        when(matchRepository.findAllById(List.of(10L, 11L))).thenReturn(matches);
+
+        assertThat(domainEventBus.drain()).isEqualTo(2);
+
+        verify(achievementService).checkMatchAchievements(matches.get(0));
+        verify(achievementService).checkMatchAchievements(matches.get(1));
+        verify(questEventListener).onMatchesFinished(matches);
+        verify(outboxEventRepository).deleteAllInBatch(events);
+        verify(schedulerLockService).release(DomainEventBus.LOCK);
+        assertThat(meterRegistry.timer("fm.events.lag", "type", "MATCH_FINISHED").count()).isEqualTo(2);
+    }
+
+    @Test
+    void drain_CountsEachTransferOfAClub() {
+        Club club = new Club();
+        club.setId(5L);
+        List<OutboxEvent> events = List.of(event(1L, OutboxEvent.Type.TRANSFER_COMPLETED, 5L), event(2L, OutboxEvent.Type.TRANSFER_COMPLETED, 5L));
+        when(outboxEventRepository.findByFailedFalseAndAvailableAtLessThanEqualOrderById(any(), any())).thenReturn(events);
+        when(clubRepository.findAllById(any())).thenReturn(List.of(club));
+
+        domainEventBus.drain();
+
+        verify(questEventListener).onTransfersCompleted(List.of(club, club));
+    }
+
+    @Test
+    void drain_RetriesAFailedBatchOneEventAtATime() {
+        OutboxEvent good = event(1L, OutboxEvent.Type.MATCH_FINISHED, 10L);
+        OutboxEvent bad = event(2L, OutboxEvent.Type.MATCH_FINISHED, 11L);
+        Match goodMatch = match(10L);
+        Match badMatch = match(11L);
+        when(outboxEventRepository.findByFailedFalseAndAvailableAtLessThanEqualOrderById(any(), any())).thenReturn(List.of(good, bad));
+        when(matchRepository.findAllById(List.of(10L, 11L))).thenReturn(List.of(goodMatch, badMatch));
+        when(matchRepository.findAllById(List.of(10L))).thenReturn(List.of(goodMatch));
+        when(matchRepository.findAllById(List.of(11L))).thenReturn(List.of(badMatch));
+        lenient().doThrow(new IllegalStateException("broken")).when(achievementService).checkMatchAchievements(badMatch);
+
+        assertThat(domainEventBus.drain()).isEqualTo(1);
+
+        verify(outboxEventRepository).deleteAllInBatch(List.of(good));
+        verify(outboxEventRepository, never()).deleteAllInBatch(List.of(bad));
+        ArgumentCaptor<OutboxEvent> saved = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(saved.capture());
+        assertThat(saved.getValue().getAttempts()).isEqualTo(1);
+        assertThat(saved.getValue().getFailed()).isFalse();
+        assertThat(saved.getValue().getLastError()).isEqualTo("broken");
+        assertThat(saved.getValue().getAvailableAt()).isAfter(LocalDateTime.now());
+    }
+
+    @Test
+    void drain_SetsAsideAnEventOutOfAttempts() {
+        OutboxEvent bad = event(1L, OutboxEvent.Type.MATCH_FINISHED, 11L);
+        bad.setAttempts(4);
+        when(outboxEventRepository.findByFailedFalseAndAvailableAtLessThanEqualOrderById(any(), any())).thenReturn(List.of(bad));
+        when(matchRepository.findAllById(List.of(11L))).thenThrow(new IllegalStateException("broken"));
+
+        domainEventBus.drain();
+
+        assertThat(bad.getFailed()).isTrue();
+        verify(outboxEventRepository).save(bad);
+        assertThat(meterRegistry.counter("fm.events.failed", "type", "MATCH_FINISHED").count()).isEqualTo(1);
+    }
+
+    @Test
+    void drain_DoesNothingWhileAnotherNodeDrains() {
+        when(schedulerLockService.acquire(DomainEventBus.LOCK)).thenReturn(false);
+
+        assertThat(domainEventBus.drain()).isZero();
+
+        verify(outboxEventRepository, never()).findByFailedFalseAndAvailableAtLessThanEqualOrderById(any(), any());
+        verify(questEventListener, times(0)).onMatchesFinished(anyList());
+    }
+
+    private OutboxEvent event(Long id, OutboxEvent.Type type, Long aggregateId) {
+        LocalDateTime now = LocalDateTime.now();
+        return OutboxEvent.builder().id(id).type(type).aggregateId(aggregateId).createdAt(now).availableAt(now).build();
+    }
+
+    private Match match(Long id) {
+        Match match = new Match();
+        match.setId(id);
+        return match;
+    }
+}
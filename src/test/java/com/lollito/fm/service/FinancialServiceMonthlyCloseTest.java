@@ -0,0 +1,144 @@
+package com.lollito.fm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lollito.fm.model.Club;
+import com.lollito.fm.model.Finance;
+import com.lollito.fm.model.FinancialTransaction;
+import com.lollito.fm.model.Player;
+import com.lollito.fm.model.SponsorshipDeal;
+import com.lollito.fm.model.SponsorshipStatus;
+import com.lollito.fm.model.Team;
+import com.lollito.fm.model.TransactionCategory;
+import com.lollito.fm.repository.rest.FinanceRepository;
+import com.lollito.fm.repository.rest.FinancialReportRepository;
+import com.lollito.fm.repository.rest.FinancialTransactionRepository;
+import com.lollito.fm.repository.rest.SponsorshipDealRepository;
+
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class FinancialServiceMonthlyCloseTest {
+
+    @InjectMocks
+    private FinancialService financialService;
+
+    @Mock private FinanceRepository financeRepository;
+    @Mock private FinancialTransactionRepository transactionRepository;
+    @Mock private FinancialReportRepository reportRepository;
+    @Mock private SponsorshipDealRepository sponsorshipRepository;
+    @Mock private ClubService clubService;
+    @Mock private SeasonService seasonService;
+    @Mock private NewsService newsService;
+    @Mock private ObjectMapper objectMapper;
+    @Mock private AchievementService achievementService;
+    @Mock private ManagerProgressionService managerProgressionService;
+    @Mock private EntityManager entityManager;
+    @Mock private Session session;
+    @Mock private SchedulerLockService schedulerLockService;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    @Captor private ArgumentCaptor<List<FinancialTransaction>> lines;
+
+    private Club sponsored;
+    private Club unsponsored;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(financialService, "closeBatchSize", 500);
+        sponsored = club(1L);
+        unsponsored = club(2L);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(schedulerLockService.runLocked(eq("monthly-financials"), any(), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(2).run();
+            return true;
+        });
+    }
+
+    @Test
+    void testMonthlyCloseSavesAllLinesInOneBatch() {
+        SponsorshipDeal deal = SponsorshipDeal.builder()
+                .id(10L)
+                .club(sponsored)
+                .status(SponsorshipStatus.ACTIVE)
+                .currentAnnualValue(BigDecimal.valueOf(240000))
+                .build();
+        when(clubService.findAll()).thenReturn(List.of(sponsored, unsponsored));
+        when(sponsorshipRepository.findByClubInAndStatus(anyList(), eq(SponsorshipStatus.ACTIVE))).thenReturn(List.of(deal));
+
+        financialService.processMonthlyFinancials();
+
+        verify(session).setJdbcBatchSize(500);
+        verify(transactionRepository).saveAll(lines.capture());
+        verify(transactionRepository, never()).save(any());
+        verify(clubService, never()).findById(any());
+
+        // Two salaries and the staff for each club, one sponsorship payment
+        assertEquals(7, lines.getValue().size());
+        assertEquals(1, lines.getValue().stream().filter(t -> t.getCategory() == TransactionCategory.SPONSORSHIP).count());
+
+        // 1M - 2 x 10k salaries - 50k staff (+ 20k sponsorship)
+        assertEquals(0, BigDecimal.valueOf(950000).compareTo(sponsored.getFinance().getBalance()));
+        assertEquals(0, BigDecimal.valueOf(930000).compareTo(unsponsored.getFinance().getBalance()));
+        assertEquals(0, BigDecimal.valueOf(20000).compareTo(sponsored.getFinance().getSponsorshipRevenue()));
+        assertEquals(0, BigDecimal.valueOf(70000).compareTo(unsponsored.getFinance().getTotalExpenses()));
+
+        verify(financeRepository).saveAll(List.of(sponsored.getFinance(), unsponsored.getFinance()));
+        verify(achievementService).checkFinancialAchievements(sponsored.getFinance());
+        verify(achievementService).checkFinancialAchievements(unsponsored.getFinance());
+        verify(newsService, never()).save(any());
+    }
+
+    @Test
+    void testClubWithoutFinanceIsSkipped() {
+        unsponsored.setFinance(null);
+        when(clubService.findAll()).thenReturn(List.of(sponsored, unsponsored));
+
+        financialService.processMonthlyFinancials();
+
+        verify(transactionRepository).saveAll(lines.capture());
+        assertEquals(3, lines.getValue().size());
+        verify(financeRepository).saveAll(List.of(sponsored.getFinance()));
+    }
+
+    private Club club(Long id) {
+        Club club = new Club();
+        club.setId(id);
+        club.setName("Club " + id);
+        Finance finance = new Finance(BigDecimal.valueOf(1000000));
+        finance.setId(id);
+        finance.setClub(club);
+        club.setFinance(finance);
+        Team team = new Team();
+        for (int i = 0; i < 2; i++) {
+            Player player = new Player();
+            player.setId(id * 10 + i);
+            player.setSalary(BigDecimal.valueOf(120000));
+            team.getPlayers().add(player);
+        }
+        club.setTeam(team);
+        return club;
+    }
+}
@@ -1,6 +1,8 @@
 package com.lollito.fm.service;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -13,7 +15,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import com.lollito.fm.model.Injury;
@@ -22,6 +26,7 @@ import com.lollito.fm.model.InjuryStatus;
 import com.lollito.fm.model.Player;
 import com.lollito.fm.repository.rest.InjuryRepository;
 import com.lollito.fm.repository.rest.PlayerRepository;
+import com.lollito.fm.utils.RandomUtils;
 
 @ExtendWith(MockitoExtension.class)
 class InjuryServiceTest {
@@ -32,6 +37,12 @@ class InjuryServiceTest {
     @Mock
     private PlayerRepository playerRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private BatchJobRunner batchJobRunner;
+
     @InjectMocks
     private InjuryService injuryService;
 
@@ -65,17 +76,48 @@ class InjuryServiceTest {
     }
 
     @Test
-    void testProcessInjuryRecovery() {
-        Injury injury = Injury.builder()
-            .status(InjuryStatus.ACTIVE)
-            .expectedRecoveryDate(LocalDate.now().minusDays(1))
-            .player(new Player())
-            .build();
+    void testProcessInjuryRecoveryHealsOnASuccessfulRoll() {
+        Injury injury = dueInjury();
+
+        try (MockedStatic<RandomUtils> random = mockStatic(RandomUtils.class)) {
+            random.when(() -> RandomUtils.randomPercentage(80)).thenReturn(true);
+            injuryService.processInjuryRecovery(List.of(injury));
+        }
+
+        assertThat(injury.getStatus()).isEqualTo(InjuryStatus.HEALED);
+        assertThat(injury.getActualRecoveryDate()).isEqualTo(LocalDate.now());
+        verify(injuryRepository).save(injury);
+        verify(eventPublisher).publishEvent(any());
+    }
 
-        when(injuryRepository.findByStatus(InjuryStatus.ACTIVE)).thenReturn(List.of(injury));
+    @Test
+    void testProcessInjuryRecoveryKeepsTheInjuryOnAFailedRoll() {
+        Injury injury = dueInjury();
 
+        try (MockedStatic<RandomUtils> random = mockStatic(RandomUtils.class)) {
+            random.when(() -> RandomUtils.randomPercentage(80)).thenReturn(false);
+            injuryService.processInjuryRecovery(List.of(injury));
+        }
+
+        assertThat(injury.getStatus()).isEqualTo(InjuryStatus.ACTIVE);
+        verify(injuryRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testProcessInjuryRecoveryRunsAsBatchJob() {
         injuryService.processInjuryRecovery();
 
-        verify(injuryRepository).findByStatus(InjuryStatus.ACTIVE);
+        verify(batchJobRunner).run(any());
+    }
+
+    private Injury dueInjury() {
+        Player player = new Player();
+        player.setId(1L);
+        return Injury.builder()
+            .status(InjuryStatus.ACTIVE)
+            .expectedRecoveryDate(LocalDate.now().minusDays(1))
+            .player(player)
+            .build();
     }
 }
@@ -0,0 +1,142 @@
+package com.lollito.fm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.lollito.fm.model.League;
+import com.lollito.fm.model.Player;
+import com.lollito.fm.model.PlayerSeasonStats;
+import com.lollito.fm.model.Season;
+import com.lollito.fm.repository.rest.LeagueRepository;
+import com.lollito.fm.repository.rest.PlayerSeasonStatsRepository;
+import com.lollito.fm.service.LeagueLeaderboards.Statistic;
+
+@ExtendWith(MockitoExtension.class)
+class LeagueLeaderboardsTest {
+
+    @Mock
+    private PlayerSeasonStatsRepository playerSeasonStatsRepository;
+
+    @Mock
+    private LeagueRepository leagueRepository;
+
+    @InjectMocks
+    private LeagueLeaderboards leagueLeaderboards;
+
+    private League league;
+    private Season season;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(leagueLeaderboards, "size", 3);
+        ReflectionTestUtils.setField(leagueLeaderboards, "maxAgeSeconds", 300L);
+        league = new League();
+        league.setId(1L);
+        season = new Season();
+        season.setId(10L);
+        league.setCurrentSeason(season);
+    }
+
+    @Test
+    void testBoardIsReadOnceAndThenServedFromMemory() {
+        List<PlayerSeasonStats> top = List.of(stats(1L, 5), stats(2L, 3), stats(3L, 1));
+        when(playerSeasonStatsRepository.findTopScorersByLeagueAndSeason(1L, season, PageRequest.of(0, 3))).thenReturn(top);
+
+        assertThat(leagueLeaderboards.top(Statistic.GOALS, 1L, season, 2)).containsExactly(top.get(0), top.get(1));
+        assertThat(leagueLeaderboards.top(Statistic.GOALS, 1L, season, 3)).containsExactlyElementsOf(top);
+
+        verify(playerSeasonStatsRepository, times(1)).findTopScorersByLeagueAndSeason(any(), any(), any());
+    }
+
+    @Test
+    void testUpdatesMovePlayersAndKeepTheBoardBounded() {
+        PlayerSeasonStats first = stats(1L, 5);
+        PlayerSeasonStats second = stats(2L, 3);
+        PlayerSeasonStats third = stats(3L, 1);
+        when(playerSeasonStatsRepository.findTopScorersByLeagueAndSeason(1L, season, PageRequest.of(0, 3)))
+                .thenReturn(new ArrayList<>(List.of(first, second, third)));
+        leagueLeaderboards.top(Statistic.GOALS, 1L, season, 3);
+
+        // A player from outside the board overtakes the third, the second overtakes the first
+        PlayerSeasonStats outsider = stats(4L, 2);
+        second.setGoals(6);
+        leagueLeaderboards.record(List.of(outsider, second));
+
+        assertThat(leagueLeaderboards.top(Statistic.GOALS, 1L, season, 3)).containsExactly(second, first, outsider);
+
+        // Below the last of a full board: left out
+        leagueLeaderboards.record(List.of(stats(5L, 1)));
+        assertThat(leagueLeaderboards.top(Statistic.GOALS, 1L, season, 3)).containsExactly(second, first, outsider);
+    }
+
+    @Test
+    void testRowsOfBoardsNotLoadedAreSkipped() {
+        leagueLeaderboards.record(List.of(stats(1L, 5)));
+
+        when(playerSeasonStatsRepository.findTopAssistsByLeagueAndSeason(1L, season, PageRequest.of(0, 3))).thenReturn(List.of());
+        assertThat(leagueLeaderboards.top(Statistic.ASSISTS, 1L, season, 3)).isEmpty();
+    }
+
+    @Test
+    void testLimitBeyondTheBoardGoesToTheDatabase() {
+        leagueLeaderboards.top(Statistic.ASSISTS, 1L, season, 20);
+
+        verify(playerSeasonStatsRepository).findTopAssistsByLeagueAndSeason(1L, season, PageRequest.of(0, 20));
+        verify(playerSeasonStatsRepository, never()).findTopScorersByLeagueAndSeason(any(), any(), any());
+    }
+
+    @Test
+    void testExpiredBoardIsReadAgain() {
+        when(playerSeasonStatsRepository.findTopScorersByLeagueAndSeason(1L, season, PageRequest.of(0, 3)))
+                .thenReturn(List.of(stats(1L, 5)));
+        leagueLeaderboards.top(Statistic.GOALS, 1L, season, 3);
+
+        ReflectionTestUtils.setField(leagueLeaderboards, "maxAgeSeconds", -1L);
+        leagueLeaderboards.top(Statistic.GOALS, 1L, season, 3);
+
+        verify(playerSeasonStatsRepository, times(2)).findTopScorersByLeagueAndSeason(any(), any(), any());
+        assertThat(leagueLeaderboards.getCacheStats().getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    void testRebuildLoadsTheCurrentSeasons() {
+        when(leagueRepository.findAll()).thenReturn(List.of(league));
+        PlayerSeasonStats scorer = stats(1L, 5);
+        when(playerSeasonStatsRepository.findTopScorersByLeagueAndSeason(eq(1L), eq(season), any())).thenReturn(List.of(scorer));
+        when(playerSeasonStatsRepository.findTopAssistsByLeagueAndSeason(eq(1L), eq(season), any())).thenReturn(List.of());
+
+        leagueLeaderboards.rebuild();
+
+        assertThat(leagueLeaderboards.top(Statistic.GOALS, 1L, season, 3)).containsExactly(scorer);
+        verify(playerSeasonStatsRepository, times(1)).findTopScorersByLeagueAndSeason(any(), any(), any());
+    }
+
+    private PlayerSeasonStats stats(Long playerId, int goals) {
+        Player player = new Player();
+        player.setId(playerId);
+        return PlayerSeasonStats.builder()
+                .id(playerId)
+                .player(player)
+                .league(league)
+                .season(season)
+                .goals(goals)
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.lollito.fm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lollito.fm.model.dto.EventHistoryDTO;
+import com.lollito.fm.service.LiveMatchService.LiveMatchUpdateDTO;
+
+@ExtendWith(MockitoExtension.class)
+class LiveMatchBroadcasterTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private LiveMatchBroadcaster liveMatchBroadcaster;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUpdatesOfATickAreSentAsOneFrame() throws Exception {
+        liveMatchBroadcaster.publish(update(1L, 1, 80, event(79)));
+        liveMatchBroadcaster.publish(update(1L, 2, 90, event(85), event(90)));
+
+        verify(messagingTemplate, never()).send(any(String.class), any(Message.class));
+
+        liveMatchBroadcaster.flush();
+
+        ArgumentCaptor<Message<byte[]>> message = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq("/topic/match/1"), message.capture());
+        LiveMatchUpdateDTO frame = objectMapper.readValue(message.getValue().getPayload(), LiveMatchUpdateDTO.class);
+        assertThat(frame.getHomeScore()).isEqualTo(2);
+        assertThat(frame.getCurrentMinute()).isEqualTo(90);
+        assertThat(frame.getEvents()).extracting(EventHistoryDTO::getMinute).containsExactly(79, 85, 90);
+
+        // Nothing left for the next tick
+        liveMatchBroadcaster.flush();
+        verify(messagingTemplate).send(any(String.class), any(Message.class));
+    }
+
+    private LiveMatchUpdateDTO update(Long matchId, int homeScore, int minute, EventHistoryDTO... events) {
+        LiveMatchUpdateDTO update = new LiveMatchUpdateDTO();
+        update.setMatchId(matchId);
+        update.setHomeScore(homeScore);
+        update.setAwayScore(0);
+        update.setCurrentMinute(minute);
+        update.setEvents(List.of(events));
+        return update;
+    }
+
+    private EventHistoryDTO event(int minute) {
+        return EventHistoryDTO.builder().minute(minute).build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.lollito.fm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.lollito.fm.model.LiveMatchSession;
+import com.lollito.fm.repository.rest.LiveMatchSessionRepository;
+
+@ExtendWith(MockitoExtension.class)
+class LiveMatchRegistryTest {
+
+    @Mock
+    private LiveMatchSessionRepository liveMatchSessionRepository;
+
+    @Mock
+    private MatchReplayService matchReplayService;
+
+    @Mock
+    private ClusterService clusterService;
+
+    @InjectMocks
+    private LiveMatchRegistry liveMatchRegistry;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(clusterService.getNodeId()).thenReturn("node-a");
+    }
+
+    @Test
+    void testOrphanIsClaimedOnlyWhenTheLeaseIsWon() throws Exception {
+        when(liveMatchSessionRepository.findOrphans(any(LocalDateTime.class))).thenReturn(List.of(session(1L), session(2L)));
+        when(liveMatchSessionRepository.claim(eq(1L), eq("node-a"), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1L);
+        when(liveMatchSessionRepository.claim(eq(2L), eq("node-a"), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(0L);
+        when(matchReplayService.timeline(any(LiveMatchSession.class))).thenReturn(List.of());
+
+        liveMatchRegistry.rebuild();
+
+        assertThat(liveMatchRegistry.get(1L)).isNotNull();
+        assertThat(liveMatchRegistry.get(2L)).isNull();
+        assertThat(liveMatchRegistry.due(System.currentTimeMillis() + 1000)).hasSize(1);
+    }
+
+    @Test
+    void testRenewDropsSessionsTakenOverByAnotherNode() {
+        liveMatchRegistry.register(session(1L), List.of());
+        liveMatchRegistry.register(session(2L), List.of());
+        LiveMatchSession lost = session(2L);
+        lost.setOwner("node-b");
+        when(liveMatchSessionRepository.findByMatchIdInAndOwnerNot(anyCollection(), eq("node-a"))).thenReturn(List.of(lost));
+
+        liveMatchRegistry.renewLeases();
+
+        verify(liveMatchSessionRepository).renew(eq(Set.of(1L, 2L)), eq("node-a"), any(LocalDateTime.class));
+        assertThat(liveMatchRegistry.get(1L)).isNotNull();
+        assertThat(liveMatchRegistry.get(2L)).isNull();
+        verify(liveMatchSessionRepository, never()).claim(any(), any(), any(), any());
+    }
+
+    private LiveMatchSession session(Long matchId) {
+        return LiveMatchSession.builder()
+                .matchId(matchId)
+                .startTime(LocalDateTime.now())
+                .events("[]")
+                .build();
+    }
+}
@@ -2,6 +2,10 @@ package com.lollito.fm.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -17,19 +21,24 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.mockito.ArgumentCaptor;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lollito.fm.engine.LiveMatchState;
 import com.lollito.fm.mapper.MatchMapper;
 import com.lollito.fm.model.Club;
 import com.lollito.fm.model.LiveMatchSession;
 import com.lollito.fm.model.Match;
 import com.lollito.fm.model.MatchStatus;
+import com.lollito.fm.model.dto.EventHistoryDTO;
 import com.lollito.fm.model.dto.MatchDTO;
 import com.lollito.fm.model.dto.StatsDTO;
 import com.lollito.fm.repository.rest.LiveMatchSessionRepository;
 import com.lollito.fm.repository.rest.MatchRepository;
 import com.lollito.fm.service.LiveMatchService.LiveMatchData;
+import com.lollito.fm.service.LiveMatchService.LiveMatchUpdateDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class LiveMatchServiceTest {
@@ -41,10 +50,10 @@ class LiveMatchServiceTest {
     private MatchRepository matchRepository;
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private LiveMatchBroadcaster liveMatchBroadcaster;
 
-    @Spy
-    private ObjectMapper objectMapper = new ObjectMapper();
+    @Mock
+    private MatchReplayService matchReplayService;
 
     @Mock
     private MatchMapper matchMapper;
@@ -52,6 +61,12 @@ class LiveMatchServiceTest {
     @Mock
     private MatchProcessor matchProcessor;
 
+    @Mock
+    private LiveMatchRegistry liveMatchRegistry;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private LiveMatchService liveMatchService;
 
@@ -101,19 +116,57 @@ class LiveMatchServiceTest {
 
         verify(liveMatchSessionRepository).save(any(LiveMatchSession.class));
         verify(matchMapper).toDto(match);
+        verify(liveMatchRegistry).register(any(LiveMatchSession.class), eq(matchDTO.getEvents()));
     }
 
     @Test
     void testUpdateLiveMatches() {
-        List<LiveMatchSession> sessions = new ArrayList<>();
-        sessions.add(session);
-        when(liveMatchSessionRepository.findByFinishedFalse()).thenReturn(sessions);
-        when(liveMatchSessionRepository.save(any(LiveMatchSession.class))).thenReturn(session);
+        LiveMatchState state = new LiveMatchState(session, new ArrayList<>());
+        when(liveMatchRegistry.due(anyLong())).thenReturn(List.of(state));
 
         liveMatchService.updateLiveMatches();
 
-        verify(liveMatchSessionRepository).save(any(LiveMatchSession.class));
-        verify(messagingTemplate).convertAndSend(any(String.class), any(Object.class));
+        assertThat(state.getCurrentMinute()).isEqualTo(5);
+        // Nothing happens before the clock update two minutes later (2 seconds per minute)
+        verify(liveMatchRegistry).schedule(1L, state.getStartMillis() + 7 * 2000L);
+        verify(liveMatchSessionRepository, never()).save(any(LiveMatchSession.class));
+        verify(liveMatchSessionRepository, never()).checkpoint(anyLong(), anyInt(), anyInt(), anyInt());
+        verify(liveMatchBroadcaster).publish(any(LiveMatchUpdateDTO.class));
+        verify(liveMatchBroadcaster).flush();
+        assertThat(meterRegistry.timer("fm.live.tick").count()).isEqualTo(1);
+    }
+
+    @Test
+    void testUpdateLiveMatchesCheckpointsGoals() {
+        EventHistoryDTO goal = EventHistoryDTO.builder().minute(3).homeScore(1).awayScore(0).build();
+        EventHistoryDTO later = EventHistoryDTO.builder().minute(20).homeScore(1).awayScore(1).build();
+        LiveMatchState state = new LiveMatchState(session, List.of(later, goal));
+        when(liveMatchRegistry.due(anyLong())).thenReturn(List.of(state));
+
+        liveMatchService.updateLiveMatches();
+
+        assertThat(state.getHomeScore()).isEqualTo(1);
+        assertThat(state.getAwayScore()).isEqualTo(0);
+        ArgumentCaptor<LiveMatchUpdateDTO> update = ArgumentCaptor.forClass(LiveMatchUpdateDTO.class);
+        verify(liveMatchBroadcaster).publish(update.capture());
+        assertThat(update.getValue().getEvents()).containsExactly(goal);
+        assertThat(update.getValue().getHomeScore()).isEqualTo(1);
+        verify(liveMatchSessionRepository).checkpoint(1L, 5, 1, 0);
+    }
+
+    @Test
+    void testUpdateLiveMatchesFinishesAtFullTime() {
+        session.setStartTime(LocalDateTime.now().minusSeconds(181));
+        LiveMatchState state = new LiveMatchState(session, new ArrayList<>());
+        when(liveMatchRegistry.due(anyLong())).thenReturn(List.of(state));
+        when(liveMatchRegistry.remove(1L)).thenReturn(state);
+        when(liveMatchSessionRepository.findByMatchId(1L)).thenReturn(Optional.of(session));
+
+        liveMatchService.updateLiveMatches();
+
+        assertThat(session.getFinished()).isTrue();
+        verify(matchProcessor).finalizeMatch(1L, session);
+        verify(liveMatchRegistry, never()).schedule(anyLong(), anyLong());
     }
 
     @Test
@@ -121,15 +174,21 @@ class LiveMatchServiceTest {
         when(liveMatchSessionRepository.findByMatchId(1L)).thenReturn(Optional.of(session));
         when(matchRepository.findById(1L)).thenReturn(Optional.of(match));
         when(matchMapper.toDto(match)).thenReturn(matchDTO);
+        when(matchReplayService.timeline(session)).thenReturn(List.of());
 
-        Object data = liveMatchService.getLiveMatchData(1L);
+        LiveMatchData liveData = liveMatchService.getLiveMatchData(1L).orElseThrow();
 
-        assertThat(data).isInstanceOf(LiveMatchData.class);
-        LiveMatchData liveData = (LiveMatchData) data;
         assertThat(liveData.getMatch().getId()).isEqualTo(1L);
         assertThat(liveData.getCurrentMinute()).isEqualTo(0);
     }
 
+    @Test
+    void testGetLiveMatchData_EmptyForAnUnknownMatch() {
+        when(matchRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThat(liveMatchService.getLiveMatchData(2L)).isEmpty();
+    }
+
     @Test
     void testForceFinish() {
         when(liveMatchSessionRepository.findByMatchId(1L)).thenReturn(Optional.of(session));
@@ -140,7 +199,8 @@ class LiveMatchServiceTest {
         assertThat(session.getCurrentMinute()).isEqualTo(90);
         verify(liveMatchSessionRepository).save(session);
         verify(matchProcessor).finalizeMatch(1L, session);
-        verify(messagingTemplate).convertAndSend(any(String.class), any(Object.class));
+        verify(liveMatchBroadcaster).publish(any(LiveMatchUpdateDTO.class));
+        verify(liveMatchBroadcaster).flush();
     }
 
     @Test
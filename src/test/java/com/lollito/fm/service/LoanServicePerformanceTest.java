@@ -71,19 +71,17 @@ public class LoanServicePerformanceTest {
             statsMap.put(player.getId(), new PlayerSeasonStats());
         }
 
-        when(loanAgreementRepository.findWithPlayerByStatus(LoanStatus.ACTIVE)).thenReturn(loans);
         when(playerHistoryService.getSeasonStatsForPlayers(any(), eq(season))).thenReturn(statsMap);
 
-        // Execute
-        loanService.processMonthlyLoanReviews();
+        // Execute one chunk of the loan-reviews batch job, loaded with its players
+        loanService.processMonthlyLoanReviews(loans);
 
         // Verify Optimized Behavior
 
-        // 1. Verify findWithPlayerByStatus is called instead of findByStatus
-        verify(loanAgreementRepository, times(1)).findWithPlayerByStatus(LoanStatus.ACTIVE);
+        // 1. Verify the chunk is not reloaded
         verify(loanAgreementRepository, never()).findByStatus(LoanStatus.ACTIVE);
 
-        // 2. Verify bulk fetch for stats is called once
+        // 2. Verify bulk fetch for stats is called once per chunk
         verify(playerHistoryService, times(1)).getSeasonStatsForPlayers(any(), eq(season));
 
         // 3. Verify N+1 is gone: getPlayerSeasonStats should NOT be called
@@ -12,8 +12,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -208,4 +213,46 @@ public class ManagerProgressionServiceTest {
 
         assertFalse(managerProgressionService.hasPerk(user, ManagerPerk.VIDEO_ANALYST));
     }
+
+    @Test
+    void hasPerk_ShouldReadProfileOnce_WhenCalledRepeatedly() {
+        profile.getUnlockedPerks().add(ManagerPerk.FORTRESS);
+        when(managerProfileRepository.findByUserId(user.getId())).thenReturn(Optional.of(profile));
+
+        assertTrue(managerProgressionService.hasPerk(user, ManagerPerk.FORTRESS));
+        assertTrue(managerProgressionService.hasPerk(user, ManagerPerk.FORTRESS));
+        assertFalse(managerProgressionService.hasPerk(user, ManagerPerk.INVESTOR));
+
+        verify(managerProfileRepository, times(1)).findByUserId(user.getId());
+    }
+
+    @Test
+    void unlockPerk_ShouldRefreshCachedPerks() {
+        profile.setLevel(1);
+        profile.setTalentPoints(1);
+        when(managerProfileRepository.findByUserId(user.getId())).thenReturn(Optional.of(profile));
+
+        assertFalse(managerProgressionService.hasPerk(user, ManagerPerk.VIDEO_ANALYST));
+        managerProgressionService.unlockPerk(user, ManagerPerk.VIDEO_ANALYST);
+
+        assertTrue(managerProgressionService.hasPerk(user, ManagerPerk.VIDEO_ANALYST));
+    }
+
+    @Test
+    void getPerks_ShouldLoadAllUsersInOneQuery() {
+        User other = new User();
+        other.setId(2L);
+        when(managerProfileRepository.findUnlockedPerksByUserIdIn(any()))
+                .thenReturn(List.<Object[]>of(new Object[] { 1L, ManagerPerk.INVESTOR }, new Object[] { 1L, ManagerPerk.MARKETING_GURU }));
+
+        Map<Long, Set<ManagerPerk>> perks = managerProgressionService.getPerks(Arrays.asList(user, other, null));
+
+        assertEquals(EnumSet.of(ManagerPerk.INVESTOR, ManagerPerk.MARKETING_GURU), perks.get(1L));
+        assertTrue(perks.get(2L).isEmpty());
+        // Both are in memory now
+        assertTrue(managerProgressionService.hasPerk(user, ManagerPerk.INVESTOR));
+        assertFalse(managerProgressionService.hasPerk(other, ManagerPerk.INVESTOR));
+        verify(managerProfileRepository, times(1)).findUnlockedPerksByUserIdIn(any());
+        verify(managerProfileRepository, never()).findByUserId(any());
+    }
 }
@@ -0,0 +1,161 @@
+package com.lollito.fm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lollito.fm.engine.FormationSnapshot;
+import com.lollito.fm.engine.MatchEngine;
+import com.lollito.fm.engine.MatchReplay;
+import com.lollito.fm.mapper.MatchMapper;
+import com.lollito.fm.model.Club;
+import com.lollito.fm.model.Event;
+import com.lollito.fm.model.EventHistory;
+import com.lollito.fm.model.Formation;
+import com.lollito.fm.model.LiveMatchSession;
+import com.lollito.fm.model.Match;
+import com.lollito.fm.model.Module;
+import com.lollito.fm.model.Player;
+import com.lollito.fm.model.PlayerRole;
+import com.lollito.fm.model.dto.EventHistoryDTO;
+import com.lollito.fm.repository.rest.MatchRepository;
+import com.lollito.fm.repository.rest.PlayerRepository;
+
+@ExtendWith(MockitoExtension.class)
+class MatchReplayServiceTest {
+
+    @Mock
+    private MatchRepository matchRepository;
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @Mock
+    private MatchMapper matchMapper;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private MatchReplayService matchReplayService;
+
+    @Test
+    void testRestoreRegeneratesTheSimulatedMatch() throws Exception {
+        Formation home = createFormation(1);
+        Formation away = createFormation(100);
+        Match match = createMatch();
+
+        FormationSnapshot homeSnapshot = snapshot(home);
+        FormationSnapshot awaySnapshot = snapshot(away);
+        MatchReplay replay = new MatchReplay(7L, 3, homeSnapshot.capture(), awaySnapshot.capture());
+        replay.getInjuries().add(new MatchReplay.Injury(30, "Home 2 is injured"));
+        MatchEngine engine = MatchEngine.seeded(homeSnapshot, awaySnapshot, 3, 7L);
+        engine.play();
+        engine.writeBack();
+
+        List<Player> players = new ArrayList<>(home.getPlayers());
+        players.addAll(away.getPlayers());
+        when(playerRepository.findAllById(anyIterable())).thenReturn(players);
+        LiveMatchSession session = LiveMatchSession.builder().matchId(1L).replay(matchReplayService.write(replay)).build();
+
+        matchReplayService.restore(match, session);
+
+        List<EventHistory> expected = engine.events(match);
+        assertThat(match.getEvents()).hasSize(expected.size() + 1);
+        assertThat(match.getEvents()).filteredOn(e -> e.getType() == Event.INJURY).singleElement()
+                .satisfies(e -> assertThat(e.getMinute()).isEqualTo(30));
+        assertThat(match.getEvents()).extracting(EventHistory::getMinute).isSorted();
+        assertThat(match.getEvents()).allSatisfy(e -> assertThat(e.getMatch()).isSameAs(match));
+        assertThat(match.getStats().getHomePasses()).isEqualTo(engine.stats().getHomePasses());
+        assertThat(match.getPlayerStats()).hasSize(22);
+        assertThat(match.getPlayerStats().stream().mapToInt(mps -> mps.getGoals()).sum())
+                .isEqualTo(engine.getHomeScore() + engine.getAwayScore());
+    }
+
+    @Test
+    void testTimelineOfSessionsWithoutReplay() throws Exception {
+        LiveMatchSession session = LiveMatchSession.builder()
+                .matchId(1L)
+                .events("[{\"minute\":12,\"description\":\"Goal\",\"homeScore\":1,\"awayScore\":0}]")
+                .build();
+
+        List<EventHistoryDTO> timeline = matchReplayService.timeline(session);
+
+        assertThat(timeline).singleElement().satisfies(e -> assertThat(e.getMinute()).isEqualTo(12));
+    }
+
+    @Test
+    void testTimelineFromReplay() throws Exception {
+        Formation home = createFormation(1);
+        Formation away = createFormation(100);
+        Match match = createMatch();
+        MatchReplay replay = new MatchReplay(11L, 0, snapshot(home).capture(), snapshot(away).capture());
+        List<Player> players = new ArrayList<>(home.getPlayers());
+        players.addAll(away.getPlayers());
+        when(matchRepository.findById(1L)).thenReturn(Optional.of(match));
+        when(playerRepository.findAllById(anyIterable())).thenReturn(players);
+        when(matchMapper.toDto(any(EventHistory.class))).thenAnswer(i -> EventHistoryDTO.builder()
+                .minute(((EventHistory) i.getArgument(0)).getMinute()).build());
+        LiveMatchSession session = LiveMatchSession.builder().matchId(1L).replay(matchReplayService.write(replay)).build();
+
+        List<EventHistoryDTO> first = matchReplayService.timeline(session);
+        List<EventHistoryDTO> second = matchReplayService.timeline(session);
+
+        assertThat(first).isNotEmpty();
+        assertThat(first).extracting(EventHistoryDTO::getMinute).isEqualTo(second.stream().map(EventHistoryDTO::getMinute).toList());
+    }
+
+    private FormationSnapshot snapshot(Formation formation) {
+        List<Player> players = formation.getPlayers();
+        return FormationSnapshot.of(formation,
+                new ArrayList<>(players.subList(0, 5)),
+                new ArrayList<>(players.subList(1, 9)),
+                new ArrayList<>(players.subList(5, 11)));
+    }
+
+    private Match createMatch() {
+        Club home = new Club();
+        home.setName("Home FC");
+        Club away = new Club();
+        away.setName("Away FC");
+        Match match = new Match();
+        match.setId(1L);
+        match.setHome(home);
+        match.setAway(away);
+        return match;
+    }
+
+    private Formation createFormation(long firstId) {
+        Formation formation = new Formation();
+        formation.setModule(new Module("4-4-2", 4, 0, 4, 0, 2));
+        for (int i = 0; i < 11; i++) {
+            Player p = new Player();
+            p.setId(firstId + i);
+            p.setSurname("Player " + (firstId + i));
+            p.setStamina(60.0);
+            p.setGoalkeeping(60.0);
+            p.setDefending(60.0);
+            p.setScoring(60.0);
+            p.setPassing(60.0);
+            p.setPlaymaking(60.0);
+            p.setWinger(60.0);
+            p.setSetPieces(60.0);
+            p.setRole(i == 0 ? PlayerRole.GOALKEEPER : i < 5 ? PlayerRole.DEFENDER : i < 9 ? PlayerRole.MIDFIELDER : PlayerRole.FORWARD);
+            formation.getPlayers().add(p);
+        }
+        return formation;
+    }
+}
@@ -0,0 +1,126 @@
+package com.lollito.fm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+
+import com.lollito.fm.model.Match;
+import com.lollito.fm.model.MatchStatus;
+import com.lollito.fm.repository.rest.MatchRepository;
+import com.lollito.fm.service.ClusterService.Partition;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class MatchSchedulerServiceBackpressureTest {
+
+    @Mock private MatchRepository matchRepository;
+    @Mock private MatchProcessor matchProcessor;
+    @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Mock private ClusterService clusterService;
+    @Mock private SchedulerLockService schedulerLockService;
+
+    @InjectMocks
+    private MatchSchedulerService matchSchedulerService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(clusterService.partitions()).thenReturn(List.of(new Partition(0, 1)));
+        lenient().when(schedulerLockService.runLocked(eq("match-processing"), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+    }
+
+    @Test
+    void testFullQueueDefersRemainingMatches() {
+        when(matchRepository.findByStatusAndDateBefore(eq(MatchStatus.SCHEDULED), any(LocalDateTime.class)))
+                .thenReturn(List.of(match(1L), match(2L), match(3L)));
+        when(matchProcessor.processMatch(1L)).thenReturn(CompletableFuture.completedFuture(null));
+        when(matchProcessor.processMatch(2L)).thenThrow(new TaskRejectedException("queue full"));
+
+        matchSchedulerService.processScheduledMatches();
+
+        verify(matchProcessor, never()).processMatch(3L);
+        assertEquals(2.0, meterRegistry.counter("fm.match.processing.deferred").count());
+
+        // Deferred matches are submitted again on the next tick
+        doReturn(CompletableFuture.completedFuture(null)).when(matchProcessor).processMatch(2L);
+        when(matchProcessor.processMatch(3L)).thenReturn(CompletableFuture.completedFuture(null));
+
+        matchSchedulerService.processScheduledMatches();
+
+        verify(matchProcessor, times(2)).processMatch(1L);
+        verify(matchProcessor, times(1)).processMatch(3L);
+    }
+
+    @Test
+    void testMatchInProgressIsNotSubmittedTwice() {
+        when(matchRepository.findByStatusAndDateBefore(eq(MatchStatus.SCHEDULED), any(LocalDateTime.class)))
+                .thenReturn(List.of(match(1L)));
+        CompletableFuture<Void> running = new CompletableFuture<>();
+        when(matchProcessor.processMatch(1L)).thenReturn(running);
+
+        matchSchedulerService.processScheduledMatches();
+        matchSchedulerService.processScheduledMatches();
+        verify(matchProcessor, times(1)).processMatch(1L);
+
+        running.complete(null);
+        matchSchedulerService.processScheduledMatches();
+        verify(matchProcessor, times(2)).processMatch(1L);
+    }
+
+    @Test
+    void testEachNodeDispatchesItsSlicesOfTheLeagues() {
+        when(clusterService.partitions()).thenReturn(List.of(new Partition(1, 8), new Partition(4, 8)));
+        when(schedulerLockService.runLocked(eq("match-processing#1/8"), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+        when(schedulerLockService.runLocked(eq("match-processing#4/8"), any())).thenReturn(false);
+        when(matchRepository.findByStatusAndDateBeforeInLeaguePartition(eq(MatchStatus.SCHEDULED), any(LocalDateTime.class), eq(8), eq(1)))
+                .thenReturn(List.of(match(9L)));
+        when(matchProcessor.processMatch(9L)).thenReturn(CompletableFuture.completedFuture(null));
+
+        matchSchedulerService.processScheduledMatches();
+
+        verify(matchRepository, never()).findByStatusAndDateBefore(any(), any());
+        verify(matchRepository, never()).findByStatusAndDateBeforeInLeaguePartition(any(), any(), eq(8), eq(4));
+        verify(matchProcessor).processMatch(9L);
+    }
+
+    @Test
+    void testNothingIsDispatchedWhileAnotherNodeHoldsTheLock() {
+        when(schedulerLockService.runLocked(eq("match-processing"), any())).thenReturn(false);
+
+        matchSchedulerService.processScheduledMatches();
+
+        verify(matchRepository, never()).findByStatusAndDateBefore(any(), any());
+    }
+
+    private Match match(Long id) {
+        Match match = new Match();
+        match.setId(id);
+        return match;
+    }
+}
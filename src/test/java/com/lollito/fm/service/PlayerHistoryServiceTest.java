@@ -2,22 +2,34 @@ package com.lollito.fm.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.lollito.fm.model.Club;
 import com.lollito.fm.model.League;
+import com.lollito.fm.model.MatchPlayerStats;
 import com.lollito.fm.model.Player;
+import com.lollito.fm.model.PlayerCareerStats;
 import com.lollito.fm.model.PlayerSeasonStats;
 import com.lollito.fm.model.Season;
 import com.lollito.fm.model.Team;
@@ -52,9 +64,18 @@ public class PlayerHistoryServiceTest {
     @Mock
     private ClubRepository clubRepository;
 
+    @Mock
+    private BatchJobRunner batchJobRunner;
+
+    @Mock
+    private LeagueLeaderboards leagueLeaderboards;
+
     @InjectMocks
     private PlayerHistoryService playerHistoryService;
 
+    @Captor
+    private ArgumentCaptor<List<PlayerCareerStats>> careerStatsCaptor;
+
     private Player player;
     private Season season;
     private Club club;
@@ -132,4 +153,97 @@ public class PlayerHistoryServiceTest {
         // Verify incremental update happened (10 + 1 = 11 goals)
         assertEquals(11, careerStats.getTotalGoals());
     }
+
+    @Test
+    public void testFirstMatchStartsCareerStatsWithoutReadingSeasons() {
+        when(seasonService.getCurrentSeason()).thenReturn(season);
+        when(playerSeasonStatsRepository.findBySeasonAndPlayerIn(season, List.of(player))).thenReturn(List.of());
+        when(playerCareerStatsRepository.findByPlayerIn(List.of(player))).thenReturn(List.of());
+        when(clubRepository.findByTeam(team)).thenReturn(Optional.of(club));
+
+        playerHistoryService.updateMatchStatisticsBatch(List.of(match(0, 7.0)));
+
+        verify(playerSeasonStatsRepository, never()).findByPlayer(any());
+        verify(playerCareerStatsRepository, never()).save(any());
+        verify(playerCareerStatsRepository).saveAll(careerStatsCaptor.capture());
+        PlayerCareerStats careerStats = careerStatsCaptor.getValue().get(0);
+        assertSame(player.getCareerStats(), careerStats);
+        assertEquals(1, careerStats.getTotalMatchesPlayed());
+        assertEquals(7.0, careerStats.getAverageRating(), 1e-9);
+        assertNotNull(careerStats.getFirstProfessionalMatch());
+    }
+
+    @Test
+    public void testRatingAndGoalStreakAreRunningAggregates() {
+        when(seasonService.getCurrentSeason()).thenReturn(season);
+        when(playerSeasonStatsRepository.findBySeasonAndPlayerIn(any(), anyList())).thenReturn(List.of());
+        when(playerCareerStatsRepository.findByPlayerIn(anyList())).thenReturn(List.of());
+        when(clubRepository.findByTeam(team)).thenReturn(Optional.of(club));
+
+        playerHistoryService.updateMatchStatisticsBatch(List.of(match(1, 6.0), match(2, 8.0), match(0, null), match(1, 7.0)));
+
+        PlayerCareerStats careerStats = player.getCareerStats();
+        assertEquals(4, careerStats.getTotalMatchesPlayed());
+        assertEquals(3, careerStats.getRatedMatches());
+        assertEquals(7.0, careerStats.getAverageRating(), 1e-9);
+        assertEquals(2, careerStats.getLongestGoalStreak());
+        assertEquals(1, careerStats.getCurrentGoalStreak());
+        assertEquals(4, careerStats.getMostGoalsInSeason());
+    }
+
+    @Test
+    public void testRebuildRecomputesCareerStatsFromSeasons() {
+        PlayerCareerStats careerStats = PlayerCareerStats.builder()
+                .player(player)
+                .totalGoals(99)
+                .longestGoalStreak(5)
+                .build();
+        player.setCareerStats(careerStats);
+        when(playerSeasonStatsRepository.findByPlayerIn(List.of(player))).thenReturn(List.of(
+                PlayerSeasonStats.builder().player(player).matchesPlayed(10).goals(4).assists(2).averageRating(6.0).build(),
+                PlayerSeasonStats.builder().player(player).matchesPlayed(30).goals(12).assists(1).averageRating(7.0).build()));
+
+        playerHistoryService.rebuildCareerStats(List.of(player));
+
+        verify(playerCareerStatsRepository).saveAll(List.of(careerStats));
+        assertEquals(40, careerStats.getTotalMatchesPlayed());
+        assertEquals(16, careerStats.getTotalGoals());
+        assertEquals(3, careerStats.getTotalAssists());
+        assertEquals(12, careerStats.getMostGoalsInSeason());
+        assertEquals(7.0, careerStats.getHighestSeasonRating());
+        assertEquals(6.75, careerStats.getAverageRating(), 1e-9);
+        assertEquals(5, careerStats.getLongestGoalStreak());
+    }
+
+    private MatchPlayerStats match(int goals, Double rating) {
+        return MatchPlayerStats.builder()
+                .player(player)
+                .goals(goals)
+                .assists(0)
+                .yellowCards(0)
+                .redCards(0)
+                .minutesPlayed(90)
+                .rating(rating)
+                .build();
+    }
+
+    @Test
+    public void testCareerStatsRebuildRunsOnTheOnDemandExecutor() {
+        ReflectionTestUtils.setField(playerHistoryService, "onDemandExecutor", (Executor) Runnable::run);
+
+        assertEquals(true, playerHistoryService.startCareerStatsRebuild());
+
+        verify(batchJobRunner).run(any());
+    }
+
+    @Test
+    public void testCareerStatsRebuildIsNotStartedTwice() {
+        ReflectionTestUtils.setField(playerHistoryService, "onDemandExecutor", (Executor) task -> {
+            throw new TaskRejectedException("busy");
+        });
+
+        assertEquals(false, playerHistoryService.startCareerStatsRebuild());
+
+        verify(batchJobRunner, never()).run(any());
+    }
 }
@@ -0,0 +1,165 @@
+package com.lollito.fm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lollito.fm.model.Player;
+import com.lollito.fm.repository.rest.PlayerRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest(properties = "fm.player-buffer.enabled=true")
+@Import({ PlayerStateBuffer.class, PlayerStateBufferTest.Metrics.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PlayerStateBufferTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private PlayerStateBuffer playerStateBuffer;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private ClusterService clusterService;
+
+    private TransactionTemplate transaction;
+
+    private Long playerId;
+
+    @BeforeEach
+    void setUp() {
+        when(clusterService.liveNodes()).thenReturn(List.of("node-a"));
+        playerStateBuffer.flush();
+        transaction = new TransactionTemplate(transactionManager);
+        Player player = new Player("Mario", "Rossi", LocalDate.of(2000, 1, 1));
+        player.setScoring(50.0);
+        player.setPassing(50.0);
+        playerId = transaction.execute(status -> playerRepository.save(player).getId());
+    }
+
+    @Test
+    void testChangesAreCoalescedAndWrittenColumnByColumn() {
+        double batched = batched();
+        change(player -> {
+            player.setCondition(80.0);
+            player.setScoring(51.0);
+        });
+
+        // Not written by the transaction, but seen by the next load
+        assertThat(row().get("cndtion")).isEqualTo(100.0);
+        assertThat(playerStateBuffer.size()).isEqualTo(1);
+        change(player -> {
+            assertThat(player.getCondition()).isEqualTo(80.0);
+            player.setCondition(70.0);
+        });
+        assertThat(playerStateBuffer.size()).isEqualTo(1);
+
+        // A column the buffer does not hold is left alone
+        jdbcTemplate.update("update \"player\" set \"passing\" = 42 where \"id\" = ?", playerId);
+
+        assertThat(playerStateBuffer.flush()).isEqualTo(1);
+
+        Map<String, Object> row = row();
+        assertThat(row.get("cndtion")).isEqualTo(70.0);
+        assertThat(row.get("scoring")).isEqualTo(51.0);
+        assertThat(row.get("moral")).isEqualTo(100.0);
+        assertThat(row.get("passing")).isEqualTo(42.0);
+        assertThat(playerStateBuffer.size()).isZero();
+        assertThat(batched() - batched).isEqualTo(1.0);
+    }
+
+    @Test
+    void testRowWrittenByHibernateDropsTheBufferedState() {
+        change(player -> player.setCondition(80.0));
+
+        // The surname forces Hibernate to write the row, buffered condition included
+        transaction.executeWithoutResult(status -> playerRepository.findById(playerId).orElseThrow().setSurname("Bianchi"));
+
+        assertThat(row().get("cndtion")).isEqualTo(80.0);
+        assertThat(playerStateBuffer.size()).isZero();
+    }
+
+    @Test
+    void testAnotherLiveNodeStopsTheBuffering() {
+        change(player -> player.setCondition(80.0));
+        when(clusterService.liveNodes()).thenReturn(List.of("node-a", "node-b"));
+
+        // Written before the other node reads the row and writes its own change
+        assertThat(playerStateBuffer.flush()).isEqualTo(1);
+        assertThat(row().get("cndtion")).isEqualTo(80.0);
+        jdbcTemplate.update("update \"player\" set \"scoring\" = 60 where \"id\" = ?", playerId);
+
+        // This node now writes its own changes at once, over the current row
+        change(player -> {
+            assertThat(player.getScoring()).isEqualTo(60.0);
+            player.setCondition(70.0);
+        });
+        assertThat(playerStateBuffer.size()).isZero();
+        assertThat(row().get("cndtion")).isEqualTo(70.0);
+        assertThat(row().get("scoring")).isEqualTo(60.0);
+    }
+
+    @Test
+    void testWithoutTransactionPlayersAreSavedRightAway() {
+        Player player = playerRepository.findById(playerId).orElseThrow();
+        player.setCondition(60.0);
+
+        playerStateBuffer.record(List.of(player));
+
+        assertThat(row().get("cndtion")).isEqualTo(60.0);
+        assertThat(playerStateBuffer.size()).isZero();
+    }
+
+    private void change(Consumer<Player> change) {
+        transaction.executeWithoutResult(status -> {
+            Player player = playerRepository.findById(playerId).orElseThrow();
+            change.accept(player);
+            playerStateBuffer.record(List.of(player));
+        });
+    }
+
+    private double batched() {
+        return meterRegistry.summary("fm.db.batch.size", "statement", "player-state").totalAmount();
+    }
+
+    private Map<String, Object> row() {
+        return jdbcTemplate.queryForMap("select * from \"player\" where \"id\" = ?", playerId);
+    }
+}
@@ -1,11 +1,15 @@
 package com.lollito.fm.service;
 
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,10 +18,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.lollito.fm.model.Club;
+import com.lollito.fm.model.Match;
 import com.lollito.fm.model.Ranking;
+import com.lollito.fm.model.Round;
 import com.lollito.fm.model.User;
 import com.lollito.fm.model.League;
 import com.lollito.fm.model.Season;
+import com.lollito.fm.model.dto.RankingDTO;
+import com.lollito.fm.repository.rest.RankingRepository;
+import com.lollito.fm.service.StandingsEngine.Table;
 
 @ExtendWith(MockitoExtension.class)
 public class RankingServiceTest {
@@ -25,6 +34,15 @@ public class RankingServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private RankingRepository rankingLineRepository;
+
+    @Mock
+    private StandingsEngine standingsEngine;
+
+    @Mock
+    private Table table;
+
     @InjectMocks
     private RankingService rankingService;
 
@@ -66,4 +84,51 @@ public class RankingServiceTest {
         assertNotNull(rankings);
         assertEquals(1, rankings.size());
     }
+
+    @Test
+    public void testUpdateAllReadsTheRowsByIdAndRecordsTheResults() {
+        Season season = new Season();
+        season.setId(1L);
+        Round round = new Round();
+        round.setSeason(season);
+        Club home = new Club();
+        home.setId(1L);
+        Club away = new Club();
+        away.setId(2L);
+        Match match = new Match();
+        match.setRound(round);
+        match.setHome(home);
+        match.setAway(away);
+        match.setHomeScore(2);
+        match.setAwayScore(1);
+        Ranking homeRanking = Ranking.builder().id(11L).club(home).build();
+        Ranking awayRanking = Ranking.builder().id(12L).club(away).build();
+        when(standingsEngine.table(season)).thenReturn(table);
+        when(table.rankingId(1L)).thenReturn(11L);
+        when(table.rankingId(2L)).thenReturn(12L);
+        when(rankingLineRepository.findAllById(Set.of(11L, 12L))).thenReturn(List.of(homeRanking, awayRanking));
+
+        rankingService.update(match);
+
+        assertEquals(3, homeRanking.getPoints());
+        assertEquals(1, awayRanking.getLost());
+        verify(rankingLineRepository, never()).findFirstByClubAndSeason(any(), any());
+        verify(standingsEngine).record(season, List.of(match));
+    }
+
+    @Test
+    public void testStandingsAreServedFromTheEngine() {
+        User user = new User();
+        Club club = new Club();
+        League league = new League();
+        Season season = new Season();
+        league.setCurrentSeason(season);
+        club.setLeague(league);
+        user.setClub(club);
+        List<RankingDTO> standings = List.of(new RankingDTO());
+        when(userService.getLoggedUser()).thenReturn(user);
+        when(standingsEngine.standings(season)).thenReturn(standings);
+
+        assertEquals(standings, rankingService.standings());
+    }
 }
@@ -0,0 +1,169 @@
+package com.lollito.fm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.lollito.fm.model.SchedulerLock;
+import com.lollito.fm.repository.SchedulerLockRepository;
+
+import jakarta.persistence.EntityExistsException;
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class SchedulerLockServiceTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private SchedulerLockRepository schedulerLockRepository;
+
+    @Mock
+    private ClusterService clusterService;
+
+    @InjectMocks
+    private SchedulerLockService schedulerLockService;
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        when(clusterService.getNodeId()).thenReturn("node-a");
+    }
+
+    @Test
+    void testTaskRunsWithTheLeaseAndReleasesIt() {
+        when(schedulerLockRepository.acquire(eq("job"), eq("node-a"), any(), any())).thenReturn(1);
+
+        assertThat(schedulerLockService.runLocked("job", runs::incrementAndGet)).isTrue();
+
+        assertThat(runs).hasValue(1);
+        verify(schedulerLockRepository).release(eq("job"), eq("node-a"), any());
+    }
+
+    @Test
+    void testTaskIsSkippedWhileAnotherNodeHoldsTheLease() {
+        when(schedulerLockRepository.acquire(eq("job"), eq("node-a"), any(), any())).thenReturn(0);
+        when(schedulerLockRepository.existsById("job")).thenReturn(true);
+
+        assertThat(schedulerLockService.runLocked("job", runs::incrementAndGet)).isFalse();
+
+        assertThat(runs).hasValue(0);
+        verify(schedulerLockRepository, never()).release(any(), any(), any());
+    }
+
+    @Test
+    void testFirstRunCreatesTheLease() {
+        when(schedulerLockRepository.acquire(eq("job"), eq("node-a"), any(), any())).thenReturn(0);
+        when(schedulerLockRepository.existsById("job")).thenReturn(false);
+
+        assertThat(schedulerLockService.runLocked("job", runs::incrementAndGet)).isTrue();
+
+        ArgumentCaptor<SchedulerLock> lock = ArgumentCaptor.forClass(SchedulerLock.class);
+        verify(entityManager).persist(lock.capture());
+        assertThat(lock.getValue().getOwner()).isEqualTo("node-a");
+        assertThat(lock.getValue().getLockedUntil()).isAfter(LocalDateTime.now());
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void testConcurrentFirstRunOnAnotherNodeWins() {
+        when(schedulerLockRepository.acquire(eq("job"), eq("node-a"), any(), any())).thenReturn(0);
+        when(schedulerLockRepository.existsById("job")).thenReturn(false);
+        doThrow(new EntityExistsException("duplicate")).when(entityManager).persist(any());
+
+        assertThat(schedulerLockService.runLocked("job", runs::incrementAndGet)).isFalse();
+        assertThat(runs).hasValue(0);
+    }
+
+    @Test
+    void testLeaseIsReleasedWhenTheTaskFails() {
+        when(schedulerLockRepository.acquire(eq("job"), eq("node-a"), any(), any())).thenReturn(1);
+
+        assertThatThrownBy(() -> schedulerLockService.runLocked("job", () -> {
+            throw new IllegalStateException("failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        verify(schedulerLockRepository).release(eq("job"), eq("node-a"), any());
+    }
+
+    @Test
+    void testLeaseIsKeptForMostOfTheSchedulePeriod() {
+        when(schedulerLockRepository.acquire(eq("job"), eq("node-a"), any(), any())).thenReturn(1);
+        LocalDateTime before = LocalDateTime.now();
+
+        assertThat(schedulerLockService.runLocked("job", Duration.ofMinutes(10), runs::incrementAndGet)).isTrue();
+
+        ArgumentCaptor<LocalDateTime> until = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(schedulerLockRepository).release(eq("job"), eq("node-a"), until.capture());
+        assertThat(until.getValue()).isAfterOrEqualTo(before.plusMinutes(9)).isBefore(before.plusMinutes(10));
+    }
+
+    @Test
+    void testLeaseOfAFailedTaskIsFreedAtOnce() {
+        when(schedulerLockRepository.acquire(eq("job"), eq("node-a"), any(), any())).thenReturn(1);
+
+        assertThatThrownBy(() -> schedulerLockService.runLocked("job", Duration.ofMinutes(10), () -> {
+            throw new IllegalStateException("failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        ArgumentCaptor<LocalDateTime> until = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(schedulerLockRepository).release(eq("job"), eq("node-a"), until.capture());
+        assertThat(until.getValue()).isBeforeOrEqualTo(LocalDateTime.now());
+    }
+
+    @Test
+    void testLeaseIsReleasedOnlyOnceTheSurroundingTransactionCompletes() {
+        when(schedulerLockRepository.acquire(eq("job"), eq("node-a"), any(), any())).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThat(schedulerLockService.runLocked("job", Duration.ofMinutes(10), runs::incrementAndGet)).isTrue();
+            verify(schedulerLockRepository, never()).release(any(), any(), any());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        ArgumentCaptor<LocalDateTime> until = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(schedulerLockRepository).release(eq("job"), eq("node-a"), until.capture());
+        assertThat(until.getValue()).isBeforeOrEqualTo(LocalDateTime.now());
+    }
+
+    @Test
+    void testHeartbeatRenewsTheLeasesOfRunningJobs() {
+        when(schedulerLockRepository.acquire(eq("job"), eq("node-a"), any(), any())).thenReturn(1);
+        when(schedulerLockRepository.extend(anyCollection(), eq("node-a"), any())).thenReturn(1);
+
+        schedulerLockService.runLocked("job", () -> schedulerLockService.heartbeat());
+
+        verify(schedulerLockRepository).extend(eq(Set.of("job")), eq("node-a"), any());
+    }
+}
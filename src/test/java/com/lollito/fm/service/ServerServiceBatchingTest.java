@@ -0,0 +1,95 @@
+package com.lollito.fm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.lollito.fm.config.SimulationConfig;
+import com.lollito.fm.mapper.MatchMapper;
+import com.lollito.fm.model.Country;
+import com.lollito.fm.repository.rest.CountryRepository;
+import com.lollito.fm.repository.rest.PlayerRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Server creation under the "batching" profile: the thousands of rows it
+ * inserts go to the database in JDBC batches.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("batching")
+@Import({ ServerService.class, ClubService.class, TeamService.class, PlayerService.class, PlayerStateBuffer.class,
+        NameService.class, SeasonService.class, SimulationConfig.class, ServerServiceBatchingTest.Metrics.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ServerServiceBatchingTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockitoBean private CountryService countryService;
+    @MockitoBean private UserService userService;
+    @MockitoBean private RankingService rankingService;
+    @MockitoBean private LeagueService leagueService;
+    @MockitoBean private AchievementService achievementService;
+    @MockitoBean private SimulationMatchService simulationMatchService;
+    @MockitoBean private MatchMapper matchMapper;
+    @MockitoBean private ClusterService clusterService;
+
+    @Autowired
+    private ServerService serverService;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testServerCreationInsertsInBatches() {
+        List<Country> countries = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Country country = new Country();
+            country.setName("Country " + i);
+            country.setCreateLeague(true);
+            countries.add(countryRepository.save(country));
+        }
+        when(countryService.findByCreateLeague(true)).thenReturn(countries);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        serverService.create("Batching");
+
+        // 3 leagues of 10 clubs with 23 players each, plus their teams, clubs, seasons and fixtures
+        assertThat(playerRepository.count()).isEqualTo(3 * 10 * 23);
+        long inserts = statistics.getEntityInsertCount();
+        assertThat(inserts).isGreaterThan(1000);
+        // One statement per batch and per block of ids, not one per row
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(inserts / 10);
+        assertThat(serverService.creationProgress("Batching").getStepsDone()).isEqualTo(9);
+    }
+}
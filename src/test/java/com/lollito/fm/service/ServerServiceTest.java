@@ -9,6 +9,7 @@ import static org.mockito.Mockito.*;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -16,14 +17,19 @@ import static org.mockito.Mockito.when;
 
 
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 
 
@@ -32,7 +38,11 @@ import com.lollito.fm.model.User;
 import com.lollito.fm.model.Country;
 import com.lollito.fm.model.League;
 import com.lollito.fm.model.Season;
+import com.lollito.fm.model.Match;
+import com.lollito.fm.model.Round;
 import com.lollito.fm.model.rest.ServerResponse;
+import com.lollito.fm.model.dto.ServerCreationProgress;
+import com.lollito.fm.model.dto.ServerCreationProgress.Phase;
 import com.lollito.fm.model.Club;
 import com.lollito.fm.model.Team;
 import com.lollito.fm.model.Player;
@@ -85,9 +95,20 @@ class ServerServiceTest {
     @Mock
     private SeasonRepository seasonRepository;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private ServerService serverService;
 
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(serverService, "simulationPool", ForkJoinPool.commonPool());
+    }
+
     @Test
     void testDeleteAll() {
         serverService.deleteAll();
@@ -126,6 +147,32 @@ class ServerServiceTest {
         verify(clubService).createClubs(eq(result), any(League.class), eq(10));
         verify(seasonService).create(any(League.class), eq(result.getCurrentDate()));
         verify(serverRepository).save(result);
+        verify(leagueRepository).save(any(League.class));
+        verify(entityManager).clear();
+
+        ServerCreationProgress progress = serverService.creationProgress(serverName);
+        assertEquals(Phase.COMPLETED, progress.getPhase());
+        assertEquals(3, progress.getStepsDone());
+        assertEquals(3, progress.getStepsTotal());
+    }
+
+    @Test
+    void testCreateFailureIsReported() {
+        Country country = new Country();
+        country.setName("Test Country");
+        when(countryService.findByCreateLeague(true)).thenReturn(List.of(country, country));
+        when(clubService.createClubs(any(Server.class), any(League.class), eq(10))).thenReturn(new ArrayList<>());
+        when(seasonService.create(any(League.class), any(LocalDateTime.class))).thenThrow(new RuntimeException("error"));
+
+        assertThrows(RuntimeException.class, () -> serverService.create("Broken"));
+
+        ServerCreationProgress progress = serverService.creationProgress("Broken");
+        assertEquals(Phase.FAILED, progress.getPhase());
+        assertEquals("error", progress.getError());
+        // Both leagues generated, none scheduled
+        assertEquals(2, progress.getStepsDone());
+        assertEquals(6, progress.getStepsTotal());
+        verify(serverRepository, never()).save(any());
     }
     void testLoadById_Success() {
         Long serverId = 1L;
@@ -209,4 +256,36 @@ class ServerServiceTest {
         verify(playerService).updateSkills(anyList());
         verify(playerService).saveAll(anyList());
     }
+
+    @Test
+    void testNext_SimulatesRoundOfAllLeaguesInOneBatch() {
+        List<League> leagues = new ArrayList<>();
+        List<Match> matches = new ArrayList<>();
+        for (long i = 1; i <= 2; i++) {
+            League league = new League();
+            league.setId(i);
+            Season season = new Season();
+            season.setId(i);
+            league.setCurrentSeason(season);
+            leagues.add(league);
+
+            Round round = new Round();
+            round.setSeason(season);
+            round.setNumber(1);
+            Match match = new Match();
+            match.setRound(round);
+            match.setDate(LocalDateTime.now().minusMinutes(i));
+            matches.add(match);
+        }
+
+        when(leagueRepository.findAllWithCurrentSeason()).thenReturn(leagues);
+        when(matchRepository.findByRoundSeasonInAndDateBeforeAndFinish(anyList(), any(LocalDateTime.class), eq(Boolean.FALSE)))
+            .thenReturn(matches);
+
+        serverService.next();
+
+        verify(simulationMatchService, times(1)).simulate(matches);
+        verify(simulationMatchService, never()).simulate(any(Match.class));
+        verify(clubRepository, never()).findAllByLeagueInWithTeam(anyList());
+    }
 }
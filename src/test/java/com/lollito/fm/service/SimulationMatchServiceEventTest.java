@@ -17,8 +17,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.context.ApplicationEventPublisher;
+
 import com.lollito.fm.model.Club;
 import com.lollito.fm.model.EventHistory;
 import com.lollito.fm.model.Formation;
@@ -31,6 +34,9 @@ import com.lollito.fm.model.Team;
 import com.lollito.fm.repository.rest.MatchRepository;
 import com.lollito.fm.repository.rest.PlayerRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 public class SimulationMatchServiceEventTest {
 
@@ -47,6 +53,8 @@ public class SimulationMatchServiceEventTest {
     @Mock private RankingService rankingService;
     @Mock private AchievementService achievementService;
     @Mock private StaffService staffService;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     private Match match;
     private Player playerWithNullCondition;
@@ -99,10 +107,6 @@ public class SimulationMatchServiceEventTest {
         when(formationService.getMiedfileder(any())).thenAnswer(i -> new ArrayList<>(((Formation)i.getArgument(0)).getPlayers().subList(5, 9)));
         when(formationService.getOffender(any())).thenAnswer(i -> new ArrayList<>(((Formation)i.getArgument(0)).getPlayers().subList(9, 11)));
 
-        // Mock Player averages
-        when(playerService.getOffenceAverage(anyList())).thenReturn(50);
-        when(playerService.getDefenceAverage(anyList())).thenReturn(50);
-
         playerWithNullCondition = new Player("Null", "Condition", LocalDate.now());
         playerWithNullCondition.setCondition(null);
     }
@@ -1,10 +1,11 @@
 package com.lollito.fm.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyDouble;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.when;
 
@@ -16,8 +17,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.context.ApplicationEventPublisher;
+
 import com.lollito.fm.model.Club;
 import com.lollito.fm.model.Formation;
 import com.lollito.fm.model.Match;
@@ -31,6 +35,9 @@ import com.lollito.fm.repository.rest.ModuleRepository;
 import com.lollito.fm.repository.rest.PlayerRepository;
 import com.lollito.fm.utils.RandomUtils;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 public class SimulationMatchServiceHomeAdvantageTest {
 
@@ -48,6 +55,8 @@ public class SimulationMatchServiceHomeAdvantageTest {
     @Mock private InjuryService injuryService;
     @Mock private AchievementService achievementService;
     @Mock private StaffService staffService;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @Test
     public void testHomeAdvantage_FullStadium() {
@@ -83,8 +92,6 @@ public class SimulationMatchServiceHomeAdvantageTest {
         when(formationService.getDefender(any(Formation.class))).thenAnswer(i -> new ArrayList<>(((Formation)i.getArgument(0)).getPlayers().subList(0, 4)));
         when(formationService.getMiedfileder(any(Formation.class))).thenAnswer(i -> new ArrayList<>(((Formation)i.getArgument(0)).getPlayers().subList(4, 8)));
         when(formationService.getOffender(any(Formation.class))).thenAnswer(i -> new ArrayList<>(((Formation)i.getArgument(0)).getPlayers().subList(8, 11)));
-        when(playerService.getOffenceAverage(anyList())).thenReturn(80);
-        when(playerService.getDefenceAverage(anyList())).thenReturn(80);
         when(injuryService.checkForInjury(any(), anyDouble(), anyDouble())).thenReturn(false);
 
         // 3. Control Randomness
@@ -97,33 +104,17 @@ public class SimulationMatchServiceHomeAdvantageTest {
                 if (max == capacity) {
                     return spectators;
                 }
-                // Default fallback for other randomValue(int, int) calls (like luck)
+                // Default fallback for other randomValue(int, int) calls
                 return min; // Return minimum to be safe/deterministic
             });
 
-            // Number of actions
-            mockedRandom.when(() -> RandomUtils.randomValue(eq(15), eq(25))).thenReturn(1); // just 1 action to keep it short
-
-            // Coin toss (0 = Home Ball)
-            mockedRandom.when(() -> RandomUtils.randomValue(eq(0), eq(1))).thenReturn(0);
-
-            // Mock randomPercentage to avoid NPEs or unwanted behavior
-            mockedRandom.when(() -> RandomUtils.randomPercentage(anyDouble())).thenReturn(true);
-
-            // Mock list selection
-             mockedRandom.when(() -> RandomUtils.randomValueFromList(anyList()))
-                .thenAnswer(invocation -> {
-                    List<?> list = invocation.getArgument(0);
-                    if (list == null || list.isEmpty()) return null;
-                    return list.get(0);
-                });
-
             // 4. Execute
             simulationMatchService.simulate(match);
 
             // 5. Verify
-            // We expect RandomUtils.randomValue(0, expectedMaxLuck) to be called inside playMatch
-            mockedRandom.verify(() -> RandomUtils.randomValue(0, expectedMaxLuck));
+            // The engine draws the luck of the home side between 0 and 20 + home advantage
+            assertNotNull(match.getSeed());
+            assertEquals(expectedMaxLuck, 20 + match.getReplay().getHomeAdvantage());
         }
     }
 
@@ -15,14 +15,21 @@ import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.lollito.fm.engine.MatchEngine;
 import com.lollito.fm.model.Club;
 import com.lollito.fm.model.Formation;
 import com.lollito.fm.model.Match;
@@ -38,6 +45,9 @@ import com.lollito.fm.repository.rest.ModuleRepository;
 import com.lollito.fm.repository.rest.PlayerRepository;
 import com.lollito.fm.utils.RandomUtils;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 public class SimulationMatchServiceTest {
 
@@ -55,6 +65,13 @@ public class SimulationMatchServiceTest {
     @Mock private InjuryService injuryService;
     @Mock private AchievementService achievementService;
     @Mock private StaffService staffService;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(simulationMatchService, "simulationPool", ForkJoinPool.commonPool());
+    }
 
     @Test
     public void testSimulateMatchesBatch() {
@@ -112,6 +129,26 @@ public class SimulationMatchServiceTest {
         verify(rankingService).updateAll(matches);
     }
 
+    @Test
+    public void testWavesNeverRepeatAClub() {
+        Club a = createClub("A");
+        Club b = createClub("B");
+        Club c = createClub("C");
+        Club d = createClub("D");
+        Match ab = createMatch(a, b);
+        Match cd = createMatch(c, d);
+        Match ac = createMatch(a, c);
+        Match bd = createMatch(b, d);
+        Match ad = createMatch(a, d);
+
+        List<List<Match>> waves = simulationMatchService.waves(List.of(ab, cd, ac, bd, ad));
+
+        assertEquals(3, waves.size());
+        assertEquals(List.of(ab, cd), waves.get(0));
+        assertEquals(List.of(ac, bd), waves.get(1));
+        assertEquals(List.of(ad), waves.get(2));
+    }
+
     @Test
     public void testSimulateMatch() {
         // 1. Setup Data
@@ -125,6 +162,7 @@ public class SimulationMatchServiceTest {
         match.setAway(awayClub);
         match.setHomeScore(0);
         match.setAwayScore(0);
+        match.setSeed(42L);
 
         // Pre-built formations
         Formation homeFormation = createFormation(homeClub.getTeam().getPlayers());
@@ -154,35 +192,14 @@ public class SimulationMatchServiceTest {
         when(formationService.getMiedfileder(any(Formation.class))).thenAnswer(i -> new ArrayList<>(((Formation)i.getArgument(0)).getPlayers().subList(4, 8)));
         when(formationService.getOffender(any(Formation.class))).thenAnswer(i -> new ArrayList<>(((Formation)i.getArgument(0)).getPlayers().subList(8, 11)));
 
-        // Player Stats
-        when(playerService.getOffenceAverage(anyList())).thenReturn(80);
-        when(playerService.getDefenceAverage(anyList())).thenReturn(80);
-
         // Injury
         when(injuryService.checkForInjury(any(), anyDouble(), anyDouble())).thenReturn(false);
 
         // 3. Control Randomness
         try (MockedStatic<RandomUtils> mockedRandom = mockStatic(RandomUtils.class)) {
-            // Default fallback for integers (e.g. spectators, luck, injury minute)
+            // Spectators; every engine draw comes from the stream of the match seed
             mockedRandom.when(() -> RandomUtils.randomValue(anyInt(), anyInt())).thenReturn(30000);
 
-            // Number of actions
-            mockedRandom.when(() -> RandomUtils.randomValue(eq(15), eq(25))).thenReturn(20);
-
-            // Coin toss (0 = Home Ball)
-            mockedRandom.when(() -> RandomUtils.randomValue(eq(0), eq(1))).thenReturn(0);
-
-            // Percentage checks (Pass completion, Goal chance, etc.) -> Always True for deterministic success
-            mockedRandom.when(() -> RandomUtils.randomPercentage(anyDouble())).thenReturn(true);
-
-            // Pick specific player from list (Always first)
-            mockedRandom.when(() -> RandomUtils.randomValueFromList(anyList()))
-                .thenAnswer(invocation -> {
-                    List<?> list = invocation.getArgument(0);
-                    if (list == null || list.isEmpty()) return null;
-                    return list.get(0);
-                });
-
             // 4. Execute
             MatchResult result = simulationMatchService.simulate(match);
 
@@ -197,14 +214,14 @@ public class SimulationMatchServiceTest {
             verify(rankingService).update(match);
             verify(playerService).saveAll(anyList()); // Condition update saves players
 
-            // Since we mocked randomPercentage to true, goals should happen.
-            // Home starts with ball (Coin=0).
-            // Action 1: Pass (true), Advance (true) -> Position increments (Midfield -> Offence)
-            // Action 2: Pass (true), Goal (true) -> Home Goal. Ball to Away.
-            // ...
-            // With 20 actions and perfect success rate, we expect 10 goals total (5 each).
-            assertEquals(5, match.getHomeScore());
-            assertEquals(5, match.getAwayScore());
+            // The seed of the match is kept and the recorded kick off state replays the same score
+            assertEquals(42L, match.getSeed());
+            MatchEngine replay = MatchEngine.replay(match.getReplay(),
+                    homeFormation.getPlayers().toArray(new Player[0]), awayFormation.getPlayers().toArray(new Player[0]));
+            replay.play();
+            assertEquals(replay.getHomeScore(), match.getHomeScore());
+            assertEquals(replay.getAwayScore(), match.getAwayScore());
+            assertEquals(replay.events(match).size(), match.getEvents().size());
         }
     }
 
@@ -262,4 +279,11 @@ public class SimulationMatchServiceTest {
 
         return f;
     }
+
+    private Match createMatch(Club home, Club away) {
+        Match match = new Match();
+        match.setHome(home);
+        match.setAway(away);
+        return match;
+    }
 }
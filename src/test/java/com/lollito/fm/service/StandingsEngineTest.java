@@ -0,0 +1,111 @@
+package com.lollito.fm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.lollito.fm.mapper.ClubMapper;
+import com.lollito.fm.model.Club;
+import com.lollito.fm.model.Match;
+import com.lollito.fm.model.Ranking;
+import com.lollito.fm.model.Season;
+import com.lollito.fm.model.dto.ClubDTO;
+import com.lollito.fm.model.dto.RankingDTO;
+import com.lollito.fm.repository.rest.RankingRepository;
+
+@ExtendWith(MockitoExtension.class)
+class StandingsEngineTest {
+
+    @Mock
+    private RankingRepository rankingRepository;
+
+    @Mock
+    private ClubMapper clubMapper;
+
+    @InjectMocks
+    private StandingsEngine standingsEngine;
+
+    private Season season;
+    private final List<Club> clubs = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(standingsEngine, "maxAgeSeconds", 300L);
+        season = new Season();
+        season.setId(1L);
+        List<Ranking> rankings = new ArrayList<>();
+        for (long id = 1; id <= 4; id++) {
+            Club club = new Club();
+            club.setId(id);
+            clubs.add(club);
+            rankings.add(Ranking.builder().id(100 + id).club(club).season(season).build());
+        }
+        when(rankingRepository.findBySeason(season)).thenReturn(rankings);
+        when(clubMapper.toDto(any())).thenAnswer(invocation -> ClubDTO.builder().id(invocation.<Club>getArgument(0).getId()).build());
+    }
+
+    @Test
+    void testTableIsReadOnceAndSortedByClubIdBeforeAnyResult() {
+        assertThat(clubIds(standingsEngine.standings(season))).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(standingsEngine.table(season).rankingId(3L)).isEqualTo(103L);
+        assertThat(standingsEngine.table(season).rankingId(9L)).isNull();
+
+        verify(rankingRepository, times(1)).findBySeason(season);
+    }
+
+    @Test
+    void testResultsKeepTheOrderByPointsGoalDifferenceAndGoals() {
+        standingsEngine.table(season);
+
+        standingsEngine.record(season, List.of(match(1, 2, 0, 1), match(3, 4, 2, 2)));
+        // 2: 3 pts, +1; 3 and 4: 1 pt, 0, 2 goals; 1: 0 pts
+        assertThat(clubIds(standingsEngine.standings(season))).containsExactly(2L, 3L, 4L, 1L);
+
+        standingsEngine.record(season, List.of(match(4, 1, 3, 0), match(2, 3, 1, 1)));
+        // 4: 4 pts, +3; 2: 4 pts, +1; 3: 2 pts; 1: 0 pts
+        List<RankingDTO> standings = standingsEngine.standings(season);
+        assertThat(clubIds(standings)).containsExactly(4L, 2L, 3L, 1L);
+        RankingDTO first = standings.get(0);
+        assertThat(first.getId()).isEqualTo(104L);
+        assertThat(first.getPlayed()).isEqualTo(2);
+        assertThat(first.getPoints()).isEqualTo(4);
+        assertThat(first.getWon()).isEqualTo(1);
+        assertThat(first.getDrawn()).isEqualTo(1);
+        assertThat(first.getGoalsFor()).isEqualTo(5);
+        assertThat(first.getGoalAgainst()).isEqualTo(2);
+    }
+
+    @Test
+    void testResultsOfSeasonsNotInMemoryAreLeftToTheNextRead() {
+        standingsEngine.record(season, List.of(match(1, 2, 1, 0)));
+
+        // Read from the rows, which hold the result once committed
+        assertThat(standingsEngine.standings(season)).allMatch(ranking -> ranking.getPlayed() == 0);
+    }
+
+    private Match match(long home, long away, int homeScore, int awayScore) {
+        Match match = new Match();
+        match.setHome(clubs.get((int) home - 1));
+        match.setAway(clubs.get((int) away - 1));
+        match.setHomeScore(homeScore);
+        match.setAwayScore(awayScore);
+        return match;
+    }
+
+    private List<Long> clubIds(List<RankingDTO> standings) {
+        return standings.stream().map(ranking -> ranking.getClub().getId()).toList();
+    }
+}
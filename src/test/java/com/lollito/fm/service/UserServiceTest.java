@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -20,11 +21,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import com.lollito.fm.model.Club;
 import com.lollito.fm.model.Country;
@@ -98,6 +102,7 @@ class UserServiceTest {
     @AfterEach
     void tearDown() {
         SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
     }
 
     private void setupSecurityContext(Object principal) {
@@ -146,6 +151,23 @@ class UserServiceTest {
         verify(userRepository).findByUsername(username);
     }
 
+    @Test
+    void testGetLoggedUser_LoadedOncePerRequest() {
+        String username = "testUser";
+        setupSecurityContext(username);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        User expectedUser = new User();
+        expectedUser.setUsername(username);
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(expectedUser));
+
+        assertEquals(expectedUser, userService.getLoggedUser());
+        assertEquals(expectedUser, userService.getLoggedUser());
+        assertEquals(expectedUser, userService.getLoggedUser());
+
+        verify(userRepository, times(1)).findByUsername(username);
+    }
+
     @Test
     void testGetLoggedUser_UserNotFound() {
         // Arrange
@@ -3,22 +3,30 @@ package com.lollito.fm.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import com.lollito.fm.dto.AddToWatchlistRequest;
+import com.lollito.fm.event.PlayerChangedEvent.Change;
 import com.lollito.fm.model.Club;
 import com.lollito.fm.model.Player;
 import com.lollito.fm.model.Watchlist;
@@ -56,6 +64,12 @@ class WatchlistServiceTest {
     @Mock
     private MatchPlayerStatsRepository matchPlayerStatsRepository;
 
+    @Mock
+    private BatchJobRunner batchJobRunner;
+
+    @Spy
+    private WatchlistChangeFeed watchlistChangeFeed = new WatchlistChangeFeed();
+
     @InjectMocks
     private WatchlistService watchlistService;
 
@@ -132,6 +146,68 @@ class WatchlistServiceTest {
             .hasMessage("Watchlist is full");
     }
 
+    @Test
+    void testFirstUpdateScansEveryActiveEntry() {
+        watchlistChangeFeed.record(List.of(1L), Change.SKILLS);
+        catchUp(List.of(createTestWatchlistEntry()));
+
+        watchlistService.processDailyWatchlistUpdates();
+
+        verify(batchJobRunner).run(any());
+        verify(watchlistEntryRepository, never()).findAllActiveByPlayerIdIn(anyList());
+        verify(matchPlayerStatsRepository).findRecentStats(eq(1L), any());
+        assertThat(watchlistChangeFeed.size()).isZero();
+    }
+
+    @Test
+    void testLaterUpdatesOnlyTouchChangedPlayers() {
+        ReflectionTestUtils.setField(watchlistService, "updateBatchSize", 1000);
+        catchUp(List.of());
+        watchlistService.processDailyWatchlistUpdates();
+
+        // Nothing changed: no entry is loaded
+        watchlistService.processDailyWatchlistUpdates();
+        verify(watchlistEntryRepository, never()).findAllActiveByPlayerIdIn(anyList());
+
+        // Two clubs watch a player who played a match and trained
+        WatchlistEntry first = createTestWatchlistEntry();
+        WatchlistEntry second = createTestWatchlistEntry();
+        second.setId(2L);
+        watchlistChangeFeed.record(List.of(1L), Change.MATCH);
+        watchlistChangeFeed.record(List.of(1L), Change.SKILLS);
+        when(watchlistEntryRepository.findAllActiveByPlayerIdIn(List.of(1L))).thenReturn(List.of(first, second));
+
+        watchlistService.processDailyWatchlistUpdates();
+
+        verify(batchJobRunner, times(1)).run(any());
+        verify(matchPlayerStatsRepository, times(1)).findRecentStats(eq(1L), any());
+    }
+
+    @Test
+    void testSkillChangesDoNotQueryPerformances() {
+        ReflectionTestUtils.setField(watchlistService, "updateBatchSize", 1000);
+        catchUp(List.of());
+        watchlistService.processDailyWatchlistUpdates();
+
+        watchlistChangeFeed.record(List.of(1L), Change.SKILLS);
+        when(watchlistEntryRepository.findAllActiveByPlayerIdIn(List.of(1L))).thenReturn(List.of(createTestWatchlistEntry()));
+
+        watchlistService.processDailyWatchlistUpdates();
+
+        verifyNoInteractions(matchPlayerStatsRepository);
+    }
+
+    /** The catch-up batch job processes the given entries in one chunk. */
+    @SuppressWarnings("unchecked")
+    private void catchUp(List<WatchlistEntry> entries) {
+        when(batchJobRunner.run(any())).thenAnswer(invocation -> {
+            BatchJob<WatchlistEntry> job = invocation.getArgument(0);
+            assertThat(job.getName()).isEqualTo("watchlist-catch-up");
+            job.getProcessor().accept(entries);
+            return (long) entries.size();
+        });
+    }
+
     private Club createTestClub() {
         Club club = new Club();
         club.setId(1L);